@@ -0,0 +1,26 @@
+package com.squares.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Один запрос к сервису со всеми его попытками.
+ */
+final class Call {
+
+    /** Байты запроса (одинаковые для всех попыток) */
+    final byte[] request;
+
+    /** Результат: ответ сервиса или ошибка последней попытки */
+    final CompletableFuture<HttpReply> result = new CompletableFuture<>();
+
+    /** Номер текущей попытки, начиная с 0 */
+    int attempt;
+
+    /** Таймаут текущей попытки */
+    volatile ScheduledFuture<?> timeout;
+
+    Call(byte[] request) {
+        this.request = request;
+    }
+}
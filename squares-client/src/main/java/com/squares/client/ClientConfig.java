@@ -0,0 +1,107 @@
+package com.squares.client;
+
+/**
+ * Настройки клиента {@link SquaresClient}. Сеттеры возвращают this, поэтому настройки
+ * удобно задавать цепочкой: new ClientConfig().setMaxConnections(2).setPipelineDepth(16).
+ */
+public class ClientConfig {
+
+    /** Базовый URL API */
+    private String baseUrl = "http://localhost:8080/api";
+
+    /** Наибольшее количество keep-alive соединений */
+    private int maxConnections = 4;
+
+    /** Наибольшее количество запросов, отправленных в одно соединение без ожидания ответа */
+    private int pipelineDepth = 8;
+
+    /** Таймаут установки соединения, мс */
+    private int connectTimeoutMillis = 2000;
+
+    /** Таймаут одной попытки запроса, мс */
+    private int requestTimeoutMillis = 10000;
+
+    /** Наибольшее количество повторов одного запроса */
+    private int maxRetries = 2;
+
+    /** Доля повторов от количества запросов, которую разрешает бюджет повторов */
+    private double retryBudgetRatio = 0.1;
+
+    /** Количество повторов в секунду, разрешённых сверх бюджета (для редких запросов) */
+    private int minRetriesPerSecond = 10;
+
+    /** Пауза перед повтором, умножается на номер повтора, мс */
+    private int retryBackoffMillis = 50;
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+    public ClientConfig setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+        return this;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+    public ClientConfig setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+    public ClientConfig setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+        return this;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+    public ClientConfig setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    public int getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+    public ClientConfig setRequestTimeoutMillis(int requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        return this;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+    public ClientConfig setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+    public ClientConfig setRetryBudgetRatio(double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+        return this;
+    }
+
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+    public ClientConfig setMinRetriesPerSecond(int minRetriesPerSecond) {
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        return this;
+    }
+
+    public int getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+    public ClientConfig setRetryBackoffMillis(int retryBackoffMillis) {
+        this.retryBackoffMillis = retryBackoffMillis;
+        return this;
+    }
+}
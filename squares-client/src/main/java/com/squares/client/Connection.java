@@ -0,0 +1,168 @@
+package com.squares.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keep-alive соединение HTTP/1.1 с конвейером запросов (pipelining): запросы пишутся в сокет
+ * не дожидаясь ответов на предыдущие, ответы приходят в том же порядке и разбираются
+ * отдельным потоком чтения. Очередь pending хранит отправленные запросы без ответа.
+ * При любой ошибке соединение закрывается, а все ожидающие запросы возвращаются пулу.
+ */
+final class Connection {
+
+    /** Пул, которому принадлежит соединение */
+    private final ConnectionPool pool;
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final InputStream in;
+
+    /** Отправленные запросы, ожидающие ответа, в порядке отправки */
+    private final ArrayDeque<Call> pending = new ArrayDeque<>();
+
+    /** Соединение закрыто; новые запросы не принимаются */
+    private boolean closed;
+
+    /** Сокет закрыт, ожидающие запросы возвращены пулу */
+    private boolean aborted;
+
+    /**
+     * Устанавливает соединение и запускает поток чтения ответов.
+     *
+     * @param pool пул соединений
+     * @param host хост сервиса
+     * @param port порт сервиса
+     * @param connectTimeoutMillis таймаут установки соединения, мс
+     * @throws IOException если соединение не установлено
+     */
+    Connection(ConnectionPool pool, String host, int port, int connectTimeoutMillis) throws IOException {
+        this.pool = pool;
+        this.socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+            this.in = new BufferedInputStream(socket.getInputStream(), 8192);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        Thread reader = new Thread(this::readLoop, "squares-client-" + socket.getLocalPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Отправляет запрос в конвейер.
+     *
+     * @param call запрос
+     * @return false, если соединение уже закрыто и запрос не принят;
+     *         при ошибке записи запрос принят и будет возвращён пулу вместе с остальными
+     */
+    boolean send(Call call) {
+        IOException failure = null;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            pending.addLast(call);
+            try {
+                out.write(call.request);
+                out.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            abort(failure);
+        }
+        return true;
+    }
+
+    /**
+     * @return количество отправленных запросов без ответа
+     */
+    synchronized int inFlight() {
+        return pending.size();
+    }
+
+    /**
+     * @return true, если соединение открыто
+     */
+    synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * @return true, если запрос отправлен в это соединение и ещё ждёт ответа
+     */
+    synchronized boolean isPending(Call call) {
+        return pending.contains(call);
+    }
+
+    /**
+     * Закрывает соединение и возвращает пулу все ожидающие запросы.
+     *
+     * @param cause причина
+     */
+    void abort(IOException cause) {
+        List<Call> failed;
+        synchronized (this) {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            closed = true;
+            failed = new ArrayList<>(pending);
+            pending.clear();
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // соединение уже закрыто
+        }
+        pool.failed(this, failed, cause);
+    }
+
+    /**
+     * Поток чтения: разбирает ответы и сопоставляет их с запросами по порядку.
+     */
+    private void readLoop() {
+        try {
+            while (true) {
+                HttpReply reply = HttpReply.read(in);
+                if (reply == null) {
+                    throw new EOFException("Connection closed by server");
+                }
+                Call call;
+                synchronized (this) {
+                    call = pending.pollFirst();
+                    if (reply.close) {
+                        closed = true;
+                    }
+                }
+                if (call == null) {
+                    throw new IOException("Unexpected response without a request");
+                }
+                pool.completed(this, call, reply);
+                if (reply.close) {
+                    abort(new EOFException("Connection closed by server"));
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            abort(e);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.squares.client;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный пул keep-alive соединений.
+ * Запрос отправляется в наименее загруженное соединение, если в его конвейере есть место;
+ * новое соединение открывается, только если все открытые заняты и предел не достигнут;
+ * иначе запрос ждёт в очереди и отправляется, когда освободится место.
+ * Соединение устанавливается в потоке ввода-вывода клиента, а не в потоке, отправившем запрос:
+ * запрос отправляется в новое соединение, как только оно установлено.
+ * Здесь же решается, повторять ли неудавшуюся попытку: сетевые ошибки, таймауты и ответ 503
+ * повторяются с паузой, пока не исчерпаны maxRetries и бюджет повторов.
+ */
+final class ConnectionPool {
+
+    private final String host;
+    private final int port;
+    private final ClientConfig config;
+
+    /** Планировщик таймаутов и отложенных повторов */
+    private final ScheduledExecutorService timer;
+
+    /** Потоки установки соединений */
+    private final ExecutorService io;
+
+    /** Бюджет повторов */
+    private final RetryBudget budget;
+
+    /** Открытые соединения */
+    private final List<Connection> connections = new ArrayList<>();
+
+    /** Запросы, ожидающие места в конвейере */
+    private final ArrayDeque<Call> waiting = new ArrayDeque<>();
+
+    /** Количество устанавливаемых соединений */
+    private int connecting;
+
+    /** Пул закрыт */
+    private boolean closed;
+
+    /** Счётчики открытых соединений и повторов за всё время */
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    ConnectionPool(String host, int port, ClientConfig config, ScheduledExecutorService timer, ExecutorService io) {
+        this.host = host;
+        this.port = port;
+        this.config = config;
+        this.timer = timer;
+        this.io = io;
+        this.budget = new RetryBudget(config.getRetryBudgetRatio(), config.getMinRetriesPerSecond());
+    }
+
+    /**
+     * Отправляет новый запрос.
+     */
+    void submit(Call call) {
+        budget.deposit();
+        dispatch(call);
+    }
+
+    /**
+     * Отправляет попытку запроса в соединение, начинает установку нового соединения для неё
+     * или ставит её в очередь.
+     */
+    private void dispatch(Call call) {
+        Connection target;
+        boolean open = false;
+        synchronized (this) {
+            if (closed) {
+                call.result.completeExceptionally(new IOException("Client is closed"));
+                return;
+            }
+            target = leastLoaded();
+            if ((target == null || target.inFlight() > 0) && connections.size() + connecting < config.getMaxConnections()) {
+                open = true;
+                connecting++;
+            } else if (target == null) {
+                waiting.addLast(call);
+                return;
+            }
+        }
+
+        if (open) {
+            try {
+                io.execute(() -> connect(call));
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    connecting--;
+                }
+                call.result.completeExceptionally(new IOException("Client is closed"));
+            }
+            return;
+        }
+        send(call, target);
+    }
+
+    /**
+     * Устанавливает новое соединение и отправляет в него попытку запроса.
+     * Выполняется в потоке ввода-вывода; запросы, ждавшие в очереди, тоже получают соединение.
+     */
+    private void connect(Call call) {
+        Connection connection;
+        try {
+            connection = new Connection(this, host, port, config.getConnectTimeoutMillis());
+        } catch (IOException e) {
+            synchronized (this) {
+                connecting--;
+            }
+            finish(call, null, e);
+            pump();
+            return;
+        }
+        opened.incrementAndGet();
+        boolean open;
+        synchronized (this) {
+            connecting--;
+            open = !closed;
+            if (open) {
+                connections.add(connection);
+            }
+        }
+        if (!open) {
+            IOException cause = new IOException("Client is closed");
+            connection.abort(cause);
+            call.result.completeExceptionally(cause);
+            return;
+        }
+        send(call, connection);
+        pump();
+    }
+
+    /**
+     * Отправляет попытку запроса в открытое соединение; если оно уже закрыто, выбирает другое.
+     */
+    private void send(Call call, Connection connection) {
+        if (!scheduleTimeout(call, connection)) {
+            return;
+        }
+        if (!connection.send(call)) {
+            call.timeout.cancel(false);
+            dispatch(call);
+        }
+    }
+
+    /**
+     * Планирует таймаут попытки, отправленной в соединение.
+     *
+     * @return false, если клиент уже закрыт (запрос завершён ошибкой)
+     */
+    private boolean scheduleTimeout(Call call, Connection connection) {
+        int attempt = call.attempt;
+        Runnable expire = () -> {
+            if (call.attempt == attempt && !call.result.isDone() && connection.isPending(call)) {
+                // Ответы в конвейере идут по порядку, поэтому зависший ответ задерживает все запросы
+                // соединения: закрываем его, остальные запросы будут повторены
+                connection.abort(new SocketTimeoutException("Request timed out after "
+                        + config.getRequestTimeoutMillis() + " ms"));
+            }
+        };
+        try {
+            call.timeout = timer.schedule(expire, config.getRequestTimeoutMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            call.result.completeExceptionally(new IOException("Client is closed"));
+            return false;
+        }
+    }
+
+    /**
+     * @return открытое соединение с наименьшей загрузкой и свободным местом в конвейере или null
+     */
+    private Connection leastLoaded() {
+        Connection best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (Connection connection : connections) {
+            int load = connection.inFlight();
+            if (connection.isOpen() && load < config.getPipelineDepth() && load < bestLoad) {
+                best = connection;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Отправляет ожидающие запросы, пока для них есть место.
+     */
+    private void pump() {
+        while (true) {
+            Call next;
+            synchronized (this) {
+                if (waiting.isEmpty() || closed
+                        || (leastLoaded() == null && connections.size() + connecting >= config.getMaxConnections())) {
+                    return;
+                }
+                next = waiting.pollFirst();
+            }
+            dispatch(next);
+        }
+    }
+
+    /**
+     * Вызывается потоком чтения соединения при получении ответа.
+     */
+    void completed(Connection connection, Call call, HttpReply reply) {
+        finish(call, reply, null);
+        pump();
+    }
+
+    /**
+     * Вызывается при закрытии соединения с ошибкой.
+     *
+     * @param connection закрытое соединение
+     * @param calls запросы, оставшиеся без ответа
+     * @param cause причина
+     */
+    void failed(Connection connection, List<Call> calls, IOException cause) {
+        synchronized (this) {
+            connections.remove(connection);
+        }
+        for (Call call : calls) {
+            finish(call, null, cause);
+        }
+        pump();
+    }
+
+    /**
+     * Завершает попытку: запрос либо повторяется, либо завершается ответом или ошибкой.
+     */
+    private void finish(Call call, HttpReply reply, IOException error) {
+        if (call.timeout != null) {
+            call.timeout.cancel(false);
+        }
+        if (call.result.isDone()) {
+            return;
+        }
+        boolean retriable = (error != null) || reply.status == 503;
+        boolean retry;
+        synchronized (this) {
+            retry = retriable && !closed && call.attempt < config.getMaxRetries() && budget.tryWithdraw();
+        }
+        if (retry) {
+            call.attempt++;
+            retries.incrementAndGet();
+            try {
+                timer.schedule(() -> dispatch(call), (long) config.getRetryBackoffMillis() * call.attempt,
+                        TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                call.result.completeExceptionally(new IOException("Client is closed"));
+            }
+        } else if (error != null) {
+            call.result.completeExceptionally(error);
+        } else {
+            call.result.complete(reply);
+        }
+    }
+
+    /**
+     * Закрывает все соединения и завершает ожидающие запросы ошибкой.
+     */
+    void close() {
+        List<Connection> open;
+        List<Call> dropped;
+        synchronized (this) {
+            closed = true;
+            open = new ArrayList<>(connections);
+            dropped = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        IOException cause = new IOException("Client is closed");
+        for (Connection connection : open) {
+            connection.abort(cause);
+        }
+        for (Call call : dropped) {
+            call.result.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * @return количество открытых соединений
+     */
+    synchronized int openConnections() {
+        return connections.size();
+    }
+
+    /**
+     * @return количество соединений, открытых за всё время
+     */
+    long connectionsOpened() {
+        return opened.get();
+    }
+
+    /**
+     * @return количество повторов за всё время
+     */
+    long retries() {
+        return retries.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.squares.client;
+
+/**
+ * Статус игры из ответа status.
+ */
+public final class GameStatus {
+
+    /** "ongoing" или "finished" */
+    private final String status;
+
+    /** "W wins", "B wins", "Draw" или null, если игра не закончена */
+    private final String result;
+
+    /**
+     * @param status "ongoing" или "finished"
+     * @param result результат или null
+     */
+    public GameStatus(String status, String result) {
+        this.status = status;
+        this.result = result;
+    }
+
+    /**
+     * Разбирает тело ответа status.
+     *
+     * @param body JSON ответа
+     * @return статус игры
+     */
+    static GameStatus parse(String body) {
+        return new GameStatus(Json.stringField(body, "status"), Json.stringField(body, "result"));
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return true, если игра закончена
+     */
+    public boolean isFinished() {
+        return "finished".equals(status);
+    }
+
+    @Override
+    public String toString() {
+        return "GameStatus{status=" + status + ", result=" + result + '}';
+    }
+}
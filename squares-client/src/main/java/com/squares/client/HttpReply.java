@@ -0,0 +1,155 @@
+package com.squares.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ответ HTTP/1.1 и его чтение из потока соединения
+ * (тело с Content-Length или Transfer-Encoding: chunked).
+ */
+final class HttpReply {
+
+    /** Код ответа */
+    final int status;
+
+    /** Тело ответа */
+    final String body;
+
+    /** Сервер закроет соединение после этого ответа (Connection: close) */
+    final boolean close;
+
+    HttpReply(int status, String body, boolean close) {
+        this.status = status;
+        this.body = body;
+        this.close = close;
+    }
+
+    /**
+     * @return true, если получен ответ 2xx
+     */
+    boolean isOk() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * Читает один ответ.
+     *
+     * @param in поток соединения
+     * @return ответ или null, если сервер закрыл соединение до начала ответа
+     * @throws IOException при ошибке чтения или некорректном ответе
+     */
+    static HttpReply read(InputStream in) throws IOException {
+        String statusLine = readLine(in, true);
+        if (statusLine == null) {
+            return null;
+        }
+        int first = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/1.") || first < 0 || statusLine.length() < first + 4) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        int status;
+        try {
+            status = Integer.parseInt(statusLine.substring(first + 1, first + 4));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean close = statusLine.startsWith("HTTP/1.0");
+        String header;
+        while (!(header = readLine(in, false)).isEmpty()) {
+            int colon = header.indexOf(':');
+            if (colon <= 0) continue;
+            String name = header.substring(0, colon).trim();
+            String value = header.substring(colon + 1).trim();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                contentLength = Long.parseLong(value);
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.toLowerCase().contains("chunked");
+            } else if (name.equalsIgnoreCase("Connection")) {
+                close = value.equalsIgnoreCase("close");
+            }
+        }
+
+        byte[] body;
+        if (chunked) {
+            body = readChunked(in);
+        } else if (contentLength >= 0) {
+            body = readFixed(in, (int) contentLength);
+        } else if (status == 204 || status == 304 || status < 200) {
+            body = new byte[0];
+        } else {
+            // Тело до закрытия соединения
+            body = readToEnd(in);
+            close = true;
+        }
+        return new HttpReply(status, new String(body, StandardCharsets.UTF_8), close);
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        while (true) {
+            String line = readLine(in, false);
+            int semicolon = line.indexOf(';');
+            int length;
+            try {
+                length = Integer.parseInt((semicolon < 0 ? line : line.substring(0, semicolon)).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed chunk size: " + line);
+            }
+            if (length == 0) {
+                // Завершающие заголовки до пустой строки
+                while (!readLine(in, false).isEmpty()) {
+                    // пропускаем
+                }
+                return out.toByteArray();
+            }
+            out.write(readFixed(in, length));
+            readLine(in, false);
+        }
+    }
+
+    private static byte[] readFixed(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(bytes, read, length - read);
+            if (n < 0) throw new EOFException("Connection closed in the middle of a response");
+            read += n;
+        }
+        return bytes;
+    }
+
+    private static byte[] readToEnd(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        byte[] chunk = new byte[1024];
+        int n;
+        while ((n = in.read(chunk)) != -1) {
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Читает строку до CRLF (или LF) в ASCII.
+     *
+     * @param eofAllowed допустим ли конец потока до первого байта
+     * @return строка без перевода строки или null при конце потока, если он допустим
+     */
+    private static String readLine(InputStream in, boolean eofAllowed) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                if (eofAllowed && line.length() == 0) return null;
+                throw new EOFException("Connection closed in the middle of a response");
+            }
+            if (b != '\r') line.append((char) b);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.squares.client;
+
+/**
+ * Чтение отдельных полей из плоских JSON-ответов сервиса без полноценного парсера:
+ * ответы nextMove и status - объекты из нескольких полей без вложенности.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * @param body JSON
+     * @param name имя поля
+     * @return позиция первого символа значения поля или -1, если поля нет
+     */
+    static int find(String body, String name) {
+        String key = '"' + name + '"';
+        int at = body.indexOf(key);
+        while (at >= 0) {
+            int pos = skipSpaces(body, at + key.length());
+            if (pos < body.length() && body.charAt(pos) == ':') {
+                return skipSpaces(body, pos + 1);
+            }
+            at = body.indexOf(key, at + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * @return строковое значение поля или null, если поля нет или оно null
+     */
+    static String stringField(String body, String name) {
+        int pos = find(body, name);
+        if (pos < 0 || pos >= body.length() || body.charAt(pos) != '"') {
+            return null;
+        }
+        int end = body.indexOf('"', pos + 1);
+        return (end < 0) ? null : body.substring(pos + 1, end);
+    }
+
+    /**
+     * @return целое значение поля
+     * @throws IllegalArgumentException если поля нет или оно не число
+     */
+    static int intField(String body, String name) {
+        int pos = find(body, name);
+        if (pos < 0) {
+            throw new IllegalArgumentException("No field " + name + " in " + body);
+        }
+        int end = pos;
+        if (end < body.length() && body.charAt(end) == '-') end++;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) end++;
+        return Integer.parseInt(body.substring(pos, end));
+    }
+
+    private static int skipSpaces(String body, int pos) {
+        while (pos < body.length() && Character.isWhitespace(body.charAt(pos))) pos++;
+        return pos;
+    }
+}
@@ -0,0 +1,32 @@
+package com.squares.client;
+
+import com.task1.console.Board;
+
+/**
+ * Позиция для пакетных запросов: доска и цвет игрока, который ходит следующим.
+ */
+public final class Position {
+
+    /** Доска */
+    private final Board board;
+
+    /** Цвет следующего игрока ('W' или 'B') */
+    private final char color;
+
+    /**
+     * @param board доска
+     * @param color цвет следующего игрока ('W' или 'B')
+     */
+    public Position(Board board, char color) {
+        this.board = board;
+        this.color = color;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public char getColor() {
+        return color;
+    }
+}
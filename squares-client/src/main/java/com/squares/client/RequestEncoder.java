@@ -0,0 +1,106 @@
+package com.squares.client;
+
+import com.task1.console.Board;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Кодирует запрос POST с доской сразу в байты HTTP/1.1, без промежуточных строк и BoardDto:
+ * заголовок запроса до значения Content-Length готовится один раз на путь,
+ * длина тела вычисляется заранее, клетки доски пишутся в массив напрямую из Board.grid.
+ * Тело совпадает с JSON BoardDto: {"size":N,"data":"...","nextPlayerColor":"w"}.
+ */
+final class RequestEncoder {
+
+    private static final byte[] SIZE = ascii("{\"size\":");
+    private static final byte[] DATA = ascii(",\"data\":\"");
+    private static final byte[] COLOR = ascii("\",\"nextPlayerColor\":\"");
+    private static final byte[] END = ascii("\"}");
+    private static final byte[] HEADERS_END = ascii("\r\n\r\n");
+
+    /** Длина тела без числа size, клеток и цвета */
+    private static final int FIXED_BODY_LENGTH = SIZE.length + DATA.length + COLOR.length + END.length;
+
+    private RequestEncoder() {
+    }
+
+    /**
+     * Готовит начало запроса: строку запроса и заголовки до значения Content-Length.
+     *
+     * @param path путь с параметрами, например /api/standard/nextMove
+     * @param host значение заголовка Host
+     * @return байты начала запроса
+     */
+    static byte[] head(String path, String host) {
+        return ascii("POST " + path + " HTTP/1.1\r\n"
+                + "Host: " + host + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Accept: application/json\r\n"
+                + "Content-Length: ");
+    }
+
+    /**
+     * Кодирует запрос.
+     *
+     * @param head начало запроса из {@link #head(String, String)}
+     * @param board доска
+     * @param color цвет следующего игрока ('W' или 'B')
+     * @return байты запроса
+     */
+    static byte[] encode(byte[] head, Board board, char color) {
+        int size = board.size;
+        int bodyLength = FIXED_BODY_LENGTH + digits(size) + size * size + 1;
+        byte[] request = new byte[head.length + digits(bodyLength) + HEADERS_END.length + bodyLength];
+
+        int pos = put(request, 0, head);
+        pos = putInt(request, pos, bodyLength);
+        pos = put(request, pos, HEADERS_END);
+        pos = put(request, pos, SIZE);
+        pos = putInt(request, pos, size);
+        pos = put(request, pos, DATA);
+        for (int y = 0; y < size; y++) {
+            char[] row = board.grid[y];
+            for (int x = 0; x < size; x++) {
+                char cell = row[x];
+                request[pos++] = (byte) (cell == 'W' ? 'w' : cell == 'B' ? 'b' : '.');
+            }
+        }
+        pos = put(request, pos, COLOR);
+        request[pos++] = (byte) Character.toLowerCase(color);
+        put(request, pos, END);
+        return request;
+    }
+
+    private static int put(byte[] target, int pos, byte[] bytes) {
+        System.arraycopy(bytes, 0, target, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    /**
+     * Пишет неотрицательное число десятичными цифрами.
+     */
+    private static int putInt(byte[] target, int pos, int value) {
+        int end = pos + digits(value);
+        for (int i = end - 1; i >= pos; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * @return количество десятичных цифр неотрицательного числа
+     */
+    private static int digits(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,59 @@
+package com.squares.client;
+
+/**
+ * Бюджет повторов: каждый новый запрос добавляет в бюджет долю повтора (ratio), каждый повтор
+ * тратит единицу. Кроме того, в секунду разрешается minPerSecond повторов сверх бюджета.
+ * Так при массовых ошибках сервиса повторы не умножают нагрузку больше чем в (1 + ratio) раз.
+ */
+final class RetryBudget {
+
+    /** Наибольший накопленный бюджет */
+    private static final double MAX_BALANCE = 1000;
+
+    /** Доля повтора на один запрос */
+    private final double ratio;
+
+    /** Повторов в секунду сверх бюджета */
+    private final int minPerSecond;
+
+    /** Накопленный бюджет */
+    private double balance;
+
+    /** Начало текущей секунды и количество повторов сверх бюджета в ней */
+    private long secondStart;
+    private int usedThisSecond;
+
+    RetryBudget(double ratio, int minPerSecond) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+    }
+
+    /**
+     * Учитывает новый запрос.
+     */
+    synchronized void deposit() {
+        balance = Math.min(MAX_BALANCE, balance + ratio);
+    }
+
+    /**
+     * Пытается потратить бюджет на повтор.
+     *
+     * @return true, если повтор разрешён
+     */
+    synchronized boolean tryWithdraw() {
+        long now = System.nanoTime();
+        if (now - secondStart >= 1_000_000_000L) {
+            secondStart = now;
+            usedThisSecond = 0;
+        }
+        if (usedThisSecond < minPerSecond) {
+            usedThisSecond++;
+            return true;
+        }
+        if (balance >= 1) {
+            balance -= 1;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package com.squares.client;
+
+/**
+ * Ход компьютера из ответа nextMove (клиентская копия SimpleMoveDto сервиса).
+ */
+public final class SimpleMove {
+
+    /** Координата X хода (столбец) */
+    private final int x;
+
+    /** Координата Y хода (строка) */
+    private final int y;
+
+    /** Цвет сделавшего ход ('W' или 'B') */
+    private final char color;
+
+    /**
+     * @param x координата X (столбец)
+     * @param y координата Y (строка)
+     * @param color цвет ('W' или 'B')
+     */
+    public SimpleMove(int x, int y, char color) {
+        this.x = x;
+        this.y = y;
+        this.color = color;
+    }
+
+    /**
+     * Разбирает тело ответа nextMove.
+     *
+     * @param body JSON ответа
+     * @return ход или null, если сервис ответил, что ходов нет
+     */
+    static SimpleMove parse(String body) {
+        if (Json.find(body, "x") < 0) {
+            return null;
+        }
+        String color = Json.stringField(body, "color");
+        return new SimpleMove(Json.intField(body, "x"), Json.intField(body, "y"),
+                (color == null || color.isEmpty()) ? '?' : Character.toUpperCase(color.charAt(0)));
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public char getColor() {
+        return color;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleMove{x=" + x + ", y=" + y + ", color=" + color + '}';
+    }
+}
@@ -0,0 +1,204 @@
+package com.squares.client;
+
+import com.task1.console.Board;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Асинхронный клиент REST API сервиса игры.
+ * Запросы кодируются из {@link Board} сразу в байты, отправляются через ограниченный пул
+ * keep-alive соединений с конвейером запросов и возвращают {@link CompletableFuture}.
+ * Пакетные методы отправляют все позиции сразу, не дожидаясь ответов по одной.
+ * <p>
+ * Ответ сервиса с кодом не 2xx завершает future ошибкой {@link SquaresClientException};
+ * сетевые ошибки, таймауты и ответ 503 повторяются согласно {@link ClientConfig}.
+ * Клиент потокобезопасен; после использования его нужно закрыть.
+ */
+public class SquaresClient implements AutoCloseable {
+
+    /** Настройки */
+    private final ClientConfig config;
+
+    /** Путь API, например /api */
+    private final String basePath;
+
+    /** Значение заголовка Host */
+    private final String hostHeader;
+
+    /** Поток таймаутов и отложенных повторов */
+    private final ScheduledThreadPoolExecutor timer;
+
+    /** Потоки установки соединений, не больше maxConnections; простаивающие завершаются */
+    private final ThreadPoolExecutor io;
+
+    /** Пул соединений */
+    private final ConnectionPool pool;
+
+    /** Готовые начала запросов по путям */
+    private final ConcurrentMap<String, byte[]> heads = new ConcurrentHashMap<>();
+
+    /**
+     * Клиент с настройками по умолчанию (http://localhost:8080/api).
+     */
+    public SquaresClient() {
+        this(new ClientConfig());
+    }
+
+    /**
+     * @param config настройки клиента
+     * @throws IllegalArgumentException если базовый URL не http или настройки некорректны
+     */
+    public SquaresClient(ClientConfig config) {
+        URI uri = URI.create(config.getBaseUrl());
+        if (!"http".equals(uri.getScheme()) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Base URL must be http://host[:port]/path: " + config.getBaseUrl());
+        }
+        if (config.getMaxConnections() < 1 || config.getPipelineDepth() < 1) {
+            throw new IllegalArgumentException("maxConnections and pipelineDepth must be positive");
+        }
+        String path = (uri.getRawPath() == null) ? "" : uri.getRawPath();
+        this.config = config;
+        this.basePath = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        int port = (uri.getPort() < 0) ? 80 : uri.getPort();
+        this.hostHeader = (uri.getPort() < 0) ? uri.getHost() : uri.getHost() + ':' + port;
+
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "squares-client-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.io = new ThreadPoolExecutor(config.getMaxConnections(), config.getMaxConnections(),
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(runnable, "squares-client-connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.io.allowCoreThreadTimeOut(true);
+        this.pool = new ConnectionPool(uri.getHost(), port, config, timer, io);
+    }
+
+    /**
+     * Запрашивает ход компьютера (POST /{rules}/nextMove).
+     *
+     * @param rules набор правил, например "standard"
+     * @param board доска
+     * @param color цвет компьютера ('W' или 'B')
+     * @return ход или null, если игра закончена или ходов нет
+     */
+    public CompletableFuture<SimpleMove> nextMove(String rules, Board board, char color) {
+        return call("/" + rules + "/nextMove", board, color, SimpleMove::parse);
+    }
+
+    /**
+     * Запрашивает статус игры (POST /status?rules=).
+     *
+     * @param rules набор правил
+     * @param board доска
+     * @param color цвет следующего игрока ('W' или 'B')
+     * @return статус игры
+     */
+    public CompletableFuture<GameStatus> status(String rules, Board board, char color) {
+        return call("/status?rules=" + rules, board, color, GameStatus::parse);
+    }
+
+    /**
+     * Запрашивает ходы для нескольких позиций; запросы отправляются конвейером.
+     *
+     * @param rules набор правил
+     * @param positions позиции
+     * @return ходы в порядке позиций (null для позиций без хода)
+     */
+    public CompletableFuture<List<SimpleMove>> nextMoves(String rules, List<Position> positions) {
+        List<CompletableFuture<SimpleMove>> calls = new ArrayList<>(positions.size());
+        for (Position position : positions) {
+            calls.add(nextMove(rules, position.getBoard(), position.getColor()));
+        }
+        return all(calls);
+    }
+
+    /**
+     * Запрашивает статусы нескольких позиций; запросы отправляются конвейером.
+     *
+     * @param rules набор правил
+     * @param positions позиции
+     * @return статусы в порядке позиций
+     */
+    public CompletableFuture<List<GameStatus>> statuses(String rules, List<Position> positions) {
+        List<CompletableFuture<GameStatus>> calls = new ArrayList<>(positions.size());
+        for (Position position : positions) {
+            calls.add(status(rules, position.getBoard(), position.getColor()));
+        }
+        return all(calls);
+    }
+
+    /**
+     * @return количество открытых соединений
+     */
+    public int getOpenConnections() {
+        return pool.openConnections();
+    }
+
+    /**
+     * @return количество соединений, открытых за время жизни клиента
+     */
+    public long getConnectionsOpened() {
+        return pool.connectionsOpened();
+    }
+
+    /**
+     * @return количество повторов за время жизни клиента
+     */
+    public long getRetries() {
+        return pool.retries();
+    }
+
+    /**
+     * Закрывает соединения; незавершённые запросы завершаются ошибкой.
+     */
+    @Override
+    public void close() {
+        pool.close();
+        timer.shutdownNow();
+        io.shutdownNow();
+    }
+
+    /**
+     * Отправляет запрос с доской и разбирает ответ 2xx.
+     */
+    private <T> CompletableFuture<T> call(String path, Board board, char color, Function<String, T> parser) {
+        byte[] head = heads.computeIfAbsent(path, p -> RequestEncoder.head(basePath + p, hostHeader));
+        Call call = new Call(RequestEncoder.encode(head, board, color));
+        pool.submit(call);
+        return call.result.thenApply(reply -> {
+            if (!reply.isOk()) {
+                throw new CompletionException(new SquaresClientException(reply.status, reply.body));
+            }
+            return parser.apply(reply.body);
+        });
+    }
+
+    /**
+     * Собирает результаты нескольких запросов в список; ошибка любого запроса завершает весь пакет.
+     */
+    private static <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> calls) {
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<T> results = new ArrayList<>(calls.size());
+            for (CompletableFuture<T> call : calls) {
+                results.add(call.join());
+            }
+            return results;
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.squares.client;
+
+import java.io.IOException;
+
+/**
+ * Ошибка запроса: сервис ответил кодом, отличным от 2xx.
+ */
+public class SquaresClientException extends IOException {
+
+    /** Код ответа HTTP */
+    private final int status;
+
+    /** Тело ответа */
+    private final String body;
+
+    /**
+     * @param status код ответа HTTP
+     * @param body тело ответа
+     */
+    public SquaresClientException(int status, String body) {
+        super("Service responded with status " + status + ": " + body);
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * @return код ответа HTTP
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return тело ответа
+     */
+    public String getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,315 @@
+package com.squares.client;
+
+import com.task1.console.Board;
+import com.task2.service.Application;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Тесты клиента против сервиса, запущенного в том же процессе, и против простых
+ * тестовых серверов на сокетах для ошибок, повторов и таймаутов.
+ */
+public class SquaresClientTest {
+
+    /** Порт сервиса для тестов */
+    private static final int PORT = 18190;
+
+    private static HttpServer server;
+
+    @BeforeClass
+    public static void startService() {
+        System.setProperty("base.uri", "http://localhost:" + PORT + "/");
+        server = Application.startServer();
+    }
+
+    @AfterClass
+    public static void stopService() {
+        server.shutdownNow();
+    }
+
+    private static SquaresClient client() {
+        return new SquaresClient(new ClientConfig().setBaseUrl("http://localhost:" + PORT + "/api"));
+    }
+
+    /**
+     * Кодировщик пишет ровно тот запрос, который отправляет веб-приложение.
+     */
+    @Test
+    public void testEncodeWritesBoardDtoJson() {
+        Board board = new Board(3);
+        board.makeMove(0, 0, 'W');
+        board.makeMove(2, 1, 'B');
+        byte[] head = RequestEncoder.head("/api/standard/nextMove", "localhost:8080");
+
+        String request = new String(RequestEncoder.encode(head, board, 'B'), StandardCharsets.US_ASCII);
+
+        String body = "{\"size\":3,\"data\":\"w....b...\",\"nextPlayerColor\":\"b\"}";
+        assertEquals("POST /api/standard/nextMove HTTP/1.1\r\n"
+                + "Host: localhost:8080\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Accept: application/json\r\n"
+                + "Content-Length: " + body.length() + "\r\n\r\n"
+                + body, request);
+    }
+
+    @Test
+    public void testNextMoveOnEmptyBoard() throws Exception {
+        try (SquaresClient client = client()) {
+            Board board = new Board(5);
+            SimpleMove move = client.nextMove("standard", board, 'W').get(10, TimeUnit.SECONDS);
+
+            assertNotNull("На пустой доске ход есть", move);
+            assertTrue("Ход внутри доски", move.getX() >= 0 && move.getX() < 5 && move.getY() >= 0 && move.getY() < 5);
+            assertEquals('W', move.getColor());
+        }
+    }
+
+    @Test
+    public void testStatusOngoingAndFinished() throws Exception {
+        try (SquaresClient client = client()) {
+            Board board = new Board(4);
+            board.makeMove(0, 0, 'W');
+            board.makeMove(1, 0, 'W');
+            board.makeMove(0, 1, 'W');
+            GameStatus ongoing = client.status("standard", board, 'B').get(10, TimeUnit.SECONDS);
+            assertFalse(ongoing.isFinished());
+            assertNull(ongoing.getResult());
+
+            board.makeMove(1, 1, 'W');
+            GameStatus finished = client.status("standard", board, 'B').get(10, TimeUnit.SECONDS);
+            assertTrue(finished.isFinished());
+            assertEquals("W wins", finished.getResult());
+        }
+    }
+
+    @Test
+    public void testNextMoveOnFullBoardIsNull() throws Exception {
+        try (SquaresClient client = client()) {
+            Board board = new Board(3);
+            for (int cell = 0; cell < 9; cell++) {
+                board.makeMove(cell % 3, cell / 3, (cell % 2 == 0) ? 'W' : 'B');
+            }
+            assertNull("Свободных клеток нет - хода нет", client.nextMove("standard", board, 'W').get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Пакет из многих позиций проходит через два соединения конвейером, и ответы
+     * сопоставляются своим запросам: каждый ход ставится на свободную клетку своей доски.
+     */
+    @Test
+    public void testBatchIsPipelinedOverBoundedPool() throws Exception {
+        ClientConfig config = new ClientConfig()
+                .setBaseUrl("http://localhost:" + PORT + "/api")
+                .setMaxConnections(2)
+                .setPipelineDepth(8);
+        Random random = new Random(42);
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            int size = 4 + random.nextInt(4);
+            Board board = new Board(size);
+            // Свободна только одна клетка: ход однозначен
+            int free = random.nextInt(size * size);
+            for (int cell = 0; cell < size * size; cell++) {
+                if (cell != free) board.makeMove(cell % size, cell / size, ((cell / size + cell) % 2 == 0) ? 'W' : 'B');
+            }
+            positions.add(new Position(board, (i % 2 == 0) ? 'W' : 'B'));
+        }
+
+        try (SquaresClient client = new SquaresClient(config)) {
+            List<GameStatus> statuses = client.statuses("standard", positions).get(30, TimeUnit.SECONDS);
+            List<SimpleMove> moves = client.nextMoves("standard", positions).get(30, TimeUnit.SECONDS);
+
+            assertEquals(positions.size(), statuses.size());
+            assertEquals(positions.size(), moves.size());
+            for (int i = 0; i < positions.size(); i++) {
+                Board board = positions.get(i).getBoard();
+                SimpleMove move = moves.get(i);
+                assertNotNull("Статус позиции " + i, statuses.get(i).getStatus());
+                assertNotNull("В позиции " + i + " есть свободная клетка - ход есть", move);
+                assertEquals("Ход " + i + " на единственную свободную клетку своей доски", '.',
+                        board.getCell(move.getX(), move.getY()));
+                assertEquals(positions.get(i).getColor(), move.getColor());
+            }
+            assertTrue("Открыто не больше двух соединений", client.getConnectionsOpened() <= 2);
+            assertEquals("Повторов не было", 0, client.getRetries());
+        }
+    }
+
+    @Test
+    public void testUnknownRulesFailsWithoutRetry() throws Exception {
+        try (SquaresClient client = client()) {
+            try {
+                client.nextMove("nosuchrules", new Board(5), 'W').get(10, TimeUnit.SECONDS);
+                fail("Ожидалась ошибка 404");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SquaresClientException);
+                assertEquals(404, ((SquaresClientException) e.getCause()).getStatus());
+            }
+            assertEquals("Ответ 404 не повторяется", 0, client.getRetries());
+        }
+    }
+
+    /**
+     * Ответ 503 повторяется, и повтор получает ответ в том же keep-alive соединении.
+     */
+    @Test
+    public void testRetriesServiceUnavailable() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (ServerSocket fake = new ServerSocket(0)) {
+            serve(fake, requests, n -> (n == 0)
+                    ? reply(503, "{\"message\":\"Overloaded\"}")
+                    : reply(200, "{\"status\":\"ongoing\",\"result\":null}"));
+            ClientConfig config = new ClientConfig()
+                    .setBaseUrl("http://localhost:" + fake.getLocalPort() + "/api")
+                    .setRetryBackoffMillis(1);
+            try (SquaresClient client = new SquaresClient(config)) {
+                GameStatus status = client.status("standard", new Board(3), 'W').get(10, TimeUnit.SECONDS);
+
+                assertFalse(status.isFinished());
+                assertEquals(2, requests.get());
+                assertEquals(1, client.getRetries());
+                assertEquals("Повтор отправлен в то же соединение", 1, client.getConnectionsOpened());
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionRefusedAfterRetries() throws Exception {
+        int closedPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            closedPort = probe.getLocalPort();
+        }
+        ClientConfig config = new ClientConfig()
+                .setBaseUrl("http://localhost:" + closedPort + "/api")
+                .setMaxRetries(2)
+                .setRetryBackoffMillis(1);
+        try (SquaresClient client = new SquaresClient(config)) {
+            try {
+                client.status("standard", new Board(3), 'W').get(10, TimeUnit.SECONDS);
+                fail("Ожидалась ошибка соединения");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConnectException);
+            }
+            assertEquals(2, client.getRetries());
+        }
+    }
+
+    @Test
+    public void testConnectDoesNotBlockCaller() throws Exception {
+        // Немаршрутизируемый адрес: соединение устанавливается до таймаута или сразу отклоняется
+        ClientConfig config = new ClientConfig()
+                .setBaseUrl("http://10.255.255.1:8080/api")
+                .setConnectTimeoutMillis(3000)
+                .setMaxRetries(0);
+        CompletableFuture<GameStatus> result;
+        try (SquaresClient client = new SquaresClient(config)) {
+            long start = System.nanoTime();
+            result = client.status("standard", new Board(3), 'W');
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue("Вызов ждал установки соединения " + millis + " мс", millis < 1000);
+        }
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail("Ожидалась ошибка соединения");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        try (ServerSocket silent = new ServerSocket(0)) {
+            // Соединение принимается, но ответа нет
+            serve(silent, new AtomicInteger(), n -> null);
+            ClientConfig config = new ClientConfig()
+                    .setBaseUrl("http://localhost:" + silent.getLocalPort() + "/api")
+                    .setRequestTimeoutMillis(200)
+                    .setMaxRetries(0);
+            try (SquaresClient client = new SquaresClient(config)) {
+                CompletableFuture<GameStatus> status = client.status("standard", new Board(3), 'W');
+                try {
+                    status.get(10, TimeUnit.SECONDS);
+                    fail("Ожидался таймаут");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof SocketTimeoutException);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ответ тестового сервера по номеру запроса (null - не отвечать).
+     */
+    private interface Script {
+        byte[] reply(int request);
+    }
+
+    private static byte[] reply(int status, String body) {
+        return ("HTTP/1.1 " + status + " X\r\nContent-Type: application/json\r\nContent-Length: " + body.length()
+                + "\r\n\r\n" + body).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Запускает простой HTTP-сервер: читает запросы с Content-Length и отвечает по сценарию.
+     */
+    private static void serve(ServerSocket socket, AtomicInteger requests, Script script) {
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket connection = socket.accept();
+                    Thread handler = new Thread(() -> handle(connection, requests, script));
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException e) {
+                // сервер закрыт
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private static void handle(Socket connection, AtomicInteger requests, Script script) {
+        try (Socket socket = connection) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            String line;
+            while ((line = in.readLine()) != null) {
+                int length = 0;
+                while (!(line = in.readLine()).isEmpty()) {
+                    if (line.startsWith("Content-Length:")) length = Integer.parseInt(line.substring(15).trim());
+                }
+                in.skip(length);
+                byte[] reply = script.reply(requests.getAndIncrement());
+                if (reply != null) {
+                    out.write(reply);
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // клиент закрыл соединение
+        }
+    }
+}
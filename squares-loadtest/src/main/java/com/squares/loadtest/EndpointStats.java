@@ -0,0 +1,95 @@
+package com.squares.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Статистика запросов к одному эндпоинту.
+ * Задержка считается двумя способами:
+ * <ul>
+ *   <li>с поправкой на coordinated omission - от момента, когда запрос должен был быть
+ *       отправлен по расписанию, до получения ответа (включает ожидание свободного игрока);</li>
+ *   <li>без поправки - от фактической отправки до ответа (время обслуживания).</li>
+ * </ul>
+ */
+public class EndpointStats {
+
+    /** Имя эндпоинта в отчёте */
+    private final String name;
+
+    /** Задержки от запланированного момента отправки */
+    private final LatencyHistogram corrected = new LatencyHistogram();
+
+    /** Задержки от фактической отправки */
+    private final LatencyHistogram uncorrected = new LatencyHistogram();
+
+    /** Количество ошибок (сетевых и ответов не 2xx) */
+    private final AtomicLong errors = new AtomicLong();
+
+    /** Количество ответов по кодам HTTP (0 - сетевая ошибка) */
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    /**
+     * @param name имя эндпоинта
+     */
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Записывает результат запроса.
+     *
+     * @param intendedNanos момент, когда запрос должен был быть отправлен
+     * @param sentNanos момент фактической отправки
+     * @param doneNanos момент получения ответа
+     * @param status код ответа HTTP или 0 при сетевой ошибке
+     */
+    public void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+        corrected.record((doneNanos - intendedNanos) / 1000);
+        uncorrected.record((doneNanos - sentNanos) / 1000);
+        if (status < 200 || status >= 300) {
+            errors.incrementAndGet();
+        }
+        synchronized (statuses) {
+            statuses.merge(status, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * @return имя эндпоинта
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return гистограмма задержек с поправкой на coordinated omission
+     */
+    public LatencyHistogram getCorrected() {
+        return corrected;
+    }
+
+    /**
+     * @return гистограмма времени обслуживания без поправки
+     */
+    public LatencyHistogram getUncorrected() {
+        return uncorrected;
+    }
+
+    /**
+     * @return количество ошибок
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return копия количества ответов по кодам HTTP
+     */
+    public Map<Integer, Long> getStatuses() {
+        synchronized (statuses) {
+            return new TreeMap<>(statuses);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.squares.loadtest;
+
+/**
+ * Гистограмма задержек в микросекундах с логарифмически-линейными корзинами
+ * (та же схема, что у HdrHistogram): значения до 256 мкс хранятся точно, дальше каждая
+ * степень двойки делится на 128 корзин, поэтому относительная погрешность не больше 1%.
+ * Значения больше {@link #MAX_VALUE} записываются как MAX_VALUE.
+ */
+public class LatencyHistogram {
+
+    /** Наибольшее записываемое значение, мкс (около 19 часов) */
+    public static final long MAX_VALUE = 1L << 36;
+
+    /** Количество бит линейной части корзин */
+    private static final int SUB_BITS = 7;
+
+    /** Количество корзин на степень двойки */
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /** Значения меньше этого хранятся точно */
+    private static final int LINEAR_LIMIT = 2 * SUB_COUNT;
+
+    /** Количество записей по корзинам */
+    private final long[] counts = new long[index(MAX_VALUE) + 1];
+
+    /** Общее количество записей */
+    private long total;
+
+    /** Наибольшее записанное значение */
+    private long max;
+
+    /**
+     * Записывает значение.
+     *
+     * @param micros задержка в микросекундах
+     */
+    public synchronized void record(long micros) {
+        long value = Math.min(MAX_VALUE, Math.max(0, micros));
+        counts[index(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return общее количество записей
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return наибольшее записанное значение, мкс
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Возвращает перцентиль: наибольшее значение корзины, в которую попадает
+     * запись с рангом ceil(percentile / 100 * total).
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @return значение перцентиля, мкс (0 для пустой гистограммы)
+     */
+    public synchronized long percentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highestValue(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @param value значение от 0 до MAX_VALUE
+     * @return номер корзины
+     */
+    private static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_COUNT + (int) ((value >>> shift) - SUB_COUNT);
+    }
+
+    /**
+     * @param index номер корзины
+     * @return наибольшее значение, попадающее в корзину
+     */
+    private static long highestValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_COUNT + 1;
+        long sub = (index - LINEAR_LIMIT) % SUB_COUNT + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
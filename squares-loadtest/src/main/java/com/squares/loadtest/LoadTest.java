@@ -0,0 +1,394 @@
+package com.squares.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Нагрузочный тест сервиса игры: виртуальные игроки играют полные партии
+ * тем же циклом запросов, что и веб-приложение (см. {@link VirtualGame}).
+ *
+ * Модель нагрузки открытая: новые партии начинаются по пуассоновскому расписанию с заданной
+ * интенсивностью, независимо от того, успевает ли сервис отвечать. Запросы выполняют N потоков
+ * виртуальных игроков; если все заняты, запрос ждёт, и это ожидание входит в задержку, потому что
+ * задержка считается от момента отправки по расписанию (поправка на coordinated omission).
+ * Время обслуживания без поправки печатается рядом для сравнения.
+ *
+ * Запуск (сервис должен быть уже запущен):
+ * java -jar target/squares-loadtest.jar [параметры]
+ *   --url URL            базовый URL API (по умолчанию http://localhost:8080/api)
+ *   --rules имя          правила игры (по умолчанию standard)
+ *   --difficulty уровень уровень сложности компьютера (по умолчанию не передаётся)
+ *   --players N          количество одновременно действующих виртуальных игроков (по умолчанию 32)
+ *   --rate R             новых партий в секунду (по умолчанию 5)
+ *   --duration S         длительность подачи нагрузки, с (по умолчанию 60)
+ *   --warmup S           первые секунды, запросы которых не попадают в отчёт (по умолчанию 10)
+ *   --sizes список       размеры досок с весами, например 5:3,7:2,10:1 (по умолчанию)
+ *   --think MS           среднее время обдумывания хода игроком, мс (экспоненциальное, по умолчанию 1000)
+ *   --move-delay MS      пауза перед запросом хода компьютера, мс (как в веб-приложении, по умолчанию 500)
+ *   --max-games N        наибольшее количество одновременных партий, лишние отбрасываются (по умолчанию 10000)
+ *   --timeout MS         таймаут запроса, мс (по умолчанию 30000)
+ *   --sessions           передавать X-Game-Id (фоновое обдумывание и журнал сессий на сервисе)
+ *   --seed N             зерно генератора случайных чисел (по умолчанию 1)
+ */
+public final class LoadTest {
+
+    /** Имена эндпоинтов в отчёте */
+    static final String STATUS = "status";
+    static final String NEXT_MOVE = "nextMove";
+
+    /**
+     * Исход партии.
+     */
+    enum Outcome {
+        /** Белые образовали квадрат */
+        WHITE_WINS,
+        /** Чёрные образовали квадрат */
+        BLACK_WINS,
+        /** Доска заполнена без квадрата */
+        DRAW,
+        /** Партия прервана ошибкой запроса */
+        ABORTED,
+        /** Партия не закончилась до конца теста */
+        CUT
+    }
+
+    /** Параметры теста */
+    private String url = "http://localhost:8080/api";
+    private String rules = "standard";
+    private String difficulty;
+    private int players = 32;
+    private double rate = 5;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 10;
+    private int[] sizes = {5, 5, 5, 7, 7, 10};
+    private long thinkMillis = 1000;
+    private long moveDelayMillis = 500;
+    private int maxGames = 10000;
+    private int timeoutMillis = 30000;
+    private boolean sessions;
+    private long seed = 1;
+
+    /** Статистика по эндпоинтам */
+    private final EndpointStats statusStats = new EndpointStats(STATUS);
+    private final EndpointStats nextMoveStats = new EndpointStats(NEXT_MOVE);
+
+    /** Количество партий по исходам */
+    private final Map<Outcome, AtomicLong> outcomes = new EnumMap<>(Outcome.class);
+
+    /** Сумма ходов законченных партий */
+    private final AtomicLong finishedMoves = new AtomicLong();
+
+    /** Количество идущих партий */
+    private final AtomicInteger activeGames = new AtomicInteger();
+
+    /** Количество начатых и отброшенных партий */
+    private final AtomicLong startedGames = new AtomicLong();
+    private final AtomicLong droppedGames = new AtomicLong();
+
+    /** Потоки виртуальных игроков */
+    private ScheduledThreadPoolExecutor scheduler;
+
+    /** HTTP-клиент */
+    private ServiceClient client;
+
+    /** Начало учёта запросов и конец подачи нагрузки (System.nanoTime) */
+    private volatile long measureFromNanos;
+    private volatile long stopNanos = Long.MAX_VALUE;
+
+    private LoadTest() {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    /**
+     * Точка входа нагрузочного теста.
+     *
+     * @param args параметры командной строки (см. описание класса)
+     * @throws InterruptedException если тест прерван
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadTest test = new LoadTest();
+        if (test.parse(args)) {
+            test.run();
+        }
+    }
+
+    /**
+     * Разбирает параметры командной строки.
+     *
+     * @param args параметры
+     * @return false, если параметры некорректны
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--rules":
+                    rules = args[++i];
+                    break;
+                case "--difficulty":
+                    difficulty = args[++i];
+                    break;
+                case "--players":
+                    players = Integer.parseInt(args[++i]);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "--duration":
+                    durationSeconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmupSeconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--sizes":
+                    sizes = parseSizes(args[++i]);
+                    break;
+                case "--think":
+                    thinkMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--move-delay":
+                    moveDelayMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--max-games":
+                    maxGames = Integer.parseInt(args[++i]);
+                    break;
+                case "--timeout":
+                    timeoutMillis = Integer.parseInt(args[++i]);
+                    break;
+                case "--sessions":
+                    sessions = true;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return false;
+            }
+        }
+        if (players < 1 || rate <= 0 || durationSeconds <= warmupSeconds || sizes.length == 0) {
+            System.err.println("Need players >= 1, rate > 0, duration > warmup and at least one board size");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Разбирает смесь размеров досок "размер:вес,...": каждый размер повторяется по весу.
+     *
+     * @param text описание смеси
+     * @return размеры досок для равновероятного выбора
+     */
+    private static int[] parseSizes(String text) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String[] sizeAndWeight = part.trim().split(":");
+            int size = Integer.parseInt(sizeAndWeight[0].trim());
+            int weight = (sizeAndWeight.length > 1) ? Integer.parseInt(sizeAndWeight[1].trim()) : 1;
+            if (size <= 2 || weight < 0) {
+                throw new IllegalArgumentException("Bad board size entry: " + part);
+            }
+            for (int i = 0; i < weight; i++) {
+                sizes.add(size);
+            }
+        }
+        int[] result = new int[sizes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sizes.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Подаёт нагрузку и печатает отчёт.
+     *
+     * @throws InterruptedException если тест прерван
+     */
+    private void run() throws InterruptedException {
+        // Пул keep-alive соединений JDK по умолчанию держит 5 соединений на адрес
+        System.setProperty("http.maxConnections", String.valueOf(players));
+        client = new ServiceClient(url, timeoutMillis);
+        scheduler = new ScheduledThreadPoolExecutor(players);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        System.out.printf("load: %.2f games/s for %d s (warm-up %d s), %d players, rules %s, url %s%n",
+                rate, durationSeconds, warmupSeconds, players, rules, url);
+
+        Random random = new Random(seed);
+        long start = System.nanoTime();
+        measureFromNanos = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        // Открытая модель: моменты появления игроков не зависят от ответов сервиса
+        long arrival = start;
+        long gameId = 0;
+        while (true) {
+            arrival += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+            if (arrival >= end) break;
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            if (activeGames.get() >= maxGames) {
+                droppedGames.incrementAndGet();
+                continue;
+            }
+            activeGames.incrementAndGet();
+            startedGames.incrementAndGet();
+            int size = sizes[random.nextInt(sizes.length)];
+            new VirtualGame(this, ++gameId, size, new Random(random.nextLong())).start(arrival);
+        }
+
+        // Запросы, запланированные до конца теста, выполняются; остальные партии обрываются
+        stopNanos = end;
+        long stopWait = Math.max(0, end - System.nanoTime());
+        TimeUnit.NANOSECONDS.sleep(stopWait);
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(timeoutMillis + 5000L, TimeUnit.MILLISECONDS)) {
+            scheduler.shutdownNow();
+        }
+        report((end - measureFromNanos) / 1e9);
+    }
+
+    /**
+     * Планирует шаг партии на заданный момент. Шаги, запланированные после окончания
+     * подачи нагрузки, не выполняются, а партия считается оборванной.
+     *
+     * @param intendedNanos момент выполнения по расписанию (System.nanoTime)
+     * @param step шаг партии, получающий момент по расписанию
+     */
+    void schedule(long intendedNanos, LongConsumer step) {
+        if (intendedNanos >= stopNanos) {
+            gameEnded(Outcome.CUT, 0);
+            return;
+        }
+        Runnable task = () -> {
+            if (intendedNanos >= stopNanos) {
+                gameEnded(Outcome.CUT, 0);
+                return;
+            }
+            try {
+                step.accept(intendedNanos);
+            } catch (RuntimeException e) {
+                gameEnded(Outcome.ABORTED, 0);
+            }
+        };
+        try {
+            scheduler.schedule(task, intendedNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            gameEnded(Outcome.CUT, 0);
+        }
+    }
+
+    /**
+     * Выполняет запрос и учитывает его в статистике эндпоинта, если он запланирован
+     * после прогрева.
+     *
+     * @param endpoint имя эндпоинта ({@link #STATUS} или {@link #NEXT_MOVE})
+     * @param path путь запроса
+     * @param json тело запроса
+     * @param gameId идентификатор игровой сессии или null
+     * @param intendedNanos момент отправки по расписанию
+     * @return ответ сервиса
+     */
+    ServiceClient.Reply call(String endpoint, String path, String json, Long gameId, long intendedNanos) {
+        long sent = System.nanoTime();
+        ServiceClient.Reply reply = client.post(path, json, gameId);
+        long done = System.nanoTime();
+        if (intendedNanos >= measureFromNanos && intendedNanos < stopNanos) {
+            (NEXT_MOVE.equals(endpoint) ? nextMoveStats : statusStats).record(intendedNanos, sent, done, reply.status);
+        }
+        return reply;
+    }
+
+    /**
+     * Учитывает окончание партии.
+     *
+     * @param outcome исход
+     * @param moves количество фишек на доске в конце партии
+     */
+    void gameEnded(Outcome outcome, int moves) {
+        activeGames.decrementAndGet();
+        outcomes.get(outcome).incrementAndGet();
+        if (outcome != Outcome.ABORTED && outcome != Outcome.CUT) {
+            finishedMoves.addAndGet(moves);
+        }
+    }
+
+    /**
+     * @return путь запроса хода компьютера с правилами и уровнем сложности
+     */
+    String nextMovePath() {
+        return "/" + rules + "/nextMove" + ((difficulty != null) ? "?difficulty=" + difficulty : "");
+    }
+
+    /**
+     * @param random генератор партии
+     * @return время обдумывания хода игроком, нс (экспоненциальное распределение)
+     */
+    long thinkNanos(Random random) {
+        return (long) (-Math.log(1 - random.nextDouble()) * thinkMillis * 1_000_000L);
+    }
+
+    /**
+     * @return пауза перед запросом хода компьютера, нс
+     */
+    long moveDelayNanos() {
+        return moveDelayMillis * 1_000_000L;
+    }
+
+    /**
+     * @return true, если передаётся заголовок X-Game-Id
+     */
+    boolean isSessions() {
+        return sessions;
+    }
+
+    /**
+     * Печатает отчёт: пропускная способность, перцентили задержки и ошибки по эндпоинтам.
+     *
+     * @param seconds длительность окна учёта, с
+     */
+    private void report(double seconds) {
+        System.out.println();
+        System.out.printf("%-9s %9s %8s %8s %9s %9s %9s %9s | %9s %9s%n", "endpoint", "requests", "req/s",
+                "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p50", "svc p99");
+        for (EndpointStats stats : new EndpointStats[] {statusStats, nextMoveStats}) {
+            LatencyHistogram latency = stats.getCorrected();
+            LatencyHistogram service = stats.getUncorrected();
+            long requests = latency.getTotal();
+            System.out.printf("%-9s %9d %8.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f | %9.2f %9.2f%n",
+                    stats.getName(), requests, requests / seconds,
+                    (requests == 0) ? 0.0 : 100.0 * stats.getErrors() / requests,
+                    latency.percentile(50) / 1000.0, latency.percentile(99) / 1000.0,
+                    latency.percentile(99.9) / 1000.0, latency.getMax() / 1000.0,
+                    service.percentile(50) / 1000.0, service.percentile(99) / 1000.0);
+            if (stats.getErrors() > 0) {
+                System.out.println("          responses by status (0 - network error): " + stats.getStatuses());
+            }
+        }
+
+        long finished = outcomes.get(Outcome.WHITE_WINS).get() + outcomes.get(Outcome.BLACK_WINS).get()
+                + outcomes.get(Outcome.DRAW).get();
+        System.out.println();
+        System.out.printf("games: started %d, finished %d (w %d, b %d, draw %d), aborted %d, cut %d, dropped %d, "
+                        + "avg %.1f stones per finished game%n",
+                startedGames.get(), finished, outcomes.get(Outcome.WHITE_WINS).get(),
+                outcomes.get(Outcome.BLACK_WINS).get(), outcomes.get(Outcome.DRAW).get(),
+                outcomes.get(Outcome.ABORTED).get(), outcomes.get(Outcome.CUT).get(), droppedGames.get(),
+                (finished == 0) ? 0.0 : (double) finishedMoves.get() / finished);
+    }
+}
@@ -0,0 +1,112 @@
+package com.squares.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP-клиент сервиса игры на {@link HttpURLConnection}.
+ * Соединения переиспользуются (keep-alive): тело ответа всегда читается до конца.
+ * Размер пула соединений JDK задаётся системным свойством http.maxConnections.
+ */
+public class ServiceClient {
+
+    /** Заголовок с идентификатором игровой сессии */
+    public static final String GAME_ID_HEADER = "X-Game-Id";
+
+    /** Базовый URL API, например http://localhost:8080/api */
+    private final String baseUrl;
+
+    /** Таймаут соединения и чтения, мс */
+    private final int timeoutMillis;
+
+    /**
+     * Ответ сервиса.
+     */
+    public static final class Reply {
+
+        /** Код ответа HTTP или 0 при сетевой ошибке */
+        public final int status;
+
+        /** Тело ответа (пустое при сетевой ошибке) */
+        public final String body;
+
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        /**
+         * @return true, если получен ответ 2xx
+         */
+        public boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * @param baseUrl базовый URL API
+     * @param timeoutMillis таймаут соединения и чтения, мс
+     */
+    public ServiceClient(String baseUrl, int timeoutMillis) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Отправляет POST с JSON-телом.
+     *
+     * @param path путь относительно базового URL, например "/status"
+     * @param json тело запроса
+     * @param gameId идентификатор игровой сессии для заголовка X-Game-Id или null
+     * @return ответ сервиса; сетевая ошибка возвращается как ответ с кодом 0
+     */
+    public Reply post(String path, String json, Long gameId) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            if (gameId != null) {
+                connection.setRequestProperty(GAME_ID_HEADER, gameId.toString());
+            }
+            byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+            connection.setFixedLengthStreamingMode(payload.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(payload);
+            }
+
+            int status = connection.getResponseCode();
+            InputStream in = (status >= 400) ? connection.getErrorStream() : connection.getInputStream();
+            return new Reply(status, readFully(in));
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return new Reply(0, "");
+        }
+    }
+
+    /**
+     * Читает поток до конца и закрывает его, чтобы соединение вернулось в пул.
+     */
+    private static String readFully(InputStream in) throws IOException {
+        if (in == null) return "";
+        try (InputStream stream = in) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = stream.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.squares.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Партия одного виртуального игрока против компьютера - тот же цикл запросов,
+ * что у веб-приложения (task3-webapp/js/game.js):
+ * <ol>
+ *   <li>игрок думает и ставит фишку, затем POST /status;</li>
+ *   <li>если игра не закончена, после паузы POST /{rules}/nextMove, ход компьютера ставится на доску,
+ *       затем POST /status;</li>
+ *   <li>если nextMove не вернул ход, POST /status и партия заканчивается.</li>
+ * </ol>
+ * Белые ходят первыми; если игрок играет чёрными, первым ходит компьютер.
+ * Каждый шаг планируется на момент, когда его отправил бы настоящий клиент,
+ * и задержка считается от этого момента (см. {@link EndpointStats}).
+ */
+class VirtualGame {
+
+    /** Координаты хода в ответе nextMove */
+    private static final Pattern MOVE_X = Pattern.compile("\"x\"\\s*:\\s*(\\d+)");
+    private static final Pattern MOVE_Y = Pattern.compile("\"y\"\\s*:\\s*(\\d+)");
+
+    /** Результат законченной игры в ответе status */
+    private static final Pattern RESULT = Pattern.compile("\"result\"\\s*:\\s*\"([^\"]*)\"");
+
+    /** Нагрузочный тест, которому принадлежит партия */
+    private final LoadTest run;
+
+    /** Идентификатор партии (заголовок X-Game-Id, если включены сессии) */
+    private final long id;
+
+    /** Размер доски */
+    private final int size;
+
+    /** Клетки доски по строкам: 'w', 'b' или ' ' (как в веб-приложении) */
+    private final char[] cells;
+
+    /** Цвета игрока и компьютера ('w' или 'b') */
+    private final char player;
+    private final char computer;
+
+    /** Генератор случайных чисел партии */
+    private final Random random;
+
+    /**
+     * @param run нагрузочный тест
+     * @param id идентификатор партии
+     * @param size размер доски
+     * @param random генератор случайных чисел партии
+     */
+    VirtualGame(LoadTest run, long id, int size, Random random) {
+        this.run = run;
+        this.id = id;
+        this.size = size;
+        this.cells = new char[size * size];
+        Arrays.fill(cells, ' ');
+        this.random = random;
+        this.player = random.nextBoolean() ? 'w' : 'b';
+        this.computer = (player == 'w') ? 'b' : 'w';
+    }
+
+    /**
+     * Начинает партию.
+     *
+     * @param arrivalNanos момент появления игрока по расписанию
+     */
+    void start(long arrivalNanos) {
+        if (player == 'w') {
+            run.schedule(arrivalNanos + run.thinkNanos(random), this::playerMove);
+        } else {
+            run.schedule(arrivalNanos + run.moveDelayNanos(), this::computerMove);
+        }
+    }
+
+    /**
+     * Ход игрока и проверка статуса.
+     *
+     * @param intendedNanos момент отправки запроса статуса по расписанию
+     */
+    private void playerMove(long intendedNanos) {
+        int cell = chooseCell();
+        if (cell < 0) {
+            run.gameEnded(LoadTest.Outcome.DRAW, 0);
+            return;
+        }
+        cells[cell] = player;
+
+        ServiceClient.Reply status = run.call(LoadTest.STATUS, "/status", board(player), gameId(), intendedNanos);
+        long done = System.nanoTime();
+        if (!finishIfOver(status)) {
+            run.schedule(done + run.moveDelayNanos(), this::computerMove);
+        }
+    }
+
+    /**
+     * Запрос хода компьютера и проверка статуса.
+     *
+     * @param intendedNanos момент отправки запроса хода по расписанию
+     */
+    private void computerMove(long intendedNanos) {
+        ServiceClient.Reply move = run.call(LoadTest.NEXT_MOVE, run.nextMovePath(), board(computer), gameId(),
+                intendedNanos);
+        long done = System.nanoTime();
+        if (!move.isOk()) {
+            run.gameEnded(LoadTest.Outcome.ABORTED, moveCount());
+            return;
+        }
+
+        Matcher x = MOVE_X.matcher(move.body);
+        Matcher y = MOVE_Y.matcher(move.body);
+        boolean moved = x.find() && y.find();
+        if (moved) {
+            int cell = Integer.parseInt(y.group(1)) * size + Integer.parseInt(x.group(1));
+            if (cell >= cells.length || cells[cell] != ' ') {
+                run.gameEnded(LoadTest.Outcome.ABORTED, moveCount());
+                return;
+            }
+            cells[cell] = computer;
+        }
+
+        ServiceClient.Reply status = run.call(LoadTest.STATUS, "/status", board(computer), gameId(), done);
+        long statusDone = System.nanoTime();
+        if (!finishIfOver(status)) {
+            if (!moved) {
+                // Ход невозможен, хотя игра не закончена: веб-приложение здесь останавливается
+                run.gameEnded(LoadTest.Outcome.ABORTED, moveCount());
+                return;
+            }
+            run.schedule(statusDone + run.thinkNanos(random), this::playerMove);
+        }
+    }
+
+    /**
+     * Заканчивает партию по ответу status, если игра окончена или запрос не удался.
+     *
+     * @param status ответ status
+     * @return true, если партия закончена
+     */
+    private boolean finishIfOver(ServiceClient.Reply status) {
+        if (!status.isOk()) {
+            run.gameEnded(LoadTest.Outcome.ABORTED, moveCount());
+            return true;
+        }
+        if (!status.body.contains("\"finished\"")) {
+            return false;
+        }
+        Matcher result = RESULT.matcher(status.body);
+        String text = result.find() ? result.group(1) : "";
+        LoadTest.Outcome outcome = text.startsWith("W") ? LoadTest.Outcome.WHITE_WINS
+                : text.startsWith("B") ? LoadTest.Outcome.BLACK_WINS
+                : LoadTest.Outcome.DRAW;
+        run.gameEnded(outcome, moveCount());
+        return true;
+    }
+
+    /**
+     * Выбирает клетку для хода игрока: обычно рядом с уже стоящими фишками, иногда любую свободную.
+     *
+     * @return индекс клетки или -1, если свободных клеток нет
+     */
+    private int chooseCell() {
+        int free = 0;
+        int near = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != ' ') continue;
+            free++;
+            if (hasNeighbour(cell)) near++;
+        }
+        if (free == 0) return -1;
+
+        boolean nearOnly = near > 0 && random.nextInt(10) < 7;
+        int pick = random.nextInt(nearOnly ? near : free);
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != ' ' || (nearOnly && !hasNeighbour(cell))) continue;
+            if (pick-- == 0) return cell;
+        }
+        return -1;
+    }
+
+    /**
+     * @return true, если рядом с клеткой (включая диагонали) есть фишка
+     */
+    private boolean hasNeighbour(int cell) {
+        int x = cell % size;
+        int y = cell / size;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx != 0 || dy != 0) && nx >= 0 && ny >= 0 && nx < size && ny < size
+                        && cells[ny * size + nx] != ' ') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return количество фишек на доске
+     */
+    private int moveCount() {
+        int count = 0;
+        for (char cell : cells) {
+            if (cell != ' ') count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param nextPlayerColor цвет в поле nextPlayerColor (как отправляет веб-приложение)
+     * @return JSON доски
+     */
+    private String board(char nextPlayerColor) {
+        return "{\"size\":" + size + ",\"data\":\"" + new String(cells)
+                + "\",\"nextPlayerColor\":\"" + nextPlayerColor + "\"}";
+    }
+
+    /**
+     * @return идентификатор партии для заголовка X-Game-Id или null, если сессии выключены
+     */
+    private Long gameId() {
+        return run.isSessions() ? id : null;
+    }
+}
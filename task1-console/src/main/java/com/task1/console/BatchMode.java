@@ -0,0 +1,293 @@
+package com.task1.console;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Пакетный (неинтерактивный) режим: выполняет сценарий команд из файла или stdin
+ * и выводит то же, что интерактивный режим ({@link Main}), байт в байт.
+ * <p>
+ * Отличия от интерактивного режима - только в скорости:
+ * <ul>
+ *   <li>ввод читается блоками в буфер, строки выделяются в массиве символов без Scanner;</li>
+ *   <li>команды MOVE с координатами из цифр разбираются прямо в буфере, без строк и регулярных
+ *       выражений; все остальные строки разбирает обычный {@link CommandParser};</li>
+ *   <li>вывод идёт в поток с буфером {@link #OUTPUT_BUFFER} байт, который сбрасывается при
+ *       заполнении и в конце сценария.</li>
+ * </ul>
+ * Сценарий заканчивается командой EXIT или концом ввода.
+ */
+public final class BatchMode {
+
+    /** Размер буфера ввода, символов */
+    private static final int INPUT_BUFFER = 1 << 16;
+
+    /** Размер буфера вывода, байт */
+    public static final int OUTPUT_BUFFER = 1 << 16;
+
+    /** Источник сценария */
+    private final Reader input;
+
+    /** Буфер ввода и его заполненная часть */
+    private final char[] buffer = new char[INPUT_BUFFER];
+    private int position;
+    private int limit;
+
+    /** Предыдущая строка закончилась на '\r': следующий '\n' - часть того же перевода строки */
+    private boolean skipLineFeed;
+
+    /** Текущая строка без перевода строки */
+    private char[] line = new char[256];
+    private int length;
+
+    /** Координаты последней разобранной команды MOVE */
+    private int moveX;
+    private int moveY;
+
+    private BatchMode(Reader input) {
+        this.input = input;
+    }
+
+    /**
+     * Выполняет сценарий.
+     *
+     * @param input сценарий команд, по одной в строке
+     * @param out поток вывода; сбрасывается в конце сценария
+     * @throws IOException при ошибке чтения сценария
+     */
+    public static void run(Reader input, PrintStream out) throws IOException {
+        BatchMode script = new BatchMode(input);
+        GameEngine engine = new GameEngine(out);
+        CommandParser parser = new CommandParser();
+        try {
+            while (script.nextLine()) {
+                if (script.parseMove()) {
+                    engine.makeUserMove(script.moveX, script.moveY);
+                } else if (!Main.execute(parser.parse(new String(script.line, 0, script.length)), engine, out)) {
+                    break;
+                }
+            }
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Создаёт поток вывода с большим буфером поверх стандартного вывода
+     * в той же кодировке, что у System.out.
+     *
+     * @return поток вывода без автоматического сброса
+     */
+    public static PrintStream bufferedStdout() {
+        String encoding = System.getProperty("stdout.encoding", System.getProperty("sun.stdout.encoding"));
+        Charset charset = Charset.defaultCharset();
+        if (encoding != null && Charset.isSupported(encoding)) {
+            charset = Charset.forName(encoding);
+        }
+        return buffered(new FileOutputStream(FileDescriptor.out), charset);
+    }
+
+    /**
+     * Создаёт поток вывода с буфером {@link #OUTPUT_BUFFER} байт.
+     *
+     * @param target поток, в который сбрасывается буфер
+     * @param charset кодировка вывода
+     * @return поток вывода без автоматического сброса
+     */
+    static PrintStream buffered(OutputStream target, Charset charset) {
+        try {
+            return new AsciiPrintStream(new Sink(target), charset);
+        } catch (UnsupportedEncodingException e) {
+            // кодировка получена из Charset, поэтому поддерживается
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return кодировка ввода сценария - та же, что у Scanner(System.in) в интерактивном режиме
+     */
+    public static Charset inputCharset() {
+        return Charset.defaultCharset();
+    }
+
+    /**
+     * Читает следующую строку в {@link #line}. Переводы строки - те же, что у Scanner.nextLine():
+     * "\r\n", '\n', '\r', '\u2028', '\u2029', '\u0085'.
+     *
+     * @return false, если ввод закончился
+     */
+    private boolean nextLine() throws IOException {
+        length = 0;
+        boolean any = false;
+        while (true) {
+            if (position == limit) {
+                limit = input.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return any;
+                }
+            }
+            char c = buffer[position++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') continue;
+            }
+            any = true;
+            if (c == '\n' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+                return true;
+            }
+            if (c == '\r') {
+                skipLineFeed = true;
+                return true;
+            }
+            if (length == line.length) {
+                char[] grown = new char[line.length * 2];
+                System.arraycopy(line, 0, grown, 0, length);
+                line = grown;
+            }
+            line[length++] = c;
+        }
+    }
+
+    /**
+     * Разбирает текущую строку как команду "MOVE X, Y" / "MOVE X Y" с неотрицательными
+     * координатами из цифр. Принимаются только строки, которые {@link CommandParser} разобрал бы
+     * в ту же команду MOVE с двумя аргументами; для всех остальных возвращается false,
+     * и строку разбирает CommandParser.
+     *
+     * @return true, если строка - такая команда MOVE (координаты в moveX, moveY)
+     */
+    private boolean parseMove() {
+        char[] c = line;
+        int n = length;
+        int i = skipBlanks(c, 0, n);
+        if (n - i < 5
+                || (c[i] | 0x20) != 'm' || (c[i + 1] | 0x20) != 'o'
+                || (c[i + 2] | 0x20) != 'v' || (c[i + 3] | 0x20) != 'e'
+                || (c[i + 4] != ' ' && c[i + 4] != '\t')) {
+            return false;
+        }
+        i = skipBlanks(c, i + 4, n);
+
+        int x = 0;
+        int start = i;
+        while (i < n && isDigit(c[i]) && i - start < 9) {
+            x = x * 10 + (c[i++] - '0');
+        }
+        if (i == start || (i < n && isDigit(c[i]))) return false;
+
+        int separators = i;
+        i = skipSeparators(c, i, n);
+        if (i == separators) return false;
+
+        int y = 0;
+        start = i;
+        while (i < n && isDigit(c[i]) && i - start < 9) {
+            y = y * 10 + (c[i++] - '0');
+        }
+        if (i == start || (i < n && isDigit(c[i]))) return false;
+
+        // Завершающие разделители CommandParser отбрасывает
+        if (skipSeparators(c, i, n) != n) return false;
+
+        moveX = x;
+        moveY = y;
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipBlanks(char[] c, int i, int n) {
+        while (i < n && (c[i] == ' ' || c[i] == '\t')) i++;
+        return i;
+    }
+
+    private static int skipSeparators(char[] c, int i, int n) {
+        while (i < n && (c[i] == ' ' || c[i] == '\t' || c[i] == ',')) i++;
+        return i;
+    }
+
+    /**
+     * Поток вывода, который пишет строки из ASCII прямо в байтовый буфер, минуя кодировщик
+     * PrintStream (все сообщения игры - ASCII). Остальные строки и вызовы идут обычным путём
+     * в тот же буфер, поэтому порядок вывода сохраняется. Прямая запись включается, только если
+     * кодировка совпадает с ASCII на символах ASCII.
+     */
+    private static final class AsciiPrintStream extends PrintStream {
+
+        /** Байты перевода строки */
+        private static final String LINE_SEPARATOR = System.lineSeparator();
+
+        /** Буфер вывода */
+        private final Sink sink;
+
+        /** Кодировка совместима с ASCII */
+        private final boolean asciiCompatible;
+
+        AsciiPrintStream(Sink sink, Charset charset) throws UnsupportedEncodingException {
+            super(sink, false, charset.name());
+            this.sink = sink;
+            String probe = " ~\r\n" + LINE_SEPARATOR;
+            this.asciiCompatible = Arrays.equals(probe.getBytes(charset), probe.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void println(String text) {
+            try {
+                if (asciiCompatible && text != null && sink.writeAsciiLine(text, LINE_SEPARATOR)) {
+                    return;
+                }
+            } catch (IOException e) {
+                setError();
+                return;
+            }
+            super.println(text);
+        }
+    }
+
+    /**
+     * Буфер вывода с прямой записью строк из ASCII.
+     */
+    private static final class Sink extends BufferedOutputStream {
+
+        Sink(OutputStream target) {
+            super(target, OUTPUT_BUFFER);
+        }
+
+        /**
+         * Записывает строку и перевод строки, если все символы - ASCII.
+         *
+         * @return false, если в строке есть не ASCII символы (ничего не записано)
+         */
+        synchronized boolean writeAsciiLine(String text, String separator) throws IOException {
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                if (text.charAt(i) >= 0x80) return false;
+            }
+            int total = length + separator.length();
+            if (buf.length - count < total) {
+                flush();
+                if (buf.length < total) return false;
+            }
+            for (int i = 0; i < length; i++) {
+                buf[count++] = (byte) text.charAt(i);
+            }
+            for (int i = 0; i < separator.length(); i++) {
+                buf[count++] = (byte) separator.charAt(i);
+            }
+            return true;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.task1.console;
 
+import com.task1.console.rules.Rules;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,6 +51,26 @@ public class Board {
         }
     }
 
+    /**
+     * Заполняет доску по строке клеток, записанных по строкам доски: 'w'/'W' - белая фишка,
+     * 'b'/'B' - чёрная, любой другой символ - пустая клетка (как в запросах сервиса).
+     * Если строка короче size * size, остальные клетки пустые. Доска заполняется на месте,
+     * без выделения памяти, поэтому одну доску можно загружать для каждого запроса заново.
+     *
+     * @param data клетки доски по строкам
+     */
+    public void load(CharSequence data) {
+        int length = data.length();
+        int index = 0;
+        for (int y = 0; y < size; y++) {
+            char[] row = grid[y];
+            for (int x = 0; x < size; x++, index++) {
+                char cell = (index < length) ? data.charAt(index) : '.';
+                row[x] = (cell == 'w' || cell == 'W') ? 'W' : (cell == 'b' || cell == 'B') ? 'B' : '.';
+            }
+        }
+    }
+
     /**
      * Выполняет ход на доске.
      *
@@ -111,83 +133,27 @@ public class Board {
     }
 
     /**
-     * Проверяет, образована ли фигура квадрат для заданного цвета.
+     * Проверяет, образована ли фигура квадрат для заданного цвета
+     * по стандартным правилам ({@link Rules#STANDARD}).
      *
      * @param color цвет фишек ('W' или 'B')
      * @return true, если квадрат найден; false в противном случае
      */
     public boolean hasSquare(char color) {
-        // Проверяем квадраты по осям
-        if (checkAxisSquares(color)) return true;
-
-        // Проверяем "поворотные" квадраты (по диагонали и смещенные)
-        return checkRotatedSquares(color);
-    }
-
-    /**
-     * Проверяет наличие квадратов, выровненных по осям доски.
-     *
-     * @param color цвет фишки
-     * @return true, если найден квадрат
-     */
-    private boolean checkAxisSquares(char color) {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (grid[i][j] != color) continue;
-
-                // Малый квадрат 2x2
-                if (i + 1 < size && j + 1 < size) {
-                    if (grid[i + 1][j] == color &&
-                            grid[i][j + 1] == color &&
-                            grid[i + 1][j + 1] == color) {
-                        return true;
-                    }
-                }
-
-                // Больший квадрат с шагом 2
-                if (i + 2 < size && j + 2 < size) {
-                    if (grid[i + 2][j] == color &&
-                            grid[i][j + 2] == color &&
-                            grid[i + 2][j + 2] == color) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return Rules.STANDARD.hasSquare(this, color);
     }
 
     /**
-     * Проверяет наличие "поворотных" квадратов (крестом вокруг центральной точки).
+     * Проверяет, образует ли фишка в клетке (x, y) квадрат своего цвета
+     * по стандартным правилам ({@link Rules#STANDARD}).
+     * Рассматриваются только квадраты, в которые входит эта клетка. Если квадрата не было
+     * до хода в (x, y), то hasSquare(color) после хода равно hasSquareThrough(x, y).
      *
-     * @param color цвет фишки
-     * @return true, если найден квадрат
+     * @param x координата X последнего хода
+     * @param y координата Y последнего хода
+     * @return true, если клетка входит в квадрат своего цвета
      */
-    private boolean checkRotatedSquares(char color) {
-        // Малые крестовые квадраты с шагом 1
-        for (int r = 1; r < size - 1; r++) {
-            for (int c = 1; c < size - 1; c++) {
-                if (grid[r - 1][c] == color &&
-                        grid[r + 1][c] == color &&
-                        grid[r][c - 1] == color &&
-                        grid[r][c + 1] == color) {
-                    return true;
-                }
-            }
-        }
-
-        // Большие крестовые квадраты с шагом 2
-        for (int r = 2; r < size - 2; r++) {
-            for (int c = 2; c < size - 2; c++) {
-                if (grid[r - 2][c] == color &&
-                        grid[r + 2][c] == color &&
-                        grid[r][c - 2] == color &&
-                        grid[r][c + 2] == color) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+    public boolean hasSquareThrough(int x, int y) {
+        return Rules.STANDARD.completesSquare(this, x, y);
     }
 }
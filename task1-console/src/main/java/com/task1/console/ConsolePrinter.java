@@ -0,0 +1,49 @@
+package com.task1.console;
+
+import java.io.PrintStream;
+
+/**
+ * Слушатель, который печатает события партии в формате консольной игры:
+ * "New game started", "W (x, y)", "Game finished. W wins!", "Game finished. Draw",
+ * "Incorrect command".
+ */
+public class ConsolePrinter implements GameListener {
+
+    /** Поток вывода */
+    private final PrintStream out;
+
+    /**
+     * @param out поток вывода сообщений игры
+     */
+    public ConsolePrinter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void gameStarted(int size) {
+        out.println("New game started");
+    }
+
+    /**
+     * Строка собирается без Formatter: вывод тот же, что у printf("%c (%d, %d)%n").
+     */
+    @Override
+    public void moveMade(char color, int x, int y) {
+        out.println(color + " (" + x + ", " + y + ")");
+    }
+
+    @Override
+    public void gameWon(char color) {
+        out.println("Game finished. " + color + " wins!");
+    }
+
+    @Override
+    public void gameDrawn() {
+        out.println("Game finished. Draw");
+    }
+
+    @Override
+    public void commandRejected() {
+        out.println("Incorrect command");
+    }
+}
@@ -1,67 +1,66 @@
 package com.task1.console;
 
-import java.util.List;
-import java.util.Random;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import java.io.PrintStream;
 
 /**
- * Класс GameEngine реализует основную логику игры "Квадраты".
- * Он управляет игровым полем (Board), игроками и очередностью ходов.
- * Также отвечает за ходы компьютера и проверку окончания игры.
+ * Класс GameEngine - консольный интерфейс игры "Квадраты".
+ * Разбирает аргументы команд GAME и MOVE и передаёт их партии ({@link GameSession}),
+ * которая управляет доской, игроками, очередностью ходов и ходами компьютера.
+ * Сообщения игры печатает слушатель партии {@link ConsolePrinter}.
  */
 public class GameEngine {
 
-    /** Игровое поле */
-    private Board board;
-
-    /** Первый игрок */
-    private Player player1;
+    /** Партия */
+    private final GameSession session = new GameSession();
 
-    /** Второй игрок */
-    private Player player2;
+    /**
+     * Создаёт движок, который пишет сообщения в System.out.
+     */
+    public GameEngine() {
+        this(System.out);
+    }
 
-    /** Игрок, который ходит в текущий момент */
-    private Player currentPlayer;
+    /**
+     * Создаёт движок, который пишет сообщения в заданный поток
+     * (пакетный режим передаёт поток с большим буфером, см. {@link BatchMode}).
+     *
+     * @param out поток вывода сообщений игры
+     */
+    public GameEngine(PrintStream out) {
+        session.addListener(new ConsolePrinter(out));
+    }
 
-    /** Флаг активности игры */
-    private boolean gameActive = false;
+    /**
+     * @return партия, которой управляет движок (например, чтобы добавить слушателя событий)
+     */
+    public GameSession getSession() {
+        return session;
+    }
 
     /**
      * Начинает новую игру.
-     * Проверяет корректность команд, создаёт игроков и доску.
-     * Если первый игрок - компьютер, делает его первый ход.
+     * Проверяет корректность команды и передаёт размер доски и игроков партии.
+     * Если первый игрок - компьютер, партия делает его первый ход.
      *
      * @param args массив аргументов команды GAME: [размер доски, игрок1, игрок2]
      */
     public void startNewGame(String[] args) {
+        Player first;
+        Player second;
+        int size;
         try {
             validateGameCommand(args);
-
-            int size = Integer.parseInt(args[0].trim());
-            if (size <= 2) {
-                isIncorrectCommand();
-                return;
-            }
-
-            player1 = parsePlayer(args[1].trim());
-            player2 = parsePlayer(args[2].trim());
-
-            if (player1.getColor() == player2.getColor()) {
-                isIncorrectCommand();
-                return;
-            }
-
-            board = new Board(size);
-            gameActive = true;
-            currentPlayer = player1;
-            System.out.println("New game started");
-
-            // Если первый игрок компьютер - делаем его ход
-            if (currentPlayer.isComputer()) {
-                makeComputerMove();
-            }
+            size = Integer.parseInt(args[0].trim());
+            first = parsePlayer(args[1].trim());
+            second = parsePlayer(args[2].trim());
         } catch (IllegalArgumentException e) {
             isIncorrectCommand();
+            return;
         }
+        session.start(size, first, second);
     }
 
     /**
@@ -107,43 +106,38 @@ public class GameEngine {
 
     /**
      * Выполняет ход пользователя.
-     * Проверяет корректность ввода, делает ход на доске,
-     * выводит информацию и проверяет окончание игры.
+     * Проверяет корректность ввода и передаёт ход партии.
      *
      * @param args массив аргументов команды MOVE: [X, Y]
      */
     public void makeUserMove(String[] args) {
-        if (!gameActive) {
-            isIncorrectCommand();
-            return;
-        }
-
-        if (currentPlayer.isComputer()) {
+        if (!session.isActive() || session.getCurrentPlayer().isComputer()) {
             isIncorrectCommand();
             return;
         }
 
+        int x;
+        int y;
         try {
             validateMoveCommand(args);
-
-            int x = Integer.parseInt(args[0].trim());
-            int y = Integer.parseInt(args[1].trim());
-
-            if (!board.makeMove(x, y, currentPlayer.getColor())) {
-                isIncorrectCommand();
-                return;
-            }
-
-            System.out.printf("%c (%d, %d)%n", currentPlayer.getColor(), x, y);
-
-            if (checkGameEnd()) {
-                return;
-            }
-
-            switchTurn();
+            x = Integer.parseInt(args[0].trim());
+            y = Integer.parseInt(args[1].trim());
         } catch (IllegalArgumentException e) {
             isIncorrectCommand();
+            return;
         }
+        session.move(x, y);
+    }
+
+    /**
+     * Выполняет ход пользователя по уже разобранным координатам.
+     * Вывод тот же, что у {@link #makeUserMove(String[])}.
+     *
+     * @param x координата X (столбец)
+     * @param y координата Y (строка)
+     */
+    public void makeUserMove(int x, int y) {
+        session.move(x, y);
     }
 
     /**
@@ -158,127 +152,48 @@ public class GameEngine {
     }
 
     /**
-     * Делает ход компьютера.
-     * Вычисляет следующий ход, выполняет его и проверяет окончание игры.
-     */
-    private void makeComputerMove() {
-        if (!gameActive) return;
-
-        int[] move = computeNextComputerMove(this.board, currentPlayer.getColor());
-        if (move == null) {
-            finishDraw();
-            return;
-        }
-
-        executeMove(move);
-    }
-
-    /**
-     * Вычисляет следующий ход компьютера.
-     * Логика:
-     * 1. Если есть выигрышный ход для компьютера - делаем его.
-     * 2. Если есть ход, блокирующий соперника, - делаем его с вероятностью 30%.
-     * 3. Иначе выбираем случайную свободную клетку.
+     * Вычисляет следующий ход компьютера по стандартным правилам.
      *
      * @param board текущее состояние доски
      * @param computerColor цвет компьютера ('W' или 'B')
      * @return массив [X, Y] следующего хода или null, если ход невозможен
+     * @see MoveService#nextMove(Board, char)
      */
     public int[] computeNextComputerMove(Board board, char computerColor) {
-        List<int[]> freeCells = board.getFreeCells();
-        if (freeCells.isEmpty()) return null;
-
-        // Проверяем выигрышный ход для компьютера
-        for (int[] cell : freeCells) {
-            Board simulatedBoard = new Board(board);
-            simulatedBoard.makeMove(cell[0], cell[1], computerColor);
-            if (simulatedBoard.hasSquare(computerColor)) {
-                return cell;
-            }
-        }
-
-        // Проверяем возможность блокировки соперника
-        char opponentColor = (computerColor == 'W') ? 'B' : 'W';
-        Random random = new Random();
-        for (int[] cell : freeCells) {
-            Board simulatedBoard = new Board(board);
-            simulatedBoard.makeMove(cell[0], cell[1], opponentColor);
-            if (simulatedBoard.hasSquare(opponentColor)) {
-                if (random.nextInt(100) < 30) { // вероятность блокировки 30%
-                    return cell;
-                }
-            }
-        }
-
-        // Случайный ход
-        return freeCells.get(new Random().nextInt(freeCells.size()));
+        return MoveService.getInstance().nextMove(board, computerColor);
     }
 
     /**
-     * Выполняет ход (компьютера или пользователя) на доске,
-     * выводит информацию и проверяет окончание игры.
+     * Вычисляет следующий ход компьютера по стандартным правилам с ограниченным бюджетом.
      *
-     * @param move массив [X, Y] хода
-     */
-    private void executeMove(int[] move) {
-        int x = move[0];
-        int y = move[1];
-        board.makeMove(x, y, currentPlayer.getColor());
-        System.out.printf("%c (%d, %d)%n", currentPlayer.getColor(), x, y);
-
-        if (checkGameEnd()) {
-            return;
-        }
-
-        switchTurn();
-    }
-
-    /**
-     * Смена текущего игрока.
-     * Если новый игрок - компьютер, делает его ход автоматически.
+     * @param board текущее состояние доски
+     * @param computerColor цвет компьютера ('W' или 'B')
+     * @param maxSimulations максимальное количество симуляций на каждом этапе
+     * @return массив [X, Y] следующего хода или null, если ход невозможен
+     * @see MoveService#nextMove(Board, char, int, RuleSet)
      */
-    private void switchTurn() {
-        currentPlayer = (currentPlayer == player1) ? player2 : player1;
-        if (currentPlayer.isComputer()) {
-            makeComputerMove();
-        }
+    public int[] computeNextComputerMove(Board board, char computerColor, int maxSimulations) {
+        return MoveService.getInstance().nextMove(board, computerColor, maxSimulations, Rules.STANDARD);
     }
 
     /**
-     * Проверяет, закончилась ли игра.
-     * Условия окончания:
-     * 1. Компьютер/пользователь собрал квадрат - победа.
-     * 2. Доска заполнена - ничья.
+     * Вычисляет следующий ход компьютера по заданным правилам с ограниченным бюджетом.
      *
-     * @return true, если игра закончена
-     */
-    private boolean checkGameEnd() {
-        if (board.hasSquare(currentPlayer.getColor())) {
-            System.out.printf("Game finished. %c wins!%n", currentPlayer.getColor());
-            gameActive = false;
-            return true;
-        }
-
-        if (board.isFull()) {
-            finishDraw();
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Завершает игру с объявлением ничьи.
+     * @param board текущее состояние доски
+     * @param computerColor цвет компьютера ('W' или 'B')
+     * @param maxSimulations максимальное количество симуляций на каждом этапе
+     * @param rules правила игры
+     * @return массив [X, Y] следующего хода или null, если ход невозможен
+     * @see MoveService#nextMove(Board, char, int, RuleSet)
      */
-    private void finishDraw() {
-        System.out.println("Game finished. Draw");
-        gameActive = false;
+    public int[] computeNextComputerMove(Board board, char computerColor, int maxSimulations, RuleSet rules) {
+        return MoveService.getInstance().nextMove(board, computerColor, maxSimulations, rules);
     }
 
     /**
      * Выводит сообщение о некорректной команде.
      */
     protected void isIncorrectCommand() {
-        System.out.println("Incorrect command");
+        session.reject();
     }
 }
@@ -0,0 +1,47 @@
+package com.task1.console;
+
+/**
+ * Слушатель событий партии ({@link GameSession}).
+ * Методы вызываются в потоке, который выполняет команду, в порядке событий;
+ * по умолчанию ничего не делают.
+ */
+public interface GameListener {
+
+    /**
+     * Началась новая партия.
+     *
+     * @param size размер доски
+     */
+    default void gameStarted(int size) {
+    }
+
+    /**
+     * Сделан ход (пользователя или компьютера).
+     *
+     * @param color цвет фишки ('W' или 'B')
+     * @param x координата X (столбец)
+     * @param y координата Y (строка)
+     */
+    default void moveMade(char color, int x, int y) {
+    }
+
+    /**
+     * Партия закончилась победой: игрок собрал квадрат.
+     *
+     * @param color цвет победителя
+     */
+    default void gameWon(char color) {
+    }
+
+    /**
+     * Партия закончилась ничьей.
+     */
+    default void gameDrawn() {
+    }
+
+    /**
+     * Команда отклонена: некорректные аргументы, занятая клетка, чужой ход или нет партии.
+     */
+    default void commandRejected() {
+    }
+}
@@ -0,0 +1,252 @@
+package com.task1.console;
+
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import java.util.Arrays;
+
+/**
+ * Партия "Квадраты": доска, игроки, очередность ходов, ходы компьютера и окончание игры.
+ * Ничего не печатает: о каждом событии сообщает слушателям ({@link GameListener}),
+ * консольный вывод - один из них ({@link ConsolePrinter}).
+ * <p>
+ * Партия не потокобезопасна: команды выполняются по одной. Ходы компьютера вычисляет
+ * общий {@link MoveService}, победу и ходы компьютера определяют правила партии
+ * ({@link RuleSet}, по умолчанию {@link Rules#STANDARD}).
+ */
+public class GameSession {
+
+    /** Вычисление ходов компьютера */
+    private final MoveService moves;
+
+    /** Правила игры */
+    private final RuleSet rules;
+
+    /** Слушатели событий */
+    private GameListener[] listeners = new GameListener[0];
+
+    /** Игровое поле */
+    private Board board;
+
+    /** Первый игрок */
+    private Player player1;
+
+    /** Второй игрок */
+    private Player player2;
+
+    /** Игрок, который ходит в текущий момент */
+    private Player currentPlayer;
+
+    /** Флаг активности игры */
+    private boolean gameActive = false;
+
+    /** Количество фишек на доске (доска заполнена, когда оно равно size * size) */
+    private int stones;
+
+    /**
+     * Создаёт партию по стандартным правилам с общим {@link MoveService}.
+     */
+    public GameSession() {
+        this(MoveService.getInstance());
+    }
+
+    /**
+     * Создаёт партию по стандартным правилам.
+     *
+     * @param moves вычисление ходов компьютера
+     */
+    public GameSession(MoveService moves) {
+        this(moves, Rules.STANDARD);
+    }
+
+    /**
+     * @param moves вычисление ходов компьютера
+     * @param rules правила игры
+     */
+    public GameSession(MoveService moves, RuleSet rules) {
+        this.moves = moves;
+        this.rules = rules;
+    }
+
+    /**
+     * Добавляет слушателя событий.
+     *
+     * @param listener слушатель
+     */
+    public void addListener(GameListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Начинает новую партию. Если первый игрок - компьютер, делает его первый ход.
+     * Доска меньше 3x3 и игроки одного цвета отклоняются.
+     *
+     * @param size размер доски
+     * @param first игрок, который ходит первым
+     * @param second второй игрок
+     * @return false, если партия не начата
+     */
+    public boolean start(int size, Player first, Player second) {
+        if (size <= 2 || first.getColor() == second.getColor()) {
+            reject();
+            return false;
+        }
+
+        player1 = first;
+        player2 = second;
+        board = new Board(size);
+        stones = 0;
+        gameActive = true;
+        currentPlayer = player1;
+        for (GameListener listener : listeners) {
+            listener.gameStarted(size);
+        }
+
+        // Если первый игрок компьютер - делаем его ход
+        if (currentPlayer.isComputer()) {
+            makeComputerMove();
+        }
+        return true;
+    }
+
+    /**
+     * Выполняет ход пользователя и, если следующий игрок - компьютер, его ответ.
+     * Ход отклоняется, если партии нет, сейчас ход компьютера или клетка занята.
+     *
+     * @param x координата X (столбец)
+     * @param y координата Y (строка)
+     * @return false, если ход отклонён
+     */
+    public boolean move(int x, int y) {
+        if (!gameActive || currentPlayer.isComputer()) {
+            reject();
+            return false;
+        }
+
+        if (!board.makeMove(x, y, currentPlayer.getColor())) {
+            reject();
+            return false;
+        }
+        afterMove(x, y);
+        return true;
+    }
+
+    /**
+     * Сообщает слушателям об отклонённой команде.
+     */
+    public void reject() {
+        for (GameListener listener : listeners) {
+            listener.commandRejected();
+        }
+    }
+
+    /**
+     * @return true, если партия идёт
+     */
+    public boolean isActive() {
+        return gameActive;
+    }
+
+    /**
+     * @return доска текущей (или последней) партии; null, если партий не было
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @return игрок, который ходит; null, если партий не было
+     */
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * Делает ход компьютера.
+     * Вычисляет следующий ход, выполняет его и проверяет окончание игры.
+     */
+    private void makeComputerMove() {
+        if (!gameActive) return;
+
+        int[] move = moves.nextMove(board, currentPlayer.getColor(), Integer.MAX_VALUE, rules);
+        if (move == null) {
+            finishDraw();
+            return;
+        }
+
+        board.makeMove(move[0], move[1], currentPlayer.getColor());
+        afterMove(move[0], move[1]);
+    }
+
+    /**
+     * Сообщает о сделанном ходе, проверяет окончание игры и передаёт ход.
+     *
+     * @param x координата X хода
+     * @param y координата Y хода
+     */
+    private void afterMove(int x, int y) {
+        stones++;
+        char color = currentPlayer.getColor();
+        for (GameListener listener : listeners) {
+            listener.moveMade(color, x, y);
+        }
+
+        if (checkGameEnd(x, y)) {
+            return;
+        }
+
+        switchTurn();
+    }
+
+    /**
+     * Смена текущего игрока.
+     * Если новый игрок - компьютер, делает его ход автоматически.
+     */
+    private void switchTurn() {
+        currentPlayer = (currentPlayer == player1) ? player2 : player1;
+        if (currentPlayer.isComputer()) {
+            makeComputerMove();
+        }
+    }
+
+    /**
+     * Проверяет, закончилась ли игра.
+     * Условия окончания:
+     * 1. Компьютер/пользователь собрал квадрат - победа.
+     * 2. Доска заполнена - ничья.
+     * Игра заканчивается на первом же квадрате, поэтому достаточно проверить
+     * квадраты через последний ход ({@link RuleSet#completesSquare(Board, int, int)}).
+     *
+     * @param x координата X последнего хода
+     * @param y координата Y последнего хода
+     * @return true, если игра закончена
+     */
+    private boolean checkGameEnd(int x, int y) {
+        if (rules.completesSquare(board, x, y)) {
+            gameActive = false;
+            char color = currentPlayer.getColor();
+            for (GameListener listener : listeners) {
+                listener.gameWon(color);
+            }
+            return true;
+        }
+
+        if (stones == board.size * board.size) {
+            finishDraw();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Завершает игру с объявлением ничьи.
+     */
+    private void finishDraw() {
+        gameActive = false;
+        for (GameListener listener : listeners) {
+            listener.gameDrawn();
+        }
+    }
+}
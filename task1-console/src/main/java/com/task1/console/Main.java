@@ -1,5 +1,14 @@
 package com.task1.console;
 
+import com.task1.console.protocol.EngineProtocol;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
 import java.util.*;
 
 /**
@@ -11,10 +20,23 @@ public class Main {
     /**
      * Основной метод запуска приложения.
      * Организует цикл ввода команд от пользователя.
+     * С аргументом --batch [файл] выполняет сценарий команд из файла или stdin
+     * в пакетном режиме ({@link BatchMode}), с аргументом --protocol работает как движок
+     * для внешних программ ({@link EngineProtocol}).
      *
-     * @param args аргументы командной строки (не используются)
+     * @param args аргументы командной строки: пусто, --batch [файл] или --protocol
+     * @throws IOException при ошибке чтения сценария в пакетном режиме
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--protocol")) {
+            new EngineProtocol(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+            return;
+        }
+
         // Создаем сканер для считывания пользовательского ввода с консоли
         Scanner scanner = new Scanner(System.in);
 
@@ -29,51 +51,79 @@ public class Main {
             // Считываем строку команды от пользователя
             String line = scanner.nextLine();
 
-            // Парсим введённую команду
-            Command cmd = parser.parse(line);
-
-            // Выполняем действие в зависимости от типа команды
-            switch (cmd.getType()) {
-                case GAME:
-                    // Начало новой игры с указанными аргументами
-                    engine.startNewGame(cmd.getArgs());
-                    break;
-
-                case MOVE:
-                    // Выполнить ход пользователя
-                    engine.makeUserMove(cmd.getArgs());
-                    break;
-
-                case HELP:
-                    // Показать справку по командам
-                    printHelp();
-                    break;
-
-                case EXIT:
-                    // Завершение работы программы
-                    System.out.println("Выход из игры.");
-                    return;
-
-                default:
-                    // Некорректная или неизвестная команда
-                    engine.isIncorrectCommand();
+            // Парсим введённую команду и выполняем её
+            if (!execute(parser.parse(line), engine, System.out)) {
+                return;
             }
         }
     }
 
     /**
-     * Выводит все доступные команды в консоль.
+     * Выполняет разобранную команду.
+     *
+     * @param cmd команда
+     * @param engine игровой движок
+     * @param out поток вывода
+     * @return false, если команда - EXIT
+     */
+    static boolean execute(Command cmd, GameEngine engine, PrintStream out) {
+        // Выполняем действие в зависимости от типа команды
+        switch (cmd.getType()) {
+            case GAME:
+                // Начало новой игры с указанными аргументами
+                engine.startNewGame(cmd.getArgs());
+                return true;
+
+            case MOVE:
+                // Выполнить ход пользователя
+                engine.makeUserMove(cmd.getArgs());
+                return true;
+
+            case HELP:
+                // Показать справку по командам
+                printHelp(out);
+                return true;
+
+            case EXIT:
+                // Завершение работы программы
+                out.println("Выход из игры.");
+                return false;
+
+            default:
+                // Некорректная или неизвестная команда
+                engine.isIncorrectCommand();
+                return true;
+        }
+    }
+
+    /**
+     * Выполняет сценарий команд в пакетном режиме.
+     *
+     * @param args --batch и, необязательно, путь к файлу сценария
+     */
+    private static void runBatch(String[] args) throws IOException {
+        PrintStream out = BatchMode.bufferedStdout();
+        InputStream in = (args.length > 1) ? new FileInputStream(args[1]) : System.in;
+        try (Reader reader = new InputStreamReader(in, BatchMode.inputCharset())) {
+            BatchMode.run(reader, out);
+        }
+    }
+
+    /**
+     * Выводит все доступные команды.
      * Команды:
      * - GAME N, TYPE1 C1, TYPE2 C2 - начать новую игру
      * - MOVE X, Y - сделать ход игрока
      * - HELP - показать справку
      * - EXIT - завершить игру
+     *
+     * @param out поток вывода
      */
-    private static void printHelp() {
-        System.out.println("Доступные команды:");
-        System.out.println("GAME N, TYPE1 C1, TYPE2 C2 - начать новую игру (пример: GAME 5, user W, comp B)");
-        System.out.println("MOVE X, Y - сделать ход (пример: MOVE 2, 3)");
-        System.out.println("HELP - список команд");
-        System.out.println("EXIT - выход из программы");
+    private static void printHelp(PrintStream out) {
+        out.println("Доступные команды:");
+        out.println("GAME N, TYPE1 C1, TYPE2 C2 - начать новую игру (пример: GAME 5, user W, comp B)");
+        out.println("MOVE X, Y - сделать ход (пример: MOVE 2, 3)");
+        out.println("HELP - список команд");
+        out.println("EXIT - выход из программы");
     }
 }
@@ -0,0 +1,183 @@
+package com.task1.console;
+
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Вычисление хода компьютера без состояния: один экземпляр можно использовать
+ * из любого количества потоков одновременно (консольная игра, сервис, турнир стратегий).
+ * Доска только читается, случайные числа берутся из {@link ThreadLocalRandom}, свободные клетки
+ * собираются в буфер потока ({@link Scratch}): вычисление хода по правилам с таблицей квадратов
+ * выделяет фиксированный объём памяти, не зависящий от размера доски (в основном - результат).
+ */
+public final class MoveService {
+
+    /** Общий экземпляр */
+    private static final MoveService INSTANCE = new MoveService();
+
+    private MoveService() {
+    }
+
+    /**
+     * @return общий экземпляр сервиса
+     */
+    public static MoveService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Вычисляет следующий ход компьютера по стандартным правилам без ограничения бюджета.
+     *
+     * @param board текущее состояние доски
+     * @param computerColor цвет компьютера ('W' или 'B')
+     * @return массив [X, Y] следующего хода или null, если ход невозможен
+     */
+    public int[] nextMove(Board board, char computerColor) {
+        return nextMove(board, computerColor, Integer.MAX_VALUE, Rules.STANDARD);
+    }
+
+    /**
+     * Вычисляет следующий ход компьютера по заданным правилам с ограниченным бюджетом.
+     * Логика:
+     * 1. Если есть выигрышный ход для компьютера - делаем его.
+     * 2. Если есть ход, блокирующий соперника, - делаем его с вероятностью 30%.
+     * 3. Иначе выбираем случайную свободную клетку.
+     * <p>
+     * Бюджет - это максимальное количество симуляций хода (отдельно для поиска выигрыша
+     * и для поиска блокировки). Симуляция хода - проверка квадратов правил, проходящих
+     * через клетку, без копирования доски. Клетки, рядом с которыми нет фишек нужного цвета,
+     * не симулируются: они не могут замкнуть квадрат. Если бюджет меньше числа свободных
+     * клеток, клетки перебираются в случайном порядке, а не по строкам: ограниченный поиск
+     * проверяет случайную выборку кандидатов со всей доски, а не её верхнюю часть.
+     * Когда бюджет исчерпан, поиск прекращается и выбирается случайная клетка.
+     *
+     * @param board текущее состояние доски
+     * @param computerColor цвет компьютера ('W' или 'B')
+     * @param maxSimulations максимальное количество симуляций на каждом этапе
+     * @param rules правила игры
+     * @return массив [X, Y] следующего хода или null, если ход невозможен
+     */
+    public int[] nextMove(Board board, char computerColor, int maxSimulations, RuleSet rules) {
+        int size = board.size;
+        int reach = rules.reach(size);
+        // Если радиус покрывает всю доску, отбор соседних клеток ничего не отсекает
+        boolean nearbyOnly = reach < size - 1;
+
+        // Свободные клетки по строкам (в порядке Board.getFreeCells) - в буфер потока
+        Scratch scratch = Scratch.get();
+        scratch.simulations = 0;
+        int[] freeCells = scratch.cells(size * size);
+        int free = 0;
+        for (int y = 0; y < size; y++) {
+            char[] row = board.grid[y];
+            for (int x = 0; x < size; x++) {
+                if (row[x] == '.') freeCells[free++] = y * size + x;
+            }
+        }
+        if (free == 0) return null;
+        RuleSet.MoveChecker checker = rules.checker(board);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Порядок перебора: по строкам или, если бюджет может оборвать перебор,
+        // обход с взаимно простым с free шагом от случайной клетки
+        int start = 0;
+        int stride = 1;
+        if (maxSimulations < free) {
+            start = random.nextInt(free);
+            stride = randomStride(random, free);
+        }
+
+        // Проверяем выигрышный ход для компьютера
+        int simulations = 0;
+        for (int i = 0, index = start; i < free; i++, index = next(index, stride, free)) {
+            int x = freeCells[index] % size;
+            int y = freeCells[index] / size;
+            if (nearbyOnly && !hasStoneNearby(board, x, y, computerColor, reach)) continue;
+            if (simulations++ >= maxSimulations) break;
+
+            if (checker.wouldComplete(x, y, computerColor)) {
+                scratch.simulations = simulations;
+                return new int[] {x, y};
+            }
+        }
+        scratch.simulations = Math.min(simulations, maxSimulations);
+
+        // Проверяем возможность блокировки соперника
+        char opponentColor = (computerColor == 'W') ? 'B' : 'W';
+        simulations = 0;
+        for (int i = 0, index = start; i < free; i++, index = next(index, stride, free)) {
+            int x = freeCells[index] % size;
+            int y = freeCells[index] / size;
+            if (nearbyOnly && !hasStoneNearby(board, x, y, opponentColor, reach)) continue;
+            if (simulations++ >= maxSimulations) break;
+
+            if (checker.wouldComplete(x, y, opponentColor)) {
+                if (random.nextInt(100) < 30) { // вероятность блокировки 30%
+                    scratch.simulations += simulations;
+                    return new int[] {x, y};
+                }
+            }
+        }
+        scratch.simulations += Math.min(simulations, maxSimulations);
+
+        // Случайный ход
+        int cell = freeCells[random.nextInt(free)];
+        return new int[] {cell % size, cell / size};
+    }
+
+    /**
+     * Выбирает случайный шаг обхода, взаимно простой с количеством клеток:
+     * обход с таким шагом посещает каждую клетку ровно один раз.
+     *
+     * @param random генератор случайных чисел
+     * @param count количество клеток
+     * @return шаг от 1 до count - 1 (1, если count &lt;= 2)
+     */
+    private static int randomStride(ThreadLocalRandom random, int count) {
+        if (count <= 2) return 1;
+        while (true) {
+            int stride = 1 + random.nextInt(count - 1);
+            if (gcd(stride, count) == 1) return stride;
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * @return следующий индекс обхода с шагом stride по кругу из count клеток
+     */
+    private static int next(int index, int stride, int count) {
+        index += stride;
+        return (index >= count) ? index - count : index;
+    }
+
+    /**
+     * Проверяет, есть ли фишка заданного цвета на расстоянии не больше reach клеток.
+     * У каждой вершины квадрата есть другая вершина не дальше reach клеток по каждой оси
+     * (для стандартных правил - 2), поэтому только такие клетки могут замкнуть квадрат.
+     *
+     * @param board текущее состояние доски
+     * @param x координата X клетки
+     * @param y координата Y клетки
+     * @param color цвет фишки
+     * @param reach радиус поиска, см. {@link RuleSet#reach(int)}
+     * @return true, если рядом есть фишка заданного цвета
+     */
+    private static boolean hasStoneNearby(Board board, int x, int y, char color, int reach) {
+        for (int dy = -reach; dy <= reach; dy++) {
+            for (int dx = -reach; dx <= reach; dx++) {
+                if (board.getCell(x + dx, y + dy) == color) return true;
+            }
+        }
+        return false;
+    }
+}
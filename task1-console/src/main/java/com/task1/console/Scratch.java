@@ -0,0 +1,82 @@
+package com.task1.console;
+
+/**
+ * Рабочие данные потока для вычислений с фиксированным, не зависящим от размера доски
+ * выделением памяти: доски по размерам и буфер номеров клеток.
+ * Каждый поток получает свой экземпляр, который живёт, пока жив поток,
+ * поэтому потоки пула сервиса после первого запроса каждого размера больше не выделяют
+ * доски и буферы.
+ * <p>
+ * Данные принадлежат текущему потоку и годятся до следующего запроса того же размера
+ * в этом потоке: их нельзя передавать другим потокам или сохранять.
+ */
+public final class Scratch {
+
+    /** Доски больше этого размера не хранятся: память потока не растёт из-за одного огромного запроса */
+    public static final int MAX_SIZE = 64;
+
+    /** Рабочие данные текущего потока */
+    private static final ThreadLocal<Scratch> CURRENT = ThreadLocal.withInitial(Scratch::new);
+
+    /** Доски по размеру */
+    private final Board[] boards = new Board[MAX_SIZE + 1];
+
+    /** Буфер номеров клеток (y * size + x) */
+    private int[] cells = new int[16];
+
+    /** Количество симуляций последнего вычисления хода в этом потоке */
+    int simulations;
+
+    private Scratch() {
+    }
+
+    /**
+     * @return рабочие данные текущего потока
+     */
+    public static Scratch get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Возвращает доску потока заданного размера. Содержимое доски не определено:
+     * её нужно заполнить, например {@link Board#load(CharSequence)}.
+     *
+     * @param size размер доски
+     * @return доска потока или новая доска, если размер больше {@link #MAX_SIZE}
+     */
+    public Board board(int size) {
+        if (size > MAX_SIZE) {
+            return new Board(size);
+        }
+        Board board = boards[size];
+        if (board == null) {
+            board = new Board(size);
+            boards[size] = board;
+        }
+        return board;
+    }
+
+    /**
+     * @return количество симуляций хода, которое сделало последнее вычисление хода
+     *         ({@link MoveService}) в этом потоке
+     */
+    public int getSimulations() {
+        return simulations;
+    }
+
+    /**
+     * Возвращает буфер номеров клеток не меньше заданной ёмкости.
+     *
+     * @param capacity нужная ёмкость
+     * @return буфер потока или новый буфер для доски больше {@link #MAX_SIZE}
+     */
+    int[] cells(int capacity) {
+        if (capacity > MAX_SIZE * MAX_SIZE) {
+            return new int[capacity];
+        }
+        if (cells.length < capacity) {
+            cells = new int[Math.max(capacity, cells.length * 2)];
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,290 @@
+package com.task1.console.batch;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.SquarePatterns;
+
+import java.util.Arrays;
+
+/**
+ * Набор досок одного размера для одновременной обработки многих партий
+ * (самоигра, пакетная проверка статуса).
+ * <p>
+ * Доски хранятся "по битам": для каждой клетки и цвета - битовая строка по всем партиям,
+ * бит g слова (g / 64) - партия g. Строки клеток лежат подряд в одном массиве long
+ * ({@code plane[cell * words + word]}), поэтому проверка одного квадрата во всех партиях -
+ * это AND четырёх строк клеток слово за словом: прямой цикл без ветвлений и обращений по
+ * индексу партии, который JIT разворачивает и векторизует. Одно слово обслуживает 64 партии.
+ * <p>
+ * Квадраты берутся из таблицы правил ({@link RuleSet#patterns(int)}), поэтому результат
+ * {@link #squares(char, long[])} совпадает с {@link RuleSet#hasSquare(Board, char)}
+ * (для стандартных правил - с {@link Board#hasSquare(char)}) для каждой партии.
+ * Не потокобезопасен.
+ */
+public final class BoardBatch {
+
+    /** Размер досок */
+    private final int size;
+
+    /** Количество партий */
+    private final int games;
+
+    /** Количество слов в битовой строке клетки (по 64 партии) */
+    private final int words;
+
+    /** Таблица квадратов правил */
+    private final SquarePatterns patterns;
+
+    /** Белые фишки: бит партии g в слове cell * words + g / 64 */
+    private final long[] white;
+
+    /** Чёрные фишки, в том же порядке */
+    private final long[] black;
+
+    /**
+     * Создаёт набор пустых досок.
+     *
+     * @param rules правила игры (квадраты берутся из их таблицы)
+     * @param size размер досок
+     * @param games количество партий
+     * @throws IllegalArgumentException если размер или количество партий некорректны
+     */
+    public BoardBatch(RuleSet rules, int size, int games) {
+        if (size <= 0 || games <= 0) {
+            throw new IllegalArgumentException("size and games must be positive: " + size + ", " + games);
+        }
+        this.size = size;
+        this.games = games;
+        this.words = (games + 63) >>> 6;
+        this.patterns = rules.patterns(size);
+        this.white = new long[size * size * words];
+        this.black = new long[size * size * words];
+    }
+
+    /**
+     * @return размер досок
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return количество партий
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * @return количество слов в битовой маске партий (длина масок результатов)
+     */
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * Очищает все доски.
+     */
+    public void clear() {
+        Arrays.fill(white, 0L);
+        Arrays.fill(black, 0L);
+    }
+
+    /**
+     * Загружает доску партии из строки в формате {@link Board#load(CharSequence)}:
+     * клетки по строкам, 'w'/'W' - белая, 'b'/'B' - чёрная, остальное и недостающие - пусто.
+     *
+     * @param game номер партии
+     * @param data клетки доски
+     */
+    public void load(int game, CharSequence data) {
+        int length = Math.min(data.length(), size * size);
+        int word = game >>> 6;
+        long bit = 1L << game;
+        for (int cell = 0; cell < size * size; cell++) {
+            int i = cell * words + word;
+            char c = (cell < length) ? data.charAt(cell) : '.';
+            white[i] = (c == 'w' || c == 'W') ? (white[i] | bit) : (white[i] & ~bit);
+            black[i] = (c == 'b' || c == 'B') ? (black[i] | bit) : (black[i] & ~bit);
+        }
+    }
+
+    /**
+     * Загружает доску партии.
+     *
+     * @param game номер партии
+     * @param board доска того же размера
+     * @throws IllegalArgumentException если размер доски другой
+     */
+    public void load(int game, Board board) {
+        if (board.size != size) {
+            throw new IllegalArgumentException("Board size " + board.size + " != " + size);
+        }
+        int word = game >>> 6;
+        long bit = 1L << game;
+        for (int y = 0; y < size; y++) {
+            char[] row = board.grid[y];
+            for (int x = 0; x < size; x++) {
+                int i = (y * size + x) * words + word;
+                white[i] = (row[x] == 'W') ? (white[i] | bit) : (white[i] & ~bit);
+                black[i] = (row[x] == 'B') ? (black[i] | bit) : (black[i] & ~bit);
+            }
+        }
+    }
+
+    /**
+     * @param game номер партии
+     * @return доска партии
+     */
+    public Board toBoard(int game) {
+        Board board = new Board(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                board.grid[y][x] = getCell(game, y * size + x);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @param game номер партии
+     * @param cell индекс клетки y * size + x
+     * @return 'W', 'B' или '.'
+     */
+    public char getCell(int game, int cell) {
+        int i = cell * words + (game >>> 6);
+        long bit = 1L << game;
+        return ((white[i] & bit) != 0) ? 'W' : ((black[i] & bit) != 0) ? 'B' : '.';
+    }
+
+    /**
+     * Ставит фишку в партии без проверки занятости клетки.
+     *
+     * @param game номер партии
+     * @param cell индекс клетки y * size + x
+     * @param color цвет фишки ('W' или 'B')
+     */
+    public void place(int game, int cell, char color) {
+        long[] plane = (color == 'W') ? white : black;
+        plane[cell * words + (game >>> 6)] |= 1L << game;
+    }
+
+    /**
+     * Делает по ходу одного цвета во всех партиях из маски: партия g ставит фишку в клетку cells[g].
+     * Занятость клеток не проверяется.
+     *
+     * @param cells клетка хода каждой партии (индекс y * size + x)
+     * @param mask партии, которые ходят (длина {@link #getWords()})
+     * @param color цвет фишек ('W' или 'B')
+     */
+    public void applyMoves(int[] cells, long[] mask, char color) {
+        long[] plane = (color == 'W') ? white : black;
+        for (int word = 0; word < words; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                plane[cells[(word << 6) | bit] * words + word] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * Находит партии, в которых у цвета есть квадрат: все квадраты таблицы правил
+     * проверяются во всех партиях сразу.
+     *
+     * @param color цвет ('W' или 'B')
+     * @param out маска результата длиной {@link #getWords()}: бит партии, в которой есть квадрат
+     * @return out
+     */
+    public long[] squares(char color, long[] out) {
+        return squares(color, out, 0, words);
+    }
+
+    /**
+     * То же, что {@link #squares(char, long[])}, только для слов [from, to):
+     * самоигра не проверяет слова, где все партии уже закончились.
+     *
+     * @param color цвет ('W' или 'B')
+     * @param out маска результата; слова вне диапазона не изменяются
+     * @param from первое слово
+     * @param to слово после последнего
+     * @return out
+     */
+    long[] squares(char color, long[] out, int from, int to) {
+        long[] plane = (color == 'W') ? white : black;
+        int words = this.words;
+        Arrays.fill(out, from, to, 0L);
+        for (int s = 0, n = patterns.getSquareCount(); s < n; s++) {
+            int[] square = patterns.getSquare(s);
+            int a = square[0] * words;
+            int b = square[1] * words;
+            int c = square[2] * words;
+            int d = square[3] * words;
+            for (int w = from; w < to; w++) {
+                out[w] |= plane[a + w] & plane[b + w] & plane[c + w] & plane[d + w];
+            }
+        }
+        return trim(out);
+    }
+
+    /**
+     * Находит партии с заполненной доской.
+     *
+     * @param out маска результата длиной {@link #getWords()}: бит партии без свободных клеток
+     * @return out
+     */
+    public long[] full(long[] out) {
+        int words = this.words;
+        Arrays.fill(out, 0, words, -1L);
+        for (int cell = 0, n = size * size; cell < n; cell++) {
+            int base = cell * words;
+            for (int w = 0; w < words; w++) {
+                out[w] &= white[base + w] | black[base + w];
+            }
+        }
+        return trim(out);
+    }
+
+    /**
+     * @param game номер партии
+     * @param color цвет ('W' или 'B')
+     * @return true, если в партии у цвета есть квадрат
+     */
+    public boolean hasSquare(int game, char color) {
+        long[] plane = (color == 'W') ? white : black;
+        int word = game >>> 6;
+        long bit = 1L << game;
+        for (int s = 0, n = patterns.getSquareCount(); s < n; s++) {
+            int[] square = patterns.getSquare(s);
+            if ((plane[square[0] * words + word] & plane[square[1] * words + word]
+                    & plane[square[2] * words + word] & plane[square[3] * words + word] & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Сбрасывает биты за последней партией в последнем слове маски.
+     *
+     * @param mask маска партий
+     * @return mask
+     */
+    private long[] trim(long[] mask) {
+        int tail = games & 63;
+        if (tail != 0) {
+            mask[words - 1] &= (1L << tail) - 1;
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask маска партий
+     * @param game номер партии
+     * @return true, если бит партии установлен
+     */
+    public static boolean isSet(long[] mask, int game) {
+        return (mask[game >>> 6] & (1L << game)) != 0;
+    }
+}
@@ -0,0 +1,222 @@
+package com.task1.console.batch;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Самоигра случайными ходами на многих досках одновременно ({@link BoardBatch})
+ * и бенчмарк партий в секунду в сравнении с обычной игрой по одной доске ({@link Board}).
+ * <p>
+ * Случайная партия задаётся порядком клеток: игроки по очереди ставят фишки в клетки
+ * в этом порядке, пока один из них не соберёт квадрат или доска не заполнится.
+ * Оба способа играют одни и те же порядки, и бенчмарк проверяет, что исходы партий совпадают.
+ *
+ * Запуск: java -cp target/squares-console.jar com.task1.console.batch.SelfPlay [партии] [размеры]
+ * [правила] [зерно]
+ * По умолчанию 100000 партий на размерах 5,7,10,15 по правилам standard.
+ */
+public final class SelfPlay {
+
+    /** Партий в одном наборе досок: 64 слова на клетку, набор 15x15 занимает 230 КБ */
+    public static final int CHUNK = 4096;
+
+    /** Размеры досок по умолчанию */
+    private static final int[] SIZES = {5, 7, 10, 15};
+
+    /** Количество повторов измерения */
+    private static final int ROUNDS = 3;
+
+    /** Ход, раньше которого квадрата быть не может: у игрока меньше четырёх фишек */
+    private static final int FIRST_SQUARE_PLY = 6;
+
+    private SelfPlay() {
+    }
+
+    /**
+     * Создаёт случайные порядки клеток для партий.
+     *
+     * @param size размер доски
+     * @param games количество партий
+     * @param random генератор случайных чисел
+     * @return порядки подряд: клетки партии g - [g * size * size, (g + 1) * size * size)
+     */
+    public static int[] randomOrders(int size, int games, SplittableRandom random) {
+        int cells = size * size;
+        int[] orders = new int[games * cells];
+        for (int g = 0; g < games; g++) {
+            int base = g * cells;
+            for (int i = 0; i < cells; i++) {
+                int j = random.nextInt(i + 1);
+                orders[base + i] = orders[base + j];
+                orders[base + j] = i;
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Играет партии одновременно на {@link BoardBatch}: на каждом ходу все незаконченные партии
+     * ставят фишку, затем квадраты цвета, который ходил, проверяются во всех партиях сразу.
+     *
+     * @param rules правила игры
+     * @param size размер доски
+     * @param orders порядки клеток партий, см. {@link #randomOrders(int, int, SplittableRandom)}
+     * @param winners исход партии: 'W', 'B' или '.' для ничьей; длина - количество партий
+     * @param plies количество ходов в партии
+     */
+    public static void playLockstep(RuleSet rules, int size, int[] orders, char[] winners, int[] plies) {
+        int games = winners.length;
+        int cells = size * size;
+        BoardBatch batch = new BoardBatch(rules, size, games);
+        int words = batch.getWords();
+        long[] active = new long[words];
+        Arrays.fill(active, -1L);
+        if ((games & 63) != 0) {
+            active[words - 1] = (1L << games) - 1;
+        }
+        long[] won = new long[words];
+        int[] moves = new int[games];
+        Arrays.fill(winners, '.');
+        Arrays.fill(plies, cells);
+
+        // Проверяются только слова [from, to), в которых остались незаконченные партии
+        int from = 0;
+        int to = words;
+        for (int ply = 0; ply < cells && from < to; ply++) {
+            char color = (ply % 2 == 0) ? 'W' : 'B';
+            for (int g = from << 6, end = Math.min(games, to << 6); g < end; g++) {
+                moves[g] = orders[g * cells + ply];
+            }
+            batch.applyMoves(moves, active, color);
+            if (ply < FIRST_SQUARE_PLY) continue;
+
+            batch.squares(color, won, from, to);
+            for (int w = from; w < to; w++) {
+                long bits = won[w] & active[w];
+                active[w] &= ~bits;
+                while (bits != 0) {
+                    int g = (w << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    winners[g] = color;
+                    plies[g] = ply + 1;
+                }
+            }
+            while (from < to && active[from] == 0) from++;
+            while (to > from && active[to - 1] == 0) to--;
+        }
+    }
+
+    /**
+     * Играет те же партии по одной на {@link Board}: после каждого хода проверяются
+     * квадраты через поставленную фишку ({@link RuleSet#completesSquare(Board, int, int)}).
+     *
+     * @param rules правила игры
+     * @param size размер доски
+     * @param orders порядки клеток партий
+     * @param winners исход партии: 'W', 'B' или '.' для ничьей
+     * @param plies количество ходов в партии
+     */
+    public static void playOneByOne(RuleSet rules, int size, int[] orders, char[] winners, int[] plies) {
+        int cells = size * size;
+        for (int g = 0; g < winners.length; g++) {
+            Board board = new Board(size);
+            winners[g] = '.';
+            plies[g] = cells;
+            for (int ply = 0; ply < cells; ply++) {
+                char color = (ply % 2 == 0) ? 'W' : 'B';
+                int cell = orders[g * cells + ply];
+                int x = cell % size;
+                int y = cell / size;
+                board.makeMove(x, y, color);
+                if (ply >= FIRST_SQUARE_PLY && rules.completesSquare(board, x, y)) {
+                    winners[g] = color;
+                    plies[g] = ply + 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Точка входа бенчмарка.
+     *
+     * @param args необязательные количество партий, размеры через запятую, правила и зерно
+     */
+    public static void main(String[] args) {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int[] sizes = (args.length > 1)
+                ? Arrays.stream(args[1].split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray()
+                : SIZES;
+        RuleSet rules = Rules.get((args.length > 2) ? args[2] : "standard");
+        if (rules == null) {
+            System.out.println("Unknown rules: " + args[2] + ", available: " + Rules.names());
+            return;
+        }
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 1;
+
+        System.out.printf("%5s %8s %7s %7s %7s %7s %14s %14s %8s%n", "size", "games", "W %", "B %",
+                "draw %", "plies", "lockstep g/s", "board g/s", "speedup");
+        for (int size : sizes) {
+            int chunks = (games + CHUNK - 1) / CHUNK;
+            int[][] orders = new int[chunks][];
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int c = 0; c < chunks; c++) {
+                orders[c] = randomOrders(size, Math.min(CHUNK, games - c * CHUNK), random);
+            }
+
+            char[][] winners = new char[chunks][];
+            int[][] plies = new int[chunks][];
+            long lockstepNanos = Long.MAX_VALUE;
+            long boardNanos = Long.MAX_VALUE;
+            int mismatches = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int c = 0; c < chunks; c++) {
+                    int n = orders[c].length / (size * size);
+                    winners[c] = new char[n];
+                    plies[c] = new int[n];
+                    playLockstep(rules, size, orders[c], winners[c], plies[c]);
+                }
+                lockstepNanos = Math.min(lockstepNanos, System.nanoTime() - start);
+
+                mismatches = 0;
+                long elapsed = 0;
+                for (int c = 0; c < chunks; c++) {
+                    int n = winners[c].length;
+                    char[] w = new char[n];
+                    int[] p = new int[n];
+                    start = System.nanoTime();
+                    playOneByOne(rules, size, orders[c], w, p);
+                    elapsed += System.nanoTime() - start;
+                    for (int g = 0; g < n; g++) {
+                        if (w[g] != winners[c][g] || p[g] != plies[c][g]) mismatches++;
+                    }
+                }
+                boardNanos = Math.min(boardNanos, elapsed);
+            }
+
+            long white = 0;
+            long black = 0;
+            long totalPlies = 0;
+            for (int c = 0; c < chunks; c++) {
+                for (int g = 0; g < winners[c].length; g++) {
+                    if (winners[c][g] == 'W') white++;
+                    if (winners[c][g] == 'B') black++;
+                    totalPlies += plies[c][g];
+                }
+            }
+            double lockstepRate = games / (lockstepNanos / 1e9);
+            double boardRate = games / (boardNanos / 1e9);
+            System.out.printf("%5d %8d %7.1f %7.1f %7.1f %7.1f %14.0f %14.0f %7.1fx%n", size, games,
+                    100.0 * white / games, 100.0 * black / games, 100.0 * (games - white - black) / games,
+                    (double) totalPlies / games, lockstepRate, boardRate, lockstepRate / boardRate);
+            if (mismatches != 0) {
+                System.out.println("MISMATCH: " + mismatches + " games differ from Board results");
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.task1.console.perft;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Перечисление всех продолжений партии из позиции до заданной глубины (аналог perft в шахматах).
+ * Ветка заканчивается, когда ход образует квадрат по правилам {@link RuleSet} или заполняет доску.
+ *
+ * Используется как эталон при изменении представления доски (количества позиций, выигрышей
+ * и ничьих по глубинам должны совпадать точно) и как бенчмарк генерации ходов и проверки
+ * квадрата (позиций в секунду). Верхние уровни дерева раскладываются на задачи {@link ForkJoinPool},
+ * каждая со своей копией доски; нижние уровни перебираются последовательно на месте.
+ *
+ * Запуск: java -cp target/squares-console.jar com.task1.console.perft.Perft размер глубина
+ * [правила] [потоки] [клетки]
+ * Клетки - позиция по строкам из символов '.', 'w', 'b'; ходит белый, если белых и чёрных фишек
+ * поровну, иначе чёрный. По умолчанию - пустая доска, правила standard, потоки по числу ядер.
+ */
+public final class Perft {
+
+    /** Остаток глубины, начиная с которого поддеревья считаются отдельными задачами */
+    private static final int SPLIT_DEPTH = 4;
+
+    private Perft() {}
+
+    /**
+     * Точка входа перечисления.
+     *
+     * @param args размер доски, глубина, правила, количество потоков, позиция
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: Perft <size> <depth> [rules] [threads] [cells]");
+            return;
+        }
+        int size = Integer.parseInt(args[0]);
+        int depth = Integer.parseInt(args[1]);
+        RuleSet rules = Rules.get((args.length > 2) ? args[2] : "standard");
+        if (rules == null) {
+            System.out.println("Unknown rules: " + args[2] + ", available: " + Rules.names());
+            return;
+        }
+        int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        Board board = new Board(size);
+        int white = 0;
+        int black = 0;
+        if (args.length > 4) {
+            String cells = args[4];
+            for (int i = 0; i < cells.length() && i < size * size; i++) {
+                char cell = Character.toUpperCase(cells.charAt(i));
+                if (cell == 'W' || cell == 'B') {
+                    board.makeMove(i % size, i / size, cell);
+                    if (cell == 'W') white++; else black++;
+                }
+            }
+        }
+        char color = (white == black) ? 'W' : 'B';
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            PerftResult result = count(board, color, depth, rules, pool);
+            System.out.printf("%5s %16s %14s %14s%n", "depth", "nodes", "wins", "draws");
+            for (int d = 1; d <= depth; d++) {
+                System.out.printf("%5d %16d %14d %14d%n",
+                        d, result.getNodes(d), result.getWins(d), result.getDraws(d));
+            }
+            double seconds = result.getElapsedNanos() / 1e9;
+            System.out.printf("leaves %d, nodes %d, %.3f s, %.0f nodes/s, %d threads%n",
+                    result.getLeaves(), result.getTotalNodes(), seconds,
+                    result.getTotalNodes() / Math.max(seconds, 1e-9), threads);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Перечисляет продолжения в общем пуле {@link ForkJoinPool#commonPool()}.
+     *
+     * @param board позиция (не изменяется)
+     * @param color цвет игрока, который ходит
+     * @param depth глубина перечисления
+     * @param rules правила игры
+     * @return счётчики по глубинам
+     */
+    public static PerftResult count(Board board, char color, int depth, RuleSet rules) {
+        return count(board, color, depth, rules, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Перечисляет продолжения в заданном пуле.
+     *
+     * @param board позиция (не изменяется)
+     * @param color цвет игрока, который ходит ('W' или 'B')
+     * @param depth глубина перечисления, не меньше 1
+     * @param rules правила игры
+     * @param pool пул для параллельного перебора поддеревьев
+     * @return счётчики по глубинам
+     * @throws IllegalArgumentException если параметры некорректны или на доске уже есть квадрат
+     */
+    public static PerftResult count(Board board, char color, int depth, RuleSet rules, ForkJoinPool pool) {
+        if (color != 'W' && color != 'B') {
+            throw new IllegalArgumentException("Color must be 'W' or 'B'");
+        }
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be positive");
+        }
+        if (rules.hasSquare(board, 'W') || rules.hasSquare(board, 'B')) {
+            throw new IllegalArgumentException("Game is already finished");
+        }
+
+        long start = System.nanoTime();
+        int empty = board.getFreeCells().size();
+        PerftResult result = (empty == 0)
+                ? new PerftResult(depth)
+                : pool.invoke(new SubtreeTask(new Board(board), color, 1, depth, empty, rules));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Последовательно перебирает поддерево, ставя и снимая фишки на одной доске.
+     *
+     * @param board доска (восстанавливается после перебора)
+     * @param color цвет игрока, который ходит
+     * @param ply глубина позиций после хода
+     * @param depth глубина перечисления
+     * @param empty количество свободных клеток
+     * @param rules правила игры
+     * @param result счётчики
+     */
+    private static void enumerate(Board board, char color, int ply, int depth, int empty,
+                                  RuleSet rules, PerftResult result) {
+        char next = (color == 'W') ? 'B' : 'W';
+        char[][] grid = board.grid;
+        for (int y = 0; y < board.size; y++) {
+            for (int x = 0; x < board.size; x++) {
+                if (grid[y][x] != '.') continue;
+                grid[y][x] = color;
+                boolean win = rules.completesSquare(board, x, y);
+                boolean draw = !win && empty == 1;
+                result.count(ply, win, draw);
+                if (!win && !draw && ply < depth) {
+                    enumerate(board, next, ply + 1, depth, empty - 1, rules, result);
+                }
+                grid[y][x] = '.';
+            }
+        }
+    }
+
+    /**
+     * Задача перебора поддерева: на верхних уровнях раскладывается на задачи по ходам,
+     * на нижних перебирает поддерево последовательно.
+     */
+    private static final class SubtreeTask extends RecursiveTask<PerftResult> {
+
+        private final Board board;
+        private final char color;
+        private final int ply;
+        private final int depth;
+        private final int empty;
+        private final RuleSet rules;
+
+        SubtreeTask(Board board, char color, int ply, int depth, int empty, RuleSet rules) {
+            this.board = board;
+            this.color = color;
+            this.ply = ply;
+            this.depth = depth;
+            this.empty = empty;
+            this.rules = rules;
+        }
+
+        @Override
+        protected PerftResult compute() {
+            PerftResult result = new PerftResult(depth);
+            if (depth - ply + 1 < SPLIT_DEPTH) {
+                enumerate(board, color, ply, depth, empty, rules, result);
+                return result;
+            }
+
+            char next = (color == 'W') ? 'B' : 'W';
+            List<SubtreeTask> tasks = new ArrayList<>();
+            for (int y = 0; y < board.size; y++) {
+                for (int x = 0; x < board.size; x++) {
+                    if (board.grid[y][x] != '.') continue;
+                    board.grid[y][x] = color;
+                    boolean win = rules.completesSquare(board, x, y);
+                    boolean draw = !win && empty == 1;
+                    result.count(ply, win, draw);
+                    if (!win && !draw && ply < depth) {
+                        tasks.add(new SubtreeTask(new Board(board), next, ply + 1, depth, empty - 1, rules));
+                    }
+                    board.grid[y][x] = '.';
+                }
+            }
+            invokeAll(tasks);
+            for (SubtreeTask task : tasks) {
+                result.add(task.join());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.task1.console.perft;
+
+/**
+ * Счётчики перечисления дерева партий {@link Perft} по глубине (количеству сделанных ходов).
+ * На глубине d считаются все позиции, получаемые d ходами; из них выигрыши (ход образовал квадрат)
+ * и ничьи (доска заполнена без квадрата) - конечные позиции, дальше которых дерево не продолжается.
+ */
+public final class PerftResult {
+
+    /** Количество позиций по глубине: nodes[d - 1] - на глубине d */
+    private final long[] nodes;
+
+    /** Количество выигрышей по глубине */
+    private final long[] wins;
+
+    /** Количество ничьих по глубине */
+    private final long[] draws;
+
+    /** Время перечисления в наносекундах */
+    private long elapsedNanos;
+
+    /**
+     * Создаёт нулевые счётчики.
+     *
+     * @param depth глубина перечисления
+     */
+    public PerftResult(int depth) {
+        this.nodes = new long[depth];
+        this.wins = new long[depth];
+        this.draws = new long[depth];
+    }
+
+    /**
+     * Прибавляет счётчики другого результата той же глубины (поддерева).
+     *
+     * @param other счётчики поддерева
+     */
+    void add(PerftResult other) {
+        for (int d = 0; d < nodes.length; d++) {
+            nodes[d] += other.nodes[d];
+            wins[d] += other.wins[d];
+            draws[d] += other.draws[d];
+        }
+    }
+
+    /**
+     * Учитывает позицию на глубине.
+     *
+     * @param depth глубина позиции, от 1
+     * @param win ход образовал квадрат
+     * @param draw доска заполнена без квадрата
+     */
+    void count(int depth, boolean win, boolean draw) {
+        nodes[depth - 1]++;
+        if (win) {
+            wins[depth - 1]++;
+        } else if (draw) {
+            draws[depth - 1]++;
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return глубина перечисления
+     */
+    public int getDepth() {
+        return nodes.length;
+    }
+
+    /**
+     * @param depth глубина, от 1
+     * @return количество позиций на глубине
+     */
+    public long getNodes(int depth) {
+        return nodes[depth - 1];
+    }
+
+    /**
+     * @param depth глубина, от 1
+     * @return количество выигрышей на глубине
+     */
+    public long getWins(int depth) {
+        return wins[depth - 1];
+    }
+
+    /**
+     * @param depth глубина, от 1
+     * @return количество ничьих на глубине
+     */
+    public long getDraws(int depth) {
+        return draws[depth - 1];
+    }
+
+    /**
+     * @return количество листьев: конечные позиции на всех глубинах и все позиции на последней
+     */
+    public long getLeaves() {
+        long leaves = nodes[nodes.length - 1];
+        for (int d = 0; d < nodes.length - 1; d++) {
+            leaves += wins[d] + draws[d];
+        }
+        return leaves;
+    }
+
+    /**
+     * @return общее количество позиций на всех глубинах
+     */
+    public long getTotalNodes() {
+        long total = 0;
+        for (long count : nodes) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return время перечисления в наносекундах
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,490 @@
+package com.task1.console.protocol;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+import com.task1.console.search.AlphaBetaSearch;
+import com.task1.console.search.SearchInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Текстовый протокол движка для внешних программ (графических оболочек, турнирных менеджеров)
+ * в духе UCI: долгоживущий процесс читает команды из stdin и отвечает в stdout по строке.
+ * Поиск ({@link AlphaBetaSearch}) идёт в отдельном потоке, поэтому во время поиска протокол
+ * принимает команды и останавливает поиск по stop за миллисекунды.
+ *
+ * Команды:
+ * <ul>
+ *   <li>squares - ответ: строки id, option и squaresok;</li>
+ *   <li>isready - ответ readyok;</li>
+ *   <li>setoption name rules value ПРАВИЛА - правила игры (standard, axis, axis-any, full);</li>
+ *   <li>newgame - сброс позиции;</li>
+ *   <li>position N [КЛЕТКИ] [turn w|b] [moves X,Y ...] - доска N x N, клетки по строкам из '.', 'w', 'b'
+ *       (как data в REST API); без turn ходит белый, если белых и чёрных фишек поровну, иначе чёрный;
+ *       ходы moves делаются по очереди начиная с этого цвета;</li>
+ *   <li>go [depth D] [movetime MS] [wtime MS] [btime MS] [winc MS] [binc MS] [movestogo N] [infinite] [ponder] -
+ *       поиск; после каждой итерации - строка info depth D score cp S|mate M nodes N nps N time MS pv X,Y ...,
+ *       в конце - bestmove X,Y [ponder X,Y] или bestmove none, если ходов нет или игра закончена;
+ *       с infinite и ponder bestmove выводится только после stop (или ponderhit);</li>
+ *   <li>stop - остановить поиск и вывести bestmove;</li>
+ *   <li>ponderhit - соперник сделал ожидаемый ход: поиск продолжается с обычным ограничением времени;</li>
+ *   <li>quit - выход.</li>
+ * </ul>
+ * Ошибки в командах сообщаются строкой info string error ... и не меняют состояние.
+ */
+public class EngineProtocol {
+
+    /** Время на ход, если в go не задано ни глубины, ни времени, мс */
+    private static final long DEFAULT_MOVE_TIME_MILLIS = 1000;
+
+    /** Запас времени на ответ при игре с контролем времени, мс */
+    private static final long TIME_MARGIN_MILLIS = 50;
+
+    /** Ходов до конца партии, если movestogo не задан */
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    /** Источник команд */
+    private final BufferedReader in;
+
+    /** Поток ответов */
+    private final PrintStream out;
+
+    /** Поток поиска */
+    private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "squares-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Текущий поиск или null */
+    private Future<?> running;
+
+    /** Правила и поиск для них */
+    private RuleSet rules = Rules.STANDARD;
+    private AlphaBetaSearch search = new AlphaBetaSearch(rules);
+
+    /** Позиция (null до команды position) и цвет, который ходит */
+    private Board board;
+    private char turn;
+
+    /** Поиск без ограничения до stop (infinite) или до ponderhit/stop (ponder) */
+    private boolean infinite;
+    private boolean pondering;
+
+    /** Время на ход после ponderhit, мс (0 - без ограничения) */
+    private long ponderMoveTimeMillis;
+
+    /**
+     * @param in источник команд
+     * @param out поток ответов
+     */
+    public EngineProtocol(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Читает и выполняет команды до quit или конца ввода.
+     *
+     * @throws IOException при ошибке чтения команд
+     */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!execute(line.trim())) {
+                    break;
+                }
+            }
+        } finally {
+            stopSearch();
+            searchThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Выполняет одну команду.
+     *
+     * @param line строка команды
+     * @return false, если команда - quit
+     */
+    boolean execute(String line) {
+        String[] tokens = line.isEmpty() ? new String[0] : line.split("\\s+");
+        if (tokens.length == 0) {
+            return true;
+        }
+        try {
+            switch (tokens[0]) {
+                case "squares":
+                    send("id name Squares");
+                    send("id author squares-game");
+                    send("option name rules type combo default standard" + ruleVariants());
+                    send("squaresok");
+                    break;
+                case "isready":
+                    send("readyok");
+                    break;
+                case "setoption":
+                    setOption(tokens);
+                    break;
+                case "newgame":
+                    stopSearch();
+                    board = null;
+                    break;
+                case "position":
+                    stopSearch();
+                    position(tokens);
+                    break;
+                case "go":
+                    stopSearch();
+                    go(tokens);
+                    break;
+                case "stop":
+                    stopSearch();
+                    break;
+                case "ponderhit":
+                    ponderhit();
+                    break;
+                case "quit":
+                    return false;
+                default:
+                    error("unknown command " + tokens[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * setoption name rules value ПРАВИЛА
+     */
+    private void setOption(String[] tokens) {
+        if (tokens.length != 5 || !tokens[1].equals("name") || !tokens[3].equals("value")) {
+            throw new IllegalArgumentException("usage: setoption name rules value <rules>");
+        }
+        if (!tokens[2].equals("rules")) {
+            throw new IllegalArgumentException("unknown option " + tokens[2]);
+        }
+        RuleSet selected = Rules.get(tokens[4]);
+        if (selected == null) {
+            throw new IllegalArgumentException("unknown rules " + tokens[4]);
+        }
+        stopSearch();
+        rules = selected;
+        search = new AlphaBetaSearch(rules);
+    }
+
+    /**
+     * position N [КЛЕТКИ] [turn w|b] [moves X,Y ...]
+     */
+    private void position(String[] tokens) {
+        if (tokens.length < 2) {
+            throw new IllegalArgumentException("usage: position <size> [cells] [turn w|b] [moves x,y ...]");
+        }
+        int size = parseInt(tokens[1], "size");
+        if (size <= 2) {
+            throw new IllegalArgumentException("size must be greater than 2");
+        }
+        if (size > rules.getMaxPatternSize()) {
+            throw new IllegalArgumentException("size must be at most " + rules.getMaxPatternSize()
+                    + " for " + rules.getName() + " rules");
+        }
+        Board next = new Board(size);
+        int i = 2;
+        if (i < tokens.length && !tokens[i].equals("turn") && !tokens[i].equals("moves")) {
+            String cells = tokens[i++];
+            if (cells.length() != size * size) {
+                throw new IllegalArgumentException("cells must have " + size * size + " characters");
+            }
+            for (int cell = 0; cell < cells.length(); cell++) {
+                char c = Character.toUpperCase(cells.charAt(cell));
+                if (c == 'W' || c == 'B') {
+                    next.makeMove(cell % size, cell / size, c);
+                } else if (c != '.') {
+                    throw new IllegalArgumentException("bad cell '" + cells.charAt(cell) + "'");
+                }
+            }
+        }
+
+        char color = defaultTurn(next);
+        if (i < tokens.length && tokens[i].equals("turn")) {
+            if (i + 1 >= tokens.length) {
+                throw new IllegalArgumentException("turn needs w or b");
+            }
+            color = parseColor(tokens[i + 1]);
+            i += 2;
+        }
+
+        if (i < tokens.length) {
+            if (!tokens[i].equals("moves")) {
+                throw new IllegalArgumentException("unexpected " + tokens[i]);
+            }
+            for (i++; i < tokens.length; i++) {
+                if (isFinished(next)) {
+                    throw new IllegalArgumentException("game is finished before move " + tokens[i]);
+                }
+                int[] move = parseMove(tokens[i]);
+                if (!next.makeMove(move[0], move[1], color)) {
+                    throw new IllegalArgumentException("illegal move " + tokens[i]);
+                }
+                color = (color == 'W') ? 'B' : 'W';
+            }
+        }
+        board = next;
+        turn = color;
+    }
+
+    /**
+     * go [depth D] [movetime MS] [wtime MS] [btime MS] [winc MS] [binc MS] [movestogo N] [infinite] [ponder]
+     */
+    private void go(String[] tokens) {
+        int depth = AlphaBetaSearch.MAX_DEPTH;
+        long moveTime = -1;
+        long[] clock = {-1, -1};
+        long[] increment = {0, 0};
+        int movesToGo = DEFAULT_MOVES_TO_GO;
+        boolean goInfinite = false;
+        boolean goPonder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "infinite":
+                    goInfinite = true;
+                    break;
+                case "ponder":
+                    goPonder = true;
+                    break;
+                case "depth":
+                    depth = Math.max(1, parseInt(value(tokens, ++i), "depth"));
+                    break;
+                case "movetime":
+                    moveTime = Math.max(1, parseLong(value(tokens, ++i), "movetime"));
+                    break;
+                case "wtime":
+                    clock[0] = parseLong(value(tokens, ++i), "wtime");
+                    break;
+                case "btime":
+                    clock[1] = parseLong(value(tokens, ++i), "btime");
+                    break;
+                case "winc":
+                    increment[0] = parseLong(value(tokens, ++i), "winc");
+                    break;
+                case "binc":
+                    increment[1] = parseLong(value(tokens, ++i), "binc");
+                    break;
+                case "movestogo":
+                    movesToGo = Math.max(1, parseInt(value(tokens, ++i), "movestogo"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown go parameter " + tokens[i]);
+            }
+        }
+
+        if (board == null) {
+            error("no position");
+            send("bestmove none");
+            return;
+        }
+        if (isFinished(board)) {
+            send("bestmove none");
+            return;
+        }
+
+        int side = (turn == 'W') ? 0 : 1;
+        if (moveTime < 0 && clock[side] >= 0) {
+            long budget = clock[side] / movesToGo + increment[side] * 3 / 4;
+            moveTime = Math.max(1, Math.min(budget, clock[side] - TIME_MARGIN_MILLIS));
+        }
+        if (moveTime < 0 && depth == AlphaBetaSearch.MAX_DEPTH && !goInfinite) {
+            moveTime = DEFAULT_MOVE_TIME_MILLIS;
+        }
+
+        AlphaBetaSearch current = search;
+        current.reset();
+        synchronized (this) {
+            infinite = goInfinite;
+            pondering = goPonder;
+            ponderMoveTimeMillis = Math.max(0, moveTime);
+        }
+        if (!goInfinite && !goPonder && moveTime > 0) {
+            current.setDeadline(System.nanoTime() + moveTime * 1_000_000L);
+        }
+
+        Board position = new Board(board);
+        char color = turn;
+        int maxDepth = depth;
+        running = searchThread.submit(() -> runSearch(current, position, color, maxDepth));
+    }
+
+    /**
+     * Тело потока поиска: ищет ход, ждёт stop или ponderhit, если нужно, и выводит bestmove.
+     */
+    private void runSearch(AlphaBetaSearch current, Board position, char color, int depth) {
+        SearchInfo result = current.search(position, color, depth, this::info);
+        synchronized (this) {
+            while ((infinite || pondering) && !current.isStopped()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        int[] best = result.getBestMove();
+        int[] ponder = result.getPonderMove();
+        send("bestmove " + (best == null ? "none" : format(best))
+                + (ponder == null ? "" : " ponder " + format(ponder)));
+    }
+
+    /**
+     * Останавливает поиск и ждёт вывода bestmove.
+     */
+    private void stopSearch() {
+        if (running == null) {
+            return;
+        }
+        search.stop();
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            error("search failed: " + e.getCause());
+        }
+        running = null;
+    }
+
+    /**
+     * Соперник сделал ожидаемый ход: поиск продолжается как обычный go.
+     */
+    private void ponderhit() {
+        synchronized (this) {
+            if (running == null || !pondering) {
+                return;
+            }
+            pondering = false;
+            if (!infinite) {
+                long moveTime = (ponderMoveTimeMillis > 0) ? ponderMoveTimeMillis : DEFAULT_MOVE_TIME_MILLIS;
+                search.setDeadline(System.nanoTime() + moveTime * 1_000_000L);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Выводит итог итерации поиска.
+     */
+    private void info(SearchInfo info) {
+        StringBuilder line = new StringBuilder("info depth ").append(info.getDepth());
+        if (info.isDecisive()) {
+            line.append(" score mate ").append(info.getMateMoves());
+        } else {
+            line.append(" score cp ").append(info.getScore());
+        }
+        line.append(" nodes ").append(info.getNodes())
+                .append(" nps ").append(info.getNodesPerSecond())
+                .append(" time ").append(info.getElapsedMillis());
+        if (info.getPvLength() > 0) {
+            line.append(" pv");
+            for (int i = 0; i < info.getPvLength(); i++) {
+                line.append(' ').append(format(info.getPvMove(i)));
+            }
+        }
+        send(line.toString());
+    }
+
+    /**
+     * Выводит строку ответа и сразу сбрасывает поток.
+     */
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    private void error(String message) {
+        send("info string error " + message);
+    }
+
+    /**
+     * @return true, если на доске есть квадрат или свободных клеток нет
+     */
+    private boolean isFinished(Board position) {
+        return position.isFull() || rules.hasSquare(position, 'W') || rules.hasSquare(position, 'B');
+    }
+
+    /**
+     * @return белые, если белых и чёрных фишек поровну, иначе чёрные
+     */
+    private static char defaultTurn(Board position) {
+        int balance = 0;
+        for (char[] row : position.grid) {
+            for (char cell : row) {
+                if (cell == 'W') balance++;
+                else if (cell == 'B') balance--;
+            }
+        }
+        return (balance == 0) ? 'W' : 'B';
+    }
+
+    private static String ruleVariants() {
+        StringBuilder variants = new StringBuilder();
+        for (String name : Rules.names()) {
+            variants.append(" var ").append(name);
+        }
+        return variants.toString();
+    }
+
+    private static String format(int[] move) {
+        return move[0] + "," + move[1];
+    }
+
+    private static int[] parseMove(String token) {
+        int comma = token.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("move must be x,y: " + token);
+        }
+        return new int[] {parseInt(token.substring(0, comma), "x"), parseInt(token.substring(comma + 1), "y")};
+    }
+
+    private static char parseColor(String token) {
+        if (token.equalsIgnoreCase("w")) return 'W';
+        if (token.equalsIgnoreCase("b")) return 'B';
+        throw new IllegalArgumentException("color must be w or b: " + token);
+    }
+
+    private static String value(String[] tokens, int i) {
+        if (i >= tokens.length) {
+            throw new IllegalArgumentException(tokens[i - 1] + " needs a value");
+        }
+        return tokens[i];
+    }
+
+    private static int parseInt(String token, String name) {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + token);
+        }
+    }
+
+    private static long parseLong(String token, String name) {
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + token);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.task1.console.record;
+
+import java.util.Arrays;
+
+/**
+ * Запись одной партии: заголовок (размер доски, игроки, правила) и ходы.
+ * Ходы хранятся как индексы клеток y * size + x в порядке их выполнения;
+ * первым ходит первый игрок, дальше игроки чередуются.
+ */
+public class GameRecord {
+
+    /** Размер доски */
+    private final int size;
+
+    /** Тип первого игрока: true - компьютер */
+    private final boolean firstComputer;
+
+    /** Цвет первого игрока ('W' или 'B') */
+    private final char firstColor;
+
+    /** Тип второго игрока: true - компьютер */
+    private final boolean secondComputer;
+
+    /** Цвет второго игрока ('W' или 'B') */
+    private final char secondColor;
+
+    /** Правила игры */
+    private final String rules;
+
+    /** Индексы клеток ходов */
+    private int[] moves;
+
+    /** Количество ходов */
+    private int moveCount;
+
+    /**
+     * Создаёт запись партии без ходов.
+     *
+     * @param size размер доски
+     * @param firstComputer является ли первый игрок компьютером
+     * @param firstColor цвет первого игрока
+     * @param secondComputer является ли второй игрок компьютером
+     * @param secondColor цвет второго игрока
+     * @param rules правила игры
+     */
+    public GameRecord(int size, boolean firstComputer, char firstColor,
+                      boolean secondComputer, char secondColor, String rules) {
+        if (size <= 2) {
+            throw new IllegalArgumentException("Board size must be greater than 2: " + size);
+        }
+        this.size = size;
+        this.firstComputer = firstComputer;
+        this.firstColor = firstColor;
+        this.secondComputer = secondComputer;
+        this.secondColor = secondColor;
+        this.rules = rules;
+        this.moves = new int[16];
+    }
+
+    /**
+     * Добавляет ход.
+     *
+     * @param x координата X
+     * @param y координата Y
+     */
+    public void addMove(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IllegalArgumentException("Move outside the board: " + x + ", " + y);
+        }
+        addCell(y * size + x);
+    }
+
+    /**
+     * Добавляет ход по индексу клетки.
+     *
+     * @param cell индекс клетки y * size + x
+     */
+    void addCell(int cell) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+        }
+        moves[moveCount++] = cell;
+    }
+
+    /**
+     * @return размер доски
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return true, если первый игрок - компьютер
+     */
+    public boolean isFirstComputer() {
+        return firstComputer;
+    }
+
+    /**
+     * @return цвет первого игрока
+     */
+    public char getFirstColor() {
+        return firstColor;
+    }
+
+    /**
+     * @return true, если второй игрок - компьютер
+     */
+    public boolean isSecondComputer() {
+        return secondComputer;
+    }
+
+    /**
+     * @return цвет второго игрока
+     */
+    public char getSecondColor() {
+        return secondColor;
+    }
+
+    /**
+     * @return правила игры
+     */
+    public String getRules() {
+        return rules;
+    }
+
+    /**
+     * @return количество ходов
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @param index номер хода, начиная с 0
+     * @return координата X хода
+     */
+    public int getMoveX(int index) {
+        return cell(index) % size;
+    }
+
+    /**
+     * @param index номер хода, начиная с 0
+     * @return координата Y хода
+     */
+    public int getMoveY(int index) {
+        return cell(index) / size;
+    }
+
+    /**
+     * @param index номер хода, начиная с 0
+     * @return цвет игрока, сделавшего ход
+     */
+    public char getMoveColor(int index) {
+        return (index % 2 == 0) ? firstColor : secondColor;
+    }
+
+    /**
+     * @param index номер хода, начиная с 0
+     * @return индекс клетки хода
+     */
+    int cell(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + moveCount);
+        }
+        return moves[index];
+    }
+}
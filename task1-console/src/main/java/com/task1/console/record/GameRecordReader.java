@@ -0,0 +1,152 @@
+package com.task1.console.record;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Потоковое чтение партий, записанных {@link GameRecordWriter}.
+ * Партии читаются по одной, поэтому файл любого размера обрабатывается
+ * с постоянным расходом памяти:
+ * <pre>
+ *   try (GameRecordReader reader = new GameRecordReader(in)) {
+ *       GameRecord record;
+ *       while ((record = reader.read()) != null) {
+ *           ...
+ *       }
+ *   }
+ * </pre>
+ */
+public class GameRecordReader implements Closeable {
+
+    /** Входной поток */
+    private final InputStream in;
+
+    /** Буфер для названия правил */
+    private byte[] text = new byte[32];
+
+    /**
+     * Создаёт читателя и проверяет заголовок файла.
+     *
+     * @param in входной поток (буферизуется внутри)
+     * @throws IOException если поток не содержит записей партий или не читается
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in, 1 << 16);
+        for (byte expected : GameRecordWriter.MAGIC) {
+            if (readByte() != expected) {
+                throw new IOException("Not a game record file");
+            }
+        }
+        int version = readByte();
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported game record version: " + version);
+        }
+    }
+
+    /**
+     * Читает следующую партию.
+     *
+     * @return запись партии или null, если партии закончились
+     * @throws IOException если запись повреждена или поток не читается
+     */
+    public GameRecord read() throws IOException {
+        int first = in.read();
+        if (first == -1) {
+            return null;
+        }
+        int size = readVarint(first);
+
+        int players = readByte();
+        int rulesLength = readVarint(readByte());
+        if (text.length < rulesLength) {
+            text = new byte[rulesLength];
+        }
+        readFully(text, rulesLength);
+        String rules = new String(text, 0, rulesLength, StandardCharsets.UTF_8);
+
+        GameRecord record;
+        try {
+            record = new GameRecord(size,
+                    (players & 1) != 0, (players & 4) != 0 ? 'B' : 'W',
+                    (players & 2) != 0, (players & 8) != 0 ? 'B' : 'W',
+                    rules);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted game record: " + e.getMessage());
+        }
+
+        int moveCount = readVarint(readByte());
+        int cells = size * size;
+        if (moveCount > cells) {
+            throw new IOException("Corrupted game record: " + moveCount + " moves on " + size + "x" + size);
+        }
+        for (int i = 0; i < moveCount; i++) {
+            int cell = readVarint(readByte());
+            if (cell >= cells) {
+                throw new IOException("Corrupted game record: cell " + cell + " on " + size + "x" + size);
+            }
+            record.addCell(cell);
+        }
+        return record;
+    }
+
+    /**
+     * Читает беззнаковое число в формате varint.
+     *
+     * @param first уже прочитанный первый байт
+     * @return прочитанное число
+     * @throws IOException если число повреждено или поток закончился
+     */
+    private int readVarint(int first) throws IOException {
+        int value = first & 0x7F;
+        int shift = 7;
+        int current = first;
+        while ((current & 0x80) != 0) {
+            if (shift > 28) {
+                throw new IOException("Corrupted game record: varint is too long");
+            }
+            current = readByte();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    /**
+     * @return следующий байт потока
+     * @throws IOException если поток закончился посреди записи
+     */
+    private int readByte() throws IOException {
+        int value = in.read();
+        if (value == -1) {
+            throw new EOFException("Truncated game record");
+        }
+        return value;
+    }
+
+    /**
+     * Читает заданное количество байт в буфер.
+     *
+     * @param buffer буфер
+     * @param length количество байт
+     * @throws IOException если поток закончился посреди записи
+     */
+    private void readFully(byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(buffer, offset, length - offset);
+            if (read == -1) {
+                throw new EOFException("Truncated game record");
+            }
+            offset += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
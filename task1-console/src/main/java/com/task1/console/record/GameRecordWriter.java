@@ -0,0 +1,98 @@
+package com.task1.console.record;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Потоковая запись партий в компактном двоичном формате.
+ *
+ * Формат файла: сигнатура "SQGR", байт версии, затем партии подряд.
+ * Партия:
+ * <pre>
+ *   varint  размер доски
+ *   byte    игроки: бит 0 - первый игрок компьютер, бит 1 - второй игрок компьютер,
+ *                   бит 2 - первый игрок чёрный, бит 3 - второй игрок чёрный
+ *   varint  длина названия правил, затем байты UTF-8
+ *   varint  количество ходов
+ *   varint  индекс клетки каждого хода (y * size + x)
+ * </pre>
+ * varint - беззнаковое число по 7 бит в байте, старший бит означает продолжение.
+ * На досках до 11x11 каждый ход занимает один байт.
+ */
+public class GameRecordWriter implements Closeable, Flushable {
+
+    /** Сигнатура файла */
+    static final byte[] MAGIC = {'S', 'Q', 'G', 'R'};
+
+    /** Версия формата */
+    static final int VERSION = 1;
+
+    /** Выходной поток */
+    private final OutputStream out;
+
+    /**
+     * Создаёт писатель и записывает заголовок файла.
+     *
+     * @param out выходной поток (буферизуется внутри)
+     * @throws IOException при ошибке записи
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out, 1 << 16);
+        this.out.write(MAGIC);
+        this.out.write(VERSION);
+    }
+
+    /**
+     * Записывает партию.
+     *
+     * @param record запись партии
+     * @throws IOException при ошибке записи
+     */
+    public void write(GameRecord record) throws IOException {
+        writeVarint(record.getSize());
+
+        int players = 0;
+        if (record.isFirstComputer()) players |= 1;
+        if (record.isSecondComputer()) players |= 2;
+        if (record.getFirstColor() == 'B') players |= 4;
+        if (record.getSecondColor() == 'B') players |= 8;
+        out.write(players);
+
+        byte[] rules = (record.getRules() == null ? "" : record.getRules()).getBytes(StandardCharsets.UTF_8);
+        writeVarint(rules.length);
+        out.write(rules);
+
+        writeVarint(record.getMoveCount());
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            writeVarint(record.cell(i));
+        }
+    }
+
+    /**
+     * Записывает беззнаковое число в формате varint.
+     *
+     * @param value неотрицательное число
+     * @throws IOException при ошибке записи
+     */
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,108 @@
+package com.task1.console.record;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+/**
+ * Пошаговое воспроизведение записанной партии на доске {@link Board}
+ * по правилам из заголовка записи ({@link Rules}).
+ * После каждого хода проверяются только квадраты, проходящие через
+ * поставленную фишку ({@link RuleSet#completesSquare(Board, int, int)}),
+ * а не вся доска.
+ */
+public class GameReplay {
+
+    /** Воспроизводимая партия */
+    private final GameRecord record;
+
+    /** Правила партии */
+    private final RuleSet rules;
+
+    /** Доска с текущей позицией */
+    private final Board board;
+
+    /** Количество выполненных ходов */
+    private int played;
+
+    /** Цвет победителя или '.', если победителя пока нет */
+    private char winner = '.';
+
+    /**
+     * Создаёт воспроизведение партии с пустой доски.
+     *
+     * @param record запись партии
+     * @throws IllegalArgumentException если правила записи неизвестны
+     */
+    public GameReplay(GameRecord record) {
+        this.rules = Rules.get(record.getRules());
+        if (rules == null) {
+            throw new IllegalArgumentException("Unknown rules in game record: " + record.getRules());
+        }
+        this.record = record;
+        this.board = new Board(record.getSize());
+    }
+
+    /**
+     * Выполняет следующий ход.
+     *
+     * @return true, если ход выполнен; false, если ходы закончились или партия уже завершена
+     * @throws IllegalStateException если ход записи занимает занятую клетку
+     */
+    public boolean step() {
+        if (played >= record.getMoveCount() || isFinished()) {
+            return false;
+        }
+        int x = record.getMoveX(played);
+        int y = record.getMoveY(played);
+        char color = record.getMoveColor(played);
+        if (!board.makeMove(x, y, color)) {
+            throw new IllegalStateException("Move " + played + " (" + x + ", " + y + ") is on an occupied cell");
+        }
+        played++;
+        if (rules.completesSquare(board, x, y)) {
+            winner = color;
+        }
+        return true;
+    }
+
+    /**
+     * Воспроизводит все оставшиеся ходы.
+     *
+     * @return доска с итоговой позицией
+     */
+    public Board playToEnd() {
+        while (step()) {
+            // ходы применяются в step()
+        }
+        return board;
+    }
+
+    /**
+     * @return доска с текущей позицией
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @return количество выполненных ходов
+     */
+    public int getPlayed() {
+        return played;
+    }
+
+    /**
+     * @return цвет победителя ('W' или 'B') или '.', если победителя нет
+     */
+    public char getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return true, если партия завершена: есть победитель или доска заполнена
+     */
+    public boolean isFinished() {
+        return winner != '.' || played == record.getSize() * record.getSize();
+    }
+}
@@ -0,0 +1,175 @@
+package com.task1.console.rules;
+
+import com.task1.console.Board;
+
+import java.util.Arrays;
+
+/**
+ * Инкрементальный индекс фишек для поиска квадратов любого размера и наклона.
+ * Для каждого цвета хранит список координат фишек и хеш-множество занятых клеток
+ * (открытая адресация по упакованным координатам).
+ *
+ * Проверка хода в p перебирает фишки q того же цвета: отрезок pq может быть
+ * стороной квадрата (два варианта поворота) или его диагональю; недостающие
+ * вершины ищутся в хеш-множестве. Поэтому проверка занимает время, пропорциональное
+ * количеству фишек цвета, а не O(N^4) перебора всех квадратов доски.
+ */
+public class FullSquareIndex {
+
+    /** Пустая ячейка хеш-множества (координаты упаковываются в неотрицательные числа) */
+    private static final int EMPTY = -1;
+
+    /** Координаты фишек: xs[c][i], ys[c][i] для цвета c (0 - белые, 1 - чёрные) */
+    private final int[][] xs = new int[2][];
+    private final int[][] ys = new int[2][];
+
+    /** Количество фишек каждого цвета */
+    private final int[] counts = new int[2];
+
+    /** Хеш-множества занятых клеток по цветам */
+    private final int[][] tables = new int[2][];
+
+    /**
+     * Создаёт пустой индекс.
+     *
+     * @param expectedStones ожидаемое количество фишек одного цвета
+     */
+    public FullSquareIndex(int expectedStones) {
+        int capacity = Math.max(8, expectedStones);
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        for (int c = 0; c < 2; c++) {
+            xs[c] = new int[capacity];
+            ys[c] = new int[capacity];
+            tables[c] = new int[tableSize];
+            Arrays.fill(tables[c], EMPTY);
+        }
+    }
+
+    /**
+     * Строит индекс по фишкам доски.
+     *
+     * @param board доска
+     * @return индекс всех фишек доски
+     */
+    public static FullSquareIndex of(Board board) {
+        FullSquareIndex index = new FullSquareIndex(board.size * board.size / 2);
+        for (int y = 0; y < board.size; y++) {
+            for (int x = 0; x < board.size; x++) {
+                char cell = board.grid[y][x];
+                if (cell == 'W' || cell == 'B') {
+                    index.add(x, y, cell);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Добавляет фишку в индекс.
+     *
+     * @param x координата X
+     * @param y координата Y
+     * @param color цвет фишки ('W' или 'B')
+     */
+    public void add(int x, int y, char color) {
+        int c = colorIndex(color);
+        if (contains(c, x, y)) return;
+        if (counts[c] == xs[c].length) {
+            xs[c] = Arrays.copyOf(xs[c], counts[c] * 2);
+            ys[c] = Arrays.copyOf(ys[c], counts[c] * 2);
+        }
+        xs[c][counts[c]] = x;
+        ys[c][counts[c]] = y;
+        counts[c]++;
+        if (counts[c] * 2 > tables[c].length) {
+            rehash(c);
+        } else {
+            insert(tables[c], pack(x, y));
+        }
+    }
+
+    /**
+     * Проверяет, замкнёт ли фишка цвета color в клетке (x, y) квадрат
+     * с тремя уже стоящими фишками этого цвета.
+     *
+     * @param x координата X хода
+     * @param y координата Y хода
+     * @param color цвет хода
+     * @return true, если квадрат замыкается
+     */
+    public boolean wouldComplete(int x, int y, char color) {
+        int c = colorIndex(color);
+        int[] qx = xs[c];
+        int[] qy = ys[c];
+        for (int i = 0; i < counts[c]; i++) {
+            int dx = qx[i] - x;
+            int dy = qy[i] - y;
+            if (dx == 0 && dy == 0) continue;
+
+            // pq - сторона квадрата, поворот на +90 и -90 градусов
+            if (contains(c, x - dy, y + dx) && contains(c, qx[i] - dy, qy[i] + dx)) return true;
+            if (contains(c, x + dy, y - dx) && contains(c, qx[i] + dy, qy[i] - dx)) return true;
+
+            // pq - диагональ квадрата: вершины (p + q -+ rot(q - p)) / 2 должны быть целыми
+            int sx = x + qx[i];
+            int sy = y + qy[i];
+            if (((sx - dy) & 1) == 0 && ((sy + dx) & 1) == 0
+                    && contains(c, (sx - dy) >> 1, (sy + dx) >> 1)
+                    && contains(c, (sx + dy) >> 1, (sy - dx) >> 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param color цвет ('W' или 'B')
+     * @return количество фишек цвета
+     */
+    public int count(char color) {
+        return counts[colorIndex(color)];
+    }
+
+    private boolean contains(int c, int x, int y) {
+        if (x < 0 || y < 0 || x > 0x7FFF || y > 0xFFFF) return false;
+        int key = pack(x, y);
+        int[] table = tables[c];
+        int mask = table.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int value = table[slot];
+            if (value == key) return true;
+            if (value == EMPTY) return false;
+        }
+    }
+
+    private void rehash(int c) {
+        int[] table = new int[tables[c].length * 2];
+        Arrays.fill(table, EMPTY);
+        for (int i = 0; i < counts[c]; i++) {
+            insert(table, pack(xs[c][i], ys[c][i]));
+        }
+        tables[c] = table;
+    }
+
+    private static void insert(int[] table, int key) {
+        int mask = table.length - 1;
+        int slot = mix(key) & mask;
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+    }
+
+    private static int pack(int x, int y) {
+        return (x << 16) | y;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int colorIndex(char color) {
+        return (color == 'B') ? 1 : 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.task1.console.rules;
+
+import com.task1.console.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Правила "full": квадратом считаются любые четыре фишки в вершинах квадрата
+ * с любой длиной стороны и любым наклоном.
+ *
+ * Всех квадратов на доске N x N порядка N^4 / 12, поэтому проверки окончания игры
+ * и ходов ИИ не перебирают таблицу, а используют {@link FullSquareIndex}:
+ * проверка хода занимает время, пропорциональное количеству фишек его цвета.
+ * Таблица квадратов ({@link #patterns(int)}) по-прежнему доступна, например для анализа позиции,
+ * но только для досок не больше {@link #MAX_PATTERN_SIZE}: на доске 300 x 300 в ней было бы
+ * около 675 миллионов квадратов.
+ */
+public class FullSquareRuleSet extends RuleSet {
+
+    /** Наибольший размер доски для таблицы квадратов (около 87 тысяч квадратов) */
+    public static final int MAX_PATTERN_SIZE = 32;
+
+    /**
+     * Создаёт правила "full".
+     */
+    public FullSquareRuleSet() {
+        super("full", FullSquareRuleSet::shapes);
+    }
+
+    /**
+     * Перечисляет все квадраты, помещающиеся на доске: сторона от опорной вершины
+     * задаётся вектором (a, b), a >= 1, b >= 0, остальные вершины получаются поворотом
+     * на 90 градусов. Каждый квадрат перечисляется ровно один раз.
+     *
+     * @param size размер доски
+     * @return фигуры квадратов
+     */
+    static List<int[][]> shapes(int size) {
+        List<int[][]> shapes = new ArrayList<>();
+        for (int a = 1; a < size; a++) {
+            for (int b = 0; a + b < size; b++) {
+                shapes.add(new int[][] {{0, 0}, {a, b}, {a - b, a + b}, {-b, a}});
+            }
+        }
+        return shapes;
+    }
+
+    @Override
+    public int getMaxPatternSize() {
+        return MAX_PATTERN_SIZE;
+    }
+
+    /**
+     * Проверяет, есть ли на доске квадрат заданного цвета: фишки цвета добавляются
+     * в индекс по одной, и каждая проверяется с уже добавленными.
+     */
+    @Override
+    public boolean hasSquare(Board board, char color) {
+        FullSquareIndex index = new FullSquareIndex(board.size * board.size / 2);
+        for (int y = 0; y < board.size; y++) {
+            for (int x = 0; x < board.size; x++) {
+                if (board.grid[y][x] != color) continue;
+                if (index.wouldComplete(x, y, color)) return true;
+                index.add(x, y, color);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean wouldComplete(Board board, int x, int y, char color) {
+        return FullSquareIndex.of(board).wouldComplete(x, y, color);
+    }
+
+    /**
+     * Строит индекс доски один раз; дальше каждая проверка хода - O(фишек цвета).
+     */
+    @Override
+    public MoveChecker checker(Board board) {
+        return FullSquareIndex.of(board)::wouldComplete;
+    }
+}
@@ -0,0 +1,318 @@
+package com.task1.console.rules;
+
+import com.task1.console.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Набор правил игры: какие фигуры из четырёх фишек считаются квадратом.
+ * Правила объявляют фигуры как смещения четырёх клеток относительно опорной точки;
+ * для каждого размера доски фигуры один раз компилируются в таблицу
+ * {@link SquarePatterns}, которой пользуются проверки окончания игры и ИИ.
+ * Проверка хода просматривает только квадраты, проходящие через клетку хода.
+ */
+public class RuleSet {
+
+    /**
+     * Сколько размеров досок хранится в кэше скомпилированных таблиц. Сервис не принимает
+     * доски больше MAX_COMPILED_SIZES + 2 (размеры от 3), поэтому там все таблицы компилируются
+     * один раз; при большем числе размеров вытесняется давно не использованная таблица.
+     */
+    public static final int MAX_COMPILED_SIZES = 128;
+
+    /** Название правил (значение {rules} в пути запроса) */
+    private final String name;
+
+    /** Фигуры для доски заданного размера: список фигур, фигура - четыре смещения {dx, dy} */
+    private final IntFunction<List<int[][]>> shapes;
+
+    /** Скомпилированные таблицы по размеру доски, не больше {@link #MAX_COMPILED_SIZES} */
+    private final Map<Integer, Compiled> compiled = new ConcurrentHashMap<>();
+
+    /** Часы использования таблиц: увеличиваются при компиляции каждой новой таблицы */
+    private final AtomicLong clock = new AtomicLong();
+
+    /** Наибольшее расстояние от клетки квадрата до ближайшей другой его клетки, по размеру доски */
+    private final Map<Integer, Integer> reaches = new ConcurrentHashMap<>();
+
+    /**
+     * Создаёт набор правил.
+     *
+     * @param name название правил
+     * @param shapes функция, возвращающая фигуры для доски заданного размера
+     */
+    public RuleSet(String name, IntFunction<List<int[][]>> shapes) {
+        this.name = name;
+        this.shapes = shapes;
+    }
+
+    /**
+     * Фигура квадрата со сторонами по осям.
+     *
+     * @param side длина стороны в клетках
+     * @return смещения четырёх углов относительно левого верхнего
+     */
+    public static int[][] axisSquare(int side) {
+        return new int[][] {{0, 0}, {side, 0}, {0, side}, {side, side}};
+    }
+
+    /**
+     * Фигура квадрата, повёрнутого на 45 градусов ("крест").
+     *
+     * @param step расстояние от центра до вершины
+     * @return смещения четырёх вершин относительно центра
+     */
+    public static int[][] crossSquare(int step) {
+        return new int[][] {{0, -step}, {0, step}, {-step, 0}, {step, 0}};
+    }
+
+    /**
+     * @return название правил
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает наибольший размер доски, для которого можно построить таблицу квадратов
+     * ({@link #patterns(int)}). По умолчанию размер не ограничен.
+     *
+     * @return наибольший размер доски для таблицы квадратов
+     */
+    public int getMaxPatternSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Возвращает таблицу квадратов для доски заданного размера, компилируя её при первом обращении.
+     * Хранятся таблицы не больше чем {@link #MAX_COMPILED_SIZES} размеров: при компиляции
+     * таблицы нового размера сверх лимита вытесняется таблица, которая дольше всех не использовалась.
+     * Отметка использования пишется, только если с прошлого использования компилировалась
+     * другая таблица, поэтому чтение тёплой таблицы почти никогда не пишет в общую память.
+     *
+     * @param size размер доски
+     * @return таблица шаблонов
+     * @throws IllegalArgumentException если размер больше {@link #getMaxPatternSize()}
+     */
+    public SquarePatterns patterns(int size) {
+        Compiled entry = compiled.get(size);
+        if (entry != null) {
+            long now = clock.get();
+            if (entry.lastUsed != now) entry.lastUsed = now;
+            return entry.patterns;
+        }
+        if (size > getMaxPatternSize()) {
+            throw new IllegalArgumentException("Board size " + size + " is too large for the square table of "
+                    + name + " rules (at most " + getMaxPatternSize() + ")");
+        }
+        synchronized (compiled) {
+            entry = compiled.get(size);
+            if (entry == null) {
+                if (compiled.size() >= MAX_COMPILED_SIZES) {
+                    evictLeastRecentlyUsed();
+                }
+                entry = new Compiled(compile(size), clock.incrementAndGet());
+                compiled.put(size, entry);
+            }
+            return entry.patterns;
+        }
+    }
+
+    /**
+     * Вытесняет таблицу с самой старой отметкой использования. Вызывается под замком компиляции.
+     */
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<Integer, Compiled> oldest = null;
+        for (Map.Entry<Integer, Compiled> known : compiled.entrySet()) {
+            if (oldest == null || known.getValue().lastUsed < oldest.getValue().lastUsed) {
+                oldest = known;
+            }
+        }
+        if (oldest != null) {
+            compiled.remove(oldest.getKey());
+        }
+    }
+
+    /**
+     * Скомпилированная таблица с отметкой последнего использования.
+     */
+    private static final class Compiled {
+
+        /** Таблица квадратов */
+        final SquarePatterns patterns;
+
+        /** Значение часов при последнем использовании */
+        volatile long lastUsed;
+
+        Compiled(SquarePatterns patterns, long lastUsed) {
+            this.patterns = patterns;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * @return количество размеров досок, для которых хранятся скомпилированные таблицы
+     */
+    int compiledSizes() {
+        return compiled.size();
+    }
+
+    /**
+     * Возвращает радиус, в пределах которого у любой клетки любого квадрата есть
+     * другая клетка того же квадрата (по максимуму из |dx|, |dy|). Клетка, рядом
+     * с которой в этом радиусе нет фишек цвета, не может замкнуть квадрат этого цвета.
+     *
+     * @param size размер доски
+     * @return радиус
+     */
+    public int reach(int size) {
+        Integer known = reaches.get(size);
+        if (known != null) return known;
+        return reaches.computeIfAbsent(size, s -> {
+            int reach = 1;
+            for (int[][] shape : shapes.apply(s)) {
+                for (int[] point : shape) {
+                    int nearest = Integer.MAX_VALUE;
+                    for (int[] other : shape) {
+                        if (other == point) continue;
+                        nearest = Math.min(nearest,
+                                Math.max(Math.abs(other[0] - point[0]), Math.abs(other[1] - point[1])));
+                    }
+                    reach = Math.max(reach, nearest);
+                }
+            }
+            return reach;
+        });
+    }
+
+    /**
+     * Проверяет, есть ли на доске квадрат заданного цвета.
+     *
+     * @param board доска
+     * @param color цвет фишек ('W' или 'B')
+     * @return true, если квадрат найден
+     */
+    public boolean hasSquare(Board board, char color) {
+        SquarePatterns patterns = patterns(board.size);
+        for (int i = 0; i < patterns.getSquareCount(); i++) {
+            if (isFilled(board, patterns.getSquare(i), -1, color)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет, входит ли фишка в клетке (x, y) в квадрат своего цвета.
+     * Если квадрата не было до хода в (x, y), результат совпадает с
+     * hasSquare(board, color) после хода.
+     *
+     * @param board доска
+     * @param x координата X последнего хода
+     * @param y координата Y последнего хода
+     * @return true, если клетка входит в квадрат своего цвета
+     */
+    public boolean completesSquare(Board board, int x, int y) {
+        char color = board.getCell(x, y);
+        if (color != 'W' && color != 'B') return false;
+        return wouldComplete(board, x, y, color);
+    }
+
+    /**
+     * Проверяет, замкнёт ли ход цвета color в клетку (x, y) квадрат.
+     * Доска не изменяется и не копируется.
+     *
+     * @param board доска
+     * @param x координата X хода
+     * @param y координата Y хода
+     * @param color цвет хода
+     * @return true, если все остальные клетки какого-либо квадрата через (x, y) заняты цветом color
+     */
+    public boolean wouldComplete(Board board, int x, int y, char color) {
+        SquarePatterns patterns = patterns(board.size);
+        int cell = y * board.size + x;
+        for (int square : patterns.getSquaresOf(cell)) {
+            if (isFilled(board, patterns.getSquare(square), cell, color)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает проверку ходов для одной позиции. Нужна, когда на неизменной доске
+     * проверяется много ходов подряд (как при выборе хода ИИ): правила могут один раз
+     * подготовить данные по доске. По умолчанию каждый ход проверяется через таблицу квадратов.
+     *
+     * @param board доска, которая не меняется, пока используется проверка
+     * @return проверка ходов
+     */
+    public MoveChecker checker(Board board) {
+        return (x, y, color) -> wouldComplete(board, x, y, color);
+    }
+
+    /**
+     * Проверка ходов на фиксированной позиции, см. {@link #checker(Board)}.
+     */
+    public interface MoveChecker {
+
+        /**
+         * @param x координата X хода
+         * @param y координата Y хода
+         * @param color цвет хода
+         * @return true, если ход замкнёт квадрат
+         */
+        boolean wouldComplete(int x, int y, char color);
+    }
+
+    /**
+     * Проверяет, что все клетки квадрата, кроме пропускаемой, заняты цветом color.
+     */
+    private static boolean isFilled(Board board, int[] square, int skip, char color) {
+        for (int cell : square) {
+            if (cell != skip && board.grid[cell / board.size][cell % board.size] != color) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Компилирует фигуры в таблицу квадратов: ставит каждую фигуру во все
+     * опорные точки, где все её клетки помещаются на доске.
+     *
+     * @param size размер доски
+     * @return таблица шаблонов
+     */
+    private SquarePatterns compile(int size) {
+        List<int[]> squares = new ArrayList<>();
+        for (int[][] shape : shapes.apply(size)) {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int[] square = new int[shape.length];
+                    boolean fits = true;
+                    for (int i = 0; i < shape.length && fits; i++) {
+                        int cx = x + shape[i][0];
+                        int cy = y + shape[i][1];
+                        fits = cx >= 0 && cy >= 0 && cx < size && cy < size;
+                        square[i] = cy * size + cx;
+                    }
+                    if (fits) {
+                        squares.add(square);
+                    }
+                }
+            }
+        }
+        return new SquarePatterns(size, squares);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
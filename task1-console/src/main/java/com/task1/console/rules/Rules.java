@@ -0,0 +1,83 @@
+package com.task1.console.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр наборов правил по названию.
+ * Встроенные правила:
+ * <ul>
+ *   <li>standard - квадраты 2x2 и с шагом 2 по осям, крестовые квадраты с шагом 1 и 2
+ *       (ими же проверяет {@link com.task1.console.Board#hasSquare(char)});</li>
+ *   <li>axis - только квадраты 2x2 и с шагом 2 по осям;</li>
+ *   <li>axis-any - квадраты по осям с любой длиной стороны;</li>
+ *   <li>full - квадраты любого размера и наклона, см. {@link FullSquareRuleSet}.</li>
+ * </ul>
+ */
+public final class Rules {
+
+    /** Стандартные правила */
+    public static final RuleSet STANDARD = new RuleSet("standard", size -> Arrays.asList(
+            RuleSet.axisSquare(1), RuleSet.axisSquare(2),
+            RuleSet.crossSquare(1), RuleSet.crossSquare(2)));
+
+    /** Только квадраты по осям */
+    public static final RuleSet AXIS = new RuleSet("axis", size -> Arrays.asList(
+            RuleSet.axisSquare(1), RuleSet.axisSquare(2)));
+
+    /** Квадраты по осям любого размера */
+    public static final RuleSet AXIS_ANY = new RuleSet("axis-any", size -> {
+        List<int[][]> shapes = new ArrayList<>();
+        for (int side = 1; side < size; side++) {
+            shapes.add(RuleSet.axisSquare(side));
+        }
+        return shapes;
+    });
+
+    /** Квадраты любого размера и наклона */
+    public static final RuleSet FULL = new FullSquareRuleSet();
+
+    /** Зарегистрированные правила по названию */
+    private static final Map<String, RuleSet> REGISTRY = new ConcurrentHashMap<>();
+
+    static {
+        register(STANDARD);
+        register(AXIS);
+        register(AXIS_ANY);
+        register(FULL);
+    }
+
+    private Rules() {}
+
+    /**
+     * Регистрирует набор правил (заменяя правила с тем же названием).
+     *
+     * @param rules набор правил
+     */
+    public static void register(RuleSet rules) {
+        REGISTRY.put(rules.getName(), rules);
+    }
+
+    /**
+     * Возвращает набор правил по названию.
+     *
+     * @param name название правил
+     * @return набор правил или null, если правила неизвестны
+     */
+    public static RuleSet get(String name) {
+        return (name == null) ? null : REGISTRY.get(name);
+    }
+
+    /**
+     * @return названия зарегистрированных правил в алфавитном порядке
+     */
+    public static List<String> names() {
+        List<String> names = new ArrayList<>(REGISTRY.keySet());
+        Collections.sort(names);
+        return names;
+    }
+}
@@ -0,0 +1,114 @@
+package com.task1.console.rules;
+
+import com.task1.console.Board;
+
+import java.util.Random;
+
+/**
+ * Бенчмарк проверки ходов в правилах "full" на досках до 50x50.
+ * Сравнивает проверку через {@link FullSquareIndex} (время пропорционально количеству
+ * фишек цвета) с проверкой через скомпилированную таблицу всех квадратов доски.
+ *
+ * Запуск: java -cp target/squares-console.jar com.task1.console.rules.SquareBenchmark [заполненность]
+ * Заполненность - доля занятых клеток (по умолчанию 0.3).
+ */
+public final class SquareBenchmark {
+
+    /** Размеры досок */
+    private static final int[] SIZES = {10, 20, 30, 40, 50};
+
+    /** Количество повторов измерения */
+    private static final int ROUNDS = 5;
+
+    /** Накопитель результатов, чтобы JIT не выбросил проверки */
+    private static int sink;
+
+    private SquareBenchmark() {}
+
+    /**
+     * Точка входа бенчмарка.
+     *
+     * @param args необязательная доля занятых клеток
+     */
+    public static void main(String[] args) {
+        double fill = (args.length > 0) ? Double.parseDouble(args[0]) : 0.3;
+        RuleSet table = new RuleSet("full-table", FullSquareRuleSet::shapes);
+
+        System.out.printf("%5s %7s %9s %12s %14s %14s%n",
+                "size", "stones", "squares", "index ms", "index ns/move", "table ns/move");
+        for (int size : SIZES) {
+            Board board = randomBoard(size, fill, new Random(size));
+            int squares = table.patterns(size).getSquareCount();
+
+            long indexNanos = Long.MAX_VALUE;
+            long indexCheckNanos = Long.MAX_VALUE;
+            long tableCheckNanos = Long.MAX_VALUE;
+            int checks = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                FullSquareIndex index = FullSquareIndex.of(board);
+                indexNanos = Math.min(indexNanos, System.nanoTime() - start);
+
+                checks = 0;
+                start = System.nanoTime();
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        if (board.grid[y][x] != '.') continue;
+                        sink += index.wouldComplete(x, y, 'W') ? 1 : 0;
+                        sink += index.wouldComplete(x, y, 'B') ? 1 : 0;
+                        checks += 2;
+                    }
+                }
+                indexCheckNanos = Math.min(indexCheckNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        if (board.grid[y][x] != '.') continue;
+                        sink += table.wouldComplete(board, x, y, 'W') ? 1 : 0;
+                        sink += table.wouldComplete(board, x, y, 'B') ? 1 : 0;
+                    }
+                }
+                tableCheckNanos = Math.min(tableCheckNanos, System.nanoTime() - start);
+            }
+
+            System.out.printf("%5d %7d %9d %12.3f %14d %14d%n",
+                    size, countStones(board), squares, indexNanos / 1e6,
+                    indexCheckNanos / Math.max(1, checks), tableCheckNanos / Math.max(1, checks));
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    /**
+     * Заполняет доску случайными фишками чередующихся цветов.
+     *
+     * @param size размер доски
+     * @param fill доля занятых клеток
+     * @param random генератор случайных чисел
+     * @return доска
+     */
+    private static Board randomBoard(int size, double fill, Random random) {
+        Board board = new Board(size);
+        int stones = (int) (size * size * fill);
+        for (int i = 0; i < stones; ) {
+            if (board.makeMove(random.nextInt(size), random.nextInt(size), (i % 2 == 0) ? 'W' : 'B')) {
+                i++;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @param board доска
+     * @return количество фишек на доске
+     */
+    private static int countStones(Board board) {
+        int count = 0;
+        for (char[] row : board.grid) {
+            for (char cell : row) {
+                if (cell != '.') count++;
+            }
+        }
+        return count;
+    }
+}
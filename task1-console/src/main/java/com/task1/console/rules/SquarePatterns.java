@@ -0,0 +1,81 @@
+package com.task1.console.rules;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Таблица шаблонов квадратов для доски заданного размера.
+ * Перечисляет все положения квадратов на доске (четвёрки индексов клеток y * size + x)
+ * и для каждой клетки - номера квадратов, в которые она входит. Таблицу компилирует
+ * {@link RuleSet} один раз на размер доски, поэтому проверки и анализ позиции сводятся
+ * к подсчёту камней в готовых четвёрках без перебора фигур и копирования доски.
+ */
+public final class SquarePatterns {
+
+    /** Размер доски */
+    private final int size;
+
+    /** Клетки квадратов: squares[i] - четыре индекса клеток квадрата i */
+    private final int[][] squares;
+
+    /** Квадраты клеток: cellSquares[c] - номера квадратов, содержащих клетку c */
+    private final int[][] cellSquares;
+
+    /**
+     * Строит таблицу из списка квадратов.
+     *
+     * @param size размер доски
+     * @param squares квадраты как четвёрки индексов клеток
+     */
+    SquarePatterns(int size, List<int[]> squares) {
+        this.size = size;
+        this.squares = squares.toArray(new int[0][]);
+
+        int[] counts = new int[size * size];
+        for (int[] square : this.squares) {
+            for (int cell : square) {
+                counts[cell]++;
+            }
+        }
+        this.cellSquares = new int[size * size][];
+        for (int cell = 0; cell < counts.length; cell++) {
+            cellSquares[cell] = new int[counts[cell]];
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < this.squares.length; i++) {
+            for (int cell : this.squares[i]) {
+                cellSquares[cell][counts[cell]++] = i;
+            }
+        }
+    }
+
+    /**
+     * @return размер доски
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return количество квадратов на доске
+     */
+    public int getSquareCount() {
+        return squares.length;
+    }
+
+    /**
+     * @param square номер квадрата
+     * @return индексы четырёх клеток квадрата (не изменять)
+     */
+    public int[] getSquare(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @param cell индекс клетки y * size + x
+     * @return номера квадратов, содержащих клетку (не изменять)
+     */
+    public int[] getSquaresOf(int cell) {
+        return cellSquares[cell];
+    }
+}
@@ -0,0 +1,488 @@
+package com.task1.console.search;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.SquarePatterns;
+
+import java.util.Random;
+
+/**
+ * Поиск хода с итеративным углублением и альфа-бета отсечением (negamax).
+ *
+ * Позиция хранится как количество белых и чёрных фишек в каждом квадрате правил
+ * ({@link SquarePatterns}); оценка позиции и угрозы (квадраты, где не хватает одной фишки)
+ * обновляются при каждом ходе, а не пересчитываются. Ходы упорядочиваются: ход из главной линии
+ * предыдущей итерации, ход из таблицы транспозиций, затем по весу клетки. На угрозу соперника
+ * рассматриваются только ответы в неё, две угрозы в разных клетках - проигрыш.
+ *
+ * Поиск можно остановить из другого потока ({@link #stop()}): флаг проверяется каждые
+ * {@link #CHECK_INTERVAL} узлов, поэтому остановка занимает доли миллисекунды. Результат -
+ * последняя законченная итерация (первая итерация заканчивается всегда).
+ *
+ * Экземпляр не потокобезопасен: одновременно идёт один поиск; stop, setDeadline и
+ * isStopped можно вызывать из других потоков.
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * Получатель итогов итераций поиска.
+     */
+    public interface Listener {
+
+        /**
+         * Вызывается потоком поиска после каждой законченной итерации.
+         *
+         * @param info итог итерации
+         */
+        void onIteration(SearchInfo info);
+    }
+
+    /** Наибольшая глубина поиска, полуходов */
+    public static final int MAX_DEPTH = 64;
+
+    /** Как часто проверяются остановка и время, узлов (степень двойки) */
+    static final int CHECK_INTERVAL = 1024;
+
+    /** Вес квадрата по количеству фишек одного цвета в нём (без фишек соперника) */
+    private static final int[] WEIGHTS = {0, 1, 8, 60, 0};
+
+    /** Количество записей таблицы транспозиций (только лучшие ходы для упорядочивания) */
+    private static final int TABLE_SIZE = 1 << 18;
+
+    /** Правила игры */
+    private final RuleSet rules;
+
+    /** Поиск остановлен извне или по времени */
+    private volatile boolean stopped;
+
+    /** Момент окончания по System.nanoTime() или Long.MAX_VALUE */
+    private volatile long deadline = Long.MAX_VALUE;
+
+    /** Ключи Зобриста [цвет][клетка] и хеш текущей позиции */
+    private long[][] zobrist;
+    private long hash;
+
+    /** Таблица транспозиций: ключ позиции и лучший ход */
+    private final long[] tableKeys = new long[TABLE_SIZE];
+    private final int[] tableMoves = new int[TABLE_SIZE];
+
+    /** Размер доски и клетки: 0 - пусто, 1 - белые, 2 - чёрные */
+    private int size;
+    private byte[] cells;
+
+    /** Квадраты правил и квадраты каждой клетки */
+    private int[][] squares;
+    private SquarePatterns patterns;
+
+    /** Количество белых и чёрных фишек в каждом квадрате */
+    private int[] whites;
+    private int[] blacks;
+
+    /** Количество квадратов с угрозой белых [1] и чёрных [2] */
+    private final int[] threats = new int[3];
+
+    /** Оценка позиции с точки зрения белых */
+    private int eval;
+
+    /** Количество свободных клеток */
+    private int empties;
+
+    /** Радиус соседства и количество фишек в радиусе каждой клетки (кандидаты на ход) */
+    private int reach;
+    private boolean nearbyOnly;
+    private int[] nearby;
+
+    /** Буферы ходов и их весов по глубине */
+    private int[][] moves;
+    private int[][] scores;
+
+    /** Треугольная таблица главной линии */
+    private int[][] pv;
+    private int[] pvLength;
+
+    /** Главная линия предыдущей итерации */
+    private int[] previousPv = new int[0];
+
+    /** Счётчик узлов и начало поиска */
+    private long nodes;
+    private long startNanos;
+
+    /**
+     * @param rules правила игры
+     */
+    public AlphaBetaSearch(RuleSet rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Готовит следующий поиск: снимает остановку и ограничение времени.
+     * Вызывается до запуска поиска в другом потоке, чтобы stop, пришедший сразу после запуска,
+     * не потерялся.
+     */
+    public void reset() {
+        stopped = false;
+        deadline = Long.MAX_VALUE;
+    }
+
+    /**
+     * Останавливает идущий поиск.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return true, если поиск остановлен
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Задаёт момент окончания поиска; можно менять во время поиска (например, при ponderhit).
+     *
+     * @param deadlineNanos момент по System.nanoTime() или Long.MAX_VALUE без ограничения
+     */
+    public void setDeadline(long deadlineNanos) {
+        this.deadline = deadlineNanos;
+    }
+
+    /**
+     * Ищет лучший ход. Доска не изменяется. Остановка и время не сбрасываются, см. {@link #reset()}.
+     *
+     * @param board позиция без квадратов
+     * @param color цвет игрока, который ходит ('W' или 'B')
+     * @param maxDepth наибольшая глубина, полуходов
+     * @param listener получатель итогов итераций или null
+     * @return итог последней законченной итерации; главная линия пуста, если ходов нет
+     */
+    public SearchInfo search(Board board, char color, int maxDepth, Listener listener) {
+        if (color != 'W' && color != 'B') {
+            throw new IllegalArgumentException("Color must be W or B: " + color);
+        }
+        startNanos = System.nanoTime();
+        nodes = 0;
+        load(board);
+
+        int side = (color == 'W') ? 1 : 2;
+        int limit = Math.min(Math.min(maxDepth, MAX_DEPTH), empties);
+        SearchInfo result = new SearchInfo(0, 0, 0, 0, new int[0], size);
+        previousPv = new int[0];
+        for (int depth = 1; depth <= limit; depth++) {
+            int score = negamax(depth, 0, -SearchInfo.WIN - 1, SearchInfo.WIN + 1, side);
+            if (depth > 1 && stopped) {
+                break;
+            }
+            int[] line = new int[pvLength[0]];
+            System.arraycopy(pv[0], 0, line, 0, line.length);
+            previousPv = line;
+            result = new SearchInfo(depth, score, nodes, elapsedMillis(), line, size);
+            if (listener != null) {
+                listener.onIteration(result);
+            }
+            if (stopped || result.isDecisive()) {
+                break;
+            }
+        }
+        if (result.getPvLength() == 0 && empties > 0) {
+            // Ходов без главной линии не бывает, но на всякий случай возвращаем любую клетку
+            result = new SearchInfo(0, 0, nodes, elapsedMillis(), new int[] {firstEmpty()}, size);
+        }
+        return result;
+    }
+
+    /**
+     * Перебор negamax с альфа-бета отсечением.
+     *
+     * @param depth оставшаяся глубина
+     * @param ply полуходов от корня
+     * @param alpha нижняя граница
+     * @param beta верхняя граница
+     * @param side цвет, который ходит: 1 - белые, 2 - чёрные
+     * @return оценка с точки зрения side
+     */
+    private int negamax(int depth, int ply, int alpha, int beta, int side) {
+        pvLength[ply] = 0;
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        if (stopped && previousPv.length > 0) {
+            return 0;
+        }
+
+        int opponent = 3 - side;
+        if (empties == 0) {
+            return 0;
+        }
+        if (threats[side] > 0) {
+            // Квадрат замыкается следующим ходом
+            int win = findCompletion(side);
+            pv[ply][0] = win;
+            pvLength[ply] = 1;
+            return SearchInfo.WIN - (ply + 1);
+        }
+        if (depth == 0) {
+            return (side == 1) ? eval : -eval;
+        }
+
+        int count = generate(ply, side, opponent);
+        if (count < 0) {
+            // Две угрозы соперника в разных клетках: одну закрыть нельзя
+            pv[ply][0] = moves[ply][0];
+            pvLength[ply] = 1;
+            return -(SearchInfo.WIN - (ply + 2));
+        }
+
+        int best = -SearchInfo.WIN - 1;
+        int bestMove = -1;
+        int[] list = moves[ply];
+        for (int i = 0; i < count; i++) {
+            int cell = list[i];
+            place(cell, side);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
+            remove(cell, side);
+            if (stopped && previousPv.length > 0) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = cell;
+                pv[ply][0] = cell;
+                System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+                pvLength[ply] = pvLength[ply + 1] + 1;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        int slot = (int) hash & (TABLE_SIZE - 1);
+        tableKeys[slot] = hash;
+        tableMoves[slot] = bestMove;
+        return best;
+    }
+
+    /**
+     * Заполняет буфер ходов глубины ply в порядке проверки.
+     *
+     * @return количество ходов или -1, если у соперника две угрозы в разных клетках
+     *         (тогда в буфере одна из них)
+     */
+    private int generate(int ply, int side, int opponent) {
+        int[] list = moves[ply];
+        int[] weight = scores[ply];
+
+        if (threats[opponent] > 0) {
+            // Ответ только в клетку угрозы
+            int block = -1;
+            for (int square = 0; square < squares.length; square++) {
+                if (!isThreat(square, opponent)) continue;
+                int cell = emptyCellOf(square);
+                if (block < 0) {
+                    block = cell;
+                } else if (cell != block) {
+                    list[0] = block;
+                    return -1;
+                }
+            }
+            list[0] = block;
+            return 1;
+        }
+
+        int count = 0;
+        int slot = (int) hash & (TABLE_SIZE - 1);
+        int tableMove = (tableKeys[slot] == hash) ? tableMoves[slot] : -1;
+        int pvMove = (ply < previousPv.length && pvMatches(ply)) ? previousPv[ply] : -1;
+        boolean empty = empties == cells.length;
+        // Если рядом с фишками свободных клеток нет, второй проход берёт все свободные клетки
+        for (int pass = 0; pass < 2 && count == 0; pass++) {
+            boolean filter = nearbyOnly && pass == 0;
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] != 0) continue;
+                if (empty ? cell != centre() : (filter && nearby[cell] == 0)) continue;
+
+                int value = cellWeight(cell);
+                if (cell == pvMove) value = Integer.MAX_VALUE;
+                else if (cell == tableMove) value = Integer.MAX_VALUE - 1;
+
+                // Вставка по убыванию веса
+                int i = count++;
+                while (i > 0 && weight[i - 1] < value) {
+                    list[i] = list[i - 1];
+                    weight[i] = weight[i - 1];
+                    i--;
+                }
+                list[i] = cell;
+                weight[i] = value;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return true, если текущая позиция лежит на главной линии предыдущей итерации
+     */
+    private boolean pvMatches(int ply) {
+        for (int i = 0; i < ply; i++) {
+            if (cells[previousPv[i]] == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Вес клетки для упорядочивания: сколько она даёт своим квадратам и отнимает у квадратов соперника.
+     */
+    private int cellWeight(int cell) {
+        int value = 0;
+        for (int square : patterns.getSquaresOf(cell)) {
+            int w = whites[square];
+            int b = blacks[square];
+            if (b == 0) value += WEIGHTS[w + 1];
+            if (w == 0) value += WEIGHTS[b + 1];
+        }
+        return value;
+    }
+
+    /**
+     * @return свободная клетка квадрата с угрозой цвета side (первого найденного)
+     */
+    private int findCompletion(int side) {
+        for (int square = 0; square < squares.length; square++) {
+            if (isThreat(square, side)) return emptyCellOf(square);
+        }
+        throw new IllegalStateException("No threat of side " + side);
+    }
+
+    private boolean isThreat(int square, int side) {
+        return (side == 1) ? whites[square] == 3 && blacks[square] == 0
+                : blacks[square] == 3 && whites[square] == 0;
+    }
+
+    private int emptyCellOf(int square) {
+        for (int cell : squares[square]) {
+            if (cells[cell] == 0) return cell;
+        }
+        throw new IllegalStateException("Square " + square + " is full");
+    }
+
+    /**
+     * Ставит фишку и обновляет счётчики квадратов, оценку, угрозы, соседство и хеш.
+     */
+    private void place(int cell, int side) {
+        cells[cell] = (byte) side;
+        empties--;
+        hash ^= zobrist[side][cell];
+        for (int square : patterns.getSquaresOf(cell)) {
+            eval -= contribution(square);
+            if (isThreat(square, 1)) threats[1]--;
+            if (isThreat(square, 2)) threats[2]--;
+            if (side == 1) whites[square]++;
+            else blacks[square]++;
+            eval += contribution(square);
+            if (isThreat(square, 1)) threats[1]++;
+            if (isThreat(square, 2)) threats[2]++;
+        }
+        if (nearbyOnly) updateNearby(cell, 1);
+    }
+
+    /**
+     * Убирает фишку, обратно к {@link #place(int, int)}.
+     */
+    private void remove(int cell, int side) {
+        for (int square : patterns.getSquaresOf(cell)) {
+            eval -= contribution(square);
+            if (isThreat(square, 1)) threats[1]--;
+            if (isThreat(square, 2)) threats[2]--;
+            if (side == 1) whites[square]--;
+            else blacks[square]--;
+            eval += contribution(square);
+            if (isThreat(square, 1)) threats[1]++;
+            if (isThreat(square, 2)) threats[2]++;
+        }
+        if (nearbyOnly) updateNearby(cell, -1);
+        hash ^= zobrist[side][cell];
+        empties++;
+        cells[cell] = 0;
+    }
+
+    /**
+     * @return вклад квадрата в оценку с точки зрения белых
+     */
+    private int contribution(int square) {
+        int w = whites[square];
+        int b = blacks[square];
+        if (b == 0) return WEIGHTS[w];
+        if (w == 0) return -WEIGHTS[b];
+        return 0;
+    }
+
+    private void updateNearby(int cell, int delta) {
+        int x = cell % size;
+        int y = cell / size;
+        for (int ny = Math.max(0, y - reach); ny <= Math.min(size - 1, y + reach); ny++) {
+            for (int nx = Math.max(0, x - reach); nx <= Math.min(size - 1, x + reach); nx++) {
+                nearby[ny * size + nx] += delta;
+            }
+        }
+    }
+
+    /**
+     * Загружает позицию с доски и готовит буферы.
+     */
+    private void load(Board board) {
+        if (board.size != size || cells == null) {
+            size = board.size;
+            patterns = rules.patterns(size);
+            squares = new int[patterns.getSquareCount()][];
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] = patterns.getSquare(i);
+            }
+            Random random = new Random(size);
+            zobrist = new long[3][size * size];
+            for (int side = 1; side <= 2; side++) {
+                for (int cell = 0; cell < size * size; cell++) {
+                    zobrist[side][cell] = random.nextLong();
+                }
+            }
+            reach = rules.reach(size);
+            nearbyOnly = reach < size - 1;
+            int plies = Math.min(MAX_DEPTH, size * size) + 2;
+            moves = new int[plies][size * size];
+            scores = new int[plies][size * size];
+            pv = new int[plies][plies];
+            pvLength = new int[plies];
+        }
+        cells = new byte[size * size];
+        whites = new int[squares.length];
+        blacks = new int[squares.length];
+        nearby = new int[size * size];
+        threats[1] = 0;
+        threats[2] = 0;
+        eval = 0;
+        hash = 0;
+        empties = size * size;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                char cell = board.grid[y][x];
+                if (cell == 'W') place(y * size + x, 1);
+                else if (cell == 'B') place(y * size + x, 2);
+            }
+        }
+    }
+
+    private int centre() {
+        return (size / 2) * size + size / 2;
+    }
+
+    private int firstEmpty() {
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0) return cell;
+        }
+        return -1;
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,109 @@
+package com.task1.console.search;
+
+/**
+ * Итог одной итерации поиска (или всего поиска): глубина, оценка, статистика и главная линия.
+ */
+public final class SearchInfo {
+
+    /** Оценка выигрыша: WIN - ply, где ply - количество полуходов до квадрата */
+    public static final int WIN = 1_000_000;
+
+    /** Оценки по модулю не меньше этого означают найденный выигрыш или проигрыш */
+    public static final int WIN_THRESHOLD = WIN - 10_000;
+
+    /** Глубина итерации, полуходов */
+    private final int depth;
+
+    /** Оценка с точки зрения игрока, который ходит */
+    private final int score;
+
+    /** Количество узлов с начала поиска */
+    private final long nodes;
+
+    /** Время с начала поиска, мс */
+    private final long elapsedMillis;
+
+    /** Главная линия: индексы клеток y * size + x */
+    private final int[] pv;
+
+    /** Размер доски (для координат главной линии) */
+    private final int size;
+
+    SearchInfo(int depth, int score, long nodes, long elapsedMillis, int[] pv, int size) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.pv = pv;
+        this.size = size;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return узлов в секунду
+     */
+    public long getNodesPerSecond() {
+        return nodes * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * @return true, если оценка - найденный выигрыш или проигрыш
+     */
+    public boolean isDecisive() {
+        return Math.abs(score) >= WIN_THRESHOLD;
+    }
+
+    /**
+     * @return количество своих ходов до выигрыша (больше 0) или до проигрыша (меньше 0);
+     *         0, если оценка не решающая
+     */
+    public int getMateMoves() {
+        if (!isDecisive()) return 0;
+        int plies = WIN - Math.abs(score);
+        return (score > 0) ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    /**
+     * @return длина главной линии
+     */
+    public int getPvLength() {
+        return pv.length;
+    }
+
+    /**
+     * @param i номер хода в главной линии
+     * @return ход [x, y]
+     */
+    public int[] getPvMove(int i) {
+        return new int[] {pv[i] % size, pv[i] / size};
+    }
+
+    /**
+     * @return лучший ход [x, y] или null, если ходов нет
+     */
+    public int[] getBestMove() {
+        return (pv.length > 0) ? getPvMove(0) : null;
+    }
+
+    /**
+     * @return ожидаемый ответ соперника [x, y] или null
+     */
+    public int[] getPonderMove() {
+        return (pv.length > 1) ? getPvMove(1) : null;
+    }
+}
@@ -0,0 +1,510 @@
+package com.task1.console.solver;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.SquarePatterns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Поиск форсированного выигрыша: может ли игрок, который ходит, образовать квадрат
+ * не более чем за K своих ходов при любой защите соперника.
+ *
+ * Используется поиск по доказательным числам в глубину (df-pn) с таблицей транспозиций.
+ * Узел, где ходит атакующий, - ИЛИ-узел, где защищающийся - И-узел. Глубина узла однозначно
+ * задаётся количеством фишек на доске, поэтому ключом таблицы служит только хеш Зобриста позиции.
+ * K перебирается от 1 до заданного, так что найденный выигрыш - самый короткий.
+ *
+ * Ходы генерируются с учётом угроз (квадрат, где не хватает одной фишки): на угрозу соперника
+ * нужно отвечать, две разные угрозы нельзя закрыть одним ходом. Атакующий ходит только в клетки
+ * квадратов, которые он ещё успевает замкнуть за оставшиеся ходы; защищающийся - в любую свободную
+ * клетку. Поэтому найденный выигрыш всегда настоящий, а ответ "выигрыша нет" не учитывает
+ * "тихие" профилактические ходы атакующего вне таких квадратов.
+ *
+ * Решатель не потокобезопасен: на каждый поток нужен свой экземпляр.
+ */
+public class ForcedWinSolver {
+
+    /** Лимит узлов по умолчанию */
+    public static final long DEFAULT_NODE_LIMIT = 500_000;
+
+    /** Лимит времени по умолчанию, мс */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+
+    /** "Бесконечное" доказательное число */
+    private static final int INF = 100_000_000;
+
+    /** Результат разбора узла: выигрыш атакующего доказан */
+    private static final int PROVEN = -1;
+
+    /** Результат разбора узла: выигрыш атакующего опровергнут */
+    private static final int DISPROVEN = -2;
+
+    /** Наибольший размер таблицы транспозиций (2^21 записей) */
+    private static final int MAX_TABLE_BITS = 21;
+
+    /** Правила игры */
+    private final RuleSet rules;
+
+    /** Лимит узлов на один вызов solve */
+    private final long nodeLimit;
+
+    /** Лимит времени на один вызов solve, мс */
+    private final long timeLimitMillis;
+
+    /** Размер доски */
+    private int size;
+
+    /** Клетки позиции по строкам: cells[y * size + x] */
+    private char[] cells;
+
+    /** Квадраты правил для размера доски */
+    private int[][] squares;
+
+    /** Цвет атакующего (игрока, который ходит в корне) и защищающегося */
+    private char attacker;
+    private char defender;
+
+    /** Ключи Зобриста: [0] - ходы атакующего, [1] - защищающегося */
+    private long[][] zobrist;
+
+    /** Хеш текущей позиции */
+    private long hash;
+
+    /** Таблица транспозиций: ключ и доказательные числа (замещение при коллизии) */
+    private final long[] keys;
+    private final int[] pns;
+    private final int[] dns;
+    private final int mask;
+
+    /** Буферы ходов по глубине */
+    private int[][] children;
+
+    /** Отметки клеток, входящих в квадраты, которые атакующий успевает замкнуть */
+    private int[] stamps;
+    private int stamp;
+
+    /** Вес клеток для упорядочивания ходов: сумма своих фишек в квадратах через клетку */
+    private int[] weights;
+
+    /** Клетка угрозы атакующего из последнего разбора узла или -1 */
+    private int threatCell;
+
+    /** Счётчик узлов и лимиты текущего поиска */
+    private long nodes;
+    private long nodeBudget;
+    private long deadline;
+    private boolean aborted;
+
+    /**
+     * Создаёт решатель с лимитами по умолчанию.
+     *
+     * @param rules правила игры
+     */
+    public ForcedWinSolver(RuleSet rules) {
+        this(rules, DEFAULT_NODE_LIMIT, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Создаёт решатель.
+     *
+     * @param rules правила игры
+     * @param nodeLimit лимит узлов на один поиск
+     * @param timeLimitMillis лимит времени на один поиск, мс
+     */
+    public ForcedWinSolver(RuleSet rules, long nodeLimit, long timeLimitMillis) {
+        if (nodeLimit <= 0 || timeLimitMillis <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.rules = rules;
+        this.nodeLimit = nodeLimit;
+        this.timeLimitMillis = timeLimitMillis;
+        int bits = Math.min(MAX_TABLE_BITS, 64 - Long.numberOfLeadingZeros(nodeLimit - 1));
+        int capacity = 1 << Math.max(10, bits);
+        this.keys = new long[capacity];
+        this.pns = new int[capacity];
+        this.dns = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Ищет форсированный выигрыш игрока color не более чем за maxMoves его ходов.
+     * Доска не изменяется.
+     *
+     * @param board позиция
+     * @param color цвет игрока, который ходит ('W' или 'B')
+     * @param maxMoves наибольшее количество ходов игрока color до победы
+     * @return результат поиска с выигрывающей линией
+     * @throws IllegalArgumentException если параметры некорректны или на доске уже есть квадрат
+     */
+    public SolveResult solve(Board board, char color, int maxMoves) {
+        if (color != 'W' && color != 'B') {
+            throw new IllegalArgumentException("Color must be 'W' or 'B'");
+        }
+        if (maxMoves < 1) {
+            throw new IllegalArgumentException("maxMoves must be positive");
+        }
+        if (rules.hasSquare(board, 'W') || rules.hasSquare(board, 'B')) {
+            throw new IllegalArgumentException("Game is already finished");
+        }
+
+        long start = System.nanoTime();
+        init(board, color, maxMoves);
+        nodeBudget = nodeLimit;
+        deadline = start + timeLimitMillis * 1_000_000L;
+
+        for (int k = 1; k <= maxMoves; k++) {
+            Arrays.fill(keys, 0L);
+            long root = mid(0, k, INF, INF);
+            if (aborted) {
+                return result(SolveResult.Status.UNKNOWN, 0, Collections.<int[]>emptyList(), start);
+            }
+            if ((int) (root >>> 32) == 0) {
+                return result(SolveResult.Status.WIN, k, extractLine(k), start);
+            }
+        }
+        return result(SolveResult.Status.NO_WIN, 0, Collections.<int[]>emptyList(), start);
+    }
+
+    /**
+     * Готовит состояние поиска для позиции.
+     */
+    private void init(Board board, char color, int maxMoves) {
+        size = board.size;
+        cells = new char[size * size];
+        for (int y = 0; y < size; y++) {
+            System.arraycopy(board.grid[y], 0, cells, y * size, size);
+        }
+
+        SquarePatterns patterns = rules.patterns(size);
+        squares = new int[patterns.getSquareCount()][];
+        for (int i = 0; i < squares.length; i++) {
+            squares[i] = patterns.getSquare(i);
+        }
+
+        attacker = color;
+        defender = (color == 'W') ? 'B' : 'W';
+        zobrist = new long[2][cells.length];
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int side = 0; side < 2; side++) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                seed = mix(seed);
+                zobrist[side][cell] = seed;
+            }
+        }
+        hash = 0x9E3779B97F4A7C15L;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == attacker) {
+                hash ^= zobrist[0][cell];
+            } else if (cells[cell] == defender) {
+                hash ^= zobrist[1][cell];
+            }
+        }
+
+        children = new int[2 * maxMoves][cells.length];
+        stamps = new int[cells.length];
+        weights = new int[cells.length];
+        stamp = 0;
+        nodes = 0;
+        aborted = false;
+    }
+
+    /**
+     * Поиск df-pn в узле: раскрывает лучшего потомка, пока доказательные числа узла
+     * не превысят пороги.
+     *
+     * @param ply глубина узла (чётная - ход атакующего)
+     * @param r количество оставшихся ходов атакующего
+     * @param thpn порог доказательного числа
+     * @param thdn порог опровергающего числа
+     * @return доказательные числа узла: (pn << 32) | dn
+     */
+    private long mid(int ply, int r, int thpn, int thdn) {
+        if (++nodes >= nodeBudget || ((nodes & 1023) == 0 && System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        boolean or = (ply & 1) == 0;
+        int[] moves = children[ply];
+        int count = expand(or, r, moves);
+        if (count == PROVEN) {
+            return store(hash, 0, INF);
+        }
+        if (count == DISPROVEN) {
+            return store(hash, INF, 0);
+        }
+
+        long[] keysOfMover = zobrist[or ? 0 : 1];
+        char color = or ? attacker : defender;
+        int childR = or ? r - 1 : r;
+        while (true) {
+            // ИЛИ-узел: pn - минимум по потомкам, dn - сумма; И-узел - наоборот
+            int pn = 0;
+            int dn = 0;
+            int best = -1;
+            int bestPn = 0;
+            int bestDn = 0;
+            int second = INF;
+            for (int i = 0; i < count; i++) {
+                int slot = lookup(hash ^ keysOfMover[moves[i]]);
+                int childPn = (slot >= 0) ? pns[slot] : 1;
+                int childDn = (slot >= 0) ? dns[slot] : 1;
+                int primary = or ? childPn : childDn;
+                if (or) {
+                    dn = Math.min(INF, dn + childDn);
+                } else {
+                    pn = Math.min(INF, pn + childPn);
+                }
+                if (best < 0 || primary < (or ? bestPn : bestDn)) {
+                    if (best >= 0) {
+                        second = or ? bestPn : bestDn;
+                    }
+                    best = i;
+                    bestPn = childPn;
+                    bestDn = childDn;
+                } else if (primary < second) {
+                    second = primary;
+                }
+            }
+            if (or) {
+                pn = bestPn;
+            } else {
+                dn = bestDn;
+            }
+
+            if (pn >= thpn || dn >= thdn || aborted) {
+                return store(hash, pn, dn);
+            }
+
+            int childThpn;
+            int childThdn;
+            if (or) {
+                childThpn = Math.min(thpn, second + 1);
+                childThdn = Math.min(INF, thdn - dn + bestDn);
+            } else {
+                childThpn = Math.min(INF, thpn - pn + bestPn);
+                childThdn = Math.min(thdn, second + 1);
+            }
+
+            int cell = moves[best];
+            cells[cell] = color;
+            hash ^= keysOfMover[cell];
+            mid(ply + 1, childR, childThpn, childThdn);
+            cells[cell] = '.';
+            hash ^= keysOfMover[cell];
+        }
+    }
+
+    /**
+     * Разбирает узел за один проход по квадратам: находит угрозы обеих сторон
+     * и клетки квадратов, которые атакующий успевает замкнуть, и генерирует ходы.
+     *
+     * @param or true, если ходит атакующий
+     * @param r количество оставшихся ходов атакующего (в ИЛИ-узле - включая текущий)
+     * @param out буфер для ходов
+     * @return количество ходов, {@link #PROVEN} или {@link #DISPROVEN}
+     */
+    private int expand(boolean or, int r, int[] out) {
+        int attackerThreat = -1;
+        int defenderThreat = -1;
+        boolean attackerDouble = false;
+        boolean defenderDouble = false;
+        boolean reachable = false;
+        stamp++;
+
+        for (int[] square : squares) {
+            int own = 0;
+            int other = 0;
+            int empty = -1;
+            for (int cell : square) {
+                char c = cells[cell];
+                if (c == attacker) {
+                    own++;
+                } else if (c == defender) {
+                    other++;
+                } else {
+                    empty = cell;
+                }
+            }
+            int length = square.length;
+            if (other == 0 && own == length - 1) {
+                if (attackerThreat < 0) {
+                    attackerThreat = empty;
+                } else if (attackerThreat != empty) {
+                    attackerDouble = true;
+                }
+            } else if (own == 0 && other == length - 1) {
+                if (defenderThreat < 0) {
+                    defenderThreat = empty;
+                } else if (defenderThreat != empty) {
+                    defenderDouble = true;
+                }
+            }
+            if (other == 0 && own >= length - r) {
+                reachable = true;
+                for (int cell : square) {
+                    if (cells[cell] != '.') continue;
+                    if (stamps[cell] != stamp) {
+                        stamps[cell] = stamp;
+                        weights[cell] = 0;
+                    }
+                    weights[cell] += own + 1;
+                }
+            }
+        }
+        threatCell = attackerThreat;
+
+        if (or) {
+            if (attackerThreat >= 0) return PROVEN;
+            if (r <= 1 || defenderDouble) return DISPROVEN;
+            if (defenderThreat >= 0) {
+                out[0] = defenderThreat;
+                return 1;
+            }
+            int count = collect(out, 0, true);
+            return (count == 0) ? DISPROVEN : count;
+        }
+
+        if (defenderThreat >= 0) return DISPROVEN;
+        if (attackerDouble) return PROVEN;
+        if (attackerThreat >= 0) {
+            out[0] = attackerThreat;
+            return 1;
+        }
+        if (!reachable) return DISPROVEN;
+        int count = collect(out, 0, true);
+        count = collect(out, count, false);
+        return (count == 0) ? DISPROVEN : count;
+    }
+
+    /**
+     * Добавляет в буфер свободные клетки, отмеченные (или не отмеченные) в последнем разборе.
+     * Отмеченные клетки упорядочиваются по убыванию веса.
+     *
+     * @param out буфер ходов
+     * @param from количество уже добавленных ходов
+     * @param marked true - отмеченные клетки, false - остальные свободные
+     * @return количество ходов в буфере
+     */
+    private int collect(int[] out, int from, boolean marked) {
+        int count = from;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != '.' || (stamps[cell] == stamp) != marked) continue;
+            int i = count++;
+            if (marked) {
+                while (i > from && weights[out[i - 1]] < weights[cell]) {
+                    out[i] = out[i - 1];
+                    i--;
+                }
+            }
+            out[i] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Восстанавливает выигрывающую линию по таблице транспозиций. Если запись потомка
+     * вытеснена из таблицы, узел доказывается заново (без лимитов: он уже был доказан).
+     *
+     * @param k количество ходов атакующего до победы
+     * @return ходы [x, y] поочерёдно, начиная с атакующего
+     */
+    private List<int[]> extractLine(int k) {
+        nodeBudget = Long.MAX_VALUE;
+        deadline = Long.MAX_VALUE;
+        List<int[]> line = new ArrayList<>();
+        int[] played = new int[2 * k];
+        int r = k;
+        int ply = 0;
+        while (ply < played.length) {
+            boolean or = (ply & 1) == 0;
+            int[] moves = children[ply];
+            int count = expand(or, r, moves);
+            int cell;
+            if (count == PROVEN) {
+                // выигрыш (ИЛИ-узел) или закрытие одной из двух угроз (И-узел)
+                cell = threatCell;
+            } else if (count <= 0) {
+                break;
+            } else if (or) {
+                cell = provenChild(moves, count);
+                if (cell < 0) {
+                    mid(ply, r, INF, INF);
+                    expand(true, r, moves);
+                    cell = provenChild(moves, count);
+                }
+                if (cell < 0) break;
+            } else {
+                cell = moves[0];
+            }
+
+            line.add(new int[] {cell % size, cell / size});
+            if (or && count == PROVEN) break;
+            cells[cell] = or ? attacker : defender;
+            hash ^= zobrist[or ? 0 : 1][cell];
+            played[ply++] = cell;
+            if (or) r--;
+        }
+        for (int i = ply - 1; i >= 0; i--) {
+            cells[played[i]] = '.';
+            hash ^= zobrist[i & 1][played[i]];
+        }
+        return line;
+    }
+
+    /**
+     * @param moves ходы атакующего
+     * @param count количество ходов
+     * @return первый ход, после которого выигрыш доказан, или -1
+     */
+    private int provenChild(int[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            int slot = lookup(hash ^ zobrist[0][moves[i]]);
+            if (slot >= 0 && pns[slot] == 0) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param key хеш позиции
+     * @return номер записи таблицы или -1, если позиции нет
+     */
+    private int lookup(long key) {
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        return (keys[slot] == key) ? slot : -1;
+    }
+
+    /**
+     * Записывает доказательные числа позиции в таблицу.
+     *
+     * @return доказательные числа: (pn << 32) | dn
+     */
+    private long store(long key, int pn, int dn) {
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        keys[slot] = key;
+        pns[slot] = pn;
+        dns[slot] = dn;
+        return ((long) pn << 32) | dn;
+    }
+
+    /**
+     * Собирает результат поиска.
+     */
+    private SolveResult result(SolveResult.Status status, int moves, List<int[]> line, long startNanos) {
+        return new SolveResult(status, moves, line, nodes, (System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    /**
+     * Перемешивание SplitMix64 для ключей Зобриста.
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,92 @@
+package com.task1.console.solver;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат поиска форсированного выигрыша {@link ForcedWinSolver}.
+ */
+public final class SolveResult {
+
+    /**
+     * Итог поиска.
+     */
+    public enum Status {
+        /** Игрок, который ходит, выигрывает не более чем за заданное число ходов при любой защите */
+        WIN,
+
+        /** Форсированного выигрыша в пределах заданного числа ходов нет */
+        NO_WIN,
+
+        /** Поиск остановлен по лимиту узлов или времени */
+        UNKNOWN
+    }
+
+    /** Итог поиска */
+    private final Status status;
+
+    /** Количество ходов выигрывающей стороны до победы (0, если выигрыша нет) */
+    private final int moves;
+
+    /** Выигрывающая линия: ходы [x, y] поочерёдно, начиная с игрока, который ходит */
+    private final List<int[]> line;
+
+    /** Количество просмотренных узлов */
+    private final long nodes;
+
+    /** Время поиска в миллисекундах */
+    private final long elapsedMillis;
+
+    /**
+     * Создаёт результат поиска.
+     *
+     * @param status итог поиска
+     * @param moves количество ходов выигрывающей стороны до победы
+     * @param line выигрывающая линия
+     * @param nodes количество просмотренных узлов
+     * @param elapsedMillis время поиска в миллисекундах
+     */
+    public SolveResult(Status status, int moves, List<int[]> line, long nodes, long elapsedMillis) {
+        this.status = status;
+        this.moves = moves;
+        this.line = Collections.unmodifiableList(line);
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return итог поиска
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return количество ходов выигрывающей стороны до победы (0, если выигрыша нет)
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return выигрывающая линия: ходы [x, y] поочерёдно, начиная с игрока, который ходит;
+     *         пустая, если выигрыш не найден
+     */
+    public List<int[]> getLine() {
+        return line;
+    }
+
+    /**
+     * @return количество просмотренных узлов
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return время поиска в миллисекундах
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
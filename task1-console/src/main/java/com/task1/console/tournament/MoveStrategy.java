@@ -0,0 +1,20 @@
+package com.task1.console.tournament;
+
+import com.task1.console.Board;
+
+/**
+ * Стратегия выбора хода для турнира.
+ * Экземпляр используется одним потоком; для параллельных партий каждый поток
+ * получает свой экземпляр из {@link Strategies#parse(String, com.task1.console.rules.RuleSet)}.
+ */
+public interface MoveStrategy {
+
+    /**
+     * Выбирает ход. Доску изменять нельзя.
+     *
+     * @param board позиция без квадратов, в которой есть свободные клетки
+     * @param color цвет игрока, который ходит ('W' или 'B')
+     * @return ход [x, y]; null или занятая клетка засчитываются как поражение
+     */
+    int[] chooseMove(Board board, char color);
+}
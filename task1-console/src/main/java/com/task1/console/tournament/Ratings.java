@@ -0,0 +1,142 @@
+package com.task1.console.tournament;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Рейтинги Эло по результатам партий: оценка максимального правдоподобия модели Брэдли - Терри
+ * (ничья - половина победы), рейтинг первого игрока принят за 0. Чтобы у игрока без поражений
+ * или без побед рейтинг оставался конечным, к каждой паре добавляется одна условная ничья.
+ * Доверительные интервалы - перцентили бутстрепа: партии выбираются с возвращением
+ * {@link #BOOTSTRAP_SAMPLES} раз, и рейтинги пересчитываются.
+ */
+public final class Ratings {
+
+    /** Количество выборок бутстрепа */
+    static final int BOOTSTRAP_SAMPLES = 300;
+
+    /** Итерации алгоритма MM и точность сходимости */
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final double TOLERANCE = 1e-9;
+
+    /** Рейтинги и границы 95% доверительного интервала */
+    private final double[] elo;
+    private final double[] lower;
+    private final double[] upper;
+
+    private Ratings(double[] elo, double[] lower, double[] upper) {
+        this.elo = elo;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Считает рейтинги.
+     *
+     * @param players количество игроков
+     * @param games партии: {белые, чёрные, очки белых в половинах (0, 1 или 2)}
+     * @param seed зерно бутстрепа
+     * @return рейтинги
+     */
+    public static Ratings compute(int players, List<int[]> games, long seed) {
+        double[] elo = maximumLikelihood(players, games, null);
+        double[][] samples = new double[players][BOOTSTRAP_SAMPLES];
+        Random random = new Random(seed);
+        int[] picks = new int[games.size()];
+        for (int sample = 0; sample < BOOTSTRAP_SAMPLES; sample++) {
+            for (int i = 0; i < picks.length; i++) {
+                picks[i] = random.nextInt(picks.length);
+            }
+            double[] resampled = maximumLikelihood(players, games, picks);
+            for (int p = 0; p < players; p++) {
+                samples[p][sample] = resampled[p];
+            }
+        }
+
+        double[] lower = new double[players];
+        double[] upper = new double[players];
+        for (int p = 0; p < players; p++) {
+            Arrays.sort(samples[p]);
+            lower[p] = samples[p][(int) Math.floor(0.025 * (BOOTSTRAP_SAMPLES - 1))];
+            upper[p] = samples[p][(int) Math.ceil(0.975 * (BOOTSTRAP_SAMPLES - 1))];
+        }
+        return new Ratings(elo, lower, upper);
+    }
+
+    /**
+     * Оценка максимального правдоподобия (алгоритм MM Хантера).
+     *
+     * @param picks номера партий выборки или null для всех партий
+     * @return рейтинги Эло, рейтинг игрока 0 равен 0
+     */
+    static double[] maximumLikelihood(int players, List<int[]> games, int[] picks) {
+        double[][] played = new double[players][players];
+        double[] points = new double[players];
+        // Условная ничья в каждой паре
+        for (int i = 0; i < players; i++) {
+            for (int j = 0; j < players; j++) {
+                if (i == j) continue;
+                played[i][j] += 1;
+                points[i] += 0.5;
+            }
+        }
+        int count = (picks == null) ? games.size() : picks.length;
+        for (int k = 0; k < count; k++) {
+            int[] game = games.get((picks == null) ? k : picks[k]);
+            played[game[0]][game[1]] += 1;
+            played[game[1]][game[0]] += 1;
+            points[game[0]] += game[2] / 2.0;
+            points[game[1]] += (2 - game[2]) / 2.0;
+        }
+
+        double[] gamma = new double[players];
+        Arrays.fill(gamma, 1);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double change = 0;
+            for (int i = 0; i < players; i++) {
+                double denominator = 0;
+                for (int j = 0; j < players; j++) {
+                    if (i != j && played[i][j] > 0) {
+                        denominator += played[i][j] / (gamma[i] + gamma[j]);
+                    }
+                }
+                double next = points[i] / denominator;
+                change = Math.max(change, Math.abs(Math.log(next / gamma[i])));
+                gamma[i] = next;
+            }
+            double anchor = gamma[0];
+            for (int i = 0; i < players; i++) {
+                gamma[i] /= anchor;
+            }
+            if (change < TOLERANCE) break;
+        }
+
+        double[] elo = new double[players];
+        for (int i = 0; i < players; i++) {
+            elo[i] = 400 * Math.log10(gamma[i]);
+        }
+        return elo;
+    }
+
+    /**
+     * @return рейтинг игрока относительно игрока 0
+     */
+    public double getElo(int player) {
+        return elo[player];
+    }
+
+    /**
+     * @return нижняя граница 95% доверительного интервала
+     */
+    public double getLower(int player) {
+        return lower[player];
+    }
+
+    /**
+     * @return верхняя граница 95% доверительного интервала
+     */
+    public double getUpper(int player) {
+        return upper[player];
+    }
+}
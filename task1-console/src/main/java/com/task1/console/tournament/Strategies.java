@@ -0,0 +1,102 @@
+package com.task1.console.tournament;
+
+import com.task1.console.Board;
+import com.task1.console.MoveService;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.search.AlphaBetaSearch;
+import com.task1.console.search.SearchInfo;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Стратегии турнира по текстовому описанию:
+ * <ul>
+ *   <li>greedy - ИИ консольной игры и сервиса ({@link MoveService}), базовая линия;</li>
+ *   <li>greedy:N - он же с бюджетом N симуляций;</li>
+ *   <li>random - случайная свободная клетка;</li>
+ *   <li>alphabeta:depth=D[:ms=T] или alphabeta:ms=T - {@link AlphaBetaSearch} с ограничением
+ *       глубины и/или времени на ход.</li>
+ * </ul>
+ */
+public final class Strategies {
+
+    private Strategies() {
+    }
+
+    /**
+     * Разбирает описание стратегии.
+     *
+     * @param spec описание, например "alphabeta:depth=3"
+     * @param rules правила игры
+     * @return фабрика экземпляров стратегии (по экземпляру на поток)
+     * @throws IllegalArgumentException если описание некорректно
+     */
+    public static Supplier<MoveStrategy> parse(String spec, RuleSet rules) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "greedy": {
+                if (parts.length > 2) break;
+                int budget = (parts.length == 2) ? positive(parts[1], spec) : Integer.MAX_VALUE;
+                MoveService moves = MoveService.getInstance();
+                return () -> (board, color) -> moves.nextMove(board, color, budget, rules);
+            }
+            case "random": {
+                if (parts.length > 1) break;
+                return () -> {
+                    Random random = new Random();
+                    return (board, color) -> {
+                        List<int[]> free = board.getFreeCells();
+                        return free.isEmpty() ? null : free.get(random.nextInt(free.size()));
+                    };
+                };
+            }
+            case "alphabeta": {
+                int depth = AlphaBetaSearch.MAX_DEPTH;
+                long millis = 0;
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].startsWith("depth=")) {
+                        depth = positive(parts[i].substring(6), spec);
+                    } else if (parts[i].startsWith("ms=")) {
+                        millis = positive(parts[i].substring(3), spec);
+                    } else {
+                        throw new IllegalArgumentException("Unknown parameter " + parts[i] + " in " + spec);
+                    }
+                }
+                if (depth == AlphaBetaSearch.MAX_DEPTH && millis == 0) {
+                    throw new IllegalArgumentException("alphabeta needs depth=D or ms=T: " + spec);
+                }
+                int maxDepth = depth;
+                long limitNanos = millis * 1_000_000L;
+                return () -> {
+                    AlphaBetaSearch search = new AlphaBetaSearch(rules);
+                    return (board, color) -> searchMove(search, board, color, maxDepth, limitNanos);
+                };
+            }
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unknown strategy " + spec
+                + ", expected greedy[:N], random or alphabeta:depth=D[:ms=T]");
+    }
+
+    private static int[] searchMove(AlphaBetaSearch search, Board board, char color, int depth, long limitNanos) {
+        search.reset();
+        if (limitNanos > 0) {
+            search.setDeadline(System.nanoTime() + limitNanos);
+        }
+        SearchInfo result = search.search(board, color, depth, null);
+        return result.getBestMove();
+    }
+
+    private static int positive(String value, String spec) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) return parsed;
+        } catch (NumberFormatException e) {
+            // сообщение ниже
+        }
+        throw new IllegalArgumentException("Expected a positive number in " + spec + ": " + value);
+    }
+}
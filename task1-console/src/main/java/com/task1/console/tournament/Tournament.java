@@ -0,0 +1,279 @@
+package com.task1.console.tournament;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Турнир стратегий по круговой системе: каждая пара играет на каждом размере доски заданное
+ * количество раундов, в каждом раунде - две партии со сменой цвета из одного и того же
+ * случайного дебюта (несколько фишек, без квадратов), чтобы детерминированные стратегии
+ * не повторяли одну и ту же партию. Партии играются параллельно, у каждого потока свои
+ * экземпляры стратегий. Ход в занятую клетку или отказ от хода - поражение.
+ *
+ * Итог - рейтинги Эло с доверительными интервалами ({@link Ratings}) относительно первой
+ * стратегии и среднее время на ход: сила сравнивается при известной цене в миллисекундах.
+ *
+ * Запуск: java -cp target/squares-console.jar com.task1.console.tournament.Tournament стратегии
+ * [размеры] [раунды] [правила] [потоки]
+ * Стратегии и размеры - через запятую, например greedy,random,alphabeta:depth=2 5,7,9.
+ * По умолчанию размеры 5,7,9, 10 раундов, правила standard, потоки по числу ядер.
+ */
+public final class Tournament {
+
+    /** Фишек каждого цвета в случайном дебюте */
+    private static final int OPENING_STONES = 2;
+
+    /** Игроки турнира */
+    private final List<String> names;
+    private final List<Supplier<MoveStrategy>> factories;
+
+    /** Размеры досок, раунды и правила */
+    private final int[] sizes;
+    private final int rounds;
+    private final RuleSet rules;
+
+    /** Зерно дебютов и бутстрепа */
+    private final long seed;
+
+    /** Время на ход и количество ходов по игрокам */
+    private final LongAdder[] moveNanos;
+    private final LongAdder[] moves;
+
+    /** Стратегии потока по игрокам */
+    private final ThreadLocal<MoveStrategy[]> strategies;
+
+    /**
+     * @param specs описания стратегий, см. {@link Strategies}
+     * @param sizes размеры досок
+     * @param rounds раундов на пару и размер (в каждом две партии)
+     * @param rules правила игры
+     * @param seed зерно дебютов
+     * @throws IllegalArgumentException если описание стратегии некорректно или игроков меньше двух
+     */
+    public Tournament(List<String> specs, int[] sizes, int rounds, RuleSet rules, long seed) {
+        if (specs.size() < 2) {
+            throw new IllegalArgumentException("At least two strategies are needed");
+        }
+        this.names = new ArrayList<>(specs);
+        this.factories = new ArrayList<>();
+        for (String spec : specs) {
+            factories.add(Strategies.parse(spec, rules));
+        }
+        this.sizes = sizes.clone();
+        this.rounds = rounds;
+        this.rules = rules;
+        this.seed = seed;
+        this.moveNanos = new LongAdder[specs.size()];
+        this.moves = new LongAdder[specs.size()];
+        for (int i = 0; i < specs.size(); i++) {
+            moveNanos[i] = new LongAdder();
+            moves[i] = new LongAdder();
+        }
+        this.strategies = ThreadLocal.withInitial(() -> {
+            MoveStrategy[] created = new MoveStrategy[factories.size()];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = factories.get(i).get();
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Играет все партии турнира.
+     *
+     * @param threads количество потоков
+     * @return результаты партий: {белые, чёрные, очки белых в половинах (0, 1 или 2)}
+     */
+    public List<int[]> play(int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[]>> games = new ArrayList<>();
+            for (int first = 0; first < names.size(); first++) {
+                for (int second = first + 1; second < names.size(); second++) {
+                    for (int size : sizes) {
+                        for (int round = 0; round < rounds; round++) {
+                            Board opening = opening(size, first, second, round);
+                            int a = first;
+                            int b = second;
+                            games.add(pool.submit(() -> playGame(a, b, opening)));
+                            games.add(pool.submit(() -> playGame(b, a, opening)));
+                        }
+                    }
+                }
+            }
+            List<int[]> results = new ArrayList<>(games.size());
+            for (Future<int[]> game : games) {
+                try {
+                    results.add(game.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Game failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Играет одну партию.
+     *
+     * @return {белые, чёрные, очки белых в половинах}
+     */
+    int[] playGame(int white, int black, Board opening) {
+        MoveStrategy[] players = strategies.get();
+        Board board = new Board(opening);
+        char color = 'W';
+        while (!board.isFull()) {
+            int player = (color == 'W') ? white : black;
+            long start = System.nanoTime();
+            int[] move = players[player].chooseMove(board, color);
+            moveNanos[player].add(System.nanoTime() - start);
+            moves[player].increment();
+
+            if (move == null || !board.makeMove(move[0], move[1], color)) {
+                // Некорректный ход - поражение
+                return new int[] {white, black, (color == 'W') ? 0 : 2};
+            }
+            if (rules.completesSquare(board, move[0], move[1])) {
+                return new int[] {white, black, (color == 'W') ? 2 : 0};
+            }
+            color = (color == 'W') ? 'B' : 'W';
+        }
+        return new int[] {white, black, 1};
+    }
+
+    /**
+     * Строит случайный дебют: по {@link #OPENING_STONES} фишек каждого цвета без квадратов.
+     * Дебют зависит только от зерна турнира, пары, размера и раунда.
+     */
+    private Board opening(int size, int first, int second, int round) {
+        Random random = new Random(seed * 1_000_003L + ((first * 131L + second) * 131L + size) * 131L + round);
+        Board board = new Board(size);
+        for (int stone = 0; stone < 2 * OPENING_STONES && stone < size * size - 1; stone++) {
+            char color = (stone % 2 == 0) ? 'W' : 'B';
+            while (true) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                if (board.getCell(x, y) != '.') continue;
+                board.makeMove(x, y, color);
+                if (!rules.completesSquare(board, x, y)) break;
+                board.grid[y][x] = '.';
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return среднее время на ход игрока, мс
+     */
+    public double getMillisPerMove(int player) {
+        long count = moves[player].sum();
+        return (count == 0) ? 0 : moveNanos[player].sum() / 1e6 / count;
+    }
+
+    /**
+     * Печатает таблицу рейтингов и таблицу очков пар.
+     *
+     * @param games результаты партий
+     * @param elapsedNanos время турнира
+     * @param threads количество потоков
+     */
+    public void report(List<int[]> games, long elapsedNanos, int threads) {
+        int n = names.size();
+        Ratings ratings = Ratings.compute(n, games, seed);
+        int[][] record = new int[n][3];
+        double[][] points = new double[n][n];
+        int[][] played = new int[n][n];
+        for (int[] game : games) {
+            int white = game[0];
+            int black = game[1];
+            record[white][2 - game[2]]++;
+            record[black][game[2]]++;
+            points[white][black] += game[2] / 2.0;
+            points[black][white] += (2 - game[2]) / 2.0;
+            played[white][black]++;
+            played[black][white]++;
+        }
+
+        System.out.printf("%d players, sizes %s, %d rounds, rules %s, %d threads: %d games in %.1f s%n",
+                n, Arrays.toString(sizes), rounds, rules.getName(), threads, games.size(), elapsedNanos / 1e9);
+        int width = 8;
+        for (String name : names) {
+            width = Math.max(width, name.length());
+        }
+        System.out.printf("%4s  %-" + width + "s %7s %17s %6s %7s %15s %9s%n",
+                "rank", "strategy", "elo", "95% ci", "games", "score", "w/d/l", "ms/move");
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        Collections.sort(order, (a, b) -> Double.compare(ratings.getElo(b), ratings.getElo(a)));
+        int rank = 1;
+        for (int i : order) {
+            int total = record[i][0] + record[i][1] + record[i][2];
+            double score = (record[i][0] + record[i][1] / 2.0) / Math.max(1, total);
+            System.out.printf("%4d  %-" + width + "s %+7.0f %17s %6d %6.1f%% %15s %9.3f%n",
+                    rank++, names.get(i), ratings.getElo(i),
+                    String.format("[%+.0f, %+.0f]", ratings.getLower(i), ratings.getUpper(i)),
+                    total, 100 * score, record[i][0] + "/" + record[i][1] + "/" + record[i][2],
+                    getMillisPerMove(i));
+        }
+
+        System.out.println();
+        System.out.println("score % of row against column:");
+        System.out.printf("%-" + width + "s", "");
+        for (int j = 0; j < n; j++) {
+            System.out.printf(" %7d", j + 1);
+        }
+        System.out.println();
+        for (int i = 0; i < n; i++) {
+            System.out.printf("%-" + width + "s", (i + 1) + " " + names.get(i));
+            for (int j = 0; j < n; j++) {
+                if (i == j || played[i][j] == 0) {
+                    System.out.printf(" %7s", "-");
+                } else {
+                    System.out.printf(" %6.1f%%", 100 * points[i][j] / played[i][j]);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: Tournament <strategies> [sizes] [rounds] [rules] [threads]");
+            System.out.println("Strategies: greedy[:N], random, alphabeta:depth=D[:ms=T], comma-separated");
+            return;
+        }
+        List<String> specs = Arrays.asList(args[0].split(","));
+        int[] sizes = Arrays.stream(((args.length > 1) ? args[1] : "5,7,9").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+        RuleSet rules = Rules.get((args.length > 3) ? args[3] : "standard");
+        if (rules == null) {
+            System.out.println("Unknown rules: " + args[3] + ", available: " + Rules.names());
+            return;
+        }
+        int threads = (args.length > 4) ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        Tournament tournament = new Tournament(specs, sizes, rounds, rules, 1);
+        long start = System.nanoTime();
+        List<int[]> games = tournament.play(threads);
+        tournament.report(games, System.nanoTime() - start, threads);
+    }
+}
@@ -0,0 +1,104 @@
+package com.task1.console;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для пакетного режима: вывод должен совпадать с интерактивным режимом байт в байт.
+ */
+public class BatchModeTest {
+
+    /**
+     * Сценарий с обычными, необычными и некорректными командами MOVE, которые
+     * пакетный режим разбирает сам или передаёт CommandParser.
+     */
+    @Test
+    public void testMatchesInteractiveOnEdgeCases() throws Exception {
+        String script = String.join("\n",
+                "MOVE 1, 1",
+                "HELP",
+                "GAME 4, user W, user B",
+                "MOVE 0, 0",
+                "  move 1 0  ",
+                "MOVE\t0,1,",
+                "MOVE 1, 1, 2",
+                "MOVE ,1, 2",
+                "MOVE +2 2",
+                "MOVE 2 x",
+                "MOVE 99999999999 1",
+                "MOVE 0 0",
+                "MOVE,1,2",
+                "MOVE 3 3",
+                "MOVE 1, 1",
+                "MOVE 2, 2",
+                "",
+                "unknown",
+                "GAME 3, user W, user W",
+                "GAME 3, user B, user W",
+                "MOVE 0 0\r\nMOVE 1 0\rMOVE 2 0",
+                "EXIT",
+                "MOVE 1 1");
+
+        assertEquals(interactive(script), batch(script));
+    }
+
+    /**
+     * Длинный сценарий из случайных партий пользователь против пользователя.
+     */
+    @Test
+    public void testMatchesInteractiveOnRandomGames() throws Exception {
+        Random random = new Random(7);
+        StringBuilder script = new StringBuilder();
+        for (int game = 0; game < 200; game++) {
+            int size = 3 + random.nextInt(6);
+            script.append("GAME ").append(size).append(", user W, user B\n");
+            for (int move = 0; move < size * size + 3; move++) {
+                script.append("MOVE ").append(random.nextInt(size + 1))
+                        .append(random.nextBoolean() ? ", " : " ").append(random.nextInt(size + 1)).append('\n');
+            }
+        }
+        script.append("EXIT\n");
+
+        String expected = interactive(script.toString());
+        assertTrue("В сценарии есть законченные партии", expected.contains("wins!"));
+        assertEquals(expected, batch(script.toString()));
+    }
+
+    /**
+     * Без команды EXIT сценарий заканчивается вместе с вводом.
+     */
+    @Test
+    public void testEndsAtEndOfInput() throws Exception {
+        assertEquals(String.format("New game started%nW (0, 0)%n"), batch("GAME 3, user W, user B\nMOVE 0 0"));
+    }
+
+    private static String batch(String script) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchMode.run(new StringReader(script), BatchMode.buffered(bytes, Charset.defaultCharset()));
+        return new String(bytes.toByteArray(), Charset.defaultCharset());
+    }
+
+    private static String interactive(String script) throws Exception {
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream(script.getBytes(Charset.defaultCharset())));
+            System.setOut(new PrintStream(bytes, true));
+            Main.main(new String[0]);
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        return new String(bytes.toByteArray(), Charset.defaultCharset());
+    }
+}
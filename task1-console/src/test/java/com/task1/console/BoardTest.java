@@ -3,7 +3,9 @@ package com.task1.console;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -142,4 +144,36 @@ public class BoardTest {
         free = board.getFreeCells();
         assertEquals(24, free.size());
     }
+
+    /**
+     * Проверка метода hasSquareThrough.
+     * В случайных партиях первый ход, для которого hasSquareThrough возвращает true,
+     * должен совпадать с первым ходом, после которого hasSquare находит квадрат.
+     */
+    @Test
+    public void testHasSquareThroughMatchesFullScan() {
+        Random random = new Random(7);
+        for (int game = 0; game < 500; game++) {
+            Board b = new Board(3 + random.nextInt(6));
+            List<int[]> free = b.getFreeCells();
+            Collections.shuffle(free, random);
+            char color = 'W';
+            for (int[] cell : free) {
+                b.makeMove(cell[0], cell[1], color);
+                boolean through = b.hasSquareThrough(cell[0], cell[1]);
+                assertEquals("Локальная проверка должна совпадать с полной", b.hasSquare(color), through);
+                if (through) break;
+                color = (color == 'W') ? 'B' : 'W';
+            }
+        }
+    }
+
+    /**
+     * hasSquareThrough для пустой клетки и клетки вне доски должен возвращать false.
+     */
+    @Test
+    public void testHasSquareThroughEmptyCell() {
+        assertFalse(board.hasSquareThrough(2, 2));
+        assertFalse(board.hasSquareThrough(-1, 0));
+    }
 }
@@ -0,0 +1,200 @@
+package com.task1.console;
+
+import com.task1.console.rules.Rules;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для партии с событиями и вычисления хода без состояния.
+ */
+public class GameSessionTest {
+
+    /**
+     * Записывает события партии строками.
+     */
+    private static final class Recorder implements GameListener {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void gameStarted(int size) {
+            events.add("start " + size);
+        }
+
+        @Override
+        public void moveMade(char color, int x, int y) {
+            events.add(color + " " + x + " " + y);
+        }
+
+        @Override
+        public void gameWon(char color) {
+            events.add("win " + color);
+        }
+
+        @Override
+        public void gameDrawn() {
+            events.add("draw");
+        }
+
+        @Override
+        public void commandRejected() {
+            events.add("rejected");
+        }
+    }
+
+    @Test
+    public void testEventsOfUserGame() {
+        GameSession session = new GameSession();
+        Recorder recorder = new Recorder();
+        session.addListener(recorder);
+
+        assertFalse("Ход до начала партии", session.move(0, 0));
+        assertTrue(session.start(4, new Player("user", 'W'), new Player("user", 'B')));
+        session.move(0, 0);
+        session.move(3, 3);
+        assertFalse("Клетка занята", session.move(0, 0));
+        session.move(1, 0);
+        session.move(3, 2);
+        session.move(0, 1);
+        session.move(2, 3);
+        session.move(1, 1);
+
+        List<String> expected = new ArrayList<>();
+        expected.add("rejected");
+        expected.add("start 4");
+        expected.add("W 0 0");
+        expected.add("B 3 3");
+        expected.add("rejected");
+        expected.add("W 1 0");
+        expected.add("B 3 2");
+        expected.add("W 0 1");
+        expected.add("B 2 3");
+        expected.add("W 1 1");
+        expected.add("win W");
+        assertEquals(expected, recorder.events);
+        assertFalse("Партия закончена", session.isActive());
+    }
+
+    @Test
+    public void testGameEndUsesSessionRules() {
+        // Крестовый квадрат с шагом 1 вокруг (1, 1): победа только по стандартным правилам
+        int[][] moves = {{1, 0}, {3, 3}, {0, 1}, {3, 2}, {2, 1}, {0, 3}, {1, 2}};
+        Recorder standard = new Recorder();
+        Recorder axis = new Recorder();
+        GameSession standardSession = new GameSession();
+        GameSession axisSession = new GameSession(MoveService.getInstance(), Rules.AXIS);
+        standardSession.addListener(standard);
+        axisSession.addListener(axis);
+        standardSession.start(4, new Player("user", 'W'), new Player("user", 'B'));
+        axisSession.start(4, new Player("user", 'W'), new Player("user", 'B'));
+        for (int[] move : moves) {
+            standardSession.move(move[0], move[1]);
+            axisSession.move(move[0], move[1]);
+        }
+
+        assertEquals("win W", standard.events.get(standard.events.size() - 1));
+        assertEquals("W 1 2", axis.events.get(axis.events.size() - 1));
+        assertTrue("По осевым правилам партия продолжается", axisSession.isActive());
+    }
+
+    @Test
+    public void testRejectedStartKeepsGame() {
+        GameSession session = new GameSession();
+        Recorder recorder = new Recorder();
+        session.addListener(recorder);
+
+        session.start(3, new Player("user", 'W'), new Player("user", 'B'));
+        assertFalse("Доска слишком мала", session.start(2, new Player("user", 'W'), new Player("user", 'B')));
+        assertFalse("Одинаковые цвета", session.start(5, new Player("user", 'W'), new Player("user", 'W')));
+        session.move(1, 1);
+
+        assertEquals("Партия продолжается прежними игроками", "W 1 1", recorder.events.get(3));
+        assertEquals(3, session.getBoard().size);
+    }
+
+    @Test
+    public void testComputerGameEndsWithOneResult() {
+        for (int game = 0; game < 50; game++) {
+            GameSession session = new GameSession();
+            Recorder recorder = new Recorder();
+            session.addListener(recorder);
+
+            session.start(4 + game % 4, new Player("comp", 'W'), new Player("comp", 'B'));
+
+            String last = recorder.events.get(recorder.events.size() - 1);
+            assertTrue("Партия компьютеров доиграна: " + last, last.startsWith("win") || last.equals("draw"));
+            assertFalse(session.isActive());
+            char expected = 'W';
+            for (String event : recorder.events.subList(1, recorder.events.size() - 1)) {
+                assertEquals("Ходы чередуются", expected, event.charAt(0));
+                expected = (expected == 'W') ? 'B' : 'W';
+            }
+        }
+    }
+
+    @Test
+    public void testMoveServiceIsShared() throws Exception {
+        MoveService moves = MoveService.getInstance();
+        Board board = new Board(5);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 1, 'W');
+        board.makeMove(1, 2, 'W');
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(pool.submit(() -> moves.nextMove(board, 'W')));
+            }
+            for (Future<int[]> result : results) {
+                assertArrayEquals("Выигрышный ход из любого потока", new int[] {2, 2}, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals("Доска не изменилась", '.', board.getCell(2, 2));
+
+        assertNull("Ходов нет", moves.nextMove(fullBoard(), 'W'));
+    }
+
+    private static Board fullBoard() {
+        Board board = new Board(3);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                board.makeMove(x, y, ((x + y) % 2 == 0) ? 'W' : 'B');
+            }
+        }
+        return board;
+    }
+
+    @Test
+    public void testLimitedBudgetSamplesWholeBoard() {
+        // Редкие белые камни сверху дают больше кандидатов, чем бюджет; выигрыш - внизу доски
+        Board board = new Board(40);
+        for (int y = 0; y <= 30; y += 3) {
+            for (int x = 0; x < 40; x += 3) {
+                board.makeMove(x, y, 'W');
+            }
+        }
+        board.makeMove(0, 38, 'W');
+        board.makeMove(1, 38, 'W');
+        board.makeMove(0, 39, 'W');
+
+        MoveService moves = MoveService.getInstance();
+        assertArrayEquals("Без ограничения выигрыш найден всегда",
+                new int[] {1, 39}, moves.nextMove(board, 'W', Integer.MAX_VALUE, Rules.STANDARD));
+        int found = 0;
+        for (int i = 0; i < 200; i++) {
+            int[] move = moves.nextMove(board, 'W', 256, Rules.STANDARD);
+            if (move[0] == 1 && move[1] == 39) found++;
+        }
+        assertTrue("Ограниченный поиск проверяет и нижние строки доски", found > 0);
+    }
+}
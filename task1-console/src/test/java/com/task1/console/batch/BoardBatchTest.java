@@ -0,0 +1,117 @@
+package com.task1.console.batch;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для набора досок {@link BoardBatch} и самоигры на нём.
+ */
+public class BoardBatchTest {
+
+    /** Количество партий: не кратно 64, чтобы последнее слово было неполным */
+    private static final int GAMES = 150;
+
+    @Test
+    public void testSquaresMatchBoardHasSquare() {
+        Random random = new Random(1);
+        for (int size = 3; size <= 12; size++) {
+            BoardBatch batch = new BoardBatch(Rules.STANDARD, size, GAMES);
+            Board[] boards = new Board[GAMES];
+            for (int g = 0; g < GAMES; g++) {
+                boards[g] = randomBoard(size, random.nextDouble(), random);
+                batch.load(g, boards[g]);
+            }
+
+            long[] white = batch.squares('W', new long[batch.getWords()]);
+            long[] black = batch.squares('B', new long[batch.getWords()]);
+            long[] full = batch.full(new long[batch.getWords()]);
+            for (int g = 0; g < GAMES; g++) {
+                String game = "размер " + size + ", партия " + g;
+                assertEquals("Квадрат белых, " + game, boards[g].hasSquare('W'), BoardBatch.isSet(white, g));
+                assertEquals("Квадрат чёрных, " + game, boards[g].hasSquare('B'), BoardBatch.isSet(black, g));
+                assertEquals("Проверка одной партии, " + game, boards[g].hasSquare('W'), batch.hasSquare(g, 'W'));
+                assertEquals("Заполненность, " + game, boards[g].isFull(), BoardBatch.isSet(full, g));
+            }
+            assertEquals("Биты за последней партией сброшены", 0, full[batch.getWords() - 1] >>> (GAMES & 63));
+        }
+    }
+
+    @Test
+    public void testSquaresMatchRuleSets() {
+        Random random = new Random(2);
+        for (RuleSet rules : new RuleSet[] {Rules.AXIS, Rules.AXIS_ANY, Rules.FULL}) {
+            int size = 7;
+            BoardBatch batch = new BoardBatch(rules, size, GAMES);
+            Board[] boards = new Board[GAMES];
+            for (int g = 0; g < GAMES; g++) {
+                boards[g] = randomBoard(size, random.nextDouble() * 0.6, random);
+                batch.load(g, boards[g]);
+            }
+
+            long[] white = batch.squares('W', new long[batch.getWords()]);
+            for (int g = 0; g < GAMES; g++) {
+                assertEquals("Квадрат белых по правилам " + rules.getName() + ", партия " + g,
+                        rules.hasSquare(boards[g], 'W'), BoardBatch.isSet(white, g));
+            }
+        }
+    }
+
+    @Test
+    public void testLoadFromStringAndBack() {
+        BoardBatch batch = new BoardBatch(Rules.STANDARD, 3, 70);
+        batch.load(69, "wb.Bw....");
+        batch.load(69, "w.b");
+
+        Board board = batch.toBoard(69);
+        assertEquals("Белая фишка", 'W', board.getCell(0, 0));
+        assertEquals("Прежняя фишка стёрта", '.', board.getCell(1, 0));
+        assertEquals("Чёрная фишка", 'B', board.getCell(2, 0));
+        assertEquals("Недостающие клетки пусты", '.', board.getCell(1, 1));
+        assertEquals("Другие партии не изменились", '.', batch.getCell(68, 0));
+    }
+
+    @Test
+    public void testLockstepSelfPlayMatchesOneByOne() {
+        for (int size : new int[] {4, 6, 9}) {
+            int[] orders = SelfPlay.randomOrders(size, GAMES, new SplittableRandom(size));
+            char[] lockstepWinners = new char[GAMES];
+            int[] lockstepPlies = new int[GAMES];
+            char[] winners = new char[GAMES];
+            int[] plies = new int[GAMES];
+
+            SelfPlay.playLockstep(Rules.STANDARD, size, orders, lockstepWinners, lockstepPlies);
+            SelfPlay.playOneByOne(Rules.STANDARD, size, orders, winners, plies);
+
+            assertArrayEquals("Исходы партий на доске " + size, winners, lockstepWinners);
+            assertArrayEquals("Длины партий на доске " + size, plies, lockstepPlies);
+        }
+    }
+
+    /**
+     * Заполняет доску случайными фишками случайных цветов.
+     *
+     * @param size размер доски
+     * @param fill доля занятых клеток
+     * @param random генератор случайных чисел
+     * @return доска
+     */
+    private static Board randomBoard(int size, double fill, Random random) {
+        Board board = new Board(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (random.nextDouble() < fill) {
+                    board.makeMove(x, y, random.nextBoolean() ? 'W' : 'B');
+                }
+            }
+        }
+        return board;
+    }
+}
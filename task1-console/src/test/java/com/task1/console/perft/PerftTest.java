@@ -0,0 +1,81 @@
+package com.task1.console.perft;
+
+import com.task1.console.Board;
+import com.task1.console.rules.Rules;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для перечисления дерева партий.
+ */
+public class PerftTest {
+
+    /**
+     * Полное дерево доски 3x3 должно совпадать с наивным перебором через Board.hasSquare.
+     */
+    @Test
+    public void testFullTreeMatchesBoardHasSquare() {
+        Board board = new Board(3);
+        PerftResult result = Perft.count(board, 'W', 9, Rules.STANDARD);
+        PerftResult expected = new PerftResult(9);
+        naive(board, 'W', 1, 9, expected);
+
+        assertEquals(9, result.getNodes(1));
+        assertEquals(72, result.getNodes(2));
+        assertEquals(504, result.getNodes(3));
+        for (int d = 1; d <= 9; d++) {
+            assertEquals("Позиции на глубине " + d, expected.getNodes(d), result.getNodes(d));
+            assertEquals("Выигрыши на глубине " + d, expected.getWins(d), result.getWins(d));
+            assertEquals("Ничьи на глубине " + d, expected.getDraws(d), result.getDraws(d));
+        }
+        assertEquals("Первый квадрат возможен только четвёртой фишкой белых", 0, result.getWins(6));
+        assertTrue(result.getWins(7) > 0);
+        assertTrue("Заполненная доска без квадрата - ничья", result.getDraws(9) > 0);
+        assertEquals("Доска не должна меняться", 9, board.getFreeCells().size());
+    }
+
+    /**
+     * Результат не должен зависеть от количества потоков.
+     */
+    @Test
+    public void testParallelMatchesSingleThread() {
+        Board board = new Board(4);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 2, 'B');
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            PerftResult one = Perft.count(board, 'W', 6, Rules.FULL, single);
+            PerftResult many = Perft.count(board, 'W', 6, Rules.FULL, parallel);
+            for (int d = 1; d <= 6; d++) {
+                assertEquals(one.getNodes(d), many.getNodes(d));
+                assertEquals(one.getWins(d), many.getWins(d));
+                assertEquals(one.getDraws(d), many.getDraws(d));
+            }
+            assertEquals(one.getLeaves(), many.getLeaves());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    /**
+     * Наивный перебор с копированием доски и проверкой квадрата по всей доске.
+     */
+    private static void naive(Board board, char color, int ply, int depth, PerftResult result) {
+        for (int[] cell : board.getFreeCells()) {
+            Board next = new Board(board);
+            next.makeMove(cell[0], cell[1], color);
+            boolean win = next.hasSquare(color);
+            boolean draw = !win && next.isFull();
+            result.count(ply, win, draw);
+            if (!win && !draw && ply < depth) {
+                naive(next, (color == 'W') ? 'B' : 'W', ply + 1, depth, result);
+            }
+        }
+    }
+}
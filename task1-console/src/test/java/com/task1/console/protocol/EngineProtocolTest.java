@@ -0,0 +1,115 @@
+package com.task1.console.protocol;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для текстового протокола движка.
+ */
+public class EngineProtocolTest {
+
+    private ByteArrayOutputStream bytes;
+    private EngineProtocol protocol;
+
+    @Before
+    public void setUp() throws Exception {
+        bytes = new ByteArrayOutputStream();
+        protocol = new EngineProtocol(new BufferedReader(new StringReader("")),
+                new PrintStream(bytes, true, "UTF-8"));
+    }
+
+    @After
+    public void tearDown() {
+        protocol.execute("stop");
+    }
+
+    @Test
+    public void testHandshake() {
+        protocol.execute("squares");
+        protocol.execute("isready");
+
+        String output = output();
+        assertTrue(output.startsWith("id name Squares"));
+        assertTrue(output.contains("option name rules type combo default standard"));
+        assertTrue(output.contains("var full"));
+        assertTrue(output.endsWith("squaresok\nreadyok\n"));
+    }
+
+    @Test
+    public void testGoDepthBlocksThreat() throws Exception {
+        protocol.execute("position 6 moves 2,2 0,0 3,2 5,5 2,3");
+        protocol.execute("go depth 3");
+
+        String output = awaitBestMove(5000);
+        assertTrue(output.contains("info depth 1 "));
+        assertTrue("Чёрные закрывают угрозу: " + output, output.contains("bestmove 3,3"));
+    }
+
+    @Test
+    public void testStopInterruptsInfiniteSearch() throws Exception {
+        protocol.execute("setoption name rules value full");
+        protocol.execute("position 15 turn w moves 7,7 8,8");
+        protocol.execute("go infinite");
+        Thread.sleep(300);
+        assertFalse("Без stop bestmove не выводится", output().contains("bestmove"));
+
+        long start = System.nanoTime();
+        protocol.execute("stop");
+        long stopMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(output().contains("bestmove "));
+        assertTrue("stop обработан за " + stopMillis + " мс", stopMillis < 100);
+    }
+
+    @Test
+    public void testPonderhit() throws Exception {
+        protocol.execute("position 8");
+        protocol.execute("go ponder movetime 100");
+        Thread.sleep(200);
+        assertFalse("До ponderhit bestmove не выводится", output().contains("bestmove"));
+
+        protocol.execute("ponderhit");
+
+        assertTrue(awaitBestMove(2000).contains("bestmove "));
+    }
+
+    @Test
+    public void testErrors() {
+        protocol.execute("go depth 2");
+        protocol.execute("position 5 wwbb");
+        protocol.execute("position 5 moves 0,0 9,9");
+        protocol.execute("position 5 ww...ww.................. turn b");
+        protocol.execute("go depth 2");
+        protocol.execute("fly");
+
+        assertEquals("info string error no position\n"
+                + "bestmove none\n"
+                + "info string error cells must have 25 characters\n"
+                + "info string error illegal move 9,9\n"
+                + "bestmove none\n"
+                + "info string error unknown command fly\n", output());
+    }
+
+    private String awaitBestMove(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!output().contains("bestmove") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return output();
+    }
+
+    private String output() {
+        synchronized (bytes) {
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.task1.console.record;
+
+import com.task1.console.Board;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для двоичного формата записи партий:
+ * запись и чтение, компактность кодирования и воспроизведение партии.
+ */
+public class GameRecordTest {
+
+    /**
+     * Записывает партии в массив байт.
+     */
+    private static byte[] write(GameRecord... records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+            for (GameRecord record : records) {
+                writer.write(record);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Записанные партии должны читаться обратно без изменений и по порядку.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        GameRecord first = new GameRecord(5, false, 'W', true, 'B', "standard");
+        first.addMove(0, 0);
+        first.addMove(4, 4);
+        first.addMove(1, 0);
+        GameRecord second = new GameRecord(40, true, 'B', true, 'W', "axis");
+        second.addMove(39, 39);
+        second.addMove(0, 20);
+
+        GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(write(first, second)));
+        GameRecord a = reader.read();
+        GameRecord b = reader.read();
+        assertNull("После последней партии должен вернуться null", reader.read());
+
+        assertEquals(5, a.getSize());
+        assertFalse(a.isFirstComputer());
+        assertEquals('W', a.getFirstColor());
+        assertTrue(a.isSecondComputer());
+        assertEquals('B', a.getSecondColor());
+        assertEquals("standard", a.getRules());
+        assertEquals(3, a.getMoveCount());
+        assertEquals(4, a.getMoveX(1));
+        assertEquals(4, a.getMoveY(1));
+        assertEquals('B', a.getMoveColor(1));
+
+        assertEquals(40, b.getSize());
+        assertEquals('B', b.getFirstColor());
+        assertEquals("axis", b.getRules());
+        assertEquals("Индекс клетки больше 127 должен кодироваться несколькими байтами",
+                39, b.getMoveX(0));
+        assertEquals(20, b.getMoveY(1));
+    }
+
+    /**
+     * На маленькой доске каждый ход должен занимать один байт.
+     */
+    @Test
+    public void testMovesOnSmallBoardTakeOneByte() throws IOException {
+        GameRecord empty = new GameRecord(10, false, 'W', false, 'B', "standard");
+        GameRecord full = new GameRecord(10, false, 'W', false, 'B', "standard");
+        for (int i = 0; i < 100; i++) {
+            full.addMove(i % 10, i / 10);
+        }
+        assertEquals("100 ходов на доске 10x10 должны занимать 100 байт",
+                100, write(full).length - write(empty).length);
+    }
+
+    /**
+     * Обрезанный файл должен приводить к ошибке, а не к неполной партии.
+     */
+    @Test(expected = EOFException.class)
+    public void testTruncatedRecordIsRejected() throws IOException {
+        GameRecord record = new GameRecord(5, false, 'W', false, 'B', "standard");
+        record.addMove(1, 1);
+        record.addMove(2, 2);
+        byte[] bytes = write(record);
+        new GameRecordReader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))).read();
+    }
+
+    /**
+     * Поток без сигнатуры формата должен отклоняться.
+     */
+    @Test(expected = IOException.class)
+    public void testWrongSignatureIsRejected() throws IOException {
+        new GameRecordReader(new ByteArrayInputStream(new byte[] {'W', ' ', '(', '1'}));
+    }
+
+    /**
+     * Воспроизведение должно остановиться на ходе, образовавшем квадрат.
+     */
+    @Test
+    public void testReplayFindsWinner() {
+        GameRecord record = new GameRecord(5, false, 'W', true, 'B', "standard");
+        int[][] moves = {{0, 0}, {4, 4}, {1, 0}, {4, 3}, {0, 1}, {3, 4}, {1, 1}, {2, 2}};
+        for (int[] move : moves) {
+            record.addMove(move[0], move[1]);
+        }
+
+        GameReplay replay = new GameReplay(record);
+        Board board = replay.playToEnd();
+
+        assertEquals("Белые должны выиграть квадратом 2x2", 'W', replay.getWinner());
+        assertEquals("Ходы после победы не должны воспроизводиться", 7, replay.getPlayed());
+        assertTrue(replay.isFinished());
+        assertTrue(board.hasSquare('W'));
+        assertEquals('.', board.getCell(2, 2));
+    }
+
+    /**
+     * Победитель определяется по правилам из заголовка записи.
+     */
+    @Test
+    public void testReplayUsesRecordedRules() {
+        // Наклонный квадрат (1,0) (3,1) (2,3) (0,2): квадрат только по правилам full
+        int[][] moves = {{1, 0}, {4, 4}, {3, 1}, {4, 3}, {2, 3}, {3, 4}, {0, 2}, {0, 4}};
+
+        GameRecord full = new GameRecord(5, false, 'W', true, 'B', "full");
+        GameRecord standard = new GameRecord(5, false, 'W', true, 'B', "standard");
+        for (int[] move : moves) {
+            full.addMove(move[0], move[1]);
+            standard.addMove(move[0], move[1]);
+        }
+
+        GameReplay fullReplay = new GameReplay(full);
+        fullReplay.playToEnd();
+        assertEquals('W', fullReplay.getWinner());
+        assertEquals(7, fullReplay.getPlayed());
+
+        GameReplay standardReplay = new GameReplay(standard);
+        standardReplay.playToEnd();
+        assertEquals("По стандартным правилам наклонный квадрат не выигрывает", '.', standardReplay.getWinner());
+        assertEquals(8, standardReplay.getPlayed());
+    }
+
+    /**
+     * Запись с неизвестными правилами нельзя воспроизвести.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplayRejectsUnknownRules() {
+        new GameReplay(new GameRecord(5, false, 'W', true, 'B', "hexagons"));
+    }
+}
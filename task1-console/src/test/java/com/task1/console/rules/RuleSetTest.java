@@ -0,0 +1,248 @@
+package com.task1.console.rules;
+
+import com.task1.console.Board;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для наборов правил и их таблиц квадратов.
+ */
+public class RuleSetTest {
+
+    /**
+     * Прямой перебор фигур стандартных правил: квадраты по осям со стороной 1 и 2
+     * и крестовые квадраты с шагом 1 и 2.
+     */
+    private static boolean hasStandardSquare(Board board, char color) {
+        for (int y = 0; y < board.size; y++) {
+            for (int x = 0; x < board.size; x++) {
+                for (int step = 1; step <= 2; step++) {
+                    if (board.getCell(x, y) == color &&
+                            board.getCell(x + step, y) == color &&
+                            board.getCell(x, y + step) == color &&
+                            board.getCell(x + step, y + step) == color) {
+                        return true;
+                    }
+                    if (board.getCell(x, y - step) == color &&
+                            board.getCell(x, y + step) == color &&
+                            board.getCell(x - step, y) == color &&
+                            board.getCell(x + step, y) == color) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Стандартные правила должны находить те же квадраты, что и прямой перебор фигур,
+     * а Board.hasSquare - совпадать со стандартными правилами.
+     */
+    @Test
+    public void testStandardRulesMatchBoard() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            Board board = new Board(3 + random.nextInt(6));
+            int stones = random.nextInt(board.size * board.size);
+            for (int j = 0; j < stones; j++) {
+                board.makeMove(random.nextInt(board.size), random.nextInt(board.size),
+                        random.nextBoolean() ? 'W' : 'B');
+            }
+            for (char color : new char[]{'W', 'B'}) {
+                boolean expected = hasStandardSquare(board, color);
+                assertEquals("Правила должны совпадать с перебором фигур для " + color,
+                        expected, Rules.STANDARD.hasSquare(board, color));
+                assertEquals("Board должен совпадать с правилами для " + color,
+                        expected, board.hasSquare(color));
+            }
+        }
+    }
+
+    /**
+     * wouldComplete не должен менять доску и должен совпадать с completesSquare после хода.
+     */
+    @Test
+    public void testWouldCompleteMatchesCompletesSquare() {
+        Board board = new Board(5);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 1, 'W');
+        board.makeMove(1, 2, 'W');
+
+        assertTrue(Rules.STANDARD.wouldComplete(board, 2, 2, 'W'));
+        assertFalse(Rules.STANDARD.wouldComplete(board, 2, 2, 'B'));
+        assertEquals("Проверка не должна ставить фишку", '.', board.getCell(2, 2));
+
+        board.makeMove(2, 2, 'W');
+        assertTrue(Rules.STANDARD.completesSquare(board, 2, 2));
+        assertFalse("Пустая клетка не входит в квадрат", Rules.STANDARD.completesSquare(board, 0, 0));
+    }
+
+    /**
+     * Правила axis не должны считать крестовый квадрат, а axis-any должны находить квадрат со стороной 3.
+     */
+    @Test
+    public void testRuleVariants() {
+        Board cross = new Board(5);
+        cross.makeMove(2, 1, 'B');
+        cross.makeMove(2, 3, 'B');
+        cross.makeMove(1, 2, 'B');
+        cross.makeMove(3, 2, 'B');
+        assertTrue(Rules.STANDARD.hasSquare(cross, 'B'));
+        assertFalse("Крест не является квадратом по осям", Rules.AXIS.hasSquare(cross, 'B'));
+
+        Board wide = new Board(5);
+        wide.makeMove(0, 0, 'W');
+        wide.makeMove(3, 0, 'W');
+        wide.makeMove(0, 3, 'W');
+        wide.makeMove(3, 3, 'W');
+        assertFalse(Rules.STANDARD.hasSquare(wide, 'W'));
+        assertTrue("Квадрат со стороной 3 должен находиться в axis-any", Rules.AXIS_ANY.hasSquare(wide, 'W'));
+    }
+
+    /**
+     * Реестр должен возвращать null для неизвестных правил, а таблицы должны кэшироваться.
+     */
+    @Test
+    public void testRegistry() {
+        assertSame(Rules.STANDARD, Rules.get("standard"));
+        assertNull(Rules.get("chess"));
+        assertNull(Rules.get(null));
+        assertTrue(Rules.names().contains("axis-any"));
+        assertSame("Таблица должна компилироваться один раз на размер",
+                Rules.STANDARD.patterns(7), Rules.STANDARD.patterns(7));
+        assertEquals("Для стандартных правил радиус поиска соседей равен 2", 2, Rules.STANDARD.reach(7));
+    }
+
+    /**
+     * Правила full должны находить наклонный квадрат, которого нет в стандартных правилах.
+     */
+    @Test
+    public void testFullRulesFindTiltedSquare() {
+        Board board = new Board(6);
+        board.makeMove(1, 0, 'W');
+        board.makeMove(4, 1, 'W');
+        board.makeMove(3, 4, 'W');
+        assertFalse(Rules.FULL.hasSquare(board, 'W'));
+        assertTrue("Четвёртая вершина наклонного квадрата должна замыкать его",
+                Rules.FULL.wouldComplete(board, 0, 3, 'W'));
+
+        board.makeMove(0, 3, 'W');
+        assertTrue(Rules.FULL.hasSquare(board, 'W'));
+        assertFalse(Rules.STANDARD.hasSquare(board, 'W'));
+    }
+
+    /**
+     * Индекс правил full должен давать те же ответы, что перебор таблицы всех квадратов.
+     */
+    @Test
+    public void testFullRulesMatchPatternTable() {
+        RuleSet table = new RuleSet("full-table", FullSquareRuleSet::shapes);
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            Board board = new Board(3 + random.nextInt(8));
+            int stones = random.nextInt(board.size * board.size / 2 + 1);
+            for (int j = 0; j < stones; j++) {
+                board.makeMove(random.nextInt(board.size), random.nextInt(board.size),
+                        random.nextBoolean() ? 'W' : 'B');
+            }
+            assertEquals(table.hasSquare(board, 'W'), Rules.FULL.hasSquare(board, 'W'));
+            assertEquals(table.hasSquare(board, 'B'), Rules.FULL.hasSquare(board, 'B'));
+
+            RuleSet.MoveChecker checker = Rules.FULL.checker(board);
+            for (int y = 0; y < board.size; y++) {
+                for (int x = 0; x < board.size; x++) {
+                    if (board.getCell(x, y) != '.') continue;
+                    assertEquals("Проверка хода должна совпадать с таблицей",
+                            table.wouldComplete(board, x, y, 'W'), checker.wouldComplete(x, y, 'W'));
+                }
+            }
+        }
+    }
+
+    /**
+     * Таблица правил full строится только для небольших досок: на большой доске
+     * в ней были бы сотни миллионов квадратов. Проверки через индекс работают на любой доске.
+     */
+    @Test
+    public void testFullRulesRefuseHugePatternTable() {
+        int size = FullSquareRuleSet.MAX_PATTERN_SIZE + 1;
+        try {
+            Rules.FULL.patterns(size);
+            fail("Таблица квадратов больше лимита");
+        } catch (IllegalArgumentException expected) {
+            // ожидаемо
+        }
+
+        Board board = new Board(300);
+        board.load("w");
+        assertFalse(Rules.FULL.hasSquare(board, 'W'));
+        assertFalse(Rules.FULL.wouldComplete(board, 299, 299, 'W'));
+        assertEquals(Integer.MAX_VALUE, Rules.STANDARD.getMaxPatternSize());
+    }
+
+    /**
+     * Кэш скомпилированных таблиц хранит ограниченное количество размеров.
+     */
+    @Test
+    public void testCompiledTablesAreBounded() {
+        RuleSet rules = new RuleSet("bounded", size -> Collections.singletonList(RuleSet.axisSquare(1)));
+        SquarePatterns first = rules.patterns(3);
+        assertSame("Таблица размера хранится", first, rules.patterns(3));
+
+        for (int size = 4; size < 12 + RuleSet.MAX_COMPILED_SIZES; size++) {
+            SquarePatterns patterns = rules.patterns(size);
+            assertEquals((size - 1) * (size - 1), patterns.getSquareCount());
+            assertSame("Только что построенная таблица не вытесняется", patterns, rules.patterns(size));
+            assertTrue(rules.compiledSizes() <= RuleSet.MAX_COMPILED_SIZES);
+        }
+        assertEquals("Вытесненная таблица строится заново", 4, rules.patterns(3).getSquareCount());
+    }
+
+    /**
+     * Переключение между всеми размерами, которые помещаются в кэш, не перестраивает таблицы.
+     */
+    @Test
+    public void testSwitchingSizesKeepsWarmTables() {
+        RuleSet rules = new RuleSet("sizes", size -> Collections.singletonList(RuleSet.axisSquare(1)));
+        int maxSize = RuleSet.MAX_COMPILED_SIZES + 2;
+        SquarePatterns[] warm = new SquarePatterns[maxSize + 1];
+        for (int size = 3; size <= maxSize; size++) {
+            warm[size] = rules.patterns(size);
+        }
+
+        Random random = new Random(4);
+        for (int i = 0; i < 10_000; i++) {
+            int size = 3 + random.nextInt(maxSize - 2);
+            assertSame("Тёплая таблица " + size + " не перестраивается", warm[size], rules.patterns(size));
+        }
+    }
+
+    /**
+     * При переполнении вытесняется таблица, которая дольше всех не использовалась.
+     */
+    @Test
+    public void testLeastRecentlyUsedTableIsEvicted() {
+        RuleSet rules = new RuleSet("lru", size -> Collections.singletonList(RuleSet.axisSquare(1)));
+        int maxSize = RuleSet.MAX_COMPILED_SIZES + 2;
+        SquarePatterns[] warm = new SquarePatterns[maxSize + 1];
+        for (int size = 3; size <= maxSize; size++) {
+            warm[size] = rules.patterns(size);
+        }
+        // Все таблицы, кроме размера 3, используются после компиляции последней
+        for (int size = 4; size <= maxSize; size++) {
+            rules.patterns(size);
+        }
+
+        rules.patterns(maxSize + 1);
+
+        for (int size = 4; size <= maxSize; size++) {
+            assertSame("Используемая таблица " + size + " сохранена", warm[size], rules.patterns(size));
+        }
+        assertNotSame("Неиспользуемая таблица вытеснена", warm[3], rules.patterns(3));
+    }
+}
@@ -0,0 +1,123 @@
+package com.task1.console.search;
+
+import com.task1.console.Board;
+import com.task1.console.rules.Rules;
+import com.task1.console.solver.ForcedWinSolver;
+import com.task1.console.solver.SolveResult;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для поиска с итеративным углублением.
+ */
+public class AlphaBetaSearchTest {
+
+    @Test
+    public void testTakesImmediateWin() {
+        Board board = new Board(6);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 1, 'W');
+        board.makeMove(1, 2, 'W');
+        board.makeMove(4, 4, 'B');
+        board.makeMove(5, 5, 'B');
+
+        SearchInfo result = new AlphaBetaSearch(Rules.STANDARD).search(board, 'W', 4, null);
+
+        assertArrayEquals(new int[] {2, 2}, result.getBestMove());
+        assertEquals("Выигрыш первым же ходом", 1, result.getMateMoves());
+    }
+
+    @Test
+    public void testBlocksThreat() {
+        Board board = new Board(6);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 1, 'W');
+        board.makeMove(1, 2, 'W');
+        board.makeMove(4, 4, 'B');
+
+        SearchInfo result = new AlphaBetaSearch(Rules.STANDARD).search(board, 'B', 3, null);
+
+        assertArrayEquals("Чёрные обязаны закрыть угрозу", new int[] {2, 2}, result.getBestMove());
+    }
+
+    /**
+     * Каждый найденный поиском выигрыш подтверждается решателем форсированного выигрыша
+     * не длиннее, чем за то же количество ходов.
+     */
+    @Test
+    public void testWinsAgreeWithSolver() {
+        Random random = new Random(11);
+        AlphaBetaSearch search = new AlphaBetaSearch(Rules.STANDARD);
+        ForcedWinSolver solver = new ForcedWinSolver(Rules.STANDARD, 2_000_000, 10_000);
+        int wins = 0;
+        for (int game = 0; game < 60; game++) {
+            Board board = new Board(6);
+            char color = 'W';
+            for (int move = 0; move < 6 + random.nextInt(6); move++) {
+                int x = random.nextInt(6);
+                int y = random.nextInt(6);
+                if (board.getCell(x, y) != '.') continue;
+                board.makeMove(x, y, color);
+                if (Rules.STANDARD.hasSquare(board, color)) {
+                    board.grid[y][x] = '.';
+                    continue;
+                }
+                color = (color == 'W') ? 'B' : 'W';
+            }
+
+            search.reset();
+            SearchInfo result = search.search(board, color, 5, null);
+            if (result.getMateMoves() > 0) {
+                wins++;
+                SolveResult proof = solver.solve(board, color, result.getMateMoves());
+                assertEquals("Выигрыш в позиции " + game + " подтверждается решателем",
+                        SolveResult.Status.WIN, proof.getStatus());
+            }
+        }
+        assertTrue("В выборке есть выигрыши", wins > 0);
+    }
+
+    /**
+     * Поиск без ограничений останавливается по stop из другого потока за миллисекунды
+     * и возвращает ход последней законченной итерации.
+     */
+    @Test
+    public void testStopsQuickly() throws Exception {
+        Board board = new Board(15);
+        board.makeMove(7, 7, 'W');
+        board.makeMove(8, 8, 'B');
+        AlphaBetaSearch search = new AlphaBetaSearch(Rules.FULL);
+        SearchInfo[] result = new SearchInfo[1];
+        Thread thread = new Thread(() -> result[0] = search.search(board, 'W', AlphaBetaSearch.MAX_DEPTH, null));
+        thread.start();
+        Thread.sleep(300);
+
+        long stopNanos = System.nanoTime();
+        search.stop();
+        thread.join(5000);
+        long stopMillis = (System.nanoTime() - stopNanos) / 1_000_000;
+
+        assertFalse(thread.isAlive());
+        assertTrue("Остановка за " + stopMillis + " мс", stopMillis < 100);
+        assertNotNull(result[0].getBestMove());
+        assertEquals('.', board.getCell(result[0].getBestMove()[0], result[0].getBestMove()[1]));
+    }
+
+    @Test
+    public void testDeadline() {
+        Board board = new Board(12);
+        board.makeMove(5, 5, 'W');
+        AlphaBetaSearch search = new AlphaBetaSearch(Rules.STANDARD);
+        search.setDeadline(System.nanoTime() + 200_000_000L);
+
+        long start = System.nanoTime();
+        SearchInfo result = search.search(board, 'B', AlphaBetaSearch.MAX_DEPTH, null);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue("Поиск укладывается во время: " + elapsedMillis + " мс", elapsedMillis < 400);
+        assertTrue(result.getDepth() >= 1);
+    }
+}
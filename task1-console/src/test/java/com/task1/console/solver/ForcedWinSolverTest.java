@@ -0,0 +1,167 @@
+package com.task1.console.solver;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для поиска форсированного выигрыша.
+ */
+public class ForcedWinSolverTest {
+
+    /**
+     * Ход в (2, 2) или (2, 0) создаёт несколько угроз сразу, поэтому белые выигрывают за 2 хода.
+     */
+    @Test
+    public void testDoubleThreatWinsInTwo() {
+        Board board = new Board(6);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 1, 'W');
+        board.makeMove(3, 1, 'W');
+        board.makeMove(0, 5, 'B');
+        board.makeMove(5, 5, 'B');
+        board.makeMove(5, 0, 'B');
+
+        SolveResult result = new ForcedWinSolver(Rules.STANDARD).solve(board, 'W', 3);
+
+        assertEquals(SolveResult.Status.WIN, result.getStatus());
+        assertEquals("Самый короткий выигрыш - за 2 хода", 2, result.getMoves());
+        assertEquals("Линия: ход, защита, выигрывающий ход", 3, result.getLine().size());
+        assertLineWins(Rules.STANDARD, board, 'W', result.getLine());
+        assertEquals("Доска не должна меняться", '.', board.getCell(2, 2));
+    }
+
+    /**
+     * На почти пустой доске выигрыша за 2 хода нет.
+     */
+    @Test
+    public void testNoWinOnQuietBoard() {
+        Board board = new Board(6);
+        board.makeMove(2, 2, 'W');
+        board.makeMove(3, 3, 'B');
+
+        SolveResult result = new ForcedWinSolver(Rules.STANDARD).solve(board, 'W', 2);
+
+        assertEquals(SolveResult.Status.NO_WIN, result.getStatus());
+        assertTrue(result.getLine().isEmpty());
+    }
+
+    /**
+     * Поиск, превысивший лимит узлов, должен вернуть UNKNOWN.
+     */
+    @Test
+    public void testNodeLimit() {
+        Board board = new Board(7);
+        board.makeMove(3, 3, 'W');
+
+        SolveResult result = new ForcedWinSolver(Rules.STANDARD, 50, 10_000).solve(board, 'W', 4);
+
+        assertEquals(SolveResult.Status.UNKNOWN, result.getStatus());
+    }
+
+    /**
+     * Решение на законченной партии недопустимо.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFinishedGameRejected() {
+        Board board = new Board(4);
+        board.makeMove(0, 0, 'B');
+        board.makeMove(1, 0, 'B');
+        board.makeMove(0, 1, 'B');
+        board.makeMove(1, 1, 'B');
+        new ForcedWinSolver(Rules.STANDARD).solve(board, 'W', 2);
+    }
+
+    /**
+     * Для выигрыша не более чем за 2 хода ответ решателя должен совпадать с полным перебором.
+     */
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(3);
+        ForcedWinSolver solver = new ForcedWinSolver(Rules.STANDARD);
+        int wins = 0;
+        for (int i = 0; i < 300; i++) {
+            Board board = randomPosition(4 + random.nextInt(2), random);
+            if (board == null) continue;
+            char color = random.nextBoolean() ? 'W' : 'B';
+
+            SolveResult result = solver.solve(board, color, 2);
+            boolean expected = bruteForceWin(Rules.STANDARD, board, color, 2);
+            assertEquals("Решатель и перебор должны совпадать", expected,
+                    result.getStatus() == SolveResult.Status.WIN);
+            if (expected) {
+                wins++;
+                assertLineWins(Rules.STANDARD, board, color, result.getLine());
+            }
+        }
+        assertTrue("В выборке должны быть выигрышные позиции", wins > 10);
+    }
+
+    /**
+     * Случайная незаконченная позиция.
+     *
+     * @return позиция или null, если на доске уже есть квадрат
+     */
+    private static Board randomPosition(int size, Random random) {
+        Board board = new Board(size);
+        int stones = random.nextInt(size * size / 2);
+        for (int j = 0; j < stones; j++) {
+            board.makeMove(random.nextInt(size), random.nextInt(size), (j % 2 == 0) ? 'W' : 'B');
+        }
+        boolean finished = Rules.STANDARD.hasSquare(board, 'W') || Rules.STANDARD.hasSquare(board, 'B');
+        return finished ? null : board;
+    }
+
+    /**
+     * Полный перебор: выигрывает ли color не более чем за k ходов.
+     */
+    private static boolean bruteForceWin(RuleSet rules, Board board, char color, int k) {
+        char opponent = (color == 'W') ? 'B' : 'W';
+        for (int[] cell : board.getFreeCells()) {
+            if (rules.wouldComplete(board, cell[0], cell[1], color)) return true;
+        }
+        if (k == 1) return false;
+        for (int[] cell : board.getFreeCells()) {
+            Board after = new Board(board);
+            after.makeMove(cell[0], cell[1], color);
+            List<int[]> replies = after.getFreeCells();
+            boolean allReplies = !replies.isEmpty();
+            for (int[] reply : replies) {
+                if (rules.wouldComplete(after, reply[0], reply[1], opponent)) {
+                    allReplies = false;
+                    break;
+                }
+                Board next = new Board(after);
+                next.makeMove(reply[0], reply[1], opponent);
+                if (!bruteForceWin(rules, next, color, k - 1)) {
+                    allReplies = false;
+                    break;
+                }
+            }
+            if (allReplies) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет, что линия состоит из допустимых ходов и заканчивается квадратом цвета color.
+     */
+    private static void assertLineWins(RuleSet rules, Board board, char color, List<int[]> line) {
+        Board replay = new Board(board);
+        char opponent = (color == 'W') ? 'B' : 'W';
+        for (int i = 0; i < line.size(); i++) {
+            int[] move = line.get(i);
+            char mover = (i % 2 == 0) ? color : opponent;
+            boolean last = i == line.size() - 1;
+            assertTrue("Ход линии должен быть на свободной клетке", replay.makeMove(move[0], move[1], mover));
+            assertEquals("Квадрат должен появиться только последним ходом", last,
+                    rules.completesSquare(replay, move[0], move[1]));
+        }
+    }
+}
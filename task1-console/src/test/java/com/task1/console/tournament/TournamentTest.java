@@ -0,0 +1,76 @@
+package com.task1.console.tournament;
+
+import com.task1.console.rules.Rules;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для турнира стратегий и рейтингов Эло.
+ */
+public class TournamentTest {
+
+    @Test
+    public void testRatingsFromKnownScore() {
+        // 75% очков соответствуют разнице 400 * log10(3) = 191 пункт Эло
+        List<int[]> games = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            games.add(new int[] {1, 0, 2});
+            games.add(new int[] {0, 1, i % 2 == 0 ? 0 : 2});
+        }
+
+        Ratings ratings = Ratings.compute(2, games, 1);
+
+        assertEquals("Первый игрок - точка отсчёта", 0, ratings.getElo(0), 1e-9);
+        assertEquals("Разница рейтингов для 75% очков", 191, ratings.getElo(1), 3);
+        assertTrue("Интервал содержит оценку",
+                ratings.getLower(1) <= ratings.getElo(1) && ratings.getElo(1) <= ratings.getUpper(1));
+        assertTrue("Интервал узкий при 2000 партиях", ratings.getUpper(1) - ratings.getLower(1) < 80);
+    }
+
+    @Test
+    public void testUnbeatenPlayerHasFiniteRating() {
+        List<int[]> games = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            games.add(new int[] {0, 1, 0});
+        }
+
+        Ratings ratings = Ratings.compute(2, games, 1);
+
+        assertTrue("Рейтинг конечен", ratings.getElo(1) > 0 && !Double.isInfinite(ratings.getElo(1)));
+    }
+
+    @Test
+    public void testGreedyBeatsRandom() throws InterruptedException {
+        Tournament tournament = new Tournament(Arrays.asList("random", "greedy"), new int[] {5, 6}, 5,
+                Rules.STANDARD, 7);
+
+        List<int[]> games = tournament.play(2);
+
+        assertEquals("Две партии на раунд для каждого размера", 2 * 2 * 5, games.size());
+        int greedyPoints = 0;
+        for (int[] game : games) {
+            greedyPoints += (game[0] == 1) ? game[2] : 2 - game[2];
+        }
+        assertTrue("Жадная стратегия набирает больше половины очков", greedyPoints > games.size());
+        assertTrue("Время на ход измерено", tournament.getMillisPerMove(1) > 0);
+    }
+
+    @Test
+    public void testParseErrors() {
+        for (String spec : new String[] {"", "minimax", "greedy:0", "alphabeta", "alphabeta:depth=x"}) {
+            try {
+                Strategies.parse(spec, Rules.STANDARD);
+                fail("Некорректное описание: " + spec);
+            } catch (IllegalArgumentException expected) {
+                // ожидаемо
+            }
+        }
+        assertNotNull(Strategies.parse("alphabeta:depth=3:ms=50", Rules.STANDARD).get());
+    }
+}
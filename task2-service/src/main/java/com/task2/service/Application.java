@@ -1,15 +1,18 @@
 package com.task2.service;
 
+import com.task2.service.cache.PositionCache;
 import com.task2.service.controller.GameController;
+import com.task2.service.jfr.Jfr;
+import com.task2.service.jfr.PhaseInterceptor;
+import com.task2.service.journal.GameSessions;
 import org.glassfish.grizzly.http.server.HttpServer;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
-import java.util.Properties;
 
 /**
  * Основной класс приложения Squares Game Web Service.
@@ -19,23 +22,20 @@ import java.util.Properties;
 public class Application {
 
     /** Базовый URI сервиса, загружается из config.properties */
-    private static String BASE_URI;
-
-    // Статический блок инициализации: загружает базовый URI из конфигурации
-    static {
-        try (InputStream input = Application.class.getClassLoader().getResourceAsStream("config.properties")) {
-            Properties prop = new Properties();
-            if (input != null) {
-                prop.load(input);
-                BASE_URI = prop.getProperty("base.uri", "http://localhost:8080/");
-            } else {
-                BASE_URI = "http://localhost:8080/";
-            }
-        } catch (IOException e) {
-            // При ошибке загрузки используем URI по умолчанию
-            BASE_URI = "http://localhost:8080/";
-        }
-    }
+    private static final String BASE_URI = ServiceConfig.getString("base.uri", "http://localhost:8080/");
+
+    /**
+     * Режим быстрого запуска: отключает автообнаружение провайдеров Jersey
+     * (поиск в META-INF/services, авто-функции, WADL и Bean Validation).
+     * Все нужные компоненты и так регистрируются явно в {@link #startServer()}.
+     */
+    private static final boolean FAST_STARTUP = ServiceConfig.getBoolean("startup.fast", false);
+
+    /**
+     * Завершить процесс сразу после прогрева. Используется при обучающем запуске,
+     * который записывает архив классов CDS (см. профиль appcds в pom.xml).
+     */
+    private static final boolean EXIT_AFTER_WARM_UP = ServiceConfig.getBoolean("startup.exitAfterWarmUp", false);
 
     /**
      * Настраивает и запускает Grizzly HTTP сервер с ресурсами Jersey.
@@ -50,6 +50,18 @@ public class Application {
                 .register(CorsFilter.class)       // Поддержка CORS
                 .register(GlobalExceptionMapper.class); // Глобальный обработчик исключений
 
+        // События JFR разбора и записи JSON - только если JFR есть в JVM
+        if (Jfr.AVAILABLE) {
+            config.register(PhaseInterceptor.class);
+        }
+
+        if (FAST_STARTUP) {
+            config.property(ServerProperties.FEATURE_AUTO_DISCOVERY_DISABLE, true)
+                    .property(ServerProperties.METAINF_SERVICES_LOOKUP_DISABLE, true)
+                    .property(ServerProperties.WADL_FEATURE_DISABLE, true)
+                    .property(ServerProperties.BV_FEATURE_DISABLE, true);
+        }
+
         // Создаем HTTP сервер по BASE_URI
         return GrizzlyHttpServerFactory.createHttpServer(URI.create(BASE_URI), config);
     }
@@ -59,6 +71,9 @@ public class Application {
      * Настраивает сервер, выводит информацию в консоль и ожидает завершения.
      */
     public static void main(String[] args) throws IOException {
+        // Восстанавливаем незавершённые игры из журнала до приёма запросов
+        GameSessions sessions = GameSessions.getInstance();
+
         final HttpServer server = startServer();
 
         // Информационные сообщения
@@ -66,10 +81,26 @@ public class Application {
         System.out.println("Jersey app started with endpoints available at " + BASE_URI);
         System.out.println("API endpoint: " + BASE_URI + "api/{rules}/nextMove");
         System.out.println("Health check: " + BASE_URI + "api/health");
+        System.out.println("Readiness check: " + BASE_URI + "api/ready");
+        if (sessions.isEnabled()) {
+            System.out.println("Recovered " + sessions.size() + " games from the move journal");
+        }
         System.out.println("Hit Ctrl+C to stop it...");
 
         // Добавляем обработчик корректного завершения сервера при остановке JVM
-        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdownNow));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.shutdownNow();
+            sessions.close();
+            PositionCache.getInstance().close();
+        }));
+
+        // Прогреваем сервис синтетическими запросами; до окончания /api/ready отвечает 503
+        WarmUp.run(BASE_URI);
+
+        if (EXIT_AFTER_WARM_UP) {
+            server.shutdownNow();
+            return;
+        }
 
         try {
             // Основной поток ждет завершения сервера
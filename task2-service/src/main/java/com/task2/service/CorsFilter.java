@@ -34,7 +34,7 @@ public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilt
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD")
                     .header("Access-Control-Allow-Headers",
-                            "Origin, Content-Type, Accept, Authorization, X-Requested-With")
+                            "Origin, Content-Type, Accept, Authorization, X-Requested-With, X-Game-Id")
                     .header("Access-Control-Max-Age", "86400") // Кэшировать preflight на 1 день
                     .build());
         }
@@ -58,7 +58,8 @@ public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilt
             responseContext.getHeaders().putSingle("Access-Control-Allow-Methods",
                     "GET, POST, PUT, DELETE, OPTIONS, HEAD");
             responseContext.getHeaders().putSingle("Access-Control-Allow-Headers",
-                    "Origin, Content-Type, Accept, Authorization, X-Requested-With");
+                    "Origin, Content-Type, Accept, Authorization, X-Requested-With, X-Game-Id");
+            responseContext.getHeaders().putSingle("Access-Control-Expose-Headers", "X-Compute-Budget, X-Request-Id");
         }
     }
 }
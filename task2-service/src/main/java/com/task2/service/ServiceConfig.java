@@ -0,0 +1,73 @@
+package com.task2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Конфигурация сервиса, загружаемая из файла config.properties.
+ * Значения можно переопределить системными свойствами JVM (-Dключ=значение).
+ * Если параметр не задан или задан некорректно, используется значение по умолчанию.
+ */
+public final class ServiceConfig {
+
+    /** Свойства, загруженные из config.properties */
+    private static final Properties PROPERTIES = new Properties();
+
+    // Статический блок инициализации: загружает config.properties из classpath
+    static {
+        try (InputStream input = ServiceConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (input != null) {
+                PROPERTIES.load(input);
+            }
+        } catch (IOException e) {
+            // При ошибке загрузки используем значения по умолчанию
+        }
+    }
+
+    private ServiceConfig() {}
+
+    /**
+     * Возвращает строковое значение параметра.
+     *
+     * @param key имя параметра
+     * @param defaultValue значение по умолчанию
+     * @return значение параметра или значение по умолчанию
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPERTIES.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Возвращает целочисленное значение параметра.
+     *
+     * @param key имя параметра
+     * @param defaultValue значение по умолчанию
+     * @return значение параметра или значение по умолчанию, если параметр не является числом
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Возвращает логическое значение параметра.
+     *
+     * @param key имя параметра
+     * @param defaultValue значение по умолчанию
+     * @return значение параметра или значение по умолчанию
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
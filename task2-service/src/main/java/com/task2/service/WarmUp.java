@@ -0,0 +1,198 @@
+package com.task2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Синтетический прогрев сервиса после запуска.
+ * Отправляет запущенному серверу настоящие HTTP-запросы с типичными досками
+ * (/status, /{rules}/nextMove, /health), чтобы до прихода реального трафика
+ * были загружены классы, инициализированы Jersey/HK2 и Jackson, а горячий код
+ * Board/MoveService скомпилирован JIT-компилятором.
+ *
+ * Прогрев идёт раундами. Он заканчивается, когда за раунд JIT-компилятор почти
+ * перестаёт работать (код скомпилирован), либо по лимиту раундов или времени.
+ * Пока прогрев не закончен, эндпоинт /api/ready отвечает 503.
+ */
+public final class WarmUp {
+
+    /** Включён ли прогрев */
+    private static final boolean ENABLED = ServiceConfig.getBoolean("warmup.enabled", true);
+
+    /** Количество запросов каждого вида в одном раунде */
+    private static final int REQUESTS_PER_ROUND = ServiceConfig.getInt("warmup.round.requests", 50);
+
+    /** Максимальное количество раундов */
+    private static final int MAX_ROUNDS = ServiceConfig.getInt("warmup.max.rounds", 40);
+
+    /** Максимальная длительность прогрева, мс */
+    private static final int MAX_MILLIS = ServiceConfig.getInt("warmup.max.millis", 30000);
+
+    /** Таймаут соединения одного запроса прогрева, мс */
+    private static final int CONNECT_TIMEOUT_MILLIS = ServiceConfig.getInt("warmup.connect.timeout.ms", 1000);
+
+    /** Таймаут чтения ответа одного запроса прогрева, мс: зависший запрос не задерживает готовность */
+    private static final int READ_TIMEOUT_MILLIS = ServiceConfig.getInt("warmup.read.timeout.ms", 5000);
+
+    /** Время работы JIT за раунд (мс), ниже которого код считается скомпилированным */
+    private static final int QUIET_COMPILE_MILLIS = ServiceConfig.getInt("warmup.quiet.compile.millis", 5);
+
+    /** Размеры досок для синтетических запросов */
+    private static final int[] SIZES = {5, 7, 10, 15};
+
+    /** Признак готовности сервиса принимать трафик */
+    private static volatile boolean ready;
+
+    private WarmUp() {}
+
+    /**
+     * @return true, если прогрев завершён (или отключён) и сервис готов принимать трафик
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Прогревает запущенный сервер и отмечает его готовым.
+     * Ошибки прогрева не мешают запуску: сервис всё равно становится готовым.
+     *
+     * @param baseUri базовый URI запущенного сервера
+     */
+    public static void run(String baseUri) {
+        try {
+            if (ENABLED) {
+                warmUp(baseUri);
+            }
+        } finally {
+            ready = true;
+        }
+    }
+
+    /**
+     * Выполняет раунды прогрева до стабилизации JIT или до исчерпания лимитов.
+     *
+     * @param baseUri базовый URI запущенного сервера
+     */
+    private static void warmUp(String baseUri) {
+        String api = baseUri.endsWith("/") ? baseUri + "api" : baseUri + "/api";
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean canMeasureJit = jit != null && jit.isCompilationTimeMonitoringSupported();
+        Random random = new Random(42);
+        long started = System.currentTimeMillis();
+
+        int rounds = 0;
+        while (rounds < MAX_ROUNDS && System.currentTimeMillis() - started < MAX_MILLIS) {
+            long compileBefore = canMeasureJit ? jit.getTotalCompilationTime() : 0;
+
+            for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+                // Медленные ответы не продлевают прогрев дальше лимита времени
+                if (System.currentTimeMillis() - started >= MAX_MILLIS) break;
+                String board = randomBoard(random, SIZES[i % SIZES.length]);
+                post(api + "/status", board);
+                post(api + "/standard/nextMove", board);
+            }
+            get(api + "/health");
+            rounds++;
+
+            long compiled = canMeasureJit ? jit.getTotalCompilationTime() - compileBefore : Long.MAX_VALUE;
+            if (rounds > 1 && compiled < QUIET_COMPILE_MILLIS) {
+                break;
+            }
+        }
+
+        System.out.println("Warm-up finished: " + rounds + " rounds in "
+                + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    /**
+     * Строит JSON случайной незаконченной позиции заданного размера.
+     *
+     * @param random генератор случайных чисел
+     * @param size размер доски
+     * @return JSON-представление BoardDto
+     */
+    private static String randomBoard(Random random, int size) {
+        char[] data = new char[size * size];
+        int stones = random.nextInt(data.length / 3 + 1);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = '.';
+        }
+        for (int i = 0; i < stones; i++) {
+            data[random.nextInt(data.length)] = (i % 2 == 0) ? 'w' : 'b';
+        }
+        String color = random.nextBoolean() ? "w" : "b";
+        return "{\"size\":" + size + ",\"data\":\"" + new String(data) + "\",\"nextPlayerColor\":\"" + color + "\"}";
+    }
+
+    /**
+     * Отправляет POST-запрос с JSON и дочитывает ответ.
+     *
+     * @param url адрес эндпоинта
+     * @param json тело запроса
+     */
+    private static void post(String url, String json) {
+        try {
+            HttpURLConnection connection = open(url);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            drain(connection);
+        } catch (IOException e) {
+            // Ошибки отдельных запросов прогрева не важны
+        }
+    }
+
+    /**
+     * Отправляет GET-запрос и дочитывает ответ.
+     *
+     * @param url адрес эндпоинта
+     */
+    private static void get(String url) {
+        try {
+            drain(open(url));
+        } catch (IOException e) {
+            // Ошибки отдельных запросов прогрева не важны
+        }
+    }
+
+    /**
+     * Открывает соединение с таймаутами соединения и чтения.
+     *
+     * @param url адрес эндпоинта
+     * @return HTTP-соединение
+     * @throws IOException при ошибке ввода/вывода
+     */
+    private static HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        return connection;
+    }
+
+    /**
+     * Дочитывает тело ответа, чтобы соединение вернулось в пул keep-alive.
+     *
+     * @param connection HTTP-соединение
+     * @throws IOException при ошибке ввода/вывода
+     */
+    private static void drain(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() < 400
+                ? connection.getInputStream() : connection.getErrorStream();
+        if (in == null) return;
+        byte[] buffer = new byte[1024];
+        while (in.read(buffer) != -1) {
+            // пропускаем тело ответа
+        }
+        in.close();
+    }
+}
@@ -0,0 +1,301 @@
+package com.task2.service.cache;
+
+import com.task1.console.Board;
+import com.task2.service.ServiceConfig;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Постоянный кэш позиций вне кучи: открытая хеш-таблица в отображённом в память
+ * файле фиксированного размера. Ключ - 64-битный хеш Зобриста позиции (правила,
+ * размер доски, камни, цвет хода), значение - лучший ход, оценка и глубина
+ * (логарифм бюджета вычислений, с которым ход найден). Файл переживает перезапуск.
+ *
+ * Таблица разбита на корзины по {@value #BUCKET_ENTRIES} записи (64 байта - одна
+ * строка кэша процессора). Запись - два long: (ключ XOR данные) и данные.
+ * Читатели и писатели работают без замков: запись, наполовину перезаписанная
+ * другим потоком, не проходит проверку ключа и считается промахом.
+ *
+ * Политика замещения: запись той же позиции заменяется, если новая глубина не
+ * меньше; иначе вытесняется запись с наименьшей глубиной, причём записи прошлых
+ * запусков сервиса (старших поколений) вытесняются в первую очередь.
+ *
+ * Поиск и запись не создают объектов, поэтому кэш не нагружает сборщик мусора.
+ */
+public final class PositionCache {
+
+    /** Включён ли кэш позиций */
+    private static final boolean ENABLED = ServiceConfig.getBoolean("cache.enabled", false);
+
+    /** Результат поиска при промахе */
+    public static final long MISS = -1L;
+
+    /** Оценка хода, сразу образующего квадрат */
+    public static final int SCORE_WIN = 1;
+
+    /** Сигнатура файла кэша */
+    private static final long MAGIC = 0x5351434143484531L; // "SQCACHE1"
+
+    /** Размер заголовка файла */
+    private static final int HEADER_BYTES = 64;
+
+    /** Размер записи */
+    private static final int ENTRY_BYTES = 16;
+
+    /** Количество записей в корзине */
+    private static final int BUCKET_ENTRIES = 4;
+
+    /** Размер корзины */
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+
+    /** Единственный экземпляр, создаётся при первом обращении */
+    private static volatile PositionCache instance;
+
+    /** Отображение файла кэша или null, если кэш выключен */
+    private final MappedByteBuffer table;
+
+    /** Маска номера корзины (количество корзин - степень двойки) */
+    private final long bucketMask;
+
+    /** Поколение текущего запуска (младшие 8 бит) */
+    private final int generation;
+
+    /**
+     * Открывает файл кэша из конфигурации сервиса.
+     */
+    private PositionCache() {
+        this(ENABLED ? Paths.get(ServiceConfig.getString("cache.file", "cache/positions.bin")) : null,
+                ServiceConfig.getInt("cache.file.bytes", 64 << 20));
+    }
+
+    /**
+     * Открывает файл кэша, создавая или очищая его при несовпадении формата.
+     * Каждое открытие начинает новое поколение записей.
+     *
+     * @param file файл кэша или null, если кэш выключен
+     * @param fileBytes желаемый размер файла (от 64 КБ до 1 ГБ)
+     */
+    PositionCache(Path file, long fileBytes) {
+        if (file == null) {
+            table = null;
+            bucketMask = 0;
+            generation = 0;
+            return;
+        }
+        long requested = Math.min(1L << 30, Math.max(1L << 16, fileBytes));
+        long buckets = Long.highestOneBit((requested - HEADER_BYTES) / BUCKET_BYTES);
+        long bytes = HEADER_BYTES + buckets * BUCKET_BYTES;
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                boolean fresh = raf.length() != bytes;
+                raf.setLength(bytes);
+                table = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                if (fresh || table.getLong(0) != MAGIC || table.getLong(8) != buckets) {
+                    for (long i = 0; i < bytes; i += 8) {
+                        table.putLong((int) i, 0L);
+                    }
+                    table.putLong(0, MAGIC);
+                    table.putLong(8, buckets);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open position cache " + file, e);
+        }
+
+        // Каждый запуск начинает новое поколение: записи прошлых запусков вытесняются первыми
+        generation = (int) ((table.getLong(16) + 1) & 0xFF);
+        table.putLong(16, generation);
+        bucketMask = buckets - 1;
+
+        ServiceMetrics.gauge("cache.buckets", () -> buckets);
+    }
+
+    /**
+     * @return единственный экземпляр кэша
+     */
+    public static PositionCache getInstance() {
+        PositionCache result = instance;
+        if (result == null) {
+            synchronized (PositionCache.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new PositionCache();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true, если кэш включён
+     */
+    public boolean isEnabled() {
+        return table != null;
+    }
+
+    /**
+     * Ищет ход для позиции.
+     *
+     * @param key хеш позиции, см. {@link #hash(String, Board, char)}
+     * @param depth требуемая глубина: подходит запись с глубиной не меньше
+     * @return упакованные данные записи (см. {@link #moveX(long)}, {@link #moveY(long)},
+     *         {@link #score(long)}) или {@link #MISS}
+     */
+    public long probe(long key, int depth) {
+        if (table == null) return MISS;
+        int bucket = bucketOffset(key);
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = bucket + i * ENTRY_BYTES;
+            long data = table.getLong(offset + 8);
+            if ((table.getLong(offset) ^ data) == key && data != 0 && depthOf(data) >= depth) {
+                ServiceMetrics.increment("cache.hits");
+                return data;
+            }
+        }
+        ServiceMetrics.increment("cache.misses");
+        return MISS;
+    }
+
+    /**
+     * Сохраняет ход для позиции с учётом политики замещения.
+     *
+     * @param key хеш позиции
+     * @param x координата X хода
+     * @param y координата Y хода
+     * @param score оценка хода
+     * @param depth глубина (логарифм бюджета вычислений), 0..255
+     */
+    public void store(long key, int x, int y, int score, int depth) {
+        if (table == null) return;
+        long data = pack(x, y, score, depth, generation);
+        int bucket = bucketOffset(key);
+
+        int victim = -1;
+        int victimRank = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = bucket + i * ENTRY_BYTES;
+            long old = table.getLong(offset + 8);
+            if (old == 0) {
+                victim = offset;
+                break;
+            }
+            if ((table.getLong(offset) ^ old) == key) {
+                // Та же позиция: заменяем только не менее глубоким результатом
+                if (depth < depthOf(old)) return;
+                victim = offset;
+                break;
+            }
+            // Записи прошлых поколений вытесняются раньше записей текущего
+            int rank = depthOf(old) + (generationOf(old) == generation ? 256 : 0);
+            if (rank < victimRank) {
+                victimRank = rank;
+                victim = offset;
+            }
+        }
+
+        table.putLong(victim + 8, data);
+        table.putLong(victim, key ^ data);
+        ServiceMetrics.increment("cache.stores");
+    }
+
+    /**
+     * Сбрасывает таблицу на диск.
+     */
+    public void close() {
+        if (table != null) {
+            table.force();
+        }
+    }
+
+    /**
+     * Вычисляет хеш Зобриста позиции. Ключи клеток не хранятся в таблице,
+     * а вычисляются перемешиванием номера клетки и цвета.
+     *
+     * @param rules правила игры
+     * @param board доска
+     * @param color цвет игрока, который ходит
+     * @return 64-битный хеш позиции
+     */
+    public static long hash(String rules, Board board, char color) {
+        long h = mix(rules.hashCode() * 31L + board.size) ^ (color == 'B' ? 0x5BD1E9955BD1E995L : 0);
+        for (int y = 0; y < board.size; y++) {
+            for (int x = 0; x < board.size; x++) {
+                char cell = board.grid[y][x];
+                if (cell == 'W') {
+                    h ^= mix(2L * (y * board.size + x) + 1);
+                } else if (cell == 'B') {
+                    h ^= mix(2L * (y * board.size + x) + 2);
+                }
+            }
+        }
+        // Нулевой ключ зарезервирован для пустых записей
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Переводит бюджет вычислений в глубину записи.
+     *
+     * @param budget бюджет вычислений
+     * @return глубина: количество значащих бит бюджета
+     */
+    public static int depthForBudget(int budget) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, budget));
+    }
+
+    /** @return координата X из данных записи */
+    public static int moveX(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /** @return координата Y из данных записи */
+    public static int moveY(long data) {
+        return (int) ((data >>> 16) & 0xFFFF);
+    }
+
+    /** @return оценка хода из данных записи */
+    public static int score(long data) {
+        return (short) (data >>> 32);
+    }
+
+    private static int depthOf(long data) {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    private static int generationOf(long data) {
+        return (int) ((data >>> 56) & 0xFF);
+    }
+
+    private static long pack(int x, int y, int score, int depth, int generation) {
+        return (x & 0xFFFFL)
+                | (y & 0xFFFFL) << 16
+                | (score & 0xFFFFL) << 32
+                | (depth & 0xFFL) << 48
+                | (generation & 0xFFL) << 56;
+    }
+
+    private int bucketOffset(long key) {
+        return HEADER_BYTES + (int) ((key >>> 8) & bucketMask) * BUCKET_BYTES;
+    }
+
+    /**
+     * Перемешивание SplitMix64.
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,23 +1,80 @@
 package com.task2.service.controller;
 
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+import com.task2.service.ServiceConfig;
+import com.task2.service.WarmUp;
+import com.task2.service.dto.AnalysisDto;
 import com.task2.service.dto.BoardDto;
 import com.task2.service.dto.GameStatusDto;
 import com.task2.service.dto.SimpleMoveDto;
+import com.task2.service.dto.SolutionDto;
+import com.task2.service.engine.ComputeBudget;
+import com.task2.service.engine.Difficulty;
 import com.task2.service.engine.GameEngineAdapter;
+import com.task2.service.engine.LoadMonitor;
+import com.task2.service.jfr.Jfr;
+import com.task2.service.jfr.ValidationEvent;
+import com.task2.service.journal.GameSessions;
+import com.task2.service.logging.AsyncLog;
+import com.task2.service.metrics.GameStats;
+import com.task2.service.metrics.ServiceMetrics;
+import com.task2.service.scheduling.LaneScheduler;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
 
 /**
  * REST-контроллер для работы с игрой.
  * Предоставляет эндпоинты для получения следующего хода, проверки статуса игры и проверки состояния сервиса.
+ * Запросы обрабатываются асинхронно в полосах {@link LaneScheduler}: статус и здоровье - в быстрой полосе,
+ * вычисление хода - в полосе своего уровня сложности. При переполненной полосе возвращается 503.
  */
 @Path("/api")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class GameController {
 
+    /** Заголовок с идентификатором игровой сессии для фонового обдумывания ходов */
+    public static final String GAME_ID_HEADER = "X-Game-Id";
+
+    /** Заголовок ответа с бюджетом вычислений, выбранным для хода */
+    public static final String BUDGET_HEADER = "X-Compute-Budget";
+
+    /** Заголовок ответа с идентификатором запроса (тот же, что в журнале) */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /** Наибольшее количество ходов до победы в запросе решения позиции */
+    private static final int SOLVE_MAX_MOVES = Math.max(1, ServiceConfig.getInt("solve.max.moves", 6));
+
+    /** Наибольший размер доски в запросе: таблицы квадратов всех допустимых размеров помещаются в кэш правил */
+    private static final int BOARD_MAX_SIZE = Math.max(3,
+            Math.min(RuleSet.MAX_COMPILED_SIZES + 2, ServiceConfig.getInt("board.max.size", 100)));
+
+    /** Наибольшее количество досок в пакетном запросе статуса */
+    private static final int BATCH_MAX_BOARDS = Math.max(1, ServiceConfig.getInt("batch.max.boards", 4096));
+
+    /**
+     * Наибольшее время ответа на запрос, мс: по его истечении клиент получает 503,
+     * даже если обработчик ещё не закончил
+     */
+    private static final long REQUEST_TIMEOUT_MILLIS = Math.max(1, ServiceConfig.getInt("request.timeout.ms", 30_000));
+
+    /** Генератор идентификаторов запросов */
+    private static final AtomicLong REQUEST_IDS = new AtomicLong();
+
+    /** Сигналы нагрузки для адаптивного бюджета вычислений */
+    private final LoadMonitor loadMonitor = LoadMonitor.getInstance();
+
     /**
      * Адаптер игрового движка для расчёта ходов и получения статуса игры.
      */
@@ -25,62 +82,105 @@ public class GameController {
 
     /**
      * Эндпоинт для получения следующего хода компьютера.
+     * Запрос выполняется в полосе вычисления хода своего уровня сложности.
      *
-     * @param rules Строка правил игры (не используется в текущей версии, зарезервировано для расширения)
+     * @param rules название правил игры, см. {@link Rules}; для неизвестных правил сразу возвращается 404
+     * @param difficulty уровень сложности компьютера: easy, normal (по умолчанию) или hard
+     * @param gameIdHeader идентификатор игровой сессии из заголовка X-Game-Id (необязательный)
      * @param boardDto DTO текущего состояния доски
-     * @return Response с ходом компьютера или сообщением о завершении игры
+     * @param asyncResponse асинхронный ответ: ход компьютера или сообщение о завершении игры;
+     *                      выбранный бюджет вычислений передаётся в заголовке X-Compute-Budget
+     *                      (2147483647 - без ограничения)
      */
     @POST
     @Path("/{rules}/nextMove")
-    public Response getNextMove(@PathParam("rules") String rules, BoardDto boardDto) {
+    public void getNextMove(@PathParam("rules") String rules,
+                            @QueryParam("difficulty") String difficulty,
+                            @HeaderParam(GAME_ID_HEADER) String gameIdHeader,
+                            BoardDto boardDto,
+                            @Suspended AsyncResponse asyncResponse) {
+        RuleSet ruleSet = Rules.get(rules);
+        if (ruleSet == null) {
+            rejectUnknownRules(rules, asyncResponse);
+            return;
+        }
+
+        Difficulty level;
         try {
-            // Проверка на null
-            if (boardDto == null) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"BoardDto cannot be null\"}")
-                        .build();
-            }
+            level = Difficulty.parse(difficulty);
+        } catch (IllegalArgumentException e) {
+            level = Difficulty.NORMAL; // некорректное значение будет отклонено при обработке
+        }
 
-            // Проверка минимального размера доски
-            if (boardDto.getSize() <= 2) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"Board size must be greater than 2\"}")
-                        .build();
+        long startNanos = loadMonitor.start();
+        boolean accepted = dispatch(LaneScheduler.forDifficulty(level), "nextMove", rules, boardDto, asyncResponse,
+                requestId -> {
+                    try {
+                        return nextMove(requestId, ruleSet, difficulty, gameIdHeader, boardDto);
+                    } finally {
+                        loadMonitor.finish(startNanos);
+                    }
+                });
+        if (!accepted) {
+            loadMonitor.finish(startNanos);
+        }
+    }
+
+    /**
+     * Вычисляет следующий ход компьютера.
+     *
+     * @param requestId идентификатор запроса для журнала
+     * @param rules правила игры
+     * @param difficulty уровень сложности компьютера
+     * @param gameIdHeader идентификатор игровой сессии из заголовка X-Game-Id
+     * @param boardDto DTO текущего состояния доски
+     * @return Response с ходом компьютера или сообщением о завершении игры
+     */
+    private Response nextMove(long requestId, RuleSet rules, String difficulty, String gameIdHeader,
+                              BoardDto boardDto) {
+        try {
+            // Проверка доски: null, размер, данные, цвет следующего игрока
+            Response invalid = validateBoard("nextMove", boardDto);
+            if (invalid != null) {
+                return invalid;
             }
 
-            // Проверка наличия данных доски
-            if (boardDto.getData() == null || boardDto.getData().isEmpty()) {
+            // Проверка идентификатора игровой сессии
+            Long gameId = parseGameId(gameIdHeader);
+            if (gameIdHeader != null && gameId == null) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"Board data cannot be null or empty\"}")
+                        .entity("{\"error\":\"X-Game-Id must be a number\"}")
                         .build();
             }
 
-            // Проверка корректного цвета следующего игрока
-            if (boardDto.getNextPlayerColor() == null ||
-                    (!boardDto.getNextPlayerColor().equalsIgnoreCase("w") &&
-                            !boardDto.getNextPlayerColor().equalsIgnoreCase("b"))) {
+            // Проверка уровня сложности
+            Difficulty level;
+            try {
+                level = Difficulty.parse(difficulty);
+            } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"nextPlayerColor must be 'w' or 'b'\"}")
+                        .entity("{\"error\":\"difficulty must be 'easy', 'normal' or 'hard'\"}")
                         .build();
             }
 
-            // Расчёт следующего хода через адаптер
-            SimpleMoveDto nextMove = gameEngine.calculateNextMove(boardDto);
+            // Расчёт следующего хода через адаптер с бюджетом, зависящим от нагрузки
+            int budget = ComputeBudget.select(level);
+            SimpleMoveDto nextMove = gameEngine.calculateNextMove(rules, boardDto, gameId, budget);
 
             // Если ход невозможен (игра окончена или нет свободных клеток)
             if (nextMove == null) {
                 return Response.status(Response.Status.OK)
                         .entity("{\"message\":\"Game finished or no moves available\"}")
+                        .header(BUDGET_HEADER, budget)
                         .build();
             }
 
             // Возврат корректного хода
-            return Response.ok(nextMove).build();
+            return Response.ok(nextMove).header(BUDGET_HEADER, budget).build();
 
         } catch (Exception e) {
-            // Логирование ошибки и возврат 500
-            System.err.println("Error processing request: " + e.getMessage());
-            e.printStackTrace();
+            // Асинхронное логирование ошибки и возврат 500
+            AsyncLog.error(requestId, "nextMove", rules.getName(), boardDto.getSize(), e);
 
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("{\"error\":\"Internal server error\"}")
@@ -90,60 +190,442 @@ public class GameController {
 
     /**
      * Эндпоинт для получения текущего статуса игры.
+     * Запрос выполняется в быстрой полосе.
      *
+     * @param rules название правил игры (необязательный параметр, по умолчанию standard)
+     * @param gameIdHeader идентификатор игровой сессии из заголовка X-Game-Id (необязательный)
      * @param boardDto DTO текущего состояния доски
-     * @return Response с текущим статусом игры
+     * @param asyncResponse асинхронный ответ с текущим статусом игры
      */
     @POST
     @Path("/status")
-    public Response getGameStatus(BoardDto boardDto) {
+    public void getGameStatus(@QueryParam("rules") @DefaultValue("standard") String rules,
+                              @HeaderParam(GAME_ID_HEADER) String gameIdHeader,
+                              BoardDto boardDto,
+                              @Suspended AsyncResponse asyncResponse) {
+        RuleSet ruleSet = Rules.get(rules);
+        if (ruleSet == null) {
+            rejectUnknownRules(rules, asyncResponse);
+            return;
+        }
+        dispatch(LaneScheduler.Lane.FAST, "status", rules, boardDto, asyncResponse,
+                requestId -> gameStatus(requestId, ruleSet, gameIdHeader, boardDto));
+    }
+
+    /**
+     * Определяет текущий статус игры.
+     *
+     * @param requestId идентификатор запроса для журнала
+     * @param rules правила игры
+     * @param gameIdHeader идентификатор игровой сессии из заголовка X-Game-Id
+     * @param boardDto DTO текущего состояния доски
+     * @return Response с текущим статусом игры
+     */
+    private Response gameStatus(long requestId, RuleSet rules, String gameIdHeader, BoardDto boardDto) {
         try {
             // Проверки аналогичные getNextMove
-            if (boardDto == null) {
+            Response invalid = validateBoard("status", boardDto);
+            if (invalid != null) {
+                return invalid;
+            }
+
+            // Получение статуса игры через адаптер
+            Long gameId = parseGameId(gameIdHeader);
+            GameStatusDto status = gameEngine.getGameStatus(rules, boardDto, gameId);
+
+            // Статистика партий: синтетические запросы прогрева не учитываются
+            if (WarmUp.isReady()) {
+                GameStats.recordStatus(rules.getName(), boardDto.getSize(), boardDto.getData(),
+                        status.getStatus(), status.getResult(), gameId);
+            }
+            return Response.ok(status).build();
+
+        } catch (Exception e) {
+            AsyncLog.error(requestId, "status", rules.getName(), boardDto.getSize(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\":\"Internal server error\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * Эндпоинт статуса многих позиций одним запросом (пакетный анализ, самоигра внешних клиентов).
+     * Позиции не относятся к игровым сессиям и не учитываются в статистике партий;
+     * доски одного размера проверяются одновременно, см. {@link GameEngineAdapter#getGameStatuses}.
+     * Пакет до batch.max.boards досок дорогой, поэтому запрос выполняется в пакетной полосе
+     * и не задерживает /status и /health.
+     *
+     * @param rules название правил игры (необязательный параметр, по умолчанию standard)
+     * @param boards DTO досок, не больше batch.max.boards
+     * @param asyncResponse асинхронный ответ с массивом статусов в порядке досок
+     */
+    @POST
+    @Path("/status/batch")
+    public void getGameStatuses(@QueryParam("rules") @DefaultValue("standard") String rules,
+                                List<BoardDto> boards,
+                                @Suspended AsyncResponse asyncResponse) {
+        RuleSet ruleSet = Rules.get(rules);
+        if (ruleSet == null) {
+            rejectUnknownRules(rules, asyncResponse);
+            return;
+        }
+        dispatch(LaneScheduler.Lane.BULK, "statusBatch", rules, null, asyncResponse, requestId -> {
+            if (boards == null || boards.isEmpty() || boards.size() > BATCH_MAX_BOARDS) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"BoardDto cannot be null\"}")
+                        .entity("{\"error\":\"Batch must contain from 1 to " + BATCH_MAX_BOARDS + " boards\"}")
+                        .build();
+            }
+            for (BoardDto boardDto : boards) {
+                Response invalid = validateBoard("statusBatch", boardDto);
+                if (invalid != null) {
+                    return invalid;
+                }
+            }
+            try {
+                return Response.ok(gameEngine.getGameStatuses(ruleSet, boards)).build();
+            } catch (Exception e) {
+                AsyncLog.error(requestId, "statusBatch", rules, 0, e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("{\"error\":\"Internal server error\"}")
                         .build();
             }
+        });
+    }
 
-            if (boardDto.getSize() <= 2) {
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"Board size must be greater than 2\"}")
+    /**
+     * Эндпоинт анализа позиции: оценка каждой свободной клетки для игрока, который ходит
+     * (выигрыш, обязательная защита, количество угроз, итоговая оценка).
+     * Анализ дешёвый и выполняется в быстрой полосе; по правилам full таблица квадратов растёт
+     * как четвёртая степень размера доски, и такой анализ выполняется в пакетной полосе.
+     *
+     * @param rules название правил игры; для неизвестных правил сразу возвращается 404
+     * @param boardDto DTO текущего состояния доски
+     * @param asyncResponse асинхронный ответ с тепловой картой клеток
+     */
+    @POST
+    @Path("/{rules}/analyze")
+    public void analyze(@PathParam("rules") String rules,
+                        BoardDto boardDto,
+                        @Suspended AsyncResponse asyncResponse) {
+        RuleSet ruleSet = Rules.get(rules);
+        if (ruleSet == null) {
+            rejectUnknownRules(rules, asyncResponse);
+            return;
+        }
+        LaneScheduler.Lane lane = (ruleSet == Rules.FULL) ? LaneScheduler.Lane.BULK : LaneScheduler.Lane.FAST;
+        dispatch(lane, "analyze", rules, boardDto, asyncResponse, requestId -> {
+            Response invalid = validateBoard("analyze", boardDto);
+            if (invalid == null) {
+                invalid = checkPatternSize(ruleSet, boardDto);
+            }
+            if (invalid != null) {
+                return invalid;
+            }
+            try {
+                AnalysisDto analysis = gameEngine.analyze(ruleSet, boardDto);
+                return Response.ok(analysis).build();
+            } catch (Exception e) {
+                AsyncLog.error(requestId, "analyze", rules, boardDto.getSize(), e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("{\"error\":\"Internal server error\"}")
                         .build();
             }
-            if (boardDto.getData() == null || boardDto.getData().isEmpty()) {
+        });
+    }
+
+    /**
+     * Эндпоинт поиска форсированного выигрыша: может ли игрок, который ходит, образовать квадрат
+     * не более чем за maxMoves своих ходов при любой защите, и выигрывающая линия.
+     * Поиск дорогой и выполняется в полосе сложного уровня; он ограничен по узлам и времени,
+     * при превышении лимита возвращается статус "unknown".
+     *
+     * @param rules название правил игры; для неизвестных правил сразу возвращается 404
+     * @param maxMoves наибольшее количество ходов до победы (по умолчанию 3, не больше solve.max.moves)
+     * @param boardDto DTO текущего состояния доски
+     * @param asyncResponse асинхронный ответ с итогом поиска
+     */
+    @POST
+    @Path("/{rules}/solve")
+    public void solve(@PathParam("rules") String rules,
+                      @QueryParam("maxMoves") @DefaultValue("3") String maxMoves,
+                      BoardDto boardDto,
+                      @Suspended AsyncResponse asyncResponse) {
+        RuleSet ruleSet = Rules.get(rules);
+        if (ruleSet == null) {
+            rejectUnknownRules(rules, asyncResponse);
+            return;
+        }
+        dispatch(LaneScheduler.Lane.MOVE_HARD, "solve", rules, boardDto, asyncResponse, requestId -> {
+            Response invalid = validateBoard("solve", boardDto);
+            if (invalid == null) {
+                invalid = checkPatternSize(ruleSet, boardDto);
+            }
+            if (invalid != null) {
+                return invalid;
+            }
+            int moves;
+            try {
+                moves = Integer.parseInt(maxMoves.trim());
+            } catch (NumberFormatException e) {
+                moves = 0;
+            }
+            if (moves < 1 || moves > SOLVE_MAX_MOVES) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"Board data cannot be null or empty\"}")
+                        .entity("{\"error\":\"maxMoves must be between 1 and " + SOLVE_MAX_MOVES + "\"}")
                         .build();
             }
-            if (boardDto.getNextPlayerColor() == null ||
-                    (!boardDto.getNextPlayerColor().equalsIgnoreCase("w") &&
-                            !boardDto.getNextPlayerColor().equalsIgnoreCase("b"))) {
+            try {
+                SolutionDto solution = gameEngine.solve(ruleSet, boardDto, moves);
+                return Response.ok(solution).build();
+            } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("{\"error\":\"nextPlayerColor must be 'w' or 'b'\"}")
+                        .entity("{\"error\":\"Game is already finished\"}")
+                        .build();
+            } catch (Exception e) {
+                AsyncLog.error(requestId, "solve", rules, boardDto.getSize(), e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("{\"error\":\"Internal server error\"}")
                         .build();
             }
+        });
+    }
 
-            // Получение статуса игры через адаптер
-            GameStatusDto status = gameEngine.getGameStatus(boardDto);
-            return Response.ok(status).build();
+    /**
+     * Сразу отвечает 404 на запрос с неизвестными правилами, не занимая полосу обслуживания.
+     *
+     * @param rules название правил из запроса
+     * @param asyncResponse асинхронный ответ
+     */
+    private static void rejectUnknownRules(String rules, AsyncResponse asyncResponse) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", "Unknown rules: " + rules);
+        error.put("rules", Rules.names());
+        complete(asyncResponse, Response.status(Response.Status.NOT_FOUND).entity(error).build(),
+                REQUEST_IDS.incrementAndGet(), "rules", rules, 0, System.nanoTime());
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error processing status request: " + e.getMessage());
-            e.printStackTrace();
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("{\"error\":\"Internal server error\"}")
+    /**
+     * Проверяет DTO доски и записывает проверку событием JFR {@link ValidationEvent},
+     * если JFR есть в JVM.
+     *
+     * @param endpoint эндпоинт для события
+     * @param boardDto DTO текущего состояния доски
+     * @return Response 400 с описанием ошибки или null, если доска корректна
+     */
+    private static Response validateBoard(String endpoint, BoardDto boardDto) {
+        ValidationEvent event = Jfr.AVAILABLE ? new ValidationEvent() : null;
+        if (event != null) event.begin();
+        Response invalid = checkBoard(boardDto);
+        if (event != null) event.complete(endpoint, (boardDto != null) ? boardDto.getSize() : 0, invalid == null);
+        return invalid;
+    }
+
+    /**
+     * Проверяет DTO доски.
+     *
+     * @param boardDto DTO текущего состояния доски
+     * @return Response 400 с описанием ошибки или null, если доска корректна
+     */
+    private static Response checkBoard(BoardDto boardDto) {
+        if (boardDto == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"BoardDto cannot be null\"}")
+                    .build();
+        }
+        if (boardDto.getSize() <= 2) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Board size must be greater than 2\"}")
                     .build();
         }
+        if (boardDto.getSize() > BOARD_MAX_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Board size must be at most " + BOARD_MAX_SIZE + "\"}")
+                    .build();
+        }
+        if (boardDto.getData() == null || boardDto.getData().isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Board data cannot be null or empty\"}")
+                    .build();
+        }
+        if (boardDto.getNextPlayerColor() == null ||
+                (!boardDto.getNextPlayerColor().equalsIgnoreCase("w") &&
+                        !boardDto.getNextPlayerColor().equalsIgnoreCase("b"))) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"nextPlayerColor must be 'w' or 'b'\"}")
+                    .build();
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет, что для доски можно построить таблицу квадратов правил: анализ и решение позиции
+     * перебирают квадраты таблицы, а у правил full она растёт как N^4.
+     *
+     * @param rules правила игры
+     * @param boardDto DTO корректной доски
+     * @return Response 400 с описанием ошибки или null, если размер допустим
+     */
+    private static Response checkPatternSize(RuleSet rules, BoardDto boardDto) {
+        if (boardDto.getSize() > rules.getMaxPatternSize()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\":\"Board size must be at most " + rules.getMaxPatternSize()
+                            + " for " + rules.getName() + " rules\"}")
+                    .build();
+        }
+        return null;
+    }
+
+    /**
+     * Эндпоинт для получения сохранённого состояния незавершённой игры.
+     * Позволяет клиенту продолжить игру после перезапуска сервиса (нужен journal.enabled).
+     * Запрос выполняется в быстрой полосе.
+     *
+     * @param gameId идентификатор игры
+     * @param asyncResponse асинхронный ответ: доска игры или 404, если игра не найдена
+     */
+    @GET
+    @Path("/games/{gameId}")
+    public void getGame(@PathParam("gameId") long gameId, @Suspended AsyncResponse asyncResponse) {
+        dispatch(LaneScheduler.Lane.FAST, "game", null, null, asyncResponse, requestId -> {
+            BoardDto board = GameSessions.getInstance().snapshot(gameId);
+            if (board == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"error\":\"Game not found\"}")
+                        .build();
+            }
+            return Response.ok(board).build();
+        });
+    }
+
+    /**
+     * Передаёт обработку запроса в полосу обслуживания.
+     * Если очередь полосы заполнена, сразу отвечает 503 Service Unavailable.
+     * Любая ошибка обработчика (в том числе Error) завершает запрос ответом 500, а запрос,
+     * не получивший ответа за request.timeout.ms, завершается ответом 503:
+     * приостановленный ответ не остаётся висеть.
+     * Каждому запросу присваивается идентификатор (заголовок ответа X-Request-Id),
+     * а по завершении в асинхронный журнал пишется строка доступа.
+     *
+     * @param lane полоса обслуживания
+     * @param endpoint имя эндпоинта для журнала
+     * @param rules правила игры для журнала или null
+     * @param boardDto DTO доски для журнала или null
+     * @param asyncResponse асинхронный ответ
+     * @param handler обработчик, формирующий ответ по идентификатору запроса
+     * @return true, если запрос принят в очередь полосы
+     */
+    static boolean dispatch(LaneScheduler.Lane lane, String endpoint, String rules, BoardDto boardDto,
+                            AsyncResponse asyncResponse, LongFunction<Response> handler) {
+        long requestId = REQUEST_IDS.incrementAndGet();
+        long startNanos = System.nanoTime();
+        int size = (boardDto != null) ? boardDto.getSize() : 0;
+        asyncResponse.setTimeout(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        boolean accepted = LaneScheduler.submit(lane, () -> {
+            Response response;
+            try {
+                response = handler.apply(requestId);
+            } catch (Throwable e) {
+                AsyncLog.error(requestId, endpoint, rules, size, e);
+                response = Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity("{\"error\":\"Internal server error\"}")
+                        .build();
+            }
+            complete(asyncResponse, response, requestId, endpoint, rules, size, startNanos);
+        });
+        if (!accepted) {
+            complete(asyncResponse, Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("{\"error\":\"Server is overloaded, try again later\"}")
+                    .header("Retry-After", 1)
+                    .build(), requestId, endpoint, rules, size, startNanos);
+        }
+        return accepted;
+    }
+
+    /**
+     * Отправляет ответ клиенту и пишет строку журнала доступа.
+     *
+     * @param asyncResponse асинхронный ответ
+     * @param response сформированный ответ
+     * @param requestId идентификатор запроса
+     * @param endpoint имя эндпоинта
+     * @param rules правила игры или null
+     * @param size размер доски или 0
+     * @param startNanos время поступления запроса
+     */
+    private static void complete(AsyncResponse asyncResponse, Response response, long requestId,
+                                 String endpoint, String rules, int size, long startNanos) {
+        asyncResponse.resume(Response.fromResponse(response).header(REQUEST_ID_HEADER, requestId).build());
+        AsyncLog.access(requestId, endpoint, rules, size, response.getStatus(),
+                (System.nanoTime() - startNanos) / 1000);
+    }
+
+    /**
+     * Разбирает идентификатор игровой сессии из заголовка.
+     *
+     * @param header значение заголовка X-Game-Id или null
+     * @return идентификатор игры или null, если заголовок отсутствует или некорректен
+     */
+    private static Long parseGameId(String header) {
+        if (header == null) return null;
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Эндпоинт со снимком счётчиков сервиса.
+     *
+     * @return Response с JSON-объектом имя счётчика -> значение
+     */
+    @GET
+    @Path("/metrics")
+    public Response metrics() {
+        return Response.ok(ServiceMetrics.snapshot()).build();
+    }
+
+    /**
+     * Эндпоинт живой статистики партий по правилам и размеру доски:
+     * начатые и законченные партии, доли побед каждого цвета и ничьих, среднее количество ходов.
+     * Снимок не останавливает запись, см. {@link GameStats}.
+     *
+     * @return Response с JSON-массивом статистики
+     */
+    @GET
+    @Path("/stats")
+    public Response stats() {
+        return Response.ok(GameStats.snapshot()).build();
     }
 
     /**
      * Эндпоинт проверки здоровья сервиса.
+     * Запрос выполняется в быстрой полосе.
      *
-     * @return Response со статусом "OK"
+     * @param asyncResponse асинхронный ответ со статусом "OK"
      */
     @GET
     @Path("/health")
-    public Response health() {
-        return Response.ok("{\"status\":\"OK\"}").build();
+    public void health(@Suspended AsyncResponse asyncResponse) {
+        dispatch(LaneScheduler.Lane.FAST, "health", null, null, asyncResponse,
+                requestId -> Response.ok("{\"status\":\"OK\"}").build());
+    }
+
+    /**
+     * Эндпоинт готовности сервиса принимать трафик.
+     * В отличие от /health, отвечает 503, пока не закончен прогрев после запуска.
+     *
+     * @return Response со статусом "READY" или "WARMING_UP"
+     */
+    @GET
+    @Path("/ready")
+    public Response ready() {
+        if (!WarmUp.isReady()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("{\"status\":\"WARMING_UP\"}")
+                    .build();
+        }
+        return Response.ok("{\"status\":\"READY\"}").build();
     }
 }
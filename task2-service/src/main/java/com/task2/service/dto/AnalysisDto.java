@@ -0,0 +1,130 @@
+package com.task2.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO с анализом позиции: оценка каждой клетки доски для игрока, который ходит.
+ * Массивы хранятся по строкам: элемент y * size + x соответствует клетке (x, y).
+ */
+public class AnalysisDto {
+
+    /** Размер доски */
+    @JsonProperty("size")
+    private int size;
+
+    /** Цвет игрока, для которого оценены клетки ("w" или "b") */
+    @JsonProperty("nextPlayerColor")
+    private String nextPlayerColor;
+
+    /**
+     * Итоговая оценка клеток (тепловая карта); -1 для занятых клеток.
+     * 1000 - ход сразу выигрывает, 500 - ход обязателен для защиты,
+     * иначе сумма угроз и открытых квадратов через клетку.
+     */
+    @JsonProperty("scores")
+    private int[] scores;
+
+    /** Ход сразу образует квадрат */
+    @JsonProperty("wins")
+    private boolean[] wins;
+
+    /** Ход закрывает квадрат, который соперник образует следующим ходом */
+    @JsonProperty("blocks")
+    private boolean[] blocks;
+
+    /** Количество квадратов, в которых после хода будет 3 своих камня из 4 */
+    @JsonProperty("threats")
+    private int[] threats;
+
+    /** Лучший ход из кэша позиций, если позиция уже считалась, иначе null */
+    @JsonProperty("searchedMove")
+    private SimpleMoveDto searchedMove;
+
+    /** Оценка хода из кэша позиций или null */
+    @JsonProperty("searchScore")
+    private Integer searchScore;
+
+    /**
+     * Пустой конструктор, необходимый для сериализации/десериализации JSON.
+     */
+    public AnalysisDto() {}
+
+    /**
+     * Конструктор с инициализацией оценок клеток.
+     *
+     * @param size размер доски
+     * @param nextPlayerColor цвет игрока, который ходит
+     * @param scores итоговые оценки клеток
+     * @param wins выигрывающие ходы
+     * @param blocks обязательные защитные ходы
+     * @param threats количество создаваемых угроз
+     */
+    public AnalysisDto(int size, String nextPlayerColor, int[] scores, boolean[] wins,
+                       boolean[] blocks, int[] threats) {
+        this.size = size;
+        this.nextPlayerColor = nextPlayerColor;
+        this.scores = scores;
+        this.wins = wins;
+        this.blocks = blocks;
+        this.threats = threats;
+    }
+
+    /**
+     * Геттеры и Сеттеры для полей данного класса
+     */
+    public int getSize() {
+        return size;
+    }
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextPlayerColor() {
+        return nextPlayerColor;
+    }
+    public void setNextPlayerColor(String nextPlayerColor) {
+        this.nextPlayerColor = nextPlayerColor;
+    }
+
+    public int[] getScores() {
+        return scores;
+    }
+    public void setScores(int[] scores) {
+        this.scores = scores;
+    }
+
+    public boolean[] getWins() {
+        return wins;
+    }
+    public void setWins(boolean[] wins) {
+        this.wins = wins;
+    }
+
+    public boolean[] getBlocks() {
+        return blocks;
+    }
+    public void setBlocks(boolean[] blocks) {
+        this.blocks = blocks;
+    }
+
+    public int[] getThreats() {
+        return threats;
+    }
+    public void setThreats(int[] threats) {
+        this.threats = threats;
+    }
+
+    public SimpleMoveDto getSearchedMove() {
+        return searchedMove;
+    }
+    public void setSearchedMove(SimpleMoveDto searchedMove) {
+        this.searchedMove = searchedMove;
+    }
+
+    public Integer getSearchScore() {
+        return searchScore;
+    }
+    public void setSearchScore(Integer searchScore) {
+        this.searchScore = searchScore;
+    }
+}
@@ -0,0 +1,165 @@
+package com.task2.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO со статистикой партий для одних правил и одного размера доски (эндпоинт /api/stats).
+ */
+public class GameStatsDto {
+
+    /** Правила игры */
+    @JsonProperty("rules")
+    private String rules;
+
+    /** Размер доски */
+    @JsonProperty("size")
+    private int size;
+
+    /** Начато партий (запрос статуса после первого хода) */
+    @JsonProperty("started")
+    private long started;
+
+    /** Закончено партий (статус "finished") */
+    @JsonProperty("finished")
+    private long finished;
+
+    /** Победы белых */
+    @JsonProperty("whiteWins")
+    private long whiteWins;
+
+    /** Победы чёрных */
+    @JsonProperty("blackWins")
+    private long blackWins;
+
+    /** Ничьи */
+    @JsonProperty("draws")
+    private long draws;
+
+    /** Доля побед белых среди законченных партий */
+    @JsonProperty("whiteWinRate")
+    private double whiteWinRate;
+
+    /** Доля побед чёрных среди законченных партий */
+    @JsonProperty("blackWinRate")
+    private double blackWinRate;
+
+    /** Доля ничьих среди законченных партий */
+    @JsonProperty("drawRate")
+    private double drawRate;
+
+    /** Среднее количество ходов (фишек на доске) в законченной партии */
+    @JsonProperty("averageMoves")
+    private double averageMoves;
+
+    /**
+     * Пустой конструктор, необходимый для сериализации/десериализации JSON.
+     */
+    public GameStatsDto() {}
+
+    /**
+     * Конструктор по счётчикам; доли и среднее считаются из них.
+     *
+     * @param rules правила игры
+     * @param size размер доски
+     * @param started начато партий
+     * @param whiteWins победы белых
+     * @param blackWins победы чёрных
+     * @param draws ничьи
+     * @param moves сумма ходов законченных партий
+     */
+    public GameStatsDto(String rules, int size, long started, long whiteWins, long blackWins, long draws, long moves) {
+        this.rules = rules;
+        this.size = size;
+        this.started = started;
+        this.finished = whiteWins + blackWins + draws;
+        this.whiteWins = whiteWins;
+        this.blackWins = blackWins;
+        this.draws = draws;
+        if (finished > 0) {
+            this.whiteWinRate = (double) whiteWins / finished;
+            this.blackWinRate = (double) blackWins / finished;
+            this.drawRate = (double) draws / finished;
+            this.averageMoves = (double) moves / finished;
+        }
+    }
+
+    /**
+     * Геттеры и Сеттеры для полей данного класса
+     */
+    public String getRules() {
+        return rules;
+    }
+    public void setRules(String rules) {
+        this.rules = rules;
+    }
+
+    public int getSize() {
+        return size;
+    }
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+    public void setStarted(long started) {
+        this.started = started;
+    }
+
+    public long getFinished() {
+        return finished;
+    }
+    public void setFinished(long finished) {
+        this.finished = finished;
+    }
+
+    public long getWhiteWins() {
+        return whiteWins;
+    }
+    public void setWhiteWins(long whiteWins) {
+        this.whiteWins = whiteWins;
+    }
+
+    public long getBlackWins() {
+        return blackWins;
+    }
+    public void setBlackWins(long blackWins) {
+        this.blackWins = blackWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+    public void setDraws(long draws) {
+        this.draws = draws;
+    }
+
+    public double getWhiteWinRate() {
+        return whiteWinRate;
+    }
+    public void setWhiteWinRate(double whiteWinRate) {
+        this.whiteWinRate = whiteWinRate;
+    }
+
+    public double getBlackWinRate() {
+        return blackWinRate;
+    }
+    public void setBlackWinRate(double blackWinRate) {
+        this.blackWinRate = blackWinRate;
+    }
+
+    public double getDrawRate() {
+        return drawRate;
+    }
+    public void setDrawRate(double drawRate) {
+        this.drawRate = drawRate;
+    }
+
+    public double getAverageMoves() {
+        return averageMoves;
+    }
+    public void setAverageMoves(double averageMoves) {
+        this.averageMoves = averageMoves;
+    }
+}
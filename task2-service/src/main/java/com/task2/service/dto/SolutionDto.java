@@ -0,0 +1,96 @@
+package com.task2.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO с результатом поиска форсированного выигрыша для игрока, который ходит.
+ */
+public class SolutionDto {
+
+    /**
+     * Итог поиска:
+     * - "win" - форсированный выигрыш найден
+     * - "no_win" - выигрыша в пределах maxMoves нет
+     * - "unknown" - поиск остановлен по лимиту узлов или времени
+     */
+    @JsonProperty("status")
+    private String status;
+
+    /** Количество ходов игрока до победы (0, если выигрыш не найден) */
+    @JsonProperty("moves")
+    private int moves;
+
+    /** Выигрывающая линия: ходы обоих игроков по очереди, начиная с игрока, который ходит */
+    @JsonProperty("line")
+    private List<SimpleMoveDto> line;
+
+    /** Количество просмотренных позиций */
+    @JsonProperty("nodes")
+    private long nodes;
+
+    /** Время поиска в миллисекундах */
+    @JsonProperty("timeMs")
+    private long timeMs;
+
+    /**
+     * Пустой конструктор, необходимый для сериализации/десериализации JSON.
+     */
+    public SolutionDto() {}
+
+    /**
+     * Конструктор с инициализацией всех полей.
+     *
+     * @param status итог поиска
+     * @param moves количество ходов игрока до победы
+     * @param line выигрывающая линия
+     * @param nodes количество просмотренных позиций
+     * @param timeMs время поиска в миллисекундах
+     */
+    public SolutionDto(String status, int moves, List<SimpleMoveDto> line, long nodes, long timeMs) {
+        this.status = status;
+        this.moves = moves;
+        this.line = line;
+        this.nodes = nodes;
+        this.timeMs = timeMs;
+    }
+
+    /**
+     * Геттеры и Сеттеры для полей данного класса
+     */
+    public String getStatus() {
+        return status;
+    }
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+    public void setMoves(int moves) {
+        this.moves = moves;
+    }
+
+    public List<SimpleMoveDto> getLine() {
+        return line;
+    }
+    public void setLine(List<SimpleMoveDto> line) {
+        this.line = line;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+    public void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    public long getTimeMs() {
+        return timeMs;
+    }
+    public void setTimeMs(long timeMs) {
+        this.timeMs = timeMs;
+    }
+}
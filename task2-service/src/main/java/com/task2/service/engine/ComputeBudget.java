@@ -0,0 +1,116 @@
+package com.task2.service.engine;
+
+import com.task2.service.ServiceConfig;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Адаптивный бюджет вычислений компьютерного игрока.
+ * Для каждого уровня сложности в config.properties задаются бюджет без нагрузки
+ * (budget.&lt;уровень&gt;.idle, 0 - без ограничения: проверяются все клетки-кандидаты)
+ * и границы бюджета под нагрузкой (budget.&lt;уровень&gt;.min / budget.&lt;уровень&gt;.max) -
+ * количество симуляций хода. Пока давление нагрузки не выше {@link #RELAXED_PRESSURE},
+ * используется бюджет без нагрузки; при росте давления бюджет плавно (геометрически)
+ * уменьшается от верхней границы до нижней, которая достигается при давлении
+ * {@link #SATURATED_PRESSURE}. Нагрузка только уменьшает работу: бюджет без нагрузки
+ * не меньше верхней границы.
+ * Так при перегрузке каждый ход думает чуть меньше, а не все запросы стоят в очереди.
+ * Бюджет округляется вниз до степени двойки, чтобы число различных уровней было небольшим
+ * и одинаковые запросы под нагрузкой могли разделять одно вычисление.
+ */
+public final class ComputeBudget {
+
+    /** Давление, до которого бюджет не уменьшается */
+    static final double RELAXED_PRESSURE = 0.5;
+
+    /** Давление, при котором бюджет равен нижней границе */
+    static final double SATURATED_PRESSURE = 1.5;
+
+    /** Бюджет без ограничения: движок проверяет все клетки-кандидаты */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    /** Бюджеты без нагрузки по уровням сложности */
+    private static final Map<Difficulty, Integer> IDLE = new EnumMap<>(Difficulty.class);
+
+    /** Нижние границы бюджета по уровням сложности */
+    private static final Map<Difficulty, Integer> FLOORS = new EnumMap<>(Difficulty.class);
+
+    /** Верхние границы бюджета по уровням сложности */
+    private static final Map<Difficulty, Integer> CEILINGS = new EnumMap<>(Difficulty.class);
+
+    // Загружаем границы бюджета из конфигурации
+    static {
+        // Лёгкий уровень ограничен и без нагрузки: пропуск выигрыша - его сложность
+        loadLimits(Difficulty.EASY, 4, 16, 16);
+        loadLimits(Difficulty.NORMAL, 16, 256, 0);
+        loadLimits(Difficulty.HARD, 64, 4096, 0);
+    }
+
+    private ComputeBudget() {}
+
+    /**
+     * Выбирает бюджет для очередного хода по текущей нагрузке и записывает его в метрики.
+     *
+     * @param difficulty уровень сложности
+     * @return количество симуляций, разрешённое для хода
+     */
+    public static int select(Difficulty difficulty) {
+        int budget = forPressure(difficulty, LoadMonitor.getInstance().pressure());
+
+        ServiceMetrics.increment("budget." + difficulty.key() + ".requests");
+        if (budget == UNLIMITED) {
+            ServiceMetrics.increment("budget." + difficulty.key() + ".unlimited");
+        } else {
+            ServiceMetrics.add("budget." + difficulty.key() + ".total", budget);
+        }
+        if (budget < IDLE.get(difficulty)) {
+            ServiceMetrics.increment("budget." + difficulty.key() + ".reduced");
+        }
+        return budget;
+    }
+
+    /**
+     * Вычисляет бюджет для заданного давления нагрузки.
+     *
+     * @param difficulty уровень сложности
+     * @param pressure давление нагрузки
+     * @return бюджет без нагрузки ({@link #UNLIMITED}, если он не ограничен) или под нагрузкой -
+     *         количество симуляций между нижней и верхней границей уровня
+     */
+    static int forPressure(Difficulty difficulty, double pressure) {
+        if (pressure <= RELAXED_PRESSURE) {
+            return IDLE.get(difficulty);
+        }
+        int floor = FLOORS.get(difficulty);
+        int ceiling = CEILINGS.get(difficulty);
+
+        double t = (pressure - RELAXED_PRESSURE) / (SATURATED_PRESSURE - RELAXED_PRESSURE);
+        t = Math.min(1.0, t);
+
+        // Геометрическая интерполяция: каждая ступень давления срезает одинаковую долю бюджета
+        long budget = Math.round(ceiling * Math.pow((double) floor / ceiling, t));
+        if (budget < ceiling) {
+            budget = Long.highestOneBit(budget);
+        }
+        return (int) Math.max(floor, Math.min(ceiling, budget));
+    }
+
+    /**
+     * Загружает границы бюджета уровня сложности из конфигурации.
+     *
+     * @param difficulty уровень сложности
+     * @param defaultFloor нижняя граница по умолчанию
+     * @param defaultCeiling верхняя граница по умолчанию
+     * @param defaultIdle бюджет без нагрузки по умолчанию (0 - без ограничения)
+     */
+    private static void loadLimits(Difficulty difficulty, int defaultFloor, int defaultCeiling, int defaultIdle) {
+        int floor = Math.max(1, ServiceConfig.getInt("budget." + difficulty.key() + ".min", defaultFloor));
+        int ceiling = Math.max(floor, ServiceConfig.getInt("budget." + difficulty.key() + ".max", defaultCeiling));
+        int idle = ServiceConfig.getInt("budget." + difficulty.key() + ".idle", defaultIdle);
+        FLOORS.put(difficulty, floor);
+        CEILINGS.put(difficulty, ceiling);
+        IDLE.put(difficulty, (idle <= 0) ? UNLIMITED : Math.max(ceiling, idle));
+    }
+}
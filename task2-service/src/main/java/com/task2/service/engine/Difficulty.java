@@ -0,0 +1,37 @@
+package com.task2.service.engine;
+
+/**
+ * Уровень сложности компьютерного игрока.
+ * Определяет границы бюджета вычислений для одного хода.
+ */
+public enum Difficulty {
+    /** Лёгкий уровень: небольшой бюджет, компьютер часто пропускает выигрыш и блокировку */
+    EASY,
+
+    /** Обычный уровень (по умолчанию) */
+    NORMAL,
+
+    /** Сложный уровень: наибольший бюджет вычислений */
+    HARD;
+
+    /**
+     * Разбирает уровень сложности из строки запроса (регистр не важен).
+     *
+     * @param value строка уровня сложности или null
+     * @return уровень сложности; NORMAL, если значение не задано
+     * @throws IllegalArgumentException если значение не соответствует ни одному уровню
+     */
+    public static Difficulty parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return NORMAL;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    /**
+     * @return имя уровня в нижнем регистре, используется в конфигурации и метриках
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -1,21 +1,61 @@
 package com.task2.service.engine;
 
 import com.task1.console.Board;
-import com.task1.console.GameEngine;
+import com.task1.console.MoveService;
+import com.task1.console.Scratch;
+import com.task1.console.batch.BoardBatch;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+import com.task1.console.solver.ForcedWinSolver;
+import com.task1.console.solver.SolveResult;
+import com.task2.service.ServiceConfig;
+import com.task2.service.WarmUp;
+import com.task2.service.cache.PositionCache;
+import com.task2.service.dto.AnalysisDto;
 import com.task2.service.dto.BoardDto;
 import com.task2.service.dto.GameStatusDto;
 import com.task2.service.dto.SimpleMoveDto;
+import com.task2.service.dto.SolutionDto;
+import com.task2.service.jfr.BoardBuildEvent;
+import com.task2.service.jfr.Jfr;
+import com.task2.service.jfr.MoveSearchEvent;
+import com.task2.service.journal.GameSessions;
+import com.task2.service.metrics.ServiceMetrics;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 
 /**
- * Адаптер для использования консольного движка игры (GameEngine)
- * в контексте REST API. Позволяет вычислять следующий ход и
- * получать статус игры на основе данных, полученных через DTO.
+ * Адаптер для использования движка консольной игры в контексте REST API.
+ * Позволяет вычислять следующий ход и получать статус игры на основе данных,
+ * полученных через DTO. Ходы вычисляет общий {@link MoveService} без состояния,
+ * один на все запросы.
  */
 public class GameEngineAdapter {
 
+    /**
+     * Одновременные запросы с одинаковой позицией разделяют одно вычисление хода.
+     * Ключ - 64-битный хэш правил, бюджета, позиции и цвета (без строки размером с доску).
+     */
+    private static final SingleFlight<Long, int[]> MOVE_FLIGHTS = new SingleFlight<>();
+
+    /** Глубина поиска ИИ в полуходах: свой выигрыш этим ходом и выигрыш соперника следующим */
+    private static final int SEARCH_DEPTH = 2;
+
+    /** Анализатор позиций для тепловой карты ходов */
+    private static final PositionAnalyzer ANALYZER = new PositionAnalyzer();
+
+    /** Лимит узлов поиска форсированного выигрыша */
+    private static final long SOLVE_NODE_LIMIT =
+            Math.max(1, ServiceConfig.getInt("solve.node.limit", (int) ForcedWinSolver.DEFAULT_NODE_LIMIT));
+
+    /** Лимит времени поиска форсированного выигрыша, мс */
+    private static final long SOLVE_TIME_LIMIT_MILLIS =
+            Math.max(1, ServiceConfig.getInt("solve.time.limit.ms", (int) ForcedWinSolver.DEFAULT_TIME_LIMIT_MILLIS));
+
     /**
      * Вычисляет следующий ход для текущего игрока на основе состояния доски.
      *
@@ -24,37 +64,203 @@ public class GameEngineAdapter {
      *         либо null, если ходов нет или игра завершена
      */
     public SimpleMoveDto calculateNextMove(BoardDto boardDto) {
-        // Создаем доску из размера DTO
-        Board board = new Board(boardDto.getSize());
-        String data = boardDto.getData();
-        int index = 0;
-
-        // Заполняем доску текущим состоянием
-        for (int row = 0; row < boardDto.getSize(); row++) {
-            for (int col = 0; col < boardDto.getSize(); col++) {
-                if (index < data.length()) {
-                    char cell = data.charAt(index);
-                    if (cell == 'w' || cell == 'W') board.makeMove(col, row, 'W');
-                    else if (cell == 'b' || cell == 'B') board.makeMove(col, row, 'B');
-                }
-                index++;
-            }
-        }
+        return calculateNextMove(Rules.STANDARD, boardDto, null, Integer.MAX_VALUE);
+    }
 
-        // Инициализируем движок игры
-        GameEngine engine = new GameEngine();
-        char computerColor = boardDto.getNextPlayerColor().toUpperCase().charAt(0);
+    /**
+     * Вычисляет следующий ход для текущего игрока в рамках игровой сессии.
+     * Если ответ на эту позицию уже был посчитан заранее, он возвращается сразу.
+     * Одновременные запросы с одинаковыми правилами, позицией и цветом
+     * получают результат одного общего вычисления.
+     * После хода запускается фоновое обдумывание ответов на возможные ходы соперника.
+     * Если включён журнал сессий, новые камни доски и ход компьютера записываются в журнал.
+     *
+     * @param rules правила игры, см. {@link Rules}
+     * @param boardDto DTO с информацией о текущем состоянии доски
+     * @param gameId идентификатор игры или null, если запрос вне сессии
+     * @param budget бюджет вычислений (количество симуляций), см. {@link ComputeBudget}
+     * @return SimpleMoveDto с координатами хода и цветом игрока,
+     *         либо null, если ходов нет или игра завершена
+     */
+    public SimpleMoveDto calculateNextMove(RuleSet rules, BoardDto boardDto, Long gameId, int budget) {
+        // Загружаем доску из DTO в рабочую доску потока
+        Board board = loadScratchBoard(boardDto);
+        char computerColor = Character.toUpperCase(boardDto.getNextPlayerColor().charAt(0));
+        if (gameId != null) {
+            GameSessions.getInstance().update(gameId, board);
+        }
 
-        // Вычисляем следующий ход
-        int[] move = engine.computeNextComputerMove(board, computerColor);
+        // Проверяем заранее вычисленный ответ, иначе считаем ход
+        int[] move = (gameId != null) ? takePondered(rules, board, gameId, computerColor, budget) : null;
+        if (move == null) {
+            move = computeMove(rules, board, computerColor, budget);
+        }
 
         // Если ходов нет, возвращаем null
         if (move == null) return null;
 
+        // Пока соперник думает, считаем ответы на его возможные ходы
+        if (gameId != null) {
+            GameSessions.getInstance().recordMove(gameId, move[0], move[1], computerColor);
+            board.makeMove(move[0], move[1], computerColor);
+            Ponderer.getInstance().ponder(gameId, board, computerColor == 'W' ? 'B' : 'W', budget, rules);
+        }
+
         // Возвращаем DTO с информацией о ходе
         return new SimpleMoveDto(move[0], move[1], boardDto.getNextPlayerColor());
     }
 
+    /**
+     * Возвращает ответ, заранее вычисленный обдумыванием для этой позиции с теми же правилами и бюджетом.
+     *
+     * @param rules правила игры
+     * @param board текущая позиция
+     * @param gameId идентификатор игры
+     * @param computerColor цвет компьютера
+     * @param budget бюджет вычислений
+     * @return массив [X, Y] хода или null, если ответа нет
+     */
+    private int[] takePondered(RuleSet rules, Board board, long gameId, char computerColor, int budget) {
+        MoveSearchEvent search = beginSearch();
+        int[] move = Ponderer.getInstance().take(gameId, board, computerColor, budget, rules);
+        if (move != null) {
+            completeSearch(search, rules, board, budget, MoveSearchEvent.PONDER, 0);
+        }
+        return move;
+    }
+
+    /**
+     * Вычисляет ход движком, объединяя одинаковые одновременные запросы.
+     * Сначала ищет ход в постоянном кэше позиций. В кэш сохраняются только выигрывающие ходы:
+     * остальные ходы движка случайны (блокировка с вероятностью 30%, случайная клетка),
+     * и сохранённый случайный ход навсегда заменил бы случайный выбор в этой позиции.
+     * Пока сервис не прогрет, кэш не используется: синтетические позиции прогрева
+     * вытеснили бы из него настоящие записи.
+     * Ход, полученный от чужого вычисления, проверяется на своей доске: при совпадении хэшей
+     * разных позиций ход считается заново.
+     *
+     * @param rules правила игры
+     * @param board текущая позиция
+     * @param computerColor цвет компьютера
+     * @param budget бюджет вычислений
+     * @return массив [X, Y] хода или null, если ходов нет
+     */
+    private int[] computeMove(RuleSet rules, Board board, char computerColor, int budget) {
+        // Событие не покидает метод: пока запись JFR выключена, JIT убирает его целиком
+        MoveSearchEvent search = beginSearch();
+        PositionCache cache = PositionCache.getInstance();
+        long hash = PositionCache.hash(rules.getName(), board, computerColor);
+        int depth = PositionCache.depthForBudget(budget);
+        boolean useCache = cache.isEnabled() && WarmUp.isReady();
+        if (useCache) {
+            long cached = cache.probe(hash, depth);
+            // Занятая клетка - запись другой позиции с тем же хэшем
+            if (cached != PositionCache.MISS
+                    && board.getCell(PositionCache.moveX(cached), PositionCache.moveY(cached)) == '.') {
+                completeSearch(search, rules, board, budget, MoveSearchEvent.CACHE, 0);
+                return new int[] {PositionCache.moveX(cached), PositionCache.moveY(cached)};
+            }
+        }
+
+        long key = hash * 0x9E3779B97F4A7C15L + budget;
+        SingleFlight.Result<int[]> result = MOVE_FLIGHTS.execute(key,
+                () -> MoveService.getInstance().nextMove(board, computerColor, budget, rules));
+
+        int[] move = result.getValue();
+        if (result.isCoalesced() && move != null && board.getCell(move[0], move[1]) != '.') {
+            // Другая позиция с тем же хэшем
+            move = MoveService.getInstance().nextMove(board, computerColor, budget, rules);
+            ServiceMetrics.increment("nextMove.computed");
+            completeSearch(search, rules, board, budget, MoveSearchEvent.COMPUTED, Scratch.get().getSimulations());
+            return move;
+        }
+        ServiceMetrics.increment(result.isCoalesced() ? "nextMove.coalesced" : "nextMove.computed");
+        if (result.isCoalesced()) {
+            completeSearch(search, rules, board, budget, MoveSearchEvent.COALESCED, 0);
+        } else {
+            completeSearch(search, rules, board, budget, MoveSearchEvent.COMPUTED, Scratch.get().getSimulations());
+        }
+        if (useCache && move != null && !result.isCoalesced()
+                && rules.wouldComplete(board, move[0], move[1], computerColor)) {
+            cache.store(hash, move[0], move[1], PositionCache.SCORE_WIN, depth);
+        }
+        return move;
+    }
+
+    /**
+     * Начинает событие выбора хода.
+     *
+     * @return начатое событие или null, если в JVM нет JFR
+     */
+    private static MoveSearchEvent beginSearch() {
+        if (!Jfr.AVAILABLE) {
+            return null;
+        }
+        MoveSearchEvent search = new MoveSearchEvent();
+        search.begin();
+        return search;
+    }
+
+    /**
+     * Записывает событие выбора хода, начатое {@link #beginSearch()}.
+     *
+     * @param search событие или null, если в JVM нет JFR
+     * @param rules правила игры
+     * @param board текущая позиция
+     * @param budget бюджет вычислений
+     * @param source откуда взят ход
+     * @param nodes количество симуляций
+     */
+    private static void completeSearch(MoveSearchEvent search, RuleSet rules, Board board, int budget,
+                                       String source, long nodes) {
+        if (search != null) {
+            search.complete(rules.getName(), board.size, budget, source, nodes, SEARCH_DEPTH);
+        }
+    }
+
+    /**
+     * Оценивает все свободные клетки позиции для игрока, который ходит.
+     *
+     * @param rules правила игры
+     * @param boardDto DTO с информацией о текущем состоянии доски
+     * @return AnalysisDto с тепловой картой оценок клеток
+     */
+    public AnalysisDto analyze(RuleSet rules, BoardDto boardDto) {
+        Board board = createBoardFromDto(boardDto);
+        char color = boardDto.getNextPlayerColor().toUpperCase().charAt(0);
+        return ANALYZER.analyze(rules, board, color);
+    }
+
+    /**
+     * Ищет форсированный выигрыш игрока, который ходит, не более чем за maxMoves его ходов.
+     * Поиск ограничен по узлам (solve.node.limit) и времени (solve.time.limit.ms).
+     *
+     * @param rules правила игры
+     * @param boardDto DTO с информацией о текущем состоянии доски
+     * @param maxMoves наибольшее количество ходов до победы
+     * @return SolutionDto с итогом поиска и выигрывающей линией
+     * @throws IllegalArgumentException если на доске уже есть квадрат
+     */
+    public SolutionDto solve(RuleSet rules, BoardDto boardDto, int maxMoves) {
+        Board board = createBoardFromDto(boardDto);
+        char color = boardDto.getNextPlayerColor().toUpperCase().charAt(0);
+        SolveResult result = new ForcedWinSolver(rules, SOLVE_NODE_LIMIT, SOLVE_TIME_LIMIT_MILLIS)
+                .solve(board, color, maxMoves);
+
+        String status = result.getStatus().name().toLowerCase();
+        ServiceMetrics.increment("solve." + status);
+        String[] colors = {
+                String.valueOf(Character.toLowerCase(color)),
+                (color == 'W') ? "b" : "w"
+        };
+        List<SimpleMoveDto> line = new ArrayList<>();
+        for (int i = 0; i < result.getLine().size(); i++) {
+            int[] move = result.getLine().get(i);
+            line.add(new SimpleMoveDto(move[0], move[1], colors[i % 2]));
+        }
+        return new SolutionDto(status, result.getMoves(), line, result.getNodes(), result.getElapsedMillis());
+    }
+
     /**
      * Создает объект Board на основе DTO.
      *
@@ -62,24 +268,28 @@ public class GameEngineAdapter {
      * @return объект Board, полностью инициализированный текущими ходами
      */
     private Board createBoardFromDto(BoardDto dto) {
+        BoardBuildEvent event = Jfr.AVAILABLE ? new BoardBuildEvent() : null;
+        if (event != null) event.begin();
         Board board = new Board(dto.getSize());
-        String data = dto.getData();
-        int index = 0;
-
-        for (int row = 0; row < dto.getSize(); row++) {
-            for (int col = 0; col < dto.getSize(); col++) {
-                if (index < data.length()) {
-                    char cell = data.charAt(index);
-                    if (cell == 'w' || cell == 'W') {
-                        board.makeMove(col, row, 'W');
-                    } else if (cell == 'b' || cell == 'B') {
-                        board.makeMove(col, row, 'B');
-                    }
-                }
-                index++;
-            }
-        }
+        board.load(dto.getData());
+        if (event != null) event.complete(board.size, false);
+        return board;
+    }
 
+    /**
+     * Загружает доску из DTO в рабочую доску текущего потока ({@link Scratch}); для досок,
+     * которые хранит Scratch, выделение памяти фиксировано и не зависит от размера доски.
+     * Доска годится только до конца запроса: её нельзя сохранять или передавать другим потокам.
+     *
+     * @param dto DTO с состоянием доски
+     * @return рабочая доска потока с текущими ходами
+     */
+    private Board loadScratchBoard(BoardDto dto) {
+        BoardBuildEvent event = Jfr.AVAILABLE ? new BoardBuildEvent() : null;
+        if (event != null) event.begin();
+        Board board = Scratch.get().board(dto.getSize());
+        board.load(dto.getData());
+        if (event != null) event.complete(board.size, board.size <= Scratch.MAX_SIZE);
         return board;
     }
 
@@ -91,11 +301,86 @@ public class GameEngineAdapter {
      * @return GameStatusDto с информацией о статусе игры и результате
      */
     public GameStatusDto getGameStatus(BoardDto dto) {
-        Board board = createBoardFromDto(dto);
+        return getGameStatus(Rules.STANDARD, dto, null);
+    }
 
-        if (board.hasSquare('W')) {
+    /**
+     * Получает текущий статус игры в рамках игровой сессии.
+     * Для завершённой игры отменяет фоновое обдумывание её ходов и закрывает её в журнале сессий.
+     *
+     * @param rules правила игры
+     * @param dto DTO с текущим состоянием доски
+     * @param gameId идентификатор игры или null, если запрос вне сессии
+     * @return GameStatusDto с информацией о статусе игры и результате
+     */
+    public GameStatusDto getGameStatus(RuleSet rules, BoardDto dto, Long gameId) {
+        Board board = loadScratchBoard(dto);
+        GameStatusDto status = computeGameStatus(rules, board);
+        if (gameId != null) {
+            GameSessions.getInstance().update(gameId, board);
+            if ("finished".equals(status.getStatus())) {
+                Ponderer.getInstance().cancel(gameId);
+                GameSessions.getInstance().finish(gameId);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Определяет статусы многих позиций сразу (без игровых сессий).
+     * Доски одного размера загружаются в один {@link BoardBatch}, и квадраты проверяются
+     * во всех позициях одновременно; результат для каждой позиции тот же, что у
+     * {@link #getGameStatus(RuleSet, BoardDto, Long)}. Правила full проверяются по одной доске:
+     * их таблица квадратов растёт как N^4, а проверка через индекс - только с количеством фишек.
+     *
+     * @param rules правила игры
+     * @param boards DTO досок
+     * @return статусы в порядке досок
+     */
+    public List<GameStatusDto> getGameStatuses(RuleSet rules, List<BoardDto> boards) {
+        GameStatusDto[] statuses = new GameStatusDto[boards.size()];
+        if (rules == Rules.FULL) {
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = computeGameStatus(rules, loadScratchBoard(boards.get(i)));
+            }
+            return Arrays.asList(statuses);
+        }
+
+        // Номера досок по размерам
+        Map<Integer, List<Integer>> bySize = new LinkedHashMap<>();
+        for (int i = 0; i < statuses.length; i++) {
+            bySize.computeIfAbsent(boards.get(i).getSize(), size -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<Integer, List<Integer>> group : bySize.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            BoardBatch batch = new BoardBatch(rules, group.getKey(), indexes.size());
+            for (int g = 0; g < indexes.size(); g++) {
+                batch.load(g, boards.get(indexes.get(g)).getData());
+            }
+            long[] white = batch.squares('W', new long[batch.getWords()]);
+            long[] black = batch.squares('B', new long[batch.getWords()]);
+            long[] full = batch.full(new long[batch.getWords()]);
+            for (int g = 0; g < indexes.size(); g++) {
+                statuses[indexes.get(g)] = BoardBatch.isSet(white, g) ? new GameStatusDto("finished", "W wins")
+                        : BoardBatch.isSet(black, g) ? new GameStatusDto("finished", "B wins")
+                        : BoardBatch.isSet(full, g) ? new GameStatusDto("finished", "Draw")
+                        : new GameStatusDto("ongoing", null);
+            }
+        }
+        return Arrays.asList(statuses);
+    }
+
+    /**
+     * Определяет статус игры по состоянию доски.
+     *
+     * @param rules правила игры
+     * @param board доска с текущим состоянием
+     * @return GameStatusDto с информацией о статусе игры и результате
+     */
+    private GameStatusDto computeGameStatus(RuleSet rules, Board board) {
+        if (rules.hasSquare(board, 'W')) {
             return new GameStatusDto("finished", "W wins");
-        } else if (board.hasSquare('B')) {
+        } else if (rules.hasSquare(board, 'B')) {
             return new GameStatusDto("finished", "B wins");
         } else if (board.isFull()) {
             return new GameStatusDto("finished", "Draw");
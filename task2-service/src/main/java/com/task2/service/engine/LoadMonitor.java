@@ -0,0 +1,135 @@
+package com.task2.service.engine;
+
+import com.task2.service.ServiceConfig;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сбор сигналов нагрузки сервиса для адаптивного бюджета вычислений.
+ * Учитываются три сигнала:
+ * - количество запросов хода, выполняющихся одновременно (глубина очереди);
+ * - 95-й перцентиль времени обработки последних запросов хода;
+ * - загрузка процессора процессом сервиса.
+ * Каждый сигнал нормируется к своему порогу из config.properties,
+ * итоговое давление - максимум из нормированных сигналов.
+ */
+public final class LoadMonitor {
+
+    /** Количество последних запросов, по которым считается перцентиль */
+    private static final int WINDOW = 256;
+
+    /** Как часто пересчитываются перцентиль и загрузка процессора */
+    private static final long REFRESH_NANOS = 100_000_000L;
+
+    /** Порог одновременных запросов хода, соответствующий давлению 1.0 */
+    private static final int QUEUE_THRESHOLD = ServiceConfig.getInt("load.queue.threshold",
+            Runtime.getRuntime().availableProcessors() * 2);
+
+    /** Порог p95 времени обработки (мс), соответствующий давлению 1.0 */
+    private static final int LATENCY_TARGET_MS = ServiceConfig.getInt("load.latency.target.ms", 100);
+
+    /** Единственный экземпляр, общий для всех запросов */
+    private static final LoadMonitor INSTANCE = new LoadMonitor();
+
+    /** Запросы хода, выполняющиеся в данный момент */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Кольцевой буфер последних времён обработки в наносекундах (запись без блокировок, для оценки этого достаточно) */
+    private final long[] latencies = new long[WINDOW];
+
+    /** Позиция записи в кольцевой буфер */
+    private final AtomicInteger latencyIndex = new AtomicInteger();
+
+    /** Время последнего пересчёта медленных сигналов */
+    private final AtomicLong lastRefresh = new AtomicLong();
+
+    /** Последний вычисленный p95 в наносекундах */
+    private volatile long p95Nanos;
+
+    /** Последняя измеренная загрузка процессора (0..1) */
+    private volatile double cpuLoad;
+
+    /** Системный MXBean для получения загрузки процессора */
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private LoadMonitor() {
+        ServiceMetrics.gauge("load.inFlight", inFlight::get);
+        ServiceMetrics.gauge("load.p95.micros", () -> p95Nanos / 1000);
+        ServiceMetrics.gauge("load.cpu.percent", () -> Math.round(cpuLoad * 100));
+    }
+
+    /**
+     * Возвращает общий экземпляр LoadMonitor.
+     *
+     * @return экземпляр LoadMonitor
+     */
+    public static LoadMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Отмечает начало обработки запроса хода.
+     *
+     * @return время начала в наносекундах, передаётся в {@link #finish(long)}
+     */
+    public long start() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Отмечает завершение обработки запроса хода и запоминает время обработки.
+     *
+     * @param startNanos время начала, полученное из {@link #start()}
+     */
+    public void finish(long startNanos) {
+        inFlight.decrementAndGet();
+        int index = latencyIndex.getAndIncrement() & (WINDOW - 1);
+        latencies[index] = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Вычисляет текущее давление нагрузки.
+     * Значение около 0 - сервис свободен, 1.0 - один из сигналов достиг порога.
+     *
+     * @return давление нагрузки (не меньше 0)
+     */
+    public double pressure() {
+        refreshIfStale();
+        double queue = (double) inFlight.get() / Math.max(1, QUEUE_THRESHOLD);
+        double latency = p95Nanos / (LATENCY_TARGET_MS * 1_000_000.0);
+        return Math.max(queue, Math.max(latency, cpuLoad));
+    }
+
+    /**
+     * Пересчитывает перцентиль и загрузку процессора не чаще раза в REFRESH_NANOS.
+     */
+    private void refreshIfStale() {
+        long now = System.nanoTime();
+        long last = lastRefresh.get();
+        if (now - last < REFRESH_NANOS || !lastRefresh.compareAndSet(last, now)) {
+            return;
+        }
+
+        int recorded = latencyIndex.get();
+        int count = (recorded < 0 || recorded > WINDOW) ? WINDOW : recorded;
+        if (count > 0) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+
+        // Загрузка процессора именно этой JVM; если она недоступна - средняя загрузка системы
+        double load = (os instanceof com.sun.management.OperatingSystemMXBean)
+                ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad()
+                : os.getSystemLoadAverage() / os.getAvailableProcessors();
+        if (load >= 0) {
+            cpuLoad = load;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.task2.service.engine;
+
+import com.task1.console.Board;
+import com.task1.console.MoveService;
+import com.task1.console.rules.RuleSet;
+import com.task2.service.ServiceConfig;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновое обдумывание ("pondering") ответов компьютера, пока человек думает над своим ходом.
+ * После хода компьютера в игре с идентификатором сессии движок заранее вычисляет
+ * ответы на наиболее вероятные ходы человека (на маленьких досках - на все ходы).
+ * Когда реальный ход приходит и ответ на него уже посчитан, он возвращается сразу;
+ * ответ выдаётся, только если правила и бюджет запроса те же, с которыми он посчитан.
+ *
+ * Спекулятивная работа выполняется в отдельном пуле из ponder.threads потоков (по умолчанию
+ * одного). Минимальный приоритет потока - лишь подсказка, которую JVM на Linux по умолчанию
+ * игнорирует, поэтому процессорное время у запросов отнимает не больше ponder.threads ядер:
+ * только размер пула ограничивает конкуренцию с потоками запросов. Одна задача на сессию, которая ограничена по числу ответов и отменяется при следующем
+ * запросе той же сессии; общая очередь задач ограничена. Поток запроса только копирует
+ * позицию и ставит задачу: ходы-кандидаты выбирает и перебирает на одной рабочей доске
+ * фоновый поток, а ответ находится по клетке хода человека, без построения ключа позиции.
+ * Сессий хранится не больше ponder.max.sessions: при переполнении вытесняется сессия,
+ * к которой дольше всех не обращались (брошенные игры не отключают обдумывание для новых).
+ * Пул потоков создаётся при первом обращении к классу, то есть только
+ * если сервису действительно пришёл запрос с идентификатором сессии.
+ */
+public class Ponderer {
+
+    /** Количество потоков для фоновых вычислений */
+    private static final int THREADS = ServiceConfig.getInt("ponder.threads", 1);
+
+    /** Максимальный размер общей очереди спекулятивных задач */
+    private static final int QUEUE_CAPACITY = ServiceConfig.getInt("ponder.queue.capacity", 256);
+
+    /** Максимальное количество обдумываемых ходов человека на одну сессию */
+    private static final int MAX_TASKS_PER_SESSION = ServiceConfig.getInt("ponder.max.tasks.per.session", 32);
+
+    /** Максимальное количество одновременно обдумываемых сессий */
+    private static final int MAX_SESSIONS = ServiceConfig.getInt("ponder.max.sessions", 1024);
+
+    /** Доски с таким числом свободных клеток и меньше обдумываются полностью */
+    private static final int FULL_PONDER_FREE_CELLS = ServiceConfig.getInt("ponder.full.free.cells", 25);
+
+    /**
+     * Пул потоков обдумывания; при полной очереди задача отклоняется. Минимальный приоритет
+     * действует не на всех платформах, поэтому нагрузку ограничивает только число потоков.
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ponder-worker");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    /** Единственный экземпляр, общий для всех запросов */
+    private static final Ponderer INSTANCE = new Ponderer();
+
+    /** Активные сессии обдумывания по идентификатору игры */
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    private Ponderer() {}
+
+    /**
+     * Возвращает общий экземпляр Ponderer.
+     *
+     * @return экземпляр Ponderer
+     */
+    public static Ponderer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Забирает заранее вычисленный ответ для позиции, если он есть.
+     * Любой запрос сессии отменяет её незавершённую спекулятивную работу.
+     * Ответы, посчитанные с другими правилами или другим бюджетом, не выдаются.
+     *
+     * @param gameId идентификатор игры
+     * @param board текущая позиция (после хода человека)
+     * @param color цвет компьютера
+     * @param budget бюджет вычислений текущего запроса
+     * @param rules правила текущего запроса
+     * @return массив [X, Y] заранее вычисленного хода или null
+     */
+    public int[] take(long gameId, Board board, char color, int budget, RuleSet rules) {
+        Session session = sessions.remove(gameId);
+        if (session == null) return null;
+
+        session.cancel();
+        if (session.rules != rules || session.budget != budget) {
+            ServiceMetrics.increment("ponder.mismatch");
+            return null;
+        }
+        int cell = session.humanMove(board, color);
+        if (cell < 0) return null;
+
+        int count = session.replyCount;
+        long[] replies = session.replies;
+        for (int i = 0; i < count; i++) {
+            if ((int) (replies[i] >>> 32) == cell) {
+                int reply = (int) replies[i];
+                ServiceMetrics.increment("ponder.hits");
+                return new int[] {reply % board.size, reply / board.size};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Запускает фоновое вычисление ответов на возможные ходы человека.
+     * Поток запроса копирует позицию один раз; остальная работа выполняется в пуле.
+     *
+     * @param gameId идентификатор игры
+     * @param board позиция после хода компьютера
+     * @param humanColor цвет человека, который ходит следующим
+     * @param budget бюджет вычислений для каждого ответа (количество симуляций)
+     * @param rules правила игры
+     */
+    public void ponder(long gameId, Board board, char humanColor, int budget, RuleSet rules) {
+        if (rules.hasSquare(board, 'W') || rules.hasSquare(board, 'B')) return;
+
+        Session session = new Session(new Board(board), humanColor, budget, rules);
+        Session previous = sessions.put(gameId, session);
+        if (previous != null) {
+            previous.cancel();
+        } else if (sessions.size() > MAX_SESSIONS) {
+            evictLeastRecentlyUsed(gameId);
+        }
+
+        try {
+            session.future = EXECUTOR.submit(() -> think(session));
+            ServiceMetrics.increment("ponder.tasks");
+        } catch (RejectedExecutionException e) {
+            // Общая очередь заполнена: эта позиция не обдумывается
+            ServiceMetrics.increment("ponder.rejected");
+        }
+    }
+
+    /**
+     * Вычисляет ответы компьютера на ходы-кандидаты человека. Выполняется в фоновом потоке:
+     * каждый ход ставится на одну рабочую копию позиции и снимается после вычисления ответа.
+     *
+     * @param session сессия обдумывания
+     */
+    private static void think(Session session) {
+        if (session.cancelled) return;
+        RuleSet rules = session.rules;
+        int budget = session.budget;
+        Board afterHuman = new Board(session.position);
+        List<int[]> candidates = selectCandidates(afterHuman);
+        long[] replies = new long[candidates.size()];
+        session.replies = replies;
+
+        int size = afterHuman.size;
+        char humanColor = session.humanColor;
+        char computerColor = (humanColor == 'W') ? 'B' : 'W';
+        int count = 0;
+        for (int[] cell : candidates) {
+            if (session.cancelled) return;
+            int x = cell[0];
+            int y = cell[1];
+            afterHuman.grid[y][x] = humanColor;
+            if (!rules.completesSquare(afterHuman, x, y) && !afterHuman.isFull()) {
+                int[] reply = MoveService.getInstance().nextMove(afterHuman, computerColor, budget, rules);
+                if (reply != null) {
+                    replies[count] = ((long) (y * size + x) << 32) | (reply[1] * size + reply[0]);
+                    session.replyCount = ++count;
+                }
+            }
+            afterHuman.grid[y][x] = '.';
+        }
+    }
+
+    /**
+     * Отменяет фоновую работу для игры и забывает её сессию.
+     *
+     * @param gameId идентификатор игры
+     */
+    public void cancel(long gameId) {
+        Session session = sessions.remove(gameId);
+        if (session != null) {
+            session.cancel();
+        }
+    }
+
+    /**
+     * Вытесняет сессию, которая дольше всех не обновлялась (кроме только что созданной).
+     * Сессия обновляется при каждом ходе компьютера, поэтому вытесняются прежде всего брошенные игры.
+     *
+     * @param keep идентификатор игры, сессию которой вытеснять нельзя
+     */
+    private void evictLeastRecentlyUsed(long keep) {
+        while (sessions.size() > MAX_SESSIONS) {
+            Map.Entry<Long, Session> oldest = null;
+            for (Map.Entry<Long, Session> entry : sessions.entrySet()) {
+                if (entry.getKey() != keep
+                        && (oldest == null || entry.getValue().createdNanos - oldest.getValue().createdNanos < 0)) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) return;
+            if (sessions.remove(oldest.getKey(), oldest.getValue())) {
+                oldest.getValue().cancel();
+                ServiceMetrics.increment("ponder.evicted");
+            }
+        }
+    }
+
+    /**
+     * @return количество хранимых сессий обдумывания
+     */
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @param gameId идентификатор игры
+     * @return количество готовых ответов сессии игры или -1, если сессии нет
+     */
+    int replyCount(long gameId) {
+        Session session = sessions.get(gameId);
+        return (session != null) ? session.replyCount : -1;
+    }
+
+    /**
+     * Ждёт, пока будет выполнена задача сессии игры.
+     *
+     * @param gameId идентификатор игры
+     * @param timeoutMillis наибольшее время ожидания, мс
+     * @throws Exception если задача завершилась с ошибкой или не успела выполниться
+     */
+    void awaitSession(long gameId, long timeoutMillis) throws Exception {
+        Session session = sessions.get(gameId);
+        Future<?> future = (session != null) ? session.future : null;
+        if (future != null) {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Выбирает ходы человека для обдумывания.
+     * На маленьких досках берутся все свободные клетки, иначе - ближайшие к уже
+     * стоящим фишкам (квадрат может замкнуть только клетка рядом с другими фишками).
+     *
+     * @param board текущая позиция
+     * @return список координат [x, y], не длиннее лимита на сессию
+     */
+    private static List<int[]> selectCandidates(Board board) {
+        List<int[]> freeCells = board.getFreeCells();
+        if (freeCells.size() <= FULL_PONDER_FREE_CELLS) {
+            return freeCells.size() <= MAX_TASKS_PER_SESSION
+                    ? freeCells : freeCells.subList(0, MAX_TASKS_PER_SESSION);
+        }
+
+        List<int[]> candidates = new ArrayList<>();
+        for (int distance = 1; distance <= 2 && candidates.size() < MAX_TASKS_PER_SESSION; distance++) {
+            for (int[] cell : freeCells) {
+                if (nearestStone(board, cell[0], cell[1]) == distance) {
+                    candidates.add(cell);
+                    if (candidates.size() == MAX_TASKS_PER_SESSION) break;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Находит расстояние (по Чебышёву, не больше 3) от клетки до ближайшей фишки.
+     *
+     * @param board текущая позиция
+     * @param x координата X
+     * @param y координата Y
+     * @return расстояние до ближайшей фишки или 3, если рядом фишек нет
+     */
+    private static int nearestStone(Board board, int x, int y) {
+        int best = 3;
+        for (int dy = -2; dy <= 2; dy++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                char cell = board.getCell(x + dx, y + dy);
+                if (cell == 'W' || cell == 'B') {
+                    best = Math.min(best, Math.max(Math.abs(dx), Math.abs(dy)));
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Спекулятивная работа одной игры: позиция, правила и бюджет, задача и готовые ответы.
+     */
+    private static class Session {
+
+        /** Позиция после хода компьютера; копия, которую не меняет никто */
+        private final Board position;
+
+        /** Цвет человека, ход которого обдумывается */
+        private final char humanColor;
+
+        /** Бюджет вычислений каждого ответа */
+        private final int budget;
+
+        /** Правила, по которым считаются ответы */
+        private final RuleSet rules;
+
+        /** Время создания сессии (последнего хода компьютера) по System.nanoTime() */
+        private final long createdNanos = System.nanoTime();
+
+        /** Задача обдумывания или null, если она не поставлена в очередь */
+        private volatile Future<?> future;
+
+        /**
+         * Готовые ответы: в старших 32 битах - клетка хода человека (y * size + x),
+         * в младших - клетка ответа. Массив создаёт и заполняет фоновый поток.
+         */
+        private volatile long[] replies;
+
+        /** Количество готовых ответов; записывается после ответа, поэтому публикует его */
+        private volatile int replyCount;
+
+        /** Флаг отмены, проверяется задачей перед каждым вычислением */
+        private volatile boolean cancelled;
+
+        Session(Board position, char humanColor, int budget, RuleSet rules) {
+            this.position = position;
+            this.humanColor = humanColor;
+            this.budget = budget;
+            this.rules = rules;
+        }
+
+        /**
+         * Находит ход человека, которым присланная позиция продолжает позицию сессии.
+         *
+         * @param board позиция после хода человека
+         * @param color цвет компьютера
+         * @return клетка хода (y * size + x) или -1, если позиция отличается не одним ходом человека
+         */
+        private int humanMove(Board board, char color) {
+            if (board.size != position.size || color == humanColor) return -1;
+            int move = -1;
+            for (int y = 0; y < board.size; y++) {
+                char[] row = board.grid[y];
+                char[] before = position.grid[y];
+                for (int x = 0; x < board.size; x++) {
+                    if (row[x] == before[x]) continue;
+                    if (move >= 0 || before[x] != '.' || row[x] != humanColor) return -1;
+                    move = y * board.size + x;
+                }
+            }
+            return move;
+        }
+
+        /**
+         * Отменяет незавершённую задачу сессии.
+         */
+        private void cancel() {
+            cancelled = true;
+            Future<?> task = future;
+            if (task != null && task.cancel(false)) {
+                EXECUTOR.purge();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.task2.service.engine;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.SquarePatterns;
+import com.task2.service.cache.PositionCache;
+import com.task2.service.dto.AnalysisDto;
+import com.task2.service.dto.SimpleMoveDto;
+
+/**
+ * Анализ позиции за один проход: оценка каждой свободной клетки.
+ * Сначала для каждого квадрата из таблицы {@link SquarePatterns} правил считается количество
+ * своих и чужих камней, затем оценки квадратов суммируются по их клеткам.
+ * Доска не копируется, ходы не симулируются: время линейно по количеству квадратов.
+ */
+public class PositionAnalyzer {
+
+    /** Оценка выигрывающего хода */
+    private static final int WIN_SCORE = 1000;
+
+    /** Оценка обязательного защитного хода */
+    private static final int BLOCK_SCORE = 500;
+
+    /** Вес собственной угрозы (квадрат с двумя своими камнями и без чужих) */
+    private static final int THREAT_WEIGHT = 20;
+
+    /** Вес угрозы соперника, которую закрывает ход */
+    private static final int OPPONENT_THREAT_WEIGHT = 10;
+
+    /**
+     * Оценивает все клетки доски для игрока, который ходит.
+     *
+     * @param rules правила игры
+     * @param board позиция
+     * @param color цвет игрока, который ходит ('W' или 'B')
+     * @return DTO с тепловой картой
+     */
+    public AnalysisDto analyze(RuleSet rules, Board board, char color) {
+        int size = board.size;
+        char opponent = (color == 'W') ? 'B' : 'W';
+        SquarePatterns patterns = rules.patterns(size);
+
+        // Камни в каждом квадрате: own - свои, other - соперника
+        int squareCount = patterns.getSquareCount();
+        int[] own = new int[squareCount];
+        int[] other = new int[squareCount];
+        for (int i = 0; i < squareCount; i++) {
+            for (int cell : patterns.getSquare(i)) {
+                char stone = board.grid[cell / size][cell % size];
+                if (stone == color) own[i]++;
+                else if (stone == opponent) other[i]++;
+            }
+        }
+
+        int[] scores = new int[size * size];
+        boolean[] wins = new boolean[size * size];
+        boolean[] blocks = new boolean[size * size];
+        int[] threats = new int[size * size];
+
+        for (int cell = 0; cell < size * size; cell++) {
+            if (board.grid[cell / size][cell % size] != '.') {
+                scores[cell] = -1;
+                continue;
+            }
+            int potential = 0;
+            int opponentThreats = 0;
+            for (int square : patterns.getSquaresOf(cell)) {
+                if (other[square] == 0) {
+                    if (own[square] == 3) wins[cell] = true;
+                    else if (own[square] == 2) threats[cell]++;
+                    potential++;
+                }
+                if (own[square] == 0) {
+                    if (other[square] == 3) blocks[cell] = true;
+                    else if (other[square] == 2) opponentThreats++;
+                    potential++;
+                }
+            }
+            if (wins[cell]) {
+                scores[cell] = WIN_SCORE;
+            } else if (blocks[cell]) {
+                scores[cell] = BLOCK_SCORE;
+            } else {
+                scores[cell] = THREAT_WEIGHT * threats[cell] + OPPONENT_THREAT_WEIGHT * opponentThreats + potential;
+            }
+        }
+
+        AnalysisDto analysis = new AnalysisDto(size, String.valueOf(Character.toLowerCase(color)),
+                scores, wins, blocks, threats);
+
+        // Если позиция уже считалась движком, добавляем его ход
+        PositionCache cache = PositionCache.getInstance();
+        if (cache.isEnabled()) {
+            long cached = cache.probe(PositionCache.hash(rules.getName(), board, color), 0);
+            // Занятая клетка - запись другой позиции с тем же хэшем
+            if (cached != PositionCache.MISS
+                    && board.getCell(PositionCache.moveX(cached), PositionCache.moveY(cached)) == '.') {
+                analysis.setSearchedMove(new SimpleMoveDto(PositionCache.moveX(cached), PositionCache.moveY(cached),
+                        analysis.getNextPlayerColor()));
+                analysis.setSearchScore(PositionCache.score(cached));
+            }
+        }
+        return analysis;
+    }
+}
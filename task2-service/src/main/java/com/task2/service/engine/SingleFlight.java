@@ -0,0 +1,103 @@
+package com.task2.service.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных вычислений ("single flight").
+ * Первый запрос с данным ключом выполняет вычисление, а все запросы
+ * с тем же ключом, пришедшие до его завершения, ждут и получают тот же результат.
+ * Результаты не кэшируются: после завершения вычисления ключ освобождается.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип результата
+ */
+public class SingleFlight<K, V> {
+
+    /** Вычисления, выполняющиеся в данный момент */
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Выполняет вычисление или присоединяется к уже выполняющемуся с тем же ключом.
+     *
+     * @param key ключ вычисления
+     * @param supplier вычисление, выполняемое первым запросом
+     * @return результат вычисления (может быть null)
+     */
+    public Result<V> execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return new Result<>(await(existing), true);
+        }
+
+        try {
+            V value = supplier.get();
+            own.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * @return количество вычислений, выполняющихся в данный момент
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Ожидает результат чужого вычисления, пробрасывая его исключение как есть.
+     *
+     * @param future выполняющееся вычисление
+     * @return результат вычисления
+     */
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for coalesced computation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Результат вычисления с признаком того, был ли запрос присоединён к чужому вычислению.
+     *
+     * @param <V> тип результата
+     */
+    public static class Result<V> {
+
+        /** Результат вычисления */
+        private final V value;
+
+        /** true, если запрос получил результат чужого вычисления */
+        private final boolean coalesced;
+
+        Result(V value, boolean coalesced) {
+            this.value = value;
+            this.coalesced = coalesced;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isCoalesced() {
+            return coalesced;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.task2.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Построение доски движка из DTO запроса.
+ */
+@Name("squares.BoardBuild")
+@Label("Board Build")
+@Description("Loading the request board into an engine board")
+@Category({"Squares", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+public class BoardBuildEvent extends jdk.jfr.Event {
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Scratch Board")
+    @Description("The per-thread scratch board was reused instead of allocating a new one")
+    boolean scratch;
+
+    /**
+     * Записывает событие, если запись включена.
+     *
+     * @param boardSize размер доски
+     * @param scratch true, если использована рабочая доска потока
+     */
+    public void complete(int boardSize, boolean scratch) {
+        if (shouldCommit()) {
+            this.boardSize = boardSize;
+            this.scratch = scratch;
+            commit();
+        }
+    }
+}
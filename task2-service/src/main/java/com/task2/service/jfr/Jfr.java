@@ -0,0 +1,24 @@
+package com.task2.service.jfr;
+
+/**
+ * Проверка наличия JDK Flight Recorder в JVM.
+ * Классы событий этого пакета наследуют jdk.jfr.Event, которого нет в Java 8 до 8u272:
+ * там загрузка любого события завершается NoClassDefFoundError. Поэтому события создаются
+ * только при {@link #AVAILABLE}, а без JFR сервис работает без них.
+ */
+public final class Jfr {
+
+    /** true, если в JVM есть jdk.jfr (JDK 11+ или 8u272+) */
+    public static final boolean AVAILABLE = available();
+
+    private Jfr() {}
+
+    private static boolean available() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Jfr.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.task2.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Выбор хода компьютера: готовый ответ обдумывания, кэш позиций, общее вычисление
+ * одинаковых запросов или собственный поиск.
+ */
+@Name("squares.MoveSearch")
+@Label("Move Search")
+@Description("Choosing the computer move for a nextMove request")
+@Category({"Squares", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+public class MoveSearchEvent extends jdk.jfr.Event {
+
+    /** Ответ обдумывания, запись кэша, чужое вычисление, собственный поиск */
+    public static final String PONDER = "ponder";
+    public static final String CACHE = "cache";
+    public static final String COALESCED = "coalesced";
+    public static final String COMPUTED = "computed";
+
+    @Label("Rules")
+    String rules;
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Budget")
+    @Description("Simulation budget per stage")
+    int budget;
+
+    @Label("Nodes")
+    @Description("Simulated moves (0 when the move was not searched by this request)")
+    long nodes;
+
+    @Label("Depth")
+    @Description("Search depth in plies")
+    int depth;
+
+    @Label("Source")
+    @Description("Where the move came from: ponder, cache, coalesced or computed")
+    String source;
+
+    /**
+     * Записывает событие, если запись включена.
+     *
+     * @param rules название правил
+     * @param boardSize размер доски
+     * @param budget бюджет вычислений
+     * @param source откуда взят ход
+     * @param nodes количество симуляций
+     * @param depth глубина поиска в полуходах
+     */
+    public void complete(String rules, int boardSize, int budget, String source, long nodes, int depth) {
+        if (shouldCommit()) {
+            this.rules = rules;
+            this.boardSize = boardSize;
+            this.budget = budget;
+            this.source = source;
+            this.nodes = nodes;
+            this.depth = depth;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.task2.service.jfr;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+
+/**
+ * Перехватчик Jersey, который замеряет разбор тела запроса и запись ответа
+ * событиями {@link RequestParseEvent} и {@link SerializationEvent}.
+ * Пока запись JFR выключена, события не записываются и почти ничего не стоят.
+ */
+@Provider
+public class PhaseInterceptor implements ReaderInterceptor, WriterInterceptor {
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
+        RequestParseEvent event = new RequestParseEvent();
+        event.begin();
+        Object entity = context.proceed();
+        event.complete(context.getType());
+        return entity;
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        context.proceed();
+        event.complete(context.getType());
+    }
+}
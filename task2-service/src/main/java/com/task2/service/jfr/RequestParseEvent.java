@@ -0,0 +1,35 @@
+package com.task2.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Разбор тела запроса (JSON -> DTO) провайдером Jackson, см. {@link PhaseInterceptor}.
+ */
+@Name("squares.RequestParse")
+@Label("Request Parse")
+@Description("Deserialization of a request body by Jersey/Jackson")
+@Category({"Squares", "Request"})
+@Enabled(false)
+@StackTrace(false)
+public class RequestParseEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    String type;
+
+    /**
+     * Записывает событие, если запись включена.
+     *
+     * @param type тип разобранного объекта
+     */
+    public void complete(Class<?> type) {
+        if (shouldCommit()) {
+            this.type = type.getSimpleName();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.task2.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Проверка параметров запроса в контроллере.
+ */
+@Name("squares.Validation")
+@Label("Request Validation")
+@Description("Validation of request parameters and board in the controller")
+@Category({"Squares", "Request"})
+@Enabled(false)
+@StackTrace(false)
+public class ValidationEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Valid")
+    boolean valid;
+
+    /**
+     * Записывает событие, если запись включена.
+     *
+     * @param endpoint эндпоинт
+     * @param boardSize размер доски (0, если доски нет)
+     * @param valid true, если запрос прошёл проверку
+     */
+    public void complete(String endpoint, int boardSize, boolean valid) {
+        if (shouldCommit()) {
+            this.endpoint = endpoint;
+            this.boardSize = boardSize;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
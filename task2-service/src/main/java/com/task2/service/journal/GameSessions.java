@@ -0,0 +1,323 @@
+package com.task2.service.journal;
+
+import com.task1.console.Board;
+import com.task2.service.ServiceConfig;
+import com.task2.service.dto.BoardDto;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр игровых сессий (по заголовку X-Game-Id), переживающий перезапуск сервиса.
+ * Для каждой сессии хранится текущая доска; каждое изменение доски записывается
+ * в {@link MoveJournal}: новые камни игрока - по разнице с присланной доской,
+ * ход компьютера - после его вычисления. При запуске журнал проигрывается,
+ * и незавершённые игры восстанавливаются.
+ *
+ * Игра, к которой не обращались дольше journal.session.ttl.ms, считается брошенной:
+ * фоновый поток журнала завершает её записью конца игры, и её записи выбрасываются
+ * при следующем сжатии журнала.
+ *
+ * Реестр включается параметром journal.enabled; если он выключен, все методы
+ * ничего не делают.
+ */
+public final class GameSessions {
+
+    /** Включён ли журнал сессий */
+    private static final boolean ENABLED = ServiceConfig.getBoolean("journal.enabled", false);
+
+    /** Единственный экземпляр, создаётся при первом обращении */
+    private static volatile GameSessions instance;
+
+    /** Журнал ходов или null, если реестр выключен */
+    private final MoveJournal journal;
+
+    /** Время простоя, после которого игра считается брошенной, мс */
+    private final long ttlMillis;
+
+    /** Живые сессии по идентификатору игры */
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Открывает журнал из конфигурации сервиса и восстанавливает из него незавершённые игры.
+     */
+    private GameSessions() {
+        this(ENABLED ? Paths.get(ServiceConfig.getString("journal.dir", "journal")) : null,
+                ServiceConfig.getInt("journal.segment.bytes", 4 << 20),
+                ServiceConfig.getInt("journal.compact.segments", 4),
+                ServiceConfig.getInt("journal.flush.interval.ms", 10),
+                ServiceConfig.getInt("journal.session.ttl.ms", 3_600_000));
+    }
+
+    /**
+     * Открывает журнал и восстанавливает из него незавершённые игры.
+     *
+     * @param directory каталог журнала или null, если реестр выключен
+     * @param segmentBytes размер сегмента журнала в байтах
+     * @param compactSegments количество закрытых сегментов, при котором запускается сжатие
+     * @param flushIntervalMillis интервал групповой фиксации, мс
+     * @param ttlMillis время простоя, после которого игра считается брошенной, мс
+     */
+    GameSessions(Path directory, int segmentBytes, int compactSegments, long flushIntervalMillis, long ttlMillis) {
+        this.ttlMillis = Math.max(1, ttlMillis);
+        if (directory == null) {
+            journal = null;
+            return;
+        }
+        try {
+            journal = new MoveJournal(directory, segmentBytes, compactSegments, flushIntervalMillis,
+                    this::replay, () -> expireIdle(System.currentTimeMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open move journal", e);
+        }
+    }
+
+    /**
+     * @return единственный экземпляр реестра
+     */
+    public static GameSessions getInstance() {
+        GameSessions result = instance;
+        if (result == null) {
+            synchronized (GameSessions.class) {
+                result = instance;
+                if (result == null) {
+                    instance = result = new GameSessions();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true, если реестр сессий включён
+     */
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    /**
+     * @return количество незавершённых игр
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Применяет запись журнала при восстановлении.
+     *
+     * @param record запись журнала
+     */
+    private void replay(MoveJournal.Record record) {
+        switch (record.type) {
+            case MoveJournal.START:
+                // Повторное начало той же игры возможно после прерванного сжатия - пропускаем
+                sessions.putIfAbsent(record.gameId, new Session(new Board(record.x), record.timestamp));
+                break;
+            case MoveJournal.MOVE:
+                Session session = sessions.get(record.gameId);
+                if (session != null) {
+                    session.apply(record.x, record.y, record.color);
+                    session.lastAccessMillis = record.timestamp;
+                }
+                break;
+            case MoveJournal.FINISH:
+                sessions.remove(record.gameId);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Сверяет сессию с присланной клиентом доской и записывает новые камни.
+     * Если доска не продолжает сохранённую (другой размер или пропали камни),
+     * прежняя игра завершается и начинается новая.
+     *
+     * @param gameId идентификатор игры
+     * @param board доска от клиента
+     */
+    public void update(long gameId, Board board) {
+        if (journal == null) return;
+        while (true) {
+            Session session = sessions.computeIfAbsent(gameId, id -> {
+                journal.append(MoveJournal.START, id, board.size, 0, (char) 0);
+                return new Session(new Board(board.size), System.currentTimeMillis());
+            });
+            synchronized (session) {
+                if (session.finished) continue;
+                session.lastAccessMillis = System.currentTimeMillis();
+
+                if (!session.isContinuedBy(board)) {
+                    journal.append(MoveJournal.FINISH, gameId, 0, 0, (char) 0);
+                    journal.append(MoveJournal.START, gameId, board.size, 0, (char) 0);
+                    session.reset(board.size);
+                }
+                for (int y = 0; y < board.size; y++) {
+                    for (int x = 0; x < board.size; x++) {
+                        char color = board.grid[y][x];
+                        if (color != '.' && session.board.grid[y][x] == '.') {
+                            session.apply(x, y, color);
+                            journal.append(MoveJournal.MOVE, gameId, x, y, color);
+                        }
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Записывает ход в сессию.
+     *
+     * @param gameId идентификатор игры
+     * @param x координата X
+     * @param y координата Y
+     * @param color цвет
+     */
+    public void recordMove(long gameId, int x, int y, char color) {
+        if (journal == null) return;
+        Session session = sessions.get(gameId);
+        if (session == null) return;
+        synchronized (session) {
+            session.lastAccessMillis = System.currentTimeMillis();
+            if (!session.finished && session.apply(x, y, color)) {
+                journal.append(MoveJournal.MOVE, gameId, x, y, color);
+            }
+        }
+    }
+
+    /**
+     * Завершает игру: её записи будут выброшены при сжатии журнала.
+     *
+     * @param gameId идентификатор игры
+     */
+    public void finish(long gameId) {
+        if (journal == null) return;
+        Session session = sessions.get(gameId);
+        if (session == null) return;
+        synchronized (session) {
+            if (session.finished) return;
+            session.finished = true;
+            journal.append(MoveJournal.FINISH, gameId, 0, 0, (char) 0);
+            sessions.remove(gameId, session);
+        }
+    }
+
+    /**
+     * Завершает игры, к которым не обращались дольше времени простоя: пишет для каждой
+     * запись конца игры, чтобы сжатие журнала выбросило её записи.
+     * Вызывается фоновым потоком журнала.
+     *
+     * @param nowMillis текущее время, мс
+     */
+    void expireIdle(long nowMillis) {
+        if (journal == null) return;
+        for (Map.Entry<Long, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (nowMillis - session.lastAccessMillis <= ttlMillis) continue;
+            synchronized (session) {
+                if (session.finished || nowMillis - session.lastAccessMillis <= ttlMillis) continue;
+                session.finished = true;
+                journal.append(MoveJournal.FINISH, entry.getKey(), 0, 0, (char) 0);
+                sessions.remove(entry.getKey(), session);
+                ServiceMetrics.increment("journal.expired");
+            }
+        }
+    }
+
+    /**
+     * Возвращает состояние незавершённой игры.
+     *
+     * @param gameId идентификатор игры
+     * @return DTO доски с цветом игрока, который ходит следующим, или null, если игры нет
+     */
+    public BoardDto snapshot(long gameId) {
+        Session session = sessions.get(gameId);
+        if (session == null) return null;
+        synchronized (session) {
+            if (session.finished) return null;
+            Board board = session.board;
+            StringBuilder data = new StringBuilder(board.size * board.size);
+            for (int y = 0; y < board.size; y++) {
+                for (int x = 0; x < board.size; x++) {
+                    char cell = board.grid[y][x];
+                    data.append(cell == '.' ? ' ' : Character.toLowerCase(cell));
+                }
+            }
+            String next = (session.lastColor == 'W') ? "b" : "w";
+            return new BoardDto(board.size, data.toString(), next);
+        }
+    }
+
+    /**
+     * Сбрасывает журнал на диск при остановке сервиса.
+     */
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Состояние одной игры.
+     */
+    private static final class Session {
+        /** Текущая доска */
+        Board board;
+
+        /** Цвет последнего хода или 0 */
+        char lastColor;
+
+        /** Игра завершена и удалена из реестра */
+        boolean finished;
+
+        /** Время последнего обращения к игре, мс; читается без замка при поиске брошенных игр */
+        volatile long lastAccessMillis;
+
+        Session(Board board, long lastAccessMillis) {
+            this.board = board;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+
+        /**
+         * Ставит камень на доску сессии.
+         *
+         * @return true, если камень поставлен
+         */
+        boolean apply(int x, int y, char color) {
+            if (board.makeMove(x, y, color)) {
+                lastColor = color;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Начинает новую игру на доске заданного размера.
+         */
+        void reset(int size) {
+            board = new Board(size);
+            lastColor = 0;
+        }
+
+        /**
+         * Проверяет, что присланная доска продолжает игру сессии:
+         * тот же размер и все камни сессии на своих местах.
+         */
+        boolean isContinuedBy(Board other) {
+            if (other.size != board.size) return false;
+            for (int y = 0; y < board.size; y++) {
+                for (int x = 0; x < board.size; x++) {
+                    char own = board.grid[y][x];
+                    if (own != '.' && own != other.grid[y][x]) return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.task2.service.journal;
+
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Журнал ходов только на добавление в отображённых в память файлах-сегментах.
+ * Каждое событие (начало игры, ход, конец игры) - запись фиксированного размера
+ * {@value #RECORD_SIZE} байт:
+ * <pre>
+ *   0  long  идентификатор игры
+ *   8  long  время события, мс
+ *  16  int   X (для начала игры - размер доски)
+ *  20  int   Y
+ *  24  byte  цвет ('W' или 'B')
+ *  25  byte  тип записи (1 - начало игры, 2 - ход, 3 - конец игры; 0 - конец данных сегмента)
+ *  26  short резерв
+ *  28  int   контрольная сумма полей 0..27
+ * </pre>
+ *
+ * Запись хода - несколько операций put в отображённый буфер под коротким замком,
+ * без системных вызовов. Сброс на диск (групповая фиксация) выполняет фоновый поток
+ * раз в {@code flushIntervalMillis}: все записи, добавленные за интервал, фиксируются
+ * одним вызовом force(). Падение процесса не теряет записей (страницы уже в кэше ОС),
+ * падение ОС может потерять записи последнего интервала.
+ *
+ * Заполненный сегмент закрывается, и запись продолжается в новый. Следующий сегмент
+ * заранее создаёт и отображает фоновый поток, он же сбрасывает закрытый сегмент на диск,
+ * поэтому смена сегмента под замком - только замена ссылки, без системных вызовов.
+ * Когда закрытых сегментов становится много, фоновый поток сжимает их в один, выбрасывая
+ * записи завершённых игр. При запуске журнал всегда начинает новый сегмент, а старые
+ * проигрываются для восстановления игр.
+ */
+public final class MoveJournal implements AutoCloseable {
+
+    /** Размер записи в байтах */
+    public static final int RECORD_SIZE = 32;
+
+    /** Тип записи: начало игры */
+    public static final byte START = 1;
+
+    /** Тип записи: ход */
+    public static final byte MOVE = 2;
+
+    /** Тип записи: конец игры */
+    public static final byte FINISH = 3;
+
+    /** Префикс имён файлов сегментов */
+    private static final String PREFIX = "moves-";
+
+    /** Расширение имён файлов сегментов */
+    private static final String SUFFIX = ".journal";
+
+    /** Каталог журнала */
+    private final Path directory;
+
+    /** Размер сегмента в байтах (кратен размеру записи) */
+    private final int segmentBytes;
+
+    /** Количество закрытых сегментов, при котором запускается сжатие */
+    private final int compactSegments;
+
+    /** Интервал групповой фиксации, мс */
+    private final long flushIntervalMillis;
+
+    /** Замок добавления записей и смены сегментов */
+    private final Object lock = new Object();
+
+    /** Закрытые сегменты в порядке записи */
+    private final List<Path> sealed = new ArrayList<>();
+
+    /** Номер активного сегмента */
+    private int activeIndex;
+
+    /** Отображение активного сегмента */
+    private volatile MappedByteBuffer active;
+
+    /** Заранее созданный сегмент с номером activeIndex + 1 или null */
+    private MappedByteBuffer next;
+
+    /** Закрытые сегменты, ещё не сброшенные на диск фоновым потоком */
+    private final List<MappedByteBuffer> unforced = new ArrayList<>();
+
+    /** Смещение следующей записи в активном сегменте */
+    private int writeOffset;
+
+    /** Есть ли записи, ещё не зафиксированные на диске */
+    private volatile boolean dirty;
+
+    /** Работает ли фоновый поток */
+    private volatile boolean running = true;
+
+    /** Фоновый поток групповой фиксации и сжатия */
+    private final Thread flusher;
+
+    /** Периодическая работа владельца журнала, выполняется фоновым потоком перед сжатием */
+    private final Runnable maintenance;
+
+    /**
+     * Открывает журнал: проигрывает существующие сегменты и начинает новый.
+     *
+     * @param directory каталог журнала (создаётся при необходимости)
+     * @param segmentBytes размер сегмента в байтах
+     * @param compactSegments количество закрытых сегментов, при котором запускается сжатие
+     * @param flushIntervalMillis интервал групповой фиксации, мс
+     * @param replay получатель записей существующих сегментов в порядке их добавления
+     * @throws IOException если каталог или сегменты недоступны
+     */
+    public MoveJournal(Path directory, int segmentBytes, int compactSegments, long flushIntervalMillis,
+                       Consumer<Record> replay) throws IOException {
+        this(directory, segmentBytes, compactSegments, flushIntervalMillis, replay, () -> { });
+    }
+
+    /**
+     * Открывает журнал: проигрывает существующие сегменты и начинает новый.
+     *
+     * @param directory каталог журнала (создаётся при необходимости)
+     * @param segmentBytes размер сегмента в байтах
+     * @param compactSegments количество закрытых сегментов, при котором запускается сжатие
+     * @param flushIntervalMillis интервал групповой фиксации, мс
+     * @param replay получатель записей существующих сегментов в порядке их добавления
+     * @param maintenance работа, которую фоновый поток выполняет каждый интервал перед сжатием
+     *                    (например, завершение брошенных игр); может добавлять записи
+     * @throws IOException если каталог или сегменты недоступны
+     */
+    public MoveJournal(Path directory, int segmentBytes, int compactSegments, long flushIntervalMillis,
+                       Consumer<Record> replay, Runnable maintenance) throws IOException {
+        this.directory = directory;
+        this.maintenance = maintenance;
+        this.segmentBytes = Math.max(RECORD_SIZE, segmentBytes / RECORD_SIZE * RECORD_SIZE);
+        this.compactSegments = Math.max(2, compactSegments);
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+
+        Files.createDirectories(directory);
+        sealed.addAll(listSegments());
+        for (Path segment : sealed) {
+            readSegment(segment, replay);
+        }
+        activeIndex = sealed.isEmpty() ? 1 : indexOf(sealed.get(sealed.size() - 1)) + 1;
+        active = mapSegment(activeIndex);
+
+        ServiceMetrics.gauge("journal.segments", () -> {
+            synchronized (lock) {
+                return sealed.size() + 1;
+            }
+        });
+
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Добавляет запись в журнал. Не ждёт сброса на диск.
+     *
+     * @param type тип записи
+     * @param gameId идентификатор игры
+     * @param x координата X (для начала игры - размер доски)
+     * @param y координата Y
+     * @param color цвет или 0
+     */
+    public void append(byte type, long gameId, int x, int y, char color) {
+        long timestamp = System.currentTimeMillis();
+        synchronized (lock) {
+            if (writeOffset + RECORD_SIZE > segmentBytes) {
+                roll();
+            }
+            Record.write(active, writeOffset, type, gameId, timestamp, x, y, (byte) color);
+            writeOffset += RECORD_SIZE;
+        }
+        dirty = true;
+        ServiceMetrics.increment("journal.appends");
+    }
+
+    /**
+     * Закрывает заполненный сегмент и начинает новый. Вызывается под замком.
+     * Обычно следующий сегмент уже создан фоновым потоком, и смена - только замена ссылки;
+     * закрытый сегмент сбрасывается на диск фоновым потоком. Если запись обогнала фоновый
+     * поток, сегмент создаётся здесь.
+     */
+    private void roll() {
+        unforced.add(active);
+        sealed.add(segmentPath(activeIndex));
+        activeIndex++;
+        writeOffset = 0;
+        if (next != null) {
+            active = next;
+            next = null;
+        } else {
+            ServiceMetrics.increment("journal.rolls.unprepared");
+            try {
+                active = mapSegment(activeIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create journal segment " + activeIndex, e);
+            }
+        }
+        LockSupport.unpark(flusher);
+    }
+
+    /**
+     * Создаёт следующий сегмент заранее, вне замка добавления записей.
+     *
+     * @throws IOException при ошибке ввода/вывода
+     */
+    private void prepareNext() throws IOException {
+        int index;
+        synchronized (lock) {
+            if (next != null) return;
+            index = activeIndex + 1;
+        }
+        MappedByteBuffer prepared = mapSegment(index);
+        synchronized (lock) {
+            // Если сегмент уже создан при смене под замком, это отображение того же файла не нужно
+            if (next == null && activeIndex + 1 == index) {
+                next = prepared;
+            }
+        }
+    }
+
+    /**
+     * Цикл фонового потока: групповая фиксация, сброс закрытых сегментов, подготовка
+     * следующего сегмента, работа владельца журнала и сжатие закрытых сегментов.
+     */
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(flushIntervalMillis * 1_000_000L);
+            if (!running) break;
+            try {
+                flush();
+                prepareNext();
+                maintenance.run();
+                boolean compact;
+                synchronized (lock) {
+                    compact = sealed.size() >= compactSegments;
+                }
+                if (compact) {
+                    compact();
+                }
+            } catch (IOException | RuntimeException e) {
+                ServiceMetrics.increment("journal.failed");
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает на диск закрытые сегменты и записи, добавленные с прошлого сброса.
+     */
+    private void flush() {
+        List<MappedByteBuffer> closed;
+        synchronized (lock) {
+            closed = unforced.isEmpty() ? Collections.<MappedByteBuffer>emptyList() : new ArrayList<>(unforced);
+            unforced.clear();
+        }
+        for (MappedByteBuffer segment : closed) {
+            segment.force();
+        }
+        if (!dirty) return;
+        dirty = false;
+        active.force();
+        ServiceMetrics.increment("journal.flushes");
+    }
+
+    /**
+     * Сжимает закрытые сегменты в один, оставляя только записи незавершённых игр.
+     * Закрытые сегменты не изменяются, поэтому сжатие не блокирует запись ходов.
+     * Результат записывается во временный файл и атомарно заменяет первый сегмент.
+     *
+     * @throws IOException при ошибке ввода/вывода
+     */
+    void compact() throws IOException {
+        List<Path> segments;
+        synchronized (lock) {
+            segments = new ArrayList<>(sealed);
+        }
+        if (segments.isEmpty()) return;
+
+        // Проигрываем сегменты, сохраняя записи каждой игры до её завершения
+        Map<Long, List<Record>> live = new LinkedHashMap<>();
+        for (Path segment : segments) {
+            readSegment(segment, record -> {
+                if (record.type == FINISH) {
+                    live.remove(record.gameId);
+                } else if (record.type == START) {
+                    live.putIfAbsent(record.gameId, new ArrayList<>());
+                    live.get(record.gameId).add(record);
+                } else {
+                    List<Record> records = live.get(record.gameId);
+                    if (records != null) records.add(record);
+                }
+            });
+        }
+
+        Path first = segments.get(0);
+        int count = 0;
+        for (List<Record> records : live.values()) {
+            count += records.size();
+        }
+        if (count > 0) {
+            ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_SIZE);
+            int offset = 0;
+            for (List<Record> records : live.values()) {
+                for (Record record : records) {
+                    Record.write(buffer, offset, record.type, record.gameId, record.timestamp,
+                            record.x, record.y, (byte) record.color);
+                    offset += RECORD_SIZE;
+                }
+            }
+            Path temporary = first.resolveSibling(first.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, first, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Files.delete(first);
+        }
+        for (Path segment : segments.subList(1, segments.size())) {
+            Files.deleteIfExists(segment);
+        }
+
+        synchronized (lock) {
+            sealed.removeAll(segments);
+            if (count > 0) {
+                sealed.add(0, first);
+            }
+        }
+        ServiceMetrics.increment("journal.compactions");
+    }
+
+    /**
+     * Останавливает фоновый поток, дожидаясь его завершения, и сбрасывает журнал на диск.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            for (MappedByteBuffer segment : unforced) {
+                segment.force();
+            }
+            unforced.clear();
+            active.force();
+        }
+    }
+
+    /**
+     * Создаёт файл сегмента заданного размера и отображает его в память.
+     *
+     * @param index номер сегмента
+     * @return отображение сегмента
+     * @throws IOException при ошибке ввода/вывода
+     */
+    private MappedByteBuffer mapSegment(int index) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(index).toFile(), "rw")) {
+            file.setLength(segmentBytes);
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    /**
+     * Читает записи сегмента до конца данных или до первой повреждённой записи.
+     *
+     * @param segment файл сегмента
+     * @param consumer получатель записей
+     * @throws IOException при ошибке ввода/вывода
+     */
+    private static void readSegment(Path segment, Consumer<Record> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        for (int offset = 0; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+            Record record = Record.read(buffer, offset);
+            if (record == null) {
+                break;
+            }
+            consumer.accept(record);
+        }
+    }
+
+    /**
+     * @return существующие сегменты, отсортированные по номеру
+     * @throws IOException при ошибке ввода/вывода
+     */
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        Collections.sort(segments, (a, b) -> Integer.compare(indexOf(a), indexOf(b)));
+        return segments;
+    }
+
+    /**
+     * @param index номер сегмента
+     * @return путь к файлу сегмента
+     */
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%08d%s", PREFIX, index, SUFFIX));
+    }
+
+    /**
+     * @param segment путь к файлу сегмента
+     * @return номер сегмента из имени файла
+     */
+    private static int indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Запись журнала.
+     */
+    public static final class Record {
+        /** Тип записи */
+        public final byte type;
+
+        /** Идентификатор игры */
+        public final long gameId;
+
+        /** Время события, мс */
+        public final long timestamp;
+
+        /** Координата X (для начала игры - размер доски) */
+        public final int x;
+
+        /** Координата Y */
+        public final int y;
+
+        /** Цвет ('W', 'B') или 0 */
+        public final char color;
+
+        Record(byte type, long gameId, long timestamp, int x, int y, char color) {
+            this.type = type;
+            this.gameId = gameId;
+            this.timestamp = timestamp;
+            this.x = x;
+            this.y = y;
+            this.color = color;
+        }
+
+        /**
+         * Записывает поля записи в буфер по абсолютному смещению.
+         */
+        static void write(ByteBuffer buffer, int offset, byte type, long gameId, long timestamp,
+                          int x, int y, byte color) {
+            buffer.putLong(offset, gameId);
+            buffer.putLong(offset + 8, timestamp);
+            buffer.putInt(offset + 16, x);
+            buffer.putInt(offset + 20, y);
+            buffer.put(offset + 24, color);
+            buffer.put(offset + 26, (byte) 0);
+            buffer.put(offset + 27, (byte) 0);
+            buffer.putInt(offset + 28, checksum(type, gameId, timestamp, x, y, color));
+            // Тип пишется последним: ненулевой тип означает, что запись заполнена
+            buffer.put(offset + 25, type);
+        }
+
+        /**
+         * Читает запись по абсолютному смещению.
+         *
+         * @return запись или null, если данные сегмента закончились или запись повреждена
+         */
+        static Record read(ByteBuffer buffer, int offset) {
+            byte type = buffer.get(offset + 25);
+            if (type != START && type != MOVE && type != FINISH) {
+                return null;
+            }
+            long gameId = buffer.getLong(offset);
+            long timestamp = buffer.getLong(offset + 8);
+            int x = buffer.getInt(offset + 16);
+            int y = buffer.getInt(offset + 20);
+            byte color = buffer.get(offset + 24);
+            if (buffer.getInt(offset + 28) != checksum(type, gameId, timestamp, x, y, color)) {
+                return null;
+            }
+            return new Record(type, gameId, timestamp, x, y, (char) color);
+        }
+
+        /**
+         * Контрольная сумма полей записи (перемешивание в стиле MurmurHash3).
+         */
+        private static int checksum(byte type, long gameId, long timestamp, int x, int y, byte color) {
+            long h = gameId * 0x9E3779B97F4A7C15L;
+            h ^= timestamp + 0x632BE59BD9B4E019L + (h << 6) + (h >>> 2);
+            h ^= ((long) x << 32 | (y & 0xFFFFFFFFL)) * 0xC2B2AE3D27D4EB4FL;
+            h ^= ((long) type << 8 | (color & 0xFF)) * 0x165667B19E3779F9L;
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.task2.service.logging;
+
+import com.task2.service.ServiceConfig;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронный структурированный журнал запросов.
+ * Потоки обработки запросов только кладут событие в ограниченный кольцевой буфер
+ * и никогда не блокируются: если буфер заполнен, событие отбрасывается
+ * и увеличивается счётчик log.dropped. Фоновый поток забирает события пачками,
+ * форматирует их в строки JSON и пишет в stderr через буферизованный поток.
+ *
+ * Формат строки журнала доступа:
+ * {"type":"access","ts":...,"requestId":...,"endpoint":"nextMove","rules":"standard","size":5,"status":200,"latencyMicros":...}
+ * Строка ошибки дополнительно содержит поля "error", "message" и "stackTrace".
+ */
+public final class AsyncLog {
+
+    /** Размер кольцевого буфера событий */
+    private static final int CAPACITY = ServiceConfig.getInt("log.buffer.capacity", 8192);
+
+    /** Записывать ли журнал доступа (ошибки записываются всегда) */
+    private static final boolean ACCESS_ENABLED = ServiceConfig.getBoolean("log.access.enabled", true);
+
+    /** Максимальное количество событий, забираемых фоновым потоком за раз */
+    private static final int BATCH = 256;
+
+    /** Кольцевой буфер событий */
+    private static final BlockingQueue<Event> QUEUE = new ArrayBlockingQueue<>(CAPACITY);
+
+    // Запускаем фоновый поток записи журнала
+    static {
+        Thread writer = new Thread(AsyncLog::drainLoop, "async-log-writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.NORM_PRIORITY - 1);
+        writer.start();
+        ServiceMetrics.gauge("log.queue", QUEUE::size);
+    }
+
+    private AsyncLog() {}
+
+    /**
+     * Записывает событие журнала доступа.
+     *
+     * @param requestId идентификатор запроса
+     * @param endpoint имя эндпоинта
+     * @param rules правила игры или null
+     * @param size размер доски или 0, если доски нет
+     * @param status HTTP-статус ответа
+     * @param latencyMicros время обработки запроса в микросекундах
+     */
+    public static void access(long requestId, String endpoint, String rules, int size,
+                              int status, long latencyMicros) {
+        if (!ACCESS_ENABLED) return;
+        enqueue(new Event("access", requestId, endpoint, rules, size, status, latencyMicros, null));
+    }
+
+    /**
+     * Записывает событие ошибки обработки запроса.
+     *
+     * @param requestId идентификатор запроса
+     * @param endpoint имя эндпоинта
+     * @param rules правила игры или null
+     * @param size размер доски или 0, если доски нет
+     * @param error исключение
+     */
+    public static void error(long requestId, String endpoint, String rules, int size, Throwable error) {
+        enqueue(new Event("error", requestId, endpoint, rules, size, 500, -1, error));
+    }
+
+    /**
+     * Кладёт событие в буфер без ожидания; при переполнении событие отбрасывается.
+     *
+     * @param event событие журнала
+     */
+    private static void enqueue(Event event) {
+        if (!QUEUE.offer(event)) {
+            ServiceMetrics.increment("log.dropped");
+        }
+    }
+
+    /**
+     * Цикл фонового потока: забирает события пачками и пишет их в stderr.
+     */
+    private static void drainLoop() {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8), 1 << 16);
+        List<Event> batch = new ArrayList<>(BATCH);
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            try {
+                Event first = QUEUE.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                QUEUE.drainTo(batch, BATCH - 1);
+
+                for (Event event : batch) {
+                    line.setLength(0);
+                    event.format(line);
+                    out.write(line.append('\n').toString());
+                }
+                batch.clear();
+
+                // Сбрасываем буфер, только когда очередь опустела
+                if (QUEUE.isEmpty()) {
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                batch.clear();
+                ServiceMetrics.increment("log.failed");
+            }
+        }
+    }
+
+    /**
+     * Событие журнала. Форматирование в JSON выполняется в фоновом потоке.
+     */
+    private static final class Event {
+        private final long timestamp = System.currentTimeMillis();
+        private final String type;
+        private final long requestId;
+        private final String endpoint;
+        private final String rules;
+        private final int size;
+        private final int status;
+        private final long latencyMicros;
+        private final Throwable error;
+
+        Event(String type, long requestId, String endpoint, String rules, int size,
+              int status, long latencyMicros, Throwable error) {
+            this.type = type;
+            this.requestId = requestId;
+            this.endpoint = endpoint;
+            this.rules = rules;
+            this.size = size;
+            this.status = status;
+            this.latencyMicros = latencyMicros;
+            this.error = error;
+        }
+
+        /**
+         * Форматирует событие в строку JSON.
+         *
+         * @param out буфер для строки
+         */
+        void format(StringBuilder out) {
+            out.append("{\"type\":\"").append(type).append('"');
+            out.append(",\"ts\":").append(timestamp);
+            out.append(",\"requestId\":").append(requestId);
+            out.append(",\"endpoint\":");
+            appendString(out, endpoint);
+            out.append(",\"rules\":");
+            appendString(out, rules);
+            out.append(",\"size\":").append(size);
+            out.append(",\"status\":").append(status);
+            if (latencyMicros >= 0) {
+                out.append(",\"latencyMicros\":").append(latencyMicros);
+            }
+            if (error != null) {
+                StringWriter trace = new StringWriter();
+                error.printStackTrace(new PrintWriter(trace));
+                out.append(",\"error\":");
+                appendString(out, error.getClass().getName());
+                out.append(",\"message\":");
+                appendString(out, error.getMessage());
+                out.append(",\"stackTrace\":");
+                appendString(out, trace.toString());
+            }
+            out.append('}');
+        }
+
+        /**
+         * Добавляет строковое значение JSON с экранированием.
+         *
+         * @param out буфер для строки
+         * @param value значение или null
+         */
+        private static void appendString(StringBuilder out, String value) {
+            if (value == null) {
+                out.append("null");
+                return;
+            }
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        out.append("\\\"");
+                        break;
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                }
+            }
+            out.append('"');
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.task2.service.metrics;
+
+import com.task2.service.dto.GameStatsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Живая статистика партий по правилам и размеру доски: начатые и законченные партии,
+ * победы каждого цвета, ничьи и количество ходов.
+ * <p>
+ * Сервис не видит партии целиком, поэтому начало и конец выводятся из запросов статуса,
+ * которые клиент отправляет после каждого хода:
+ * <ul>
+ *   <li>статус доски с одной фишкой - начало партии (после первого хода статус запрашивается
+ *       ровно один раз, кто бы ни ходил первым);</li>
+ *   <li>статус "finished" - конец партии, количество ходов - количество фишек на доске.</li>
+ * </ul>
+ * Если запрос несёт идентификатор игры (X-Game-Id), конец партии учитывается один раз,
+ * сколько бы раз ни запрашивался статус законченной доски. Законченные игры хранятся
+ * в таблице из {@value #MAX_FINISHED_GAMES} ячеек по хэшу идентификатора: новая игра
+ * вытесняет прежнюю игру своей ячейки, поэтому повтор статуса давно законченной игры
+ * изредка может быть учтён ещё раз. Игры без идентификатора учитываются приблизительно:
+ * каждый повторный статус законченной доски считается ещё одной партией.
+ * Счётчики - LongAdder, а таблица игр меняется через compareAndSet, без замков,
+ * поэтому запись из потоков обработки запросов не конкурирует;
+ * снимок читает их, не останавливая запись, и поэтому может немного отставать между полями.
+ */
+public final class GameStats {
+
+    /** Корзины по правилам, внутри - по размеру доски */
+    private static final Map<String, Map<Integer, Bucket>> BUCKETS = new ConcurrentHashMap<>();
+
+    /** Сколько законченных игр запоминается для учёта конца партии один раз (степень двойки) */
+    static final int MAX_FINISHED_GAMES = 65_536;
+
+    /** Сдвиг, оставляющий от перемешанного идентификатора номер ячейки */
+    private static final int SLOT_SHIFT = 64 - Integer.numberOfTrailingZeros(MAX_FINISHED_GAMES);
+
+    /** Законченные игры: в ячейке по хэшу идентификатора - идентификатор или null */
+    private static final AtomicReferenceArray<Long> FINISHED_GAMES = new AtomicReferenceArray<>(MAX_FINISHED_GAMES);
+
+    private GameStats() {}
+
+    /**
+     * Счётчики одной пары (правила, размер доски).
+     */
+    private static final class Bucket {
+        final LongAdder started = new LongAdder();
+        final LongAdder whiteWins = new LongAdder();
+        final LongAdder blackWins = new LongAdder();
+        final LongAdder draws = new LongAdder();
+        final LongAdder moves = new LongAdder();
+    }
+
+    /**
+     * Учитывает ответ на запрос статуса игры без идентификатора.
+     *
+     * @param rules название правил
+     * @param size размер доски
+     * @param data клетки доски по строкам ('w'/'W', 'b'/'B' - фишки)
+     * @param status статус игры ("ongoing" или "finished")
+     * @param result результат законченной игры ("W wins", "B wins" или "Draw")
+     */
+    public static void recordStatus(String rules, int size, String data, String status, String result) {
+        recordStatus(rules, size, data, status, result, null);
+    }
+
+    /**
+     * Учитывает ответ на запрос статуса.
+     *
+     * @param rules название правил
+     * @param size размер доски
+     * @param data клетки доски по строкам ('w'/'W', 'b'/'B' - фишки)
+     * @param status статус игры ("ongoing" или "finished")
+     * @param result результат законченной игры ("W wins", "B wins" или "Draw")
+     * @param gameId идентификатор игры из X-Game-Id или null
+     */
+    public static void recordStatus(String rules, int size, String data, String status, String result,
+                                    Long gameId) {
+        int stones = countStones(data, size * size);
+        if ("finished".equals(status)) {
+            if (gameId != null && !markFinished(gameId)) {
+                return;
+            }
+            Bucket bucket = bucket(rules, size);
+            if ("W wins".equals(result)) {
+                bucket.whiteWins.increment();
+            } else if ("B wins".equals(result)) {
+                bucket.blackWins.increment();
+            } else {
+                bucket.draws.increment();
+            }
+            bucket.moves.add(stones);
+        } else if (stones == 1) {
+            if (gameId != null) {
+                // Новая партия под тем же идентификатором
+                int slot = slot(gameId);
+                Long known = FINISHED_GAMES.get(slot);
+                if (gameId.equals(known)) {
+                    FINISHED_GAMES.compareAndSet(slot, known, null);
+                }
+            }
+            bucket(rules, size).started.increment();
+        }
+    }
+
+    /**
+     * Запоминает законченную игру, вытесняя прежнюю игру её ячейки.
+     * Из одновременных вызовов с одним идентификатором true получает только один.
+     *
+     * @param gameId идентификатор игры
+     * @return true, если конец этой игры ещё не учитывался
+     */
+    private static boolean markFinished(Long gameId) {
+        int slot = slot(gameId);
+        while (true) {
+            Long known = FINISHED_GAMES.get(slot);
+            if (gameId.equals(known)) {
+                return false;
+            }
+            if (FINISHED_GAMES.compareAndSet(slot, known, gameId)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return ячейка таблицы законченных игр для идентификатора
+     */
+    private static int slot(long gameId) {
+        return (int) ((gameId * 0x9E3779B97F4A7C15L) >>> SLOT_SHIFT);
+    }
+
+    /**
+     * Снимает статистику, не останавливая запись.
+     *
+     * @return статистика по правилам и размерам доски, упорядоченная по правилам и размеру
+     */
+    public static List<GameStatsDto> snapshot() {
+        List<GameStatsDto> stats = new ArrayList<>();
+        for (Map.Entry<String, Map<Integer, Bucket>> rules : BUCKETS.entrySet()) {
+            for (Map.Entry<Integer, Bucket> size : rules.getValue().entrySet()) {
+                Bucket bucket = size.getValue();
+                stats.add(new GameStatsDto(rules.getKey(), size.getKey(), bucket.started.sum(),
+                        bucket.whiteWins.sum(), bucket.blackWins.sum(), bucket.draws.sum(), bucket.moves.sum()));
+            }
+        }
+        stats.sort((a, b) -> a.getRules().equals(b.getRules())
+                ? Integer.compare(a.getSize(), b.getSize()) : a.getRules().compareTo(b.getRules()));
+        return stats;
+    }
+
+    /**
+     * Сбрасывает статистику (для тестов).
+     */
+    static void reset() {
+        BUCKETS.clear();
+        for (int slot = 0; slot < MAX_FINISHED_GAMES; slot++) {
+            FINISHED_GAMES.set(slot, null);
+        }
+    }
+
+    /**
+     * Находит корзину, создавая её при необходимости.
+     */
+    private static Bucket bucket(String rules, int size) {
+        Map<Integer, Bucket> sizes = BUCKETS.get(rules);
+        if (sizes == null) {
+            sizes = BUCKETS.computeIfAbsent(rules, key -> new ConcurrentHashMap<>());
+        }
+        Bucket bucket = sizes.get(size);
+        if (bucket == null) {
+            bucket = sizes.computeIfAbsent(size, key -> new Bucket());
+        }
+        return bucket;
+    }
+
+    /**
+     * @return количество фишек среди первых cells клеток
+     */
+    private static int countStones(String data, int cells) {
+        int length = Math.min(data.length(), cells);
+        int stones = 0;
+        for (int i = 0; i < length; i++) {
+            char cell = data.charAt(i);
+            if (cell == 'w' || cell == 'W' || cell == 'b' || cell == 'B') stones++;
+        }
+        return stones;
+    }
+}
@@ -0,0 +1,96 @@
+package com.task2.service.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Реестр счётчиков сервиса.
+ * Счётчики создаются при первом обращении и хранятся в LongAdder,
+ * поэтому их увеличение из разных потоков не создаёт конкуренции.
+ * Кроме счётчиков реестр хранит датчики - функции, значение которых
+ * вычисляется в момент снятия снимка (например, глубина очереди).
+ * Снимок всех значений отдаётся эндпоинтом /api/metrics.
+ */
+public final class ServiceMetrics {
+
+    /** Счётчики по имени */
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    /** Датчики по имени */
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    private ServiceMetrics() {}
+
+    /**
+     * Увеличивает счётчик на единицу.
+     *
+     * @param name имя счётчика
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Увеличивает счётчик на заданное значение.
+     *
+     * @param name имя счётчика
+     * @param delta величина приращения
+     */
+    public static void add(String name, long delta) {
+        counter(name).add(delta);
+    }
+
+    /**
+     * Регистрирует датчик. Повторная регистрация с тем же именем заменяет датчик.
+     *
+     * @param name имя датчика
+     * @param gauge функция, возвращающая текущее значение
+     */
+    public static void gauge(String name, LongSupplier gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Возвращает текущее значение счётчика.
+     *
+     * @param name имя счётчика
+     * @return значение счётчика или 0, если он ещё не создан
+     */
+    public static long get(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Возвращает снимок всех счётчиков и датчиков, упорядоченный по имени.
+     *
+     * @return отображение имя -> значение
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : COUNTERS.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().sum());
+        }
+        for (Map.Entry<String, LongSupplier> entry : GAUGES.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Находит счётчик по имени, создавая его при необходимости.
+     *
+     * @param name имя счётчика
+     * @return счётчик
+     */
+    private static LongAdder counter(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        if (counter == null) {
+            counter = COUNTERS.computeIfAbsent(name, key -> new LongAdder());
+        }
+        return counter;
+    }
+}
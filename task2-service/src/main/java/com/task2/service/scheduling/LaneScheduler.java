@@ -0,0 +1,180 @@
+package com.task2.service.scheduling;
+
+import com.task2.service.ServiceConfig;
+import com.task2.service.engine.Difficulty;
+import com.task2.service.metrics.ServiceMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Планировщик запросов по классам обслуживания ("полосам").
+ * Дешёвые запросы (/status, /health) выполняются в быстрой полосе,
+ * вычисление хода - в отдельной ограниченной полосе для каждого уровня сложности,
+ * пакетные запросы и анализ по правилам full - в отдельной пакетной полосе.
+ * У каждой полосы свой пул потоков и своя ограниченная очередь, поэтому поток
+ * тяжёлых запросов сложного уровня не увеличивает задержку проверки статуса.
+ * Если очередь полосы заполнена, запрос отклоняется.
+ *
+ * Для каждой полосы в /api/metrics публикуются глубина очереди, число активных задач,
+ * количество выполненных и отклонённых задач, суммарное и максимальное время ожидания в очереди.
+ */
+public final class LaneScheduler {
+
+    /**
+     * Полоса обслуживания с параметрами по умолчанию.
+     */
+    public enum Lane {
+        /** Быстрая полоса для дешёвых запросов статуса и здоровья */
+        FAST("fast", 2, 1024),
+
+        /** Вычисление хода на лёгком уровне */
+        MOVE_EASY("move.easy", 2, 256),
+
+        /** Вычисление хода на обычном уровне */
+        MOVE_NORMAL("move.normal", Runtime.getRuntime().availableProcessors(), 512),
+
+        /** Вычисление хода на сложном уровне */
+        MOVE_HARD("move.hard", Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 64),
+
+        /** Пакетный статус многих досок и анализ по правилам full: дорогие запросы вне быстрой полосы */
+        BULK("bulk", Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 16);
+
+        /** Имя полосы в конфигурации и метриках */
+        private final String key;
+
+        /** Количество потоков по умолчанию */
+        private final int defaultThreads;
+
+        /** Размер очереди по умолчанию */
+        private final int defaultQueue;
+
+        Lane(String key, int defaultThreads, int defaultQueue) {
+            this.key = key;
+            this.defaultThreads = defaultThreads;
+            this.defaultQueue = defaultQueue;
+        }
+
+        /**
+         * @return имя полосы в конфигурации и метриках
+         */
+        public String key() {
+            return key;
+        }
+    }
+
+    /** Исполнители по полосам */
+    private static final Map<Lane, LaneExecutor> EXECUTORS = new EnumMap<>(Lane.class);
+
+    // Создаём пулы потоков всех полос при загрузке класса
+    static {
+        for (Lane lane : Lane.values()) {
+            EXECUTORS.put(lane, new LaneExecutor(lane));
+        }
+    }
+
+    private LaneScheduler() {}
+
+    /**
+     * Возвращает полосу для вычисления хода на заданном уровне сложности.
+     *
+     * @param difficulty уровень сложности
+     * @return полоса обслуживания
+     */
+    public static Lane forDifficulty(Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY:
+                return Lane.MOVE_EASY;
+            case HARD:
+                return Lane.MOVE_HARD;
+            default:
+                return Lane.MOVE_NORMAL;
+        }
+    }
+
+    /**
+     * Ставит задачу в очередь полосы.
+     *
+     * @param lane полоса обслуживания
+     * @param task задача
+     * @return true, если задача принята; false, если очередь полосы заполнена
+     */
+    public static boolean submit(Lane lane, Runnable task) {
+        return EXECUTORS.get(lane).submit(task);
+    }
+
+    /**
+     * Пул потоков одной полосы со сбором метрик ожидания.
+     */
+    private static class LaneExecutor {
+
+        /** Префикс имён метрик полосы */
+        private final String prefix;
+
+        /** Пул потоков полосы с ограниченной очередью */
+        private final ThreadPoolExecutor executor;
+
+        /** Количество выполненных задач */
+        private final LongAdder completed = new LongAdder();
+
+        /** Суммарное время ожидания в очереди, мкс */
+        private final LongAdder waitTotal = new LongAdder();
+
+        /** Максимальное время ожидания в очереди, мкс */
+        private final AtomicLong waitMax = new AtomicLong();
+
+        LaneExecutor(Lane lane) {
+            int threads = Math.max(1, ServiceConfig.getInt("lane." + lane.key() + ".threads", lane.defaultThreads));
+            int queue = Math.max(1, ServiceConfig.getInt("lane." + lane.key() + ".queue", lane.defaultQueue));
+            AtomicInteger counter = new AtomicInteger();
+            this.prefix = "lane." + lane.key();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queue),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "lane-" + lane.key() + "-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+
+            ServiceMetrics.gauge(prefix + ".queue", () -> executor.getQueue().size());
+            ServiceMetrics.gauge(prefix + ".active", executor::getActiveCount);
+            ServiceMetrics.gauge(prefix + ".completed", completed::sum);
+            ServiceMetrics.gauge(prefix + ".wait.micros.total", waitTotal::sum);
+            ServiceMetrics.gauge(prefix + ".wait.micros.max", waitMax::get);
+        }
+
+        /**
+         * Ставит задачу в очередь, замеряя время её ожидания.
+         *
+         * @param task задача
+         * @return true, если задача принята
+         */
+        boolean submit(Runnable task) {
+            long enqueued = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    long waited = (System.nanoTime() - enqueued) / 1000;
+                    waitTotal.add(waited);
+                    waitMax.accumulateAndGet(waited, Math::max);
+                    try {
+                        task.run();
+                    } finally {
+                        completed.increment();
+                    }
+                });
+                return true;
+            } catch (RejectedExecutionException e) {
+                ServiceMetrics.increment(prefix + ".rejected");
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.task2.service.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Бенчмарк времени запуска сервиса: время от старта процесса JVM до первого ответа.
+ * Несколько раз запускает собранный jar в отдельном процессе, опрашивает
+ * /api/health и печатает минимальное, медианное и максимальное время до первого
+ * успешного ответа. Прогрев в измеряемых процессах отключается.
+ *
+ * Запуск:
+ * java -cp target/squares-service.jar com.task2.service.tools.StartupBenchmark [параметры]
+ *   --jar путь        путь к jar сервиса (по умолчанию target/squares-service.jar)
+ *   --runs N          количество запусков (по умолчанию 5)
+ *   --port N          порт, на котором запускать сервис (по умолчанию 18080)
+ *   --jvm "опции"     дополнительные опции JVM, например "-XX:SharedArchiveFile=target/squares-service.jsa"
+ *   --fast            включить режим быстрого запуска (-Dstartup.fast=true)
+ */
+public final class StartupBenchmark {
+
+    /** Максимальное время ожидания первого ответа, мс */
+    private static final long TIMEOUT_MILLIS = 60000;
+
+    /** Файл, в который отбрасывается вывод запускаемого сервиса */
+    private static final File NULL_FILE = new File(
+            System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    private StartupBenchmark() {}
+
+    /**
+     * Точка входа бенчмарка.
+     *
+     * @param args параметры командной строки (см. описание класса)
+     * @throws Exception если сервис не удалось запустить
+     */
+    public static void main(String[] args) throws Exception {
+        String jar = "target/squares-service.jar";
+        int runs = 5;
+        int port = 18080;
+        List<String> jvmOptions = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jar":
+                    jar = args[++i];
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--jvm":
+                    jvmOptions.addAll(Arrays.asList(args[++i].trim().split("\\s+")));
+                    break;
+                case "--fast":
+                    jvmOptions.add("-Dstartup.fast=true");
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        long[] times = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            times[run] = measure(jar, port, jvmOptions);
+            System.out.printf("run %d: %d ms%n", run + 1, times[run]);
+        }
+
+        Arrays.sort(times);
+        System.out.printf("time-to-first-response: min %d ms, median %d ms, max %d ms%n",
+                times[0], times[runs / 2], times[runs - 1]);
+    }
+
+    /**
+     * Запускает сервис и измеряет время до первого успешного ответа /api/health.
+     *
+     * @param jar путь к jar сервиса
+     * @param port порт сервиса
+     * @param jvmOptions дополнительные опции JVM
+     * @return время до первого ответа, мс
+     * @throws IOException если процесс не удалось запустить или он не ответил вовремя
+     * @throws InterruptedException если ожидание прервано
+     */
+    private static long measure(String jar, int port, List<String> jvmOptions)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-Dbase.uri=http://localhost:" + port + "/");
+        command.add("-Dwarmup.enabled=false");
+        command.add("-jar");
+        command.add(jar);
+
+        URL health = new URL("http://localhost:" + port + "/api/health");
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(NULL_FILE))
+                .start();
+        try {
+            while (System.nanoTime() - started < TIMEOUT_MILLIS * 1_000_000L) {
+                if (!process.isAlive()) {
+                    throw new IOException("Service exited with code " + process.exitValue());
+                }
+                if (respondsOk(health)) {
+                    return (System.nanoTime() - started) / 1_000_000L;
+                }
+                Thread.sleep(2);
+            }
+            throw new IOException("Service did not respond within " + TIMEOUT_MILLIS + " ms");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    /**
+     * Проверяет, отвечает ли эндпоинт кодом 200.
+     *
+     * @param url адрес эндпоинта
+     * @return true, если получен ответ 200
+     */
+    private static boolean respondsOk(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(50);
+            connection.setReadTimeout(1000);
+            int code = connection.getResponseCode();
+            try (InputStream in = connection.getInputStream()) {
+                while (in.read() != -1) {
+                    // дочитываем тело ответа
+                }
+            }
+            return code == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.task2.service.cache;
+
+import com.task1.console.Board;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для постоянного кэша позиций: поиск и запись, политика замещения,
+ * старение записей прошлых запусков и повторное открытие файла.
+ */
+public class PositionCacheTest {
+
+    /** Наименьший размер файла: 512 корзин */
+    private static final long FILE_BYTES = 1 << 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Ключи с одинаковыми битами 8..16 попадают в одну корзину.
+     */
+    private static long keyInBucket(int bucket, int i) {
+        return ((long) (i + 1) << 32) | ((long) bucket << 8) | 0x5A;
+    }
+
+    private PositionCache open(Path file) {
+        return new PositionCache(file, FILE_BYTES);
+    }
+
+    @Test
+    public void testProbeAndStore() throws IOException {
+        PositionCache cache = open(folder.newFile().toPath());
+        long key = keyInBucket(3, 0);
+        assertEquals(PositionCache.MISS, cache.probe(key, 1));
+
+        cache.store(key, 7, 11, PositionCache.SCORE_WIN, 5);
+        long data = cache.probe(key, 5);
+        assertNotEquals(PositionCache.MISS, data);
+        assertEquals(7, PositionCache.moveX(data));
+        assertEquals(11, PositionCache.moveY(data));
+        assertEquals(PositionCache.SCORE_WIN, PositionCache.score(data));
+
+        assertNotEquals("Подходит запись не меньшей глубины", PositionCache.MISS, cache.probe(key, 3));
+        assertEquals("Запись недостаточной глубины - промах", PositionCache.MISS, cache.probe(key, 6));
+        assertEquals("Другая позиция той же корзины", PositionCache.MISS, cache.probe(keyInBucket(3, 1), 1));
+    }
+
+    @Test
+    public void testSamePositionReplacedOnlyByDeeperResult() throws IOException {
+        PositionCache cache = open(folder.newFile().toPath());
+        long key = keyInBucket(0, 0);
+        cache.store(key, 1, 1, 0, 6);
+
+        cache.store(key, 2, 2, 0, 4);
+        assertEquals("Менее глубокий результат не заменяет запись", 1, PositionCache.moveX(cache.probe(key, 1)));
+
+        cache.store(key, 3, 3, 0, 6);
+        assertEquals(3, PositionCache.moveX(cache.probe(key, 1)));
+        cache.store(key, 4, 4, 0, 9);
+        assertEquals(4, PositionCache.moveX(cache.probe(key, 9)));
+    }
+
+    @Test
+    public void testFullBucketEvictsShallowestEntry() throws IOException {
+        PositionCache cache = open(folder.newFile().toPath());
+        int[] depths = {5, 2, 7, 9};
+        for (int i = 0; i < depths.length; i++) {
+            cache.store(keyInBucket(9, i), i, 0, 0, depths[i]);
+        }
+
+        cache.store(keyInBucket(9, 4), 4, 0, 0, 3);
+
+        assertEquals("Вытеснена запись с наименьшей глубиной", PositionCache.MISS, cache.probe(keyInBucket(9, 1), 1));
+        assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(9, 0), 1));
+        assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(9, 2), 1));
+        assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(9, 3), 1));
+        assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(9, 4), 1));
+    }
+
+    @Test
+    public void testOlderGenerationEvictedFirst() throws IOException {
+        Path file = folder.newFile().toPath();
+        PositionCache previous = open(file);
+        for (int i = 0; i < 4; i++) {
+            previous.store(keyInBucket(20, i), i, 0, 0, 10);
+        }
+        previous.close();
+
+        // Новый запуск: мелкие записи текущего поколения вытесняют глубокие записи прошлого
+        PositionCache cache = open(file);
+        cache.store(keyInBucket(20, 10), 10, 0, 0, 1);
+        cache.store(keyInBucket(20, 11), 11, 0, 0, 1);
+
+        int survivors = 0;
+        for (int i = 0; i < 4; i++) {
+            if (cache.probe(keyInBucket(20, i), 1) != PositionCache.MISS) survivors++;
+        }
+        assertEquals("Вытеснены две записи прошлого поколения", 2, survivors);
+        assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(20, 10), 1));
+        assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(20, 11), 1));
+
+        // Записи текущего поколения вытесняются только после всех записей прошлого
+        cache.store(keyInBucket(20, 12), 12, 0, 0, 1);
+        cache.store(keyInBucket(20, 13), 13, 0, 0, 1);
+        for (int i = 10; i < 14; i++) {
+            assertNotEquals(PositionCache.MISS, cache.probe(keyInBucket(20, i), 1));
+        }
+    }
+
+    @Test
+    public void testEntriesSurviveReopen() throws IOException {
+        Path file = folder.newFile().toPath();
+        Board board = new Board(5);
+        board.load("wb.w.");
+        long key = PositionCache.hash("standard", board, 'W');
+
+        PositionCache first = open(file);
+        first.store(key, 2, 0, PositionCache.SCORE_WIN, 4);
+        first.close();
+
+        long data = open(file).probe(key, 4);
+        assertNotEquals("Запись пережила повторное открытие", PositionCache.MISS, data);
+        assertEquals(2, PositionCache.moveX(data));
+        assertEquals(0, PositionCache.moveY(data));
+
+        // Файл другого размера - другой формат таблицы: он очищается
+        PositionCache resized = new PositionCache(file, FILE_BYTES * 2);
+        assertEquals(PositionCache.MISS, resized.probe(key, 1));
+    }
+
+    @Test
+    public void testHashDependsOnRulesStonesAndColor() {
+        Board board = new Board(5);
+        board.load("wb.w.");
+        long key = PositionCache.hash("standard", board, 'W');
+
+        assertNotEquals(key, PositionCache.hash("standard", board, 'B'));
+        assertNotEquals(key, PositionCache.hash("axis", board, 'W'));
+        board.makeMove(4, 4, 'B');
+        assertNotEquals(key, PositionCache.hash("standard", board, 'W'));
+    }
+}
@@ -0,0 +1,148 @@
+package com.task2.service.controller;
+
+import com.task2.service.scheduling.LaneScheduler;
+import org.junit.Test;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для передачи запросов в полосы: ответ 503 при заполненной полосе,
+ * ответ 500 при ошибке обработчика и таймаут приостановленного ответа.
+ */
+public class DispatchTest {
+
+    /** Наибольшее количество задач, которое заведомо переполняет пакетную полосу */
+    private static final int MAX_TASKS = 100_000;
+
+    /**
+     * Асинхронный ответ, который запоминает отправленный ответ и таймаут.
+     */
+    private static final class RecordingResponse implements AsyncResponse {
+
+        final CountDownLatch resumed = new CountDownLatch(1);
+        volatile Response response;
+        volatile long timeoutMillis = -1;
+
+        @Override
+        public boolean resume(Object value) {
+            response = (Response) value;
+            resumed.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean resume(Throwable error) {
+            return false;
+        }
+
+        @Override
+        public boolean cancel() {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(int retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean cancel(Date retryAfter) {
+            return false;
+        }
+
+        @Override
+        public boolean isSuspended() {
+            return response == null;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return response != null;
+        }
+
+        @Override
+        public boolean setTimeout(long time, TimeUnit unit) {
+            timeoutMillis = unit.toMillis(time);
+            return true;
+        }
+
+        @Override
+        public void setTimeoutHandler(TimeoutHandler handler) {
+        }
+
+        @Override
+        public Collection<Class<?>> register(Class<?> callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Collection<Class<?>> register(Object callback) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+            return Collections.emptyMap();
+        }
+    }
+
+    @Test
+    public void testHandlerErrorAnswers500() throws InterruptedException {
+        RecordingResponse asyncResponse = new RecordingResponse();
+        assertTrue(GameController.dispatch(LaneScheduler.Lane.FAST, "test", null, null, asyncResponse,
+                requestId -> {
+                    throw new AssertionError("Сбой обработчика");
+                }));
+
+        assertTrue("Ответ отправлен", asyncResponse.resumed.await(5, TimeUnit.SECONDS));
+        assertEquals(500, asyncResponse.response.getStatus());
+        assertTrue("Задан таймаут ответа", asyncResponse.timeoutMillis > 0);
+    }
+
+    @Test
+    public void testFullLaneAnswers503() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            int submitted = 0;
+            while (LaneScheduler.submit(LaneScheduler.Lane.BULK, blocked)) {
+                assertTrue("Полоса ограничена", ++submitted < MAX_TASKS);
+            }
+
+            RecordingResponse asyncResponse = new RecordingResponse();
+            assertFalse(GameController.dispatch(LaneScheduler.Lane.BULK, "test", null, null, asyncResponse,
+                    requestId -> Response.ok().build()));
+            assertEquals(503, asyncResponse.response.getStatus());
+            assertNotNull(asyncResponse.response.getHeaderString("Retry-After"));
+            assertNotNull(asyncResponse.response.getHeaderString(GameController.REQUEST_ID_HEADER));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.task2.service.engine;
+
+import com.task2.service.ServiceConfig;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для адаптивного бюджета вычислений: бюджет без нагрузки,
+ * интерполяция между границами и округление до степени двойки.
+ */
+public class ComputeBudgetTest {
+
+    private static int floor(Difficulty difficulty) {
+        return ServiceConfig.getInt("budget." + difficulty.key() + ".min", 0);
+    }
+
+    private static int ceiling(Difficulty difficulty) {
+        return ServiceConfig.getInt("budget." + difficulty.key() + ".max", 0);
+    }
+
+    @Test
+    public void testIdleServiceDoesNotLimitSearch() {
+        assertEquals(ComputeBudget.UNLIMITED, ComputeBudget.forPressure(Difficulty.NORMAL, 0.0));
+        assertEquals(ComputeBudget.UNLIMITED, ComputeBudget.forPressure(Difficulty.HARD, 0.0));
+        assertEquals(ComputeBudget.UNLIMITED,
+                ComputeBudget.forPressure(Difficulty.NORMAL, ComputeBudget.RELAXED_PRESSURE));
+        assertEquals("Лёгкий уровень ограничен и без нагрузки",
+                ceiling(Difficulty.EASY), ComputeBudget.forPressure(Difficulty.EASY, 0.0));
+    }
+
+    @Test
+    public void testBudgetShrinksFromCeilingToFloor() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            double justLoaded = ComputeBudget.RELAXED_PRESSURE + 1e-9;
+            assertEquals(difficulty.key(), ceiling(difficulty), ComputeBudget.forPressure(difficulty, justLoaded));
+            assertEquals(difficulty.key(), floor(difficulty),
+                    ComputeBudget.forPressure(difficulty, ComputeBudget.SATURATED_PRESSURE));
+            assertEquals("Выше насыщения бюджет не падает ниже нижней границы",
+                    floor(difficulty), ComputeBudget.forPressure(difficulty, 10.0));
+        }
+    }
+
+    @Test
+    public void testBudgetIsMonotoneAndRoundedToPowerOfTwo() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            int previous = ComputeBudget.forPressure(difficulty, 0.0);
+            for (double pressure = 0.0; pressure <= 2.0; pressure += 0.01) {
+                int budget = ComputeBudget.forPressure(difficulty, pressure);
+                assertTrue("Нагрузка только уменьшает бюджет: " + difficulty.key() + " " + pressure,
+                        budget <= previous);
+                if (budget != ComputeBudget.UNLIMITED && budget != ceiling(difficulty)) {
+                    assertEquals("Степень двойки: " + budget, Integer.highestOneBit(budget), budget);
+                }
+                previous = budget;
+            }
+        }
+    }
+
+    @Test
+    public void testMidPressureIsGeometricMean() {
+        // Половина пути от RELAXED до SATURATED: sqrt(16 * 256) = 64
+        double middle = (ComputeBudget.RELAXED_PRESSURE + ComputeBudget.SATURATED_PRESSURE) / 2;
+        double expected = Math.sqrt((double) floor(Difficulty.NORMAL) * ceiling(Difficulty.NORMAL));
+        assertEquals(Integer.highestOneBit((int) Math.round(expected)),
+                ComputeBudget.forPressure(Difficulty.NORMAL, middle));
+    }
+}
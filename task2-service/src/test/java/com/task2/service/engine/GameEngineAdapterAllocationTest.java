@@ -0,0 +1,171 @@
+package com.task2.service.engine;
+
+import com.task1.console.Board;
+import com.task1.console.rules.Rules;
+import com.task2.service.dto.BoardDto;
+import com.task2.service.dto.GameStatusDto;
+import com.task2.service.dto.SimpleMoveDto;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Профиль выделения памяти на горячем пути сервиса: после прогрева вычисление хода
+ * и статуса для доски из запроса выделяет не больше фиксированного бюджета байт
+ * независимо от размера доски (доска и буферы - рабочие данные потока).
+ * Ход в игровой сессии дополнительно копирует позицию один раз для фонового обдумывания.
+ * Память считается по счётчику выделенных байт потока (ThreadMXBean).
+ */
+public class GameEngineAdapterAllocationTest {
+
+    /** Бюджет на запрос nextMove, байт: ход, DTO ответа, запись объединения запросов */
+    private static final long NEXT_MOVE_BUDGET = 512;
+
+    /**
+     * Бюджет на запрос nextMove в сессии, байт: сверх обычного запроса - копия доски 15x15
+     * для обдумывания (около 0.8 КБ), сессия и задача пула
+     */
+    private static final long SESSION_NEXT_MOVE_BUDGET = NEXT_MOVE_BUDGET + 1536;
+
+    /** Бюджет на запрос status, байт: DTO ответа */
+    private static final long STATUS_BUDGET = 64;
+
+    /** Прогрев и замеры */
+    private static final int WARM_UP = 20_000;
+    private static final int MEASURED = 2_000;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void checkSupport() {
+        Assume.assumeTrue("Счётчик выделенной памяти недоступен",
+                ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("Счётчик выделенной памяти выключен", threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled());
+    }
+
+    @Test
+    public void testNextMoveStaysWithinBudget() {
+        GameEngineAdapter adapter = new GameEngineAdapter();
+        BoardDto[] boards = positions(15, 64);
+
+        long bytes = measure(() -> {
+            for (BoardDto board : boards) {
+                SimpleMoveDto move = adapter.calculateNextMove(Rules.STANDARD, board, null, 400);
+                assertNotNull(move);
+            }
+        }, boards.length);
+
+        assertTrue("nextMove выделяет " + bytes + " байт на запрос", bytes <= NEXT_MOVE_BUDGET);
+    }
+
+    @Test
+    public void testSessionNextMoveStaysWithinBudget() {
+        GameEngineAdapter adapter = new GameEngineAdapter();
+        BoardDto[] boards = openPositions(15, 64);
+        Long gameId = 77L;
+
+        long bytes = measure(() -> {
+            for (BoardDto board : boards) {
+                SimpleMoveDto move = adapter.calculateNextMove(Rules.STANDARD, board, gameId, 400);
+                assertNotNull(move);
+            }
+        }, boards.length);
+        Ponderer.getInstance().cancel(gameId);
+
+        assertTrue("nextMove в сессии выделяет " + bytes + " байт на запрос", bytes <= SESSION_NEXT_MOVE_BUDGET);
+    }
+
+    @Test
+    public void testStatusStaysWithinBudget() {
+        GameEngineAdapter adapter = new GameEngineAdapter();
+        BoardDto[] boards = positions(15, 64);
+
+        long bytes = measure(() -> {
+            for (BoardDto board : boards) {
+                GameStatusDto status = adapter.getGameStatus(Rules.STANDARD, board, null);
+                assertNotNull(status);
+            }
+        }, boards.length);
+
+        assertTrue("status выделяет " + bytes + " байт на запрос", bytes <= STATUS_BUDGET);
+    }
+
+    @Test
+    public void testScratchBoardMatchesRequest() {
+        // Рабочая доска потока не должна сохранять фишки предыдущего запроса
+        GameEngineAdapter adapter = new GameEngineAdapter();
+        String full = "wwb.b" + "bbwwb" + "wwbbw" + "bbwwb" + "wwbbw";
+        adapter.calculateNextMove(Rules.STANDARD, new BoardDto(5, full, "w"), null, 400);
+
+        for (int i = 0; i < 100; i++) {
+            SimpleMoveDto move = adapter.calculateNextMove(Rules.STANDARD, new BoardDto(5, "w", "b"), null, 400);
+            assertFalse("Ход в занятую клетку", move.getX() == 0 && move.getY() == 0);
+        }
+        SimpleMoveDto last = adapter.calculateNextMove(Rules.STANDARD, new BoardDto(5, full, "w"), null, 400);
+        assertEquals("Единственная свободная клетка", 3, last.getX());
+        assertEquals(0, last.getY());
+    }
+
+    /**
+     * Прогревает действие и возвращает среднее количество байт, выделенных на один запрос.
+     */
+    private static long measure(Runnable batch, int requestsPerBatch) {
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARM_UP / requestsPerBatch; i++) {
+            batch.run();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED / requestsPerBatch; i++) {
+            batch.run();
+        }
+        long after = threads.getThreadAllocatedBytes(thread);
+        return (after - before) / (MEASURED / requestsPerBatch * (long) requestsPerBatch);
+    }
+
+    /**
+     * Случайные позиции без квадратов, которые обдумываются после хода: около 15% клеток заняты.
+     */
+    private static BoardDto[] openPositions(int size, int count) {
+        Random random = new Random(7);
+        BoardDto[] boards = new BoardDto[count];
+        int found = 0;
+        while (found < count) {
+            StringBuilder data = new StringBuilder();
+            for (int cell = 0; cell < size * size; cell++) {
+                int roll = random.nextInt(12);
+                data.append(roll == 0 ? 'w' : roll == 1 ? 'b' : ' ');
+            }
+            Board board = new Board(size);
+            board.load(data);
+            if (!Rules.STANDARD.hasSquare(board, 'W') && !Rules.STANDARD.hasSquare(board, 'B')) {
+                boards[found] = new BoardDto(size, data.toString(), (found % 2 == 0) ? "w" : "b");
+                found++;
+            }
+        }
+        return boards;
+    }
+
+    /**
+     * Случайные позиции середины партии: около трети клеток заняты.
+     */
+    private static BoardDto[] positions(int size, int count) {
+        Random random = new Random(5);
+        BoardDto[] boards = new BoardDto[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder data = new StringBuilder();
+            for (int cell = 0; cell < size * size; cell++) {
+                int roll = random.nextInt(6);
+                data.append(roll == 0 ? 'w' : roll == 1 ? 'b' : ' ');
+            }
+            boards[i] = new BoardDto(size, data.toString(), (i % 2 == 0) ? "w" : "b");
+        }
+        return boards;
+    }
+}
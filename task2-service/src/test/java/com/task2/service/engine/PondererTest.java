@@ -0,0 +1,140 @@
+package com.task2.service.engine;
+
+import com.task1.console.Board;
+import com.task1.console.rules.Rules;
+import com.task2.service.ServiceConfig;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для фонового обдумывания ответов: попадание и промах (в том числе
+ * при других правилах или бюджете), отмена, лимит ответов на сессию
+ * и вытеснение брошенных сессий.
+ */
+public class PondererTest {
+
+    /** Ожидание задач сессии, мс */
+    private static final long TIMEOUT = 10_000;
+
+    private final Ponderer ponderer = Ponderer.getInstance();
+
+    /**
+     * Позиция 5x5 после хода компьютера (белые): все свободные клетки обдумываются.
+     */
+    private static Board smallBoard() {
+        Board board = new Board(5);
+        board.load("w...." + "..b.." + "....." + ".w..." + "....b");
+        return board;
+    }
+
+    @Test
+    public void testHitReturnsPonderedReply() throws Exception {
+        long gameId = 101;
+        Board board = smallBoard();
+        ponderer.ponder(gameId, board, 'B', 400, Rules.STANDARD);
+        ponderer.awaitSession(gameId, TIMEOUT);
+
+        Board afterHuman = new Board(board);
+        afterHuman.makeMove(3, 3, 'B');
+        int[] reply = ponderer.take(gameId, afterHuman, 'W', 400, Rules.STANDARD);
+
+        assertNotNull("Ответ на ход человека посчитан заранее", reply);
+        assertEquals("Ответ - свободная клетка", '.', afterHuman.getCell(reply[0], reply[1]));
+        assertEquals("Сессия забрана", -1, ponderer.replyCount(gameId));
+    }
+
+    @Test
+    public void testMissOnUnexpectedPosition() throws Exception {
+        long gameId = 102;
+        Board board = smallBoard();
+        ponderer.ponder(gameId, board, 'B', 400, Rules.STANDARD);
+        ponderer.awaitSession(gameId, TIMEOUT);
+
+        // Два камня вместо одного хода - такую позицию обдумывание не рассматривало
+        Board other = new Board(board);
+        other.makeMove(1, 1, 'B');
+        other.makeMove(3, 1, 'W');
+        assertNull(ponderer.take(gameId, other, 'W', 400, Rules.STANDARD));
+        assertNull("Сессия забрана и промахом", ponderer.take(gameId, smallBoard(), 'W', 400, Rules.STANDARD));
+    }
+
+    @Test
+    public void testMissOnOtherRulesOrBudget() throws Exception {
+        Board board = smallBoard();
+        Board afterHuman = new Board(board);
+        afterHuman.makeMove(3, 3, 'B');
+
+        long gameId = 105;
+        ponderer.ponder(gameId, board, 'B', 400, Rules.STANDARD);
+        ponderer.awaitSession(gameId, TIMEOUT);
+        assertNull("Ответ посчитан по другим правилам", ponderer.take(gameId, afterHuman, 'W', 400, Rules.AXIS));
+
+        ponderer.ponder(gameId, board, 'B', 400, Rules.STANDARD);
+        ponderer.awaitSession(gameId, TIMEOUT);
+        assertNull("Ответ посчитан с другим бюджетом", ponderer.take(gameId, afterHuman, 'W', 64, Rules.STANDARD));
+        assertEquals("Сессия забрана и промахом", -1, ponderer.replyCount(gameId));
+    }
+
+    @Test
+    public void testCancelForgetsSession() throws Exception {
+        long gameId = 103;
+        Board board = smallBoard();
+        ponderer.ponder(gameId, board, 'B', 400, Rules.STANDARD);
+        assertTrue(ponderer.replyCount(gameId) >= 0);
+
+        ponderer.cancel(gameId);
+
+        assertEquals(-1, ponderer.replyCount(gameId));
+        Board afterHuman = new Board(board);
+        afterHuman.makeMove(3, 3, 'B');
+        assertNull(ponderer.take(gameId, afterHuman, 'W', 400, Rules.STANDARD));
+    }
+
+    @Test
+    public void testRepliesPerSessionAreCapped() throws Exception {
+        long gameId = 104;
+        // Редкая сетка камней на большой доске: кандидатов рядом с камнями больше лимита
+        Board board = new Board(15);
+        for (int y = 1; y < 15; y += 4) {
+            for (int x = 1; x < 15; x += 4) {
+                board.makeMove(x, y, ((x + y) % 8 == 2) ? 'W' : 'B');
+            }
+        }
+        ponderer.ponder(gameId, board, 'B', 64, Rules.STANDARD);
+        ponderer.awaitSession(gameId, TIMEOUT);
+
+        assertEquals(ServiceConfig.getInt("ponder.max.tasks.per.session", 32), ponderer.replyCount(gameId));
+        ponderer.cancel(gameId);
+    }
+
+    @Test
+    public void testAbandonedSessionsAreEvicted() throws Exception {
+        int maxSessions = ServiceConfig.getInt("ponder.max.sessions", 1024);
+        // Единственная свободная клетка заполняет доску: сессия создаётся, но ответов в ней нет
+        Board board = new Board(3);
+        board.load("wbw" + "b.b" + "bww");
+        long first = 1_000_000;
+        long last = first + maxSessions + 10;
+        for (long gameId = first; gameId <= last; gameId++) {
+            ponderer.ponder(gameId, board, 'B', 16, Rules.STANDARD);
+        }
+
+        assertTrue(ponderer.sessionCount() <= maxSessions);
+        assertEquals("Самая старая сессия вытеснена", -1, ponderer.replyCount(first));
+        assertEquals("Новая сессия сохранена", 0, ponderer.replyCount(last));
+
+        // Обдумывание новых игр продолжает работать, когда очередь освободится
+        for (long id = first; id <= last; id++) {
+            ponderer.awaitSession(id, TIMEOUT);
+        }
+        long gameId = last + 1;
+        ponderer.ponder(gameId, smallBoard(), 'B', 400, Rules.STANDARD);
+        ponderer.awaitSession(gameId, TIMEOUT);
+        assertTrue(ponderer.replyCount(gameId) > 0);
+
+        for (long id = first; id <= gameId; id++) {
+            ponderer.cancel(id);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.task2.service.engine;
+
+import com.task1.console.Board;
+import com.task1.console.rules.RuleSet;
+import com.task1.console.rules.Rules;
+import com.task2.service.dto.AnalysisDto;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для анализа позиции: выигрывающие и защитные ходы, двойные угрозы
+ * (все - в сравнении с {@link RuleSet#wouldComplete}) и время анализа большой доски.
+ */
+public class PositionAnalyzerTest {
+
+    /** Наибольшее время анализа доски 15x15, мс */
+    private static final long MAX_MILLIS_15 = 20;
+
+    private final PositionAnalyzer analyzer = new PositionAnalyzer();
+
+    private static Board randomBoard(Random random, int size, int stonesPerHundred) {
+        Board board = new Board(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int roll = random.nextInt(100);
+                if (roll < stonesPerHundred) {
+                    board.makeMove(x, y, (roll % 2 == 0) ? 'W' : 'B');
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return количество свободных клеток, где ход цвета замыкает квадрат
+     */
+    private static int countWins(RuleSet rules, Board board, char color) {
+        int wins = 0;
+        for (int y = 0; y < board.size; y++) {
+            for (int x = 0; x < board.size; x++) {
+                if (board.getCell(x, y) == '.' && rules.wouldComplete(board, x, y, color)) wins++;
+            }
+        }
+        return wins;
+    }
+
+    @Test
+    public void testWinsAndBlocksMatchRules() {
+        Random random = new Random(3);
+        RuleSet[] ruleSets = {Rules.STANDARD, Rules.AXIS, Rules.AXIS_ANY, Rules.FULL};
+        for (int i = 0; i < 200; i++) {
+            RuleSet rules = ruleSets[i % ruleSets.length];
+            Board board = randomBoard(random, 4 + random.nextInt(6), 40);
+            char color = (i % 2 == 0) ? 'W' : 'B';
+            char opponent = (color == 'W') ? 'B' : 'W';
+
+            AnalysisDto analysis = analyzer.analyze(rules, board, color);
+
+            for (int y = 0; y < board.size; y++) {
+                for (int x = 0; x < board.size; x++) {
+                    int cell = y * board.size + x;
+                    if (board.getCell(x, y) != '.') {
+                        assertEquals("Занятая клетка не оценивается", -1, analysis.getScores()[cell]);
+                        continue;
+                    }
+                    String where = rules.getName() + " " + x + "," + y;
+                    assertEquals("Выигрыш " + where,
+                            rules.wouldComplete(board, x, y, color), analysis.getWins()[cell]);
+                    assertEquals("Защита " + where,
+                            rules.wouldComplete(board, x, y, opponent), analysis.getBlocks()[cell]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testForcedBlockOutranksThreats() {
+        Board board = new Board(6);
+        // Три чёрных камня квадрата 2x2: белые обязаны занять (2, 2)
+        board.makeMove(1, 1, 'B');
+        board.makeMove(2, 1, 'B');
+        board.makeMove(1, 2, 'B');
+        board.makeMove(4, 4, 'W');
+        board.makeMove(5, 4, 'W');
+
+        AnalysisDto analysis = analyzer.analyze(Rules.STANDARD, board, 'W');
+
+        int block = 2 * 6 + 2;
+        assertTrue(analysis.getBlocks()[block]);
+        int best = 0;
+        for (int cell = 1; cell < analysis.getScores().length; cell++) {
+            if (analysis.getScores()[cell] > analysis.getScores()[best]) best = cell;
+        }
+        assertEquals("Защитный ход оценён выше остальных", block, best);
+        assertFalse("Выигрыша у белых нет", analysis.getWins()[best]);
+    }
+
+    @Test
+    public void testDoubleThreatCreatesSeveralWins() {
+        Board board = new Board(7);
+        board.makeMove(1, 1, 'W');
+        board.makeMove(2, 1, 'W');
+        board.makeMove(3, 2, 'W');
+        board.makeMove(3, 3, 'W');
+        board.makeMove(5, 5, 'B');
+        board.makeMove(0, 6, 'B');
+        assertEquals(0, countWins(Rules.STANDARD, board, 'W'));
+
+        AnalysisDto analysis = analyzer.analyze(Rules.STANDARD, board, 'W');
+
+        int fork = 2 * 7 + 2;
+        assertTrue("Ход в (2, 2) создаёт несколько угроз", analysis.getThreats()[fork] >= 2);
+        for (int cell = 0; cell < analysis.getScores().length; cell++) {
+            assertTrue("Двойная угроза оценена не ниже остальных ходов",
+                    analysis.getScores()[cell] <= analysis.getScores()[fork]);
+        }
+        board.makeMove(2, 2, 'W');
+        assertTrue("После хода выигрывают несколько клеток", countWins(Rules.STANDARD, board, 'W') >= 2);
+    }
+
+    @Test
+    public void testThreatsMatchNewWins() {
+        Random random = new Random(8);
+        for (int i = 0; i < 100; i++) {
+            Board board = randomBoard(random, 5 + random.nextInt(5), 25);
+            AnalysisDto analysis = analyzer.analyze(Rules.STANDARD, board, 'W');
+            int before = countWins(Rules.STANDARD, board, 'W');
+
+            for (int y = 0; y < board.size; y++) {
+                for (int x = 0; x < board.size; x++) {
+                    if (board.getCell(x, y) != '.' || analysis.getWins()[y * board.size + x]) continue;
+                    int threats = analysis.getThreats()[y * board.size + x];
+                    Board after = new Board(board);
+                    after.makeMove(x, y, 'W');
+                    // Новые выигрывающие клетки лежат в квадратах через (x, y) с двумя своими камнями;
+                    // клетка, которую замыкает угроза, могла выигрывать и до хода
+                    int wins = countWins(Rules.STANDARD, after, 'W');
+                    assertTrue("Угроз не меньше новых выигрышей " + x + "," + y, wins - before <= threats);
+                    if (threats > 0) {
+                        assertTrue("Угроза даёт выигрыш следующим ходом " + x + "," + y, wins > 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeBoardIsFast() {
+        Random random = new Random(1);
+        Board[] boards = new Board[32];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = randomBoard(random, 15, 30);
+        }
+        // Прогрев: таблица квадратов 15x15 и JIT
+        for (int i = 0; i < 200; i++) {
+            analyzer.analyze(Rules.STANDARD, boards[i % boards.length], 'W');
+        }
+
+        long slowest = 0;
+        for (Board board : boards) {
+            long start = System.nanoTime();
+            analyzer.analyze(Rules.STANDARD, board, 'B');
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        assertTrue("Анализ 15x15 занял " + slowest / 1_000_000 + " мс",
+                slowest <= MAX_MILLIS_15 * 1_000_000);
+    }
+}
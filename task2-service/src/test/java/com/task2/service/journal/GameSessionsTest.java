@@ -0,0 +1,101 @@
+package com.task2.service.journal;
+
+import com.task1.console.Board;
+import com.task2.service.dto.BoardDto;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для реестра игровых сессий: восстановление игр после падения
+ * и завершение брошенных игр.
+ */
+public class GameSessionsTest {
+
+    /** Фоновый поток почти не работает во время теста */
+    private static final long FLUSH_INTERVAL = 1000;
+
+    /** Время простоя в тестах, мс */
+    private static final long TTL = 60_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static GameSessions open(Path directory) {
+        return new GameSessions(directory, 1 << 16, 4, FLUSH_INTERVAL, TTL);
+    }
+
+    private static Board board(String data) {
+        Board board = new Board(5);
+        board.load(data);
+        return board;
+    }
+
+    @Test
+    public void testUnfinishedGamesSurviveCrash() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        GameSessions crashed = open(directory);
+        crashed.update(7, board("w...."));
+        crashed.recordMove(7, 1, 1, 'B');
+        crashed.update(7, board("w.w.." + ".b..."));
+        crashed.update(8, board("....b"));
+        crashed.finish(8);
+
+        // Падение процесса: журнал не закрыт, записи только в отображённых страницах
+        GameSessions recovered = open(directory);
+        try {
+            assertEquals(1, recovered.size());
+            BoardDto game = recovered.snapshot(7);
+            assertNotNull(game);
+            assertEquals(5, game.getSize());
+            assertEquals("w w  " + " b   " + "     " + "     " + "     ", game.getData());
+            assertEquals("Последним ходили белые", "b", game.getNextPlayerColor());
+            assertNull("Завершённая игра не восстанавливается", recovered.snapshot(8));
+        } finally {
+            recovered.close();
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void testNewBoardRestartsGame() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        GameSessions sessions = open(directory);
+        sessions.update(3, board("ww..."));
+        sessions.update(3, board("b...."));
+        sessions.close();
+
+        GameSessions recovered = open(directory);
+        assertEquals("b" + "    " + "     " + "     " + "     " + "     ", recovered.snapshot(3).getData());
+        recovered.close();
+    }
+
+    @Test
+    public void testIdleGamesExpire() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        GameSessions sessions = open(directory);
+        sessions.update(1, board("w...."));
+        sessions.update(2, board(".b..."));
+        long now = System.currentTimeMillis();
+
+        sessions.expireIdle(now);
+        assertEquals("Игры без простоя остаются", 2, sessions.size());
+
+        sessions.update(2, board(".bw.."));
+        sessions.expireIdle(now + TTL / 2);
+        assertEquals(2, sessions.size());
+        sessions.expireIdle(now + TTL + 1_000);
+        assertEquals(0, sessions.size());
+        assertNull(sessions.snapshot(1));
+        sessions.close();
+
+        GameSessions recovered = open(directory);
+        assertEquals("Брошенные игры закрыты в журнале", 0, recovered.size());
+        recovered.close();
+    }
+}
@@ -0,0 +1,188 @@
+package com.task2.service.journal;
+
+import com.task2.service.metrics.ServiceMetrics;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для журнала ходов: проигрывание сегментов, смена сегментов,
+ * сжатие и повреждённые записи.
+ */
+public class MoveJournalTest {
+
+    /** Сегмент на четыре записи */
+    private static final int SMALL_SEGMENT = 4 * MoveJournal.RECORD_SIZE;
+
+    /** Фоновый поток почти не работает во время теста: сжатие вызывается явно */
+    private static final long FLUSH_INTERVAL = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static MoveJournal open(Path directory, int segmentBytes, List<MoveJournal.Record> replayed)
+            throws IOException {
+        return new MoveJournal(directory, segmentBytes, 100, FLUSH_INTERVAL, replayed::add);
+    }
+
+    private static List<MoveJournal.Record> replay(Path directory) throws IOException {
+        List<MoveJournal.Record> records = new ArrayList<>();
+        open(directory, SMALL_SEGMENT, records).close();
+        return records;
+    }
+
+    private static Path segment(Path directory, int index) {
+        return directory.resolve(String.format("moves-%08d.journal", index));
+    }
+
+    @Test
+    public void testRecordsReplayAfterReopen() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        MoveJournal journal = open(directory, 1 << 16, new ArrayList<>());
+        journal.append(MoveJournal.START, 42, 7, 0, (char) 0);
+        journal.append(MoveJournal.MOVE, 42, 3, 5, 'W');
+        journal.append(MoveJournal.FINISH, 42, 0, 0, (char) 0);
+        journal.close();
+
+        List<MoveJournal.Record> records = replay(directory);
+
+        assertEquals(3, records.size());
+        assertEquals(MoveJournal.START, records.get(0).type);
+        assertEquals(7, records.get(0).x);
+        MoveJournal.Record move = records.get(1);
+        assertEquals(MoveJournal.MOVE, move.type);
+        assertEquals(42, move.gameId);
+        assertEquals(3, move.x);
+        assertEquals(5, move.y);
+        assertEquals('W', move.color);
+        assertTrue(move.timestamp > 0);
+        assertEquals(MoveJournal.FINISH, records.get(2).type);
+    }
+
+    @Test
+    public void testRecordsSpanSegmentsInOrder() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        MoveJournal journal = open(directory, SMALL_SEGMENT, new ArrayList<>());
+        journal.append(MoveJournal.START, 1, 10, 0, (char) 0);
+        for (int i = 1; i < 22; i++) {
+            journal.append(MoveJournal.MOVE, 1, i, 0, (i % 2 == 0) ? 'W' : 'B');
+        }
+        journal.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue("Записи заняли несколько сегментов", files.count() >= 6);
+        }
+        List<MoveJournal.Record> records = replay(directory);
+        assertEquals(22, records.size());
+        for (int i = 1; i < 22; i++) {
+            assertEquals("Порядок записей сохранён", i, records.get(i).x);
+        }
+    }
+
+    @Test
+    public void testNextSegmentIsPreparedInBackground() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        MoveJournal journal = new MoveJournal(directory, SMALL_SEGMENT, 100, 1, record -> { });
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(segment(directory, 2)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue("Фоновый поток создал следующий сегмент", Files.exists(segment(directory, 2)));
+        // Файл создан до того, как отображение передано журналу
+        Thread.sleep(50);
+
+        Long before = ServiceMetrics.snapshot().get("journal.rolls.unprepared");
+        for (int i = 0; i < 5; i++) {
+            journal.append(MoveJournal.MOVE, 1, i, 0, 'W');
+        }
+        assertEquals("Смена сегмента не создавала файл под замком",
+                before, ServiceMetrics.snapshot().get("journal.rolls.unprepared"));
+        journal.close();
+        assertEquals(5, replay(directory).size());
+    }
+
+    @Test
+    public void testCompactionDropsFinishedGames() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        MoveJournal journal = open(directory, SMALL_SEGMENT, new ArrayList<>());
+        // Сегмент 1
+        journal.append(MoveJournal.START, 1, 5, 0, (char) 0);
+        journal.append(MoveJournal.START, 2, 5, 0, (char) 0);
+        journal.append(MoveJournal.MOVE, 1, 0, 0, 'W');
+        journal.append(MoveJournal.MOVE, 2, 1, 1, 'W');
+        // Сегмент 2
+        journal.append(MoveJournal.FINISH, 1, 0, 0, (char) 0);
+        journal.append(MoveJournal.MOVE, 2, 2, 2, 'B');
+        journal.append(MoveJournal.START, 3, 7, 0, (char) 0);
+        journal.append(MoveJournal.MOVE, 3, 4, 4, 'W');
+        // Активный сегмент 3
+        journal.append(MoveJournal.MOVE, 3, 5, 5, 'B');
+
+        journal.compact();
+        journal.close();
+
+        assertFalse("Сжатые сегменты удалены", Files.exists(segment(directory, 2)));
+        List<MoveJournal.Record> records = replay(directory);
+        assertEquals(6, records.size());
+        for (MoveJournal.Record record : records) {
+            assertNotEquals("Записи завершённой игры выброшены", 1, record.gameId);
+        }
+        assertEquals(2, records.get(0).gameId);
+        assertEquals(MoveJournal.START, records.get(0).type);
+        assertEquals(2, records.get(2).x);
+        assertEquals(3, records.get(3).gameId);
+        assertEquals("Записи активного сегмента идут после сжатых", 5, records.get(5).x);
+    }
+
+    @Test
+    public void testReplayStopsAtBadChecksum() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        MoveJournal journal = open(directory, SMALL_SEGMENT, new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            journal.append(MoveJournal.MOVE, 1, i, 0, 'W');
+        }
+        journal.close();
+
+        // Испорченная координата второй записи первого сегмента
+        try (RandomAccessFile file = new RandomAccessFile(segment(directory, 1).toFile(), "rw")) {
+            file.seek(MoveJournal.RECORD_SIZE + 16);
+            file.writeInt(99);
+        }
+
+        List<MoveJournal.Record> records = replay(directory);
+        assertEquals("Остаток сегмента после повреждения отброшен, следующий сегмент прочитан",
+                5, records.size());
+        assertEquals(0, records.get(0).x);
+        assertEquals(4, records.get(1).x);
+        assertEquals(7, records.get(4).x);
+    }
+
+    @Test
+    public void testReplayStopsAtTornRecord() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        MoveJournal journal = open(directory, 1 << 16, new ArrayList<>());
+        journal.append(MoveJournal.START, 1, 5, 0, (char) 0);
+        journal.append(MoveJournal.MOVE, 1, 2, 2, 'W');
+        journal.close();
+
+        // Недописанная запись: тип записан, остальные поля - нет
+        try (RandomAccessFile file = new RandomAccessFile(segment(directory, 1).toFile(), "rw")) {
+            file.seek(2 * MoveJournal.RECORD_SIZE + 25);
+            file.writeByte(MoveJournal.MOVE);
+        }
+
+        List<MoveJournal.Record> records = replay(directory);
+        assertEquals(2, records.size());
+        assertEquals(2, records.get(1).x);
+    }
+}
@@ -0,0 +1,133 @@
+package com.task2.service.metrics;
+
+import com.task2.service.dto.GameStatsDto;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для статистики партий по правилам и размеру доски.
+ */
+public class GameStatsTest {
+
+    @Before
+    public void reset() {
+        GameStats.reset();
+    }
+
+    @Test
+    public void testInfersStartAndResult() {
+        GameStats.recordStatus("standard", 3, "w........", "ongoing", null);
+        GameStats.recordStatus("standard", 3, "wb.......", "ongoing", null);
+        GameStats.recordStatus("standard", 3, "wwbwwbb..", "finished", "W wins");
+        GameStats.recordStatus("standard", 3, "....b....", "ongoing", null);
+        GameStats.recordStatus("standard", 3, "wbwbwbbwb", "finished", "Draw");
+        GameStats.recordStatus("axis", 5, ".........b", "ongoing", null);
+
+        List<GameStatsDto> stats = GameStats.snapshot();
+
+        assertEquals("Две корзины, по правилам", 2, stats.size());
+        assertEquals("axis", stats.get(0).getRules());
+        GameStatsDto standard = stats.get(1);
+        assertEquals(3, standard.getSize());
+        assertEquals("Начаты две партии", 2, standard.getStarted());
+        assertEquals(2, standard.getFinished());
+        assertEquals(1, standard.getWhiteWins());
+        assertEquals(1, standard.getDraws());
+        assertEquals(0.5, standard.getWhiteWinRate(), 1e-9);
+        assertEquals(0.0, standard.getBlackWinRate(), 1e-9);
+        assertEquals("Среднее (7 + 9) / 2 хода", 8.0, standard.getAverageMoves(), 1e-9);
+    }
+
+    @Test
+    public void testFinishedGameCountedOncePerId() {
+        GameStats.recordStatus("standard", 3, "w........", "ongoing", null, 7L);
+        for (int i = 0; i < 3; i++) {
+            GameStats.recordStatus("standard", 3, "wwbwwbb..", "finished", "W wins", 7L);
+            GameStats.recordStatus("standard", 3, "wbwbwbbwb", "finished", "Draw", null);
+        }
+        // Новая партия под тем же идентификатором
+        GameStats.recordStatus("standard", 3, "....b....", "ongoing", null, 7L);
+        GameStats.recordStatus("standard", 3, "bbwbbww..", "finished", "B wins", 7L);
+
+        GameStatsDto standard = GameStats.snapshot().get(0);
+        assertEquals(2, standard.getStarted());
+        assertEquals("Повторные статусы игры с идентификатором не учтены", 1, standard.getWhiteWins());
+        assertEquals(1, standard.getBlackWins());
+        assertEquals("Игры без идентификатора учитываются при каждом статусе", 3, standard.getDraws());
+    }
+
+    @Test
+    public void testConcurrentFinishedStatusesCountedOnce() throws InterruptedException {
+        int threads = 8;
+        int games = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Все потоки присылают статус одних и тех же законченных игр
+                for (long gameId = 0; gameId < games; gameId++) {
+                    GameStats.recordStatus("standard", 3, "wwbwwbb..", "finished", "W wins", gameId);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals("Конец каждой игры учтён один раз", games, GameStats.snapshot().get(0).getWhiteWins());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        int threads = 8;
+        int games = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < games; i++) {
+                    GameStats.recordStatus("standard", 4 + i % 3, "w", "ongoing", null);
+                    GameStats.recordStatus("standard", 4 + i % 3, "wwbbw", "finished", (i % 2 == 0) ? "B wins" : "W wins");
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        // Снимок во время записи не мешает писателям
+        GameStats.snapshot();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long started = 0;
+        long finished = 0;
+        for (GameStatsDto stats : GameStats.snapshot()) {
+            started += stats.getStarted();
+            finished += stats.getFinished();
+            assertEquals(5.0, stats.getAverageMoves(), 1e-9);
+            assertEquals(0.5, stats.getBlackWinRate(), 0.01);
+        }
+        assertEquals(threads * games, started);
+        assertEquals(threads * games, finished);
+    }
+}
@@ -0,0 +1,80 @@
+package com.task2.service.scheduling;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Юнит-тесты для планировщика полос: отклонение задач при заполненной очереди
+ * и независимость очередей разных полос.
+ */
+public class LaneSchedulerTest {
+
+    /** Наибольшее количество задач, которое заведомо переполняет пакетную полосу */
+    private static final int MAX_TASKS = 100_000;
+
+    /**
+     * Занимает все потоки и всю очередь полосы задачами, которые ждут release.
+     *
+     * @return количество принятых задач
+     */
+    private static int fill(LaneScheduler.Lane lane, CountDownLatch release) {
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        for (int i = 0; i < MAX_TASKS; i++) {
+            if (!LaneScheduler.submit(lane, blocked)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Полоса " + lane.key() + " не ограничена");
+    }
+
+    @Test
+    public void testFullLaneRejectsAndOtherLanesKeepRunning() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            int accepted = fill(LaneScheduler.Lane.BULK, release);
+            assertTrue(accepted > 0);
+            assertFalse("Заполненная полоса отклоняет задачу",
+                    LaneScheduler.submit(LaneScheduler.Lane.BULK, () -> { }));
+
+            // Быстрая полоса обслуживается своими потоками и своей очередью
+            CountDownLatch done = new CountDownLatch(1);
+            assertTrue(LaneScheduler.submit(LaneScheduler.Lane.FAST, done::countDown));
+            assertTrue("Задача быстрой полосы выполнена, пока пакетная занята",
+                    done.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+
+        // После освобождения пакетная полоса снова принимает задачи
+        CountDownLatch done = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!LaneScheduler.submit(LaneScheduler.Lane.BULK, done::countDown)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMoveLanesAreSeparate() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            fill(LaneScheduler.Lane.MOVE_HARD, release);
+            CountDownLatch done = new CountDownLatch(1);
+            assertTrue(LaneScheduler.submit(LaneScheduler.Lane.MOVE_EASY, done::countDown));
+            assertTrue("Лёгкий уровень не ждёт сложный", done.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+}